@@ -1,5 +1,6 @@
 package com.quickbite.analytics.service;
 
+import com.quickbite.orders.driver.DriverPresenceService;
 import com.quickbite.orders.entity.Order;
 import com.quickbite.orders.entity.OrderStatus;
 import com.quickbite.orders.repository.OrderRepository;
@@ -30,13 +31,14 @@ public class AdminReportService {
     private final OrderRepository orderRepository;
     private final UserRepository userRepository;
     private final VendorRepository vendorRepository;
+    private final DriverPresenceService driverPresenceService;
 
     /**
      * Get platform KPIs for the requested period.
      *
      * @param period "daily", "weekly", or "monthly"
      * @return map with totalOrders, totalRevenueCents, totalCustomers, totalVendors,
-     *         totalDrivers, averageDeliveryTime, repeatOrderRate
+     *         totalDrivers, onlineDrivers, averageDeliveryTime, repeatOrderRate
      */
     @Transactional(readOnly = true)
     public Map<String, Object> getPlatformKpis(String period) {
@@ -66,6 +68,7 @@ public class AdminReportService {
                 .filter(u -> u.getRole() != null && "DRIVER".equals(u.getRole().getName()))
                 .count();
         kpis.put("totalDrivers", totalDrivers);
+        kpis.put("onlineDrivers", driverPresenceService.onlineCount());
 
         // Average delivery time in minutes (for delivered orders)
         OptionalDouble avgDelivery = orders.stream()
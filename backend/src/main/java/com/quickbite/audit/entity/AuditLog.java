@@ -1,5 +1,6 @@
 package com.quickbite.audit.entity;
 
+import com.quickbite.common.id.TimeOrderedId;
 import com.quickbite.users.entity.User;
 import jakarta.persistence.*;
 import lombok.*;
@@ -29,7 +30,7 @@ import java.util.UUID;
 public class AuditLog {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     @Column(columnDefinition = "uuid")
     private UUID id;
 
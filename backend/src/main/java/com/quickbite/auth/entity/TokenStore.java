@@ -1,5 +1,6 @@
 package com.quickbite.auth.entity;
 
+import com.quickbite.common.id.TimeOrderedId;
 import com.quickbite.users.entity.User;
 import jakarta.persistence.*;
 import lombok.*;
@@ -27,7 +28,7 @@ import java.util.UUID;
 public class TokenStore {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     @Column(columnDefinition = "uuid")
     private UUID id;
 
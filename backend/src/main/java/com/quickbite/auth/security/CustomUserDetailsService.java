@@ -14,6 +14,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * Custom UserDetailsService implementation for loading user-specific data.
@@ -48,6 +49,25 @@ public class CustomUserDetailsService implements UserDetailsService {
         return buildUserDetails(user);
     }
 
+    /**
+     * Load user by id, for credentials that carry the id instead of the email (stream tickets).
+     *
+     * @param userId user id
+     * @return UserDetails
+     * @throws UsernameNotFoundException if user not found or deactivated
+     */
+    @Transactional(readOnly = true)
+    public UserDetails loadUserById(UUID userId) throws UsernameNotFoundException {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + userId));
+
+        if (!user.getActive()) {
+            throw new UsernameNotFoundException("User account is deactivated: " + user.getEmail());
+        }
+
+        return buildUserDetails(user);
+    }
+
     /**
      * Convert User entity to Spring Security UserDetails.
      *
@@ -16,18 +16,28 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * JWT Authentication Filter that validates JWT tokens on each request.
  * Extracts token from Authorization header and sets authentication in SecurityContext.
+ * Browser EventSource can't set headers, so the order event stream also accepts a single-use
+ * {@link StreamTicketService} ticket as a {@code ticket} query parameter; the JWT itself is
+ * never read from the query string.
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final Pattern EVENT_STREAM_PATH = Pattern.compile("^/api/orders/([^/]+)/events$");
+
     private final JwtTokenProvider jwtTokenProvider;
     private final CustomUserDetailsService userDetailsService;
+    private final StreamTicketService streamTicketService;
 
     @Override
     protected void doFilterInternal(
@@ -38,7 +48,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = extractJwtFromRequest(request);
 
-            if (jwt != null && jwtTokenProvider.validateToken(jwt)) {
+            if (jwt == null) {
+                authenticateStreamTicket(request);
+            } else if (jwtTokenProvider.validateToken(jwt)) {
                 // Ensure it's an access token, not a refresh token
                 String tokenType = jwtTokenProvider.getTokenType(jwt);
                 if (!"access".equals(tokenType)) {
@@ -74,6 +86,42 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Authenticate an order event stream request by its {@code ticket} query parameter.
+     * The ticket is consumed even if the request then fails, so it cannot be replayed.
+     *
+     * @param request HTTP request
+     */
+    private void authenticateStreamTicket(HttpServletRequest request) {
+        String ticket = request.getParameter("ticket");
+        if (!StringUtils.hasText(ticket) || !"GET".equals(request.getMethod())) {
+            return;
+        }
+        Matcher path = EVENT_STREAM_PATH.matcher(request.getRequestURI());
+        if (!path.matches()) {
+            return;
+        }
+        UUID orderId;
+        try {
+            orderId = UUID.fromString(path.group(1));
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        Optional<UUID> userId = streamTicketService.redeem(ticket, orderId);
+        if (userId.isEmpty()) {
+            log.warn("Rejected stream ticket for order {}", orderId);
+            return;
+        }
+
+        UserDetails userDetails = userDetailsService.loadUserById(userId.get());
+        UsernamePasswordAuthenticationToken authentication =
+            new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+
+        log.debug("Set stream ticket authentication for user {} on order {}", userId.get(), orderId);
+    }
+
     /**
      * Extract JWT token from Authorization header.
      *
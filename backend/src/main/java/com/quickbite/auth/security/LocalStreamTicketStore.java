@@ -0,0 +1,52 @@
+package com.quickbite.auth.security;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process tickets. A ticket issued by one instance cannot be redeemed on another, so this
+ * is only usable with a single replica.
+ * Active when sse.order-events.ticket-store=local (default).
+ */
+@Component
+@ConditionalOnProperty(name = "sse.order-events.ticket-store", havingValue = "local", matchIfMissing = true)
+public class LocalStreamTicketStore implements StreamTicketStore {
+
+    private final Map<String, Entry> tickets = new ConcurrentHashMap<>();
+
+    @Override
+    public void put(String ticket, StreamTicket value, Duration ttl) {
+        tickets.put(ticket, new Entry(value, System.currentTimeMillis() + ttl.toMillis()));
+    }
+
+    @Override
+    public Optional<StreamTicket> take(String ticket) {
+        Entry entry = tickets.remove(ticket);
+        if (entry == null || entry.deadline <= System.currentTimeMillis()) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.value);
+    }
+
+    /**
+     * Drop tickets that were never redeemed.
+     */
+    @Scheduled(fixedDelay = 60_000, initialDelay = 60_000)
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        tickets.values().removeIf(entry -> entry.deadline <= now);
+    }
+
+    int size() {
+        return tickets.size();
+    }
+
+    private record Entry(StreamTicket value, long deadline) {
+    }
+}
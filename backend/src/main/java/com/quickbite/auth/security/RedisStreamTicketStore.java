@@ -0,0 +1,52 @@
+package com.quickbite.auth.security;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Redis-backed tickets shared by all replicas: one key {@code sse:ticket:<ticket>} per ticket
+ * holding {@code "<userId> <orderId>"} with the ticket TTL. Redeeming is a Lua GET + DEL, so
+ * two replicas racing on the same ticket cannot both get it.
+ * Active when sse.order-events.ticket-store=redis.
+ */
+@Component
+@ConditionalOnProperty(name = "sse.order-events.ticket-store", havingValue = "redis")
+public class RedisStreamTicketStore implements StreamTicketStore {
+
+    private static final String KEY_PREFIX = "sse:ticket:";
+
+    private static final DefaultRedisScript<String> TAKE = new DefaultRedisScript<>("""
+            local value = redis.call('GET', KEYS[1])
+            if value then redis.call('DEL', KEYS[1]) end
+            return value
+            """, String.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisStreamTicketStore(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public void put(String ticket, StreamTicket value, Duration ttl) {
+        redisTemplate.opsForValue().set(KEY_PREFIX + ticket, value.userId() + " " + value.orderId(), ttl);
+    }
+
+    @Override
+    public Optional<StreamTicket> take(String ticket) {
+        String value = redisTemplate.execute(TAKE, List.of(KEY_PREFIX + ticket));
+        if (value == null) {
+            return Optional.empty();
+        }
+        int space = value.indexOf(' ');
+        return Optional.of(new StreamTicket(UUID.fromString(value.substring(0, space)),
+                UUID.fromString(value.substring(space + 1))));
+    }
+}
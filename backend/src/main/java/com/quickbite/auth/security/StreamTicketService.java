@@ -0,0 +1,81 @@
+package com.quickbite.auth.security;
+
+import com.quickbite.auth.security.StreamTicketStore.StreamTicket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Short-lived, single-use tickets for the order event stream.
+ * <p>
+ * Browser EventSource cannot set an Authorization header, and a JWT in the query string ends up
+ * in access logs, proxies and browser history for its whole lifetime. Instead the client posts
+ * to {@code /api/orders/{id}/events/ticket} with its JWT and opens
+ * {@code /api/orders/{id}/events?ticket=...}: the ticket is opaque, valid for
+ * {@code sse.order-events.ticket-ttl-seconds}, bound to one user and order, and consumed by
+ * the first request that presents it. Each reconnect needs a fresh ticket.
+ */
+@Service
+public class StreamTicketService {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final StreamTicketStore store;
+    private final SecureRandom random = new SecureRandom();
+
+    // Metrics
+    private final Counter issuedCounter;
+    private final Counter rejectedCounter;
+
+    @Value("${sse.order-events.ticket-ttl-seconds:30}")
+    private long ttlSeconds = 30;
+
+    public StreamTicketService(StreamTicketStore store, MeterRegistry meterRegistry) {
+        this.store = store;
+        this.issuedCounter = Counter.builder("sse.order-events.tickets.issued")
+                .description("Order event stream tickets issued")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("sse.order-events.tickets.rejected")
+                .description("Unknown, expired, reused or mismatched stream tickets presented")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Issue a ticket opening the given order's event stream as the given user.
+     */
+    public String issue(UUID userId, UUID orderId) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String ticket = ENCODER.encodeToString(bytes);
+        store.put(ticket, new StreamTicket(userId, orderId), ttl());
+        issuedCounter.increment();
+        return ticket;
+    }
+
+    /**
+     * Consume a ticket for the given order.
+     *
+     * @return the user the ticket was issued to, or empty if it is unknown, expired, already
+     * used or issued for another order
+     */
+    public Optional<UUID> redeem(String ticket, UUID orderId) {
+        Optional<UUID> userId = store.take(ticket)
+                .filter(issued -> issued.orderId().equals(orderId))
+                .map(StreamTicket::userId);
+        if (userId.isEmpty()) {
+            rejectedCounter.increment();
+        }
+        return userId;
+    }
+
+    public Duration ttl() {
+        return Duration.ofSeconds(ttlSeconds);
+    }
+}
@@ -0,0 +1,27 @@
+package com.quickbite.auth.security;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Pending stream tickets backing {@link StreamTicketService}.
+ * <p>
+ * A ticket is stored until its TTL lapses or it is taken; {@link #take} removes it atomically,
+ * so each ticket is redeemed at most once even when several replicas receive it.
+ */
+public interface StreamTicketStore {
+
+    void put(String ticket, StreamTicket value, Duration ttl);
+
+    /**
+     * Remove and return an unexpired ticket.
+     */
+    Optional<StreamTicket> take(String ticket);
+
+    /**
+     * The user a ticket authenticates and the order stream it opens.
+     */
+    record StreamTicket(UUID userId, UUID orderId) {
+    }
+}
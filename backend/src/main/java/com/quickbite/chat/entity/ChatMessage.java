@@ -1,5 +1,6 @@
 package com.quickbite.chat.entity;
 
+import com.quickbite.common.id.TimeOrderedId;
 import com.quickbite.users.entity.User;
 import jakarta.persistence.*;
 import lombok.*;
@@ -25,7 +26,7 @@ import java.util.UUID;
 public class ChatMessage {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     @Column(columnDefinition = "uuid")
     private UUID id;
 
@@ -0,0 +1,60 @@
+package com.quickbite.chat.entity;
+
+import com.quickbite.users.entity.User;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * One participant's view of a chat room for the inbox: last message preview and the
+ * participant's unread count. Written only through {@code ChatRoomSummaryRepository}'s
+ * update statements, in the same transaction as the message insert or mark-read.
+ */
+@Entity
+@Immutable
+@IdClass(ChatRoomSummary.Key.class)
+@Table(name = "chat_room_summaries", indexes = {
+    @Index(name = "idx_chat_room_summaries_user_recent", columnList = "user_id, last_message_at DESC, room_id DESC")
+})
+@Getter
+@NoArgsConstructor
+public class ChatRoomSummary {
+
+    @Id
+    @Column(name = "room_id", columnDefinition = "uuid")
+    private UUID roomId;
+
+    @Id
+    @Column(name = "user_id", columnDefinition = "uuid")
+    private UUID userId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "room_id", insertable = false, updatable = false)
+    private ChatRoom room;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "other_user_id", nullable = false)
+    private User otherUser;
+
+    @Column(name = "last_message")
+    private String lastMessage;
+
+    @Column(name = "last_message_at")
+    private OffsetDateTime lastMessageAt;
+
+    @Column(name = "unread_count", nullable = false)
+    private int unreadCount;
+
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private UUID roomId;
+        private UUID userId;
+    }
+}
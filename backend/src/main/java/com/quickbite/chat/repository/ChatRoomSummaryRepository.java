@@ -0,0 +1,77 @@
+package com.quickbite.chat.repository;
+
+import com.quickbite.chat.entity.ChatRoomSummary;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Access to the per-participant chat inbox summaries (see V42).
+ * Rows are only changed through the update statements below, each a single statement so the
+ * summary commits or rolls back with the message insert / mark-read around it.
+ */
+public interface ChatRoomSummaryRepository extends Repository<ChatRoomSummary, ChatRoomSummary.Key> {
+
+    /**
+     * A user's inbox, most recent activity first, with the room and the other participant
+     * fetched in the same query. Served by idx_chat_room_summaries_user_recent.
+     */
+    @Query("SELECT s FROM ChatRoomSummary s JOIN FETCH s.room JOIN FETCH s.otherUser " +
+           "WHERE s.userId = :userId ORDER BY s.lastMessageAt DESC NULLS LAST, s.roomId DESC")
+    List<ChatRoomSummary> findInbox(@Param("userId") UUID userId);
+
+    /**
+     * Create any missing summary rows for a room's two participants, computed from the room's
+     * messages. Used when a room is created and as a fallback for rooms that predate V42.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO chat_room_summaries (room_id, user_id, other_user_id, last_message, last_message_at, unread_count)
+            SELECT r.id, p.user_id, p.other_user_id, LEFT(lm.content, 200), lm.created_at,
+                   (SELECT COUNT(*) FROM chat_messages m
+                    WHERE m.room_id = r.id AND m.read = FALSE AND m.sender_id <> p.user_id)
+            FROM chat_rooms r
+            CROSS JOIN LATERAL (VALUES (r.participant1_id, r.participant2_id),
+                                       (r.participant2_id, r.participant1_id)) AS p(user_id, other_user_id)
+            LEFT JOIN LATERAL (SELECT m.content, m.created_at FROM chat_messages m
+                               WHERE m.room_id = r.id ORDER BY m.created_at DESC LIMIT 1) lm ON TRUE
+            WHERE r.id = :roomId
+            ON CONFLICT (room_id, user_id) DO NOTHING
+            """, nativeQuery = true)
+    int insertMissing(@Param("roomId") UUID roomId);
+
+    /**
+     * Record a new message on both participants' rows: the preview moves forward (an older
+     * message committing late never replaces a newer one) and every participant other than
+     * the sender gets one more unread.
+     *
+     * @return rows updated; fewer than two means the room's summaries are missing
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE chat_room_summaries
+            SET last_message = CASE WHEN last_message_at IS NULL OR last_message_at <= :at
+                                    THEN :preview ELSE last_message END,
+                last_message_at = GREATEST(last_message_at, :at),
+                unread_count = unread_count + CASE WHEN user_id = :senderId THEN 0 ELSE 1 END
+            WHERE room_id = :roomId
+            """, nativeQuery = true)
+    int recordMessage(@Param("roomId") UUID roomId,
+                      @Param("senderId") UUID senderId,
+                      @Param("preview") String preview,
+                      @Param("at") OffsetDateTime at);
+
+    /**
+     * Reset a participant's unread count for a room. Always writes the row, even when the count
+     * is already zero, so the caller holds its lock for the rest of the transaction.
+     */
+    @Modifying
+    @Query(value = "UPDATE chat_room_summaries SET unread_count = 0 " +
+                   "WHERE room_id = :roomId AND user_id = :userId", nativeQuery = true)
+    int clearUnread(@Param("roomId") UUID roomId, @Param("userId") UUID userId);
+}
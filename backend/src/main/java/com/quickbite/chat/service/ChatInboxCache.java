@@ -0,0 +1,87 @@
+package com.quickbite.chat.service;
+
+import com.quickbite.chat.dto.ChatRoomDTO;
+import com.quickbite.common.transaction.AfterCommit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Optional cache of each user's chat inbox in the {@value #CACHE_NAME} cache, for clients that
+ * poll it. Off by default ({@code chat.inbox.cache.enabled}) and a pass-through when no
+ * CacheManager is configured. Entries are evicted after the transaction that sent a message
+ * or marked a room read commits, so a concurrent poll cannot re-cache the pre-commit inbox;
+ * the cache TTL bounds anything missed.
+ */
+@Slf4j
+@Component
+public class ChatInboxCache {
+
+    static final String CACHE_NAME = "chatInbox";
+
+    private final ObjectProvider<CacheManager> cacheManager;
+
+    @Value("${chat.inbox.cache.enabled:false}")
+    private boolean enabled;
+
+    public ChatInboxCache(ObjectProvider<CacheManager> cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<ChatRoomDTO> get(UUID userId, Supplier<List<ChatRoomDTO>> loader) {
+        Cache cache = cache();
+        if (cache == null) {
+            return loader.get();
+        }
+        try {
+            List<ChatRoomDTO> cached = cache.get(userId, List.class);
+            if (cached != null) {
+                return cached;
+            }
+        } catch (Exception e) {
+            log.warn("Failed to read chat inbox cache: {}", e.getMessage());
+            return loader.get();
+        }
+        // ArrayList so the entry round-trips through the Redis JSON serializer
+        List<ChatRoomDTO> rooms = new ArrayList<>(loader.get());
+        try {
+            cache.put(userId, rooms);
+        } catch (Exception e) {
+            log.warn("Failed to write chat inbox cache: {}", e.getMessage());
+        }
+        return rooms;
+    }
+
+    /**
+     * Drop the given users' cached inboxes once the surrounding transaction commits.
+     */
+    public void evictAfterCommit(UUID... userIds) {
+        Cache cache = cache();
+        if (cache == null) {
+            return;
+        }
+        // On failure the entry expires on its TTL
+        AfterCommit.run("evict chat inbox cache", () -> {
+            for (UUID userId : userIds) {
+                cache.evict(userId);
+            }
+        });
+    }
+
+    private Cache cache() {
+        if (!enabled) {
+            return null;
+        }
+        CacheManager manager = cacheManager.getIfAvailable();
+        return manager != null ? manager.getCache(CACHE_NAME) : null;
+    }
+}
@@ -4,8 +4,10 @@ import com.quickbite.chat.dto.ChatMessageDTO;
 import com.quickbite.chat.dto.ChatRoomDTO;
 import com.quickbite.chat.entity.ChatMessage;
 import com.quickbite.chat.entity.ChatRoom;
+import com.quickbite.chat.entity.ChatRoomSummary;
 import com.quickbite.chat.repository.ChatMessageRepository;
 import com.quickbite.chat.repository.ChatRoomRepository;
+import com.quickbite.chat.repository.ChatRoomSummaryRepository;
 import com.quickbite.notifications.entity.NotificationType;
 import com.quickbite.notifications.service.NotificationService;
 import com.quickbite.users.entity.User;
@@ -24,14 +26,21 @@ import java.util.stream.Collectors;
 
 /**
  * Service for chat room and message operations.
+ * The inbox ({@link #getUserRooms}) is read from per-participant room summaries that
+ * {@link #sendMessage} and {@link #markRead} keep current in the same transaction.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ChatService {
 
+    /** Characters of the last message kept for the inbox preview (matches V42's backfill). */
+    static final int PREVIEW_LENGTH = 200;
+
     private final ChatRoomRepository chatRoomRepository;
     private final ChatMessageRepository chatMessageRepository;
+    private final ChatRoomSummaryRepository chatRoomSummaryRepository;
+    private final ChatInboxCache chatInboxCache;
     private final UserRepository userRepository;
     private final SimpMessagingTemplate messagingTemplate;
     private final NotificationService notificationService;
@@ -56,7 +65,10 @@ public class ChatService {
                             .build();
 
                     log.info("Creating chat room for order {} type {} between {} and {}", orderId, roomType, userId, otherUserId);
-                    return chatRoomRepository.save(room);
+                    ChatRoom saved = chatRoomRepository.saveAndFlush(room);
+                    chatRoomSummaryRepository.insertMissing(saved.getId());
+                    chatInboxCache.evictAfterCommit(userId, otherUserId);
+                    return saved;
                 });
     }
 
@@ -81,7 +93,13 @@ public class ChatService {
                 .content(content)
                 .build();
 
-        ChatMessage saved = chatMessageRepository.save(message);
+        ChatMessage saved = chatMessageRepository.saveAndFlush(message);
+
+        // Both participants' inbox rows in one statement; rooms without rows get them built from their messages
+        int summaries = chatRoomSummaryRepository.recordMessage(roomId, senderId, preview(content), saved.getCreatedAt());
+        if (summaries < 2) {
+            chatRoomSummaryRepository.insertMissing(roomId);
+        }
 
         // Broadcast to WebSocket subscribers
         ChatMessageDTO dto = toMessageDTO(saved);
@@ -92,7 +110,8 @@ public class ChatService {
         UUID recipientId = room.getParticipant1().getId().equals(senderId)
                 ? room.getParticipant2().getId()
                 : room.getParticipant1().getId();
-        
+        chatInboxCache.evictAfterCommit(senderId, recipientId);
+
         try {
             notificationService.createNotification(
                 recipientId,
@@ -129,20 +148,23 @@ public class ChatService {
      */
     @Transactional
     public void markRead(UUID roomId, UUID userId) {
+        // Summary first: the reset always locks the summary row (even at zero unread), which orders
+        // this against a concurrent sendMessage, so a message committed before the reset is also
+        // marked read below and one committed after it is counted
+        chatRoomSummaryRepository.clearUnread(roomId, userId);
         int updated = chatMessageRepository.markAllAsRead(roomId, userId);
         log.debug("Marked {} messages as read in room {} for user {}", updated, roomId, userId);
+        chatInboxCache.evictAfterCommit(userId);
     }
 
     /**
-     * Get all chat rooms for a user.
+     * Get all chat rooms for a user, most recent activity first.
+     * One query against the room summaries; not transactional so a cache hit needs no connection.
      */
-    @Transactional(readOnly = true)
     public List<ChatRoomDTO> getUserRooms(UUID userId) {
-        List<ChatRoom> rooms = chatRoomRepository.findByParticipant1IdOrParticipant2Id(userId, userId);
-
-        return rooms.stream()
-                .map(room -> toRoomDTO(room, userId))
-                .collect(Collectors.toList());
+        return chatInboxCache.get(userId, () -> chatRoomSummaryRepository.findInbox(userId).stream()
+                .map(this::toRoomDTO)
+                .collect(Collectors.toList()));
     }
 
     // ========== Mapping Helpers ==========
@@ -159,25 +181,9 @@ public class ChatService {
                 .build();
     }
 
-    private ChatRoomDTO toRoomDTO(ChatRoom room, UUID userId) {
-        User otherUser = room.getParticipant1().getId().equals(userId)
-                ? room.getParticipant2()
-                : room.getParticipant1();
-
-        // Fetch last message for preview
-        Page<ChatMessage> lastMsgPage = chatMessageRepository
-                .findByRoomIdOrderByCreatedAtDesc(room.getId(), PageRequest.of(0, 1));
-
-        String lastMessage = null;
-        java.time.OffsetDateTime lastMessageAt = null;
-        if (lastMsgPage.hasContent()) {
-            ChatMessage lastMsg = lastMsgPage.getContent().get(0);
-            lastMessage = lastMsg.getContent();
-            lastMessageAt = lastMsg.getCreatedAt();
-        }
-
-        long unreadCount = chatMessageRepository
-                .countByRoomIdAndReadFalseAndSenderIdNot(room.getId(), userId);
+    private ChatRoomDTO toRoomDTO(ChatRoomSummary summary) {
+        ChatRoom room = summary.getRoom();
+        User otherUser = summary.getOtherUser();
 
         return ChatRoomDTO.builder()
                 .id(room.getId())
@@ -186,10 +192,14 @@ public class ChatService {
                 .otherUserName(otherUser.getName())
                 .roomType(room.getRoomType())
                 .closed(Boolean.TRUE.equals(room.getClosed()))
-                .lastMessage(lastMessage)
-                .lastMessageAt(lastMessageAt)
-                .unreadCount(unreadCount)
+                .lastMessage(summary.getLastMessage())
+                .lastMessageAt(summary.getLastMessageAt())
+                .unreadCount(summary.getUnreadCount())
                 .createdAt(room.getCreatedAt())
                 .build();
     }
+
+    private static String preview(String content) {
+        return content.length() > PREVIEW_LENGTH ? content.substring(0, PREVIEW_LENGTH) : content;
+    }
 }
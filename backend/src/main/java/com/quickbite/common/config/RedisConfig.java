@@ -51,7 +51,8 @@ public class RedisConfig {
                 "vendors", defaultConfig.entryTtl(Duration.ofMinutes(5)),
                 "vendorById", defaultConfig.entryTtl(Duration.ofMinutes(5)),
                 "menus", defaultConfig.entryTtl(Duration.ofMinutes(3)),
-                "vendorSearch", defaultConfig.entryTtl(Duration.ofMinutes(2))
+                "vendorSearch", defaultConfig.entryTtl(Duration.ofMinutes(2)),
+                "chatInbox", defaultConfig.entryTtl(Duration.ofSeconds(30))
         );
 
         return RedisCacheManager.builder(redisConnectionFactory)
@@ -6,8 +6,11 @@ import com.quickbite.common.dto.ApiResponse;
 import com.quickbite.orders.exception.BusinessException;
 import com.quickbite.orders.exception.InvalidTransitionException;
 import com.quickbite.orders.exception.OrderNotFoundException;
+import com.quickbite.orders.exception.TransitionConflictException;
+import com.quickbite.orders.service.TransitionResult;
 import io.jsonwebtoken.JwtException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -143,6 +146,45 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
     }
 
+    /**
+     * Handle lost status-transition races (compare-and-set found a different status).
+     * Same detail shape as invalid transitions, with 409 so clients reload and retry.
+     */
+    @ExceptionHandler(TransitionConflictException.class)
+    public ResponseEntity<ApiResponse<Map<String, String>>> handleTransitionConflictException(
+            TransitionConflictException ex, WebRequest request) {
+
+        log.warn("Transition conflict: {}", ex.getMessage());
+
+        TransitionResult result = ex.getResult();
+        Map<String, String> details = Map.of(
+                "currentStatus", result.current() != null ? result.current().name() : "",
+                "targetStatus", result.target() != null ? result.target().name() : "",
+                "reason", result.outcome().name()
+        );
+
+        ApiResponse<Map<String, String>> response = ApiResponse.<Map<String, String>>builder()
+                .success(false)
+                .message(ex.getMessage())
+                .data(details)
+                .build();
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
+    /**
+     * Handle optimistic lock failures (entity version changed since it was read).
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponse<Void>> handleOptimisticLockingFailureException(
+            OptimisticLockingFailureException ex, WebRequest request) {
+
+        log.warn("Optimistic lock failure: {}", ex.getMessage());
+
+        ApiResponse<Void> response = ApiResponse.error("The resource was modified concurrently. Please reload and retry.");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
     /**
      * Handle business logic exceptions.
      */
@@ -0,0 +1,19 @@
+package com.quickbite.common.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a UUID primary key as generated by {@link TimeOrderedIdGenerator} (UUIDv7).
+ * Use in place of {@code @GeneratedValue(strategy = GenerationType.UUID)}, whose random
+ * v4 keys scatter inserts across the primary-key B-tree.
+ */
+@IdGeneratorType(TimeOrderedIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface TimeOrderedId {
+}
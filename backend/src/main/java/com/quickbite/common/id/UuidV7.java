@@ -0,0 +1,56 @@
+package com.quickbite.common.id;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered UUID version 7 (RFC 9562) generator.
+ * <p>
+ * Layout: 48-bit Unix epoch milliseconds, version, 12-bit sub-millisecond counter,
+ * variant, 62 random bits. The timestamp + counter pair is advanced with a CAS loop,
+ * so IDs from one JVM are strictly increasing even within the same millisecond or if
+ * the wall clock steps backwards (the counter then borrows from the next millisecond).
+ * <p>
+ * Random bits come from {@link ThreadLocalRandom}: keys are unique and index-friendly,
+ * not secret — access control never relies on an ID being unguessable.
+ */
+public final class UuidV7 {
+
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+
+    /** Last issued (unixMillis << 12 | counter). */
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private UuidV7() {
+    }
+
+    public static UUID next() {
+        return next(System.currentTimeMillis());
+    }
+
+    static UUID next(long unixMillis) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long stamp;
+        while (true) {
+            long prev = LAST.get();
+            long fresh = unixMillis << COUNTER_BITS;
+            // New millisecond: start the counter in its lower half so there is headroom for bursts
+            stamp = fresh > prev ? fresh | random.nextLong(COUNTER_MASK >>> 1) : prev + 1;
+            if (LAST.compareAndSet(prev, stamp)) break;
+        }
+
+        long millis = stamp >>> COUNTER_BITS;
+        long msb = (millis << 16) | 0x7000L | (stamp & COUNTER_MASK);
+        long lsb = (random.nextLong() & 0x3FFF_FFFF_FFFF_FFFFL) | 0x8000_0000_0000_0000L;
+        return new UUID(msb, lsb);
+    }
+
+    /**
+     * Unix epoch milliseconds encoded in a version 7 UUID.
+     */
+    public static long timestampMillis(UUID uuid) {
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+}
@@ -38,6 +38,7 @@ public class IdempotencyFilter extends OncePerRequestFilter {
      */
     private static final Set<String> PROTECTED_ENDPOINTS = Set.of(
             "/api/orders",
+            "/api/orders/batch",
             "/api/payments/intent"
     );
 
@@ -27,15 +27,15 @@ public class DataRetentionScheduler {
     @Value("${retention.audit-log-days:90}")
     private int auditLogRetentionDays;
 
-    @Value("${retention.driver-location-days:30}")
-    private int driverLocationRetentionDays;
-
     @Value("${retention.webhook-events-days:60}")
     private int webhookEventsRetentionDays;
 
     @Value("${retention.notification-days:60}")
     private int notificationRetentionDays;
 
+    @Value("${retention.order-outbox-days:7}")
+    private int orderOutboxRetentionDays;
+
     /**
      * Run data retention daily at 3 AM (server time).
      */
@@ -51,8 +51,7 @@ public class DataRetentionScheduler {
         // 1. Purge old audit log entries
         purgeTable("audit_logs", "created_at", auditLogRetentionDays);
 
-        // 2. Purge old driver location samples
-        purgeTable("driver_locations", "recorded_at", driverLocationRetentionDays);
+        // 2. Driver location samples: expired partitions are dropped by DriverLocationPartitionManager
 
         // 3. Purge processed webhook events
         purgeProcessedWebhooks(webhookEventsRetentionDays);
@@ -69,6 +68,9 @@ public class DataRetentionScheduler {
         // 7. Purge expired idempotency keys
         purgeTable("idempotency_keys", "expires_at", 0);
 
+        // 8. Purge delivered order outbox events
+        purgeDispatchedOutbox(orderOutboxRetentionDays);
+
         log.info("Data retention enforcement complete");
     }
 
@@ -114,6 +116,20 @@ public class DataRetentionScheduler {
         }
     }
 
+    private void purgeDispatchedOutbox(int retentionDays) {
+        try {
+            OffsetDateTime cutoff = OffsetDateTime.now().minusDays(retentionDays);
+            int deleted = jdbcTemplate.update(
+                    "DELETE FROM order_outbox WHERE status = 'SENT' AND dispatched_at < ?", cutoff);
+            if (deleted > 0) {
+                logRetention("order_outbox", deleted, retentionDays);
+                log.info("Purged {} dispatched outbox events (older than {} days)", deleted, retentionDays);
+            }
+        } catch (Exception e) {
+            log.warn("Order outbox retention purge failed: {}", e.getMessage());
+        }
+    }
+
     private void logRetention(String tableName, int recordsDeleted, int retentionDays) {
         try {
             jdbcTemplate.update(
@@ -0,0 +1,40 @@
+package com.quickbite.common.transaction;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Runs best-effort side effects (cache, index and counter updates) once the surrounding
+ * transaction commits, or right away outside a transaction. A failing action is logged and
+ * swallowed, so callers must keep state that heals on its own — a TTL or a reconciliation.
+ */
+@Slf4j
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    /**
+     * @param description what the action does, for the warning logged when it fails
+     */
+    public static void run(String description, Runnable action) {
+        Runnable safe = () -> {
+            try {
+                action.run();
+            } catch (Exception e) {
+                log.warn("Failed to {}: {}", description, e.getMessage());
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    safe.run();
+                }
+            });
+        } else {
+            safe.run();
+        }
+    }
+}
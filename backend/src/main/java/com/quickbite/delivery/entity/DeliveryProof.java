@@ -1,5 +1,6 @@
 package com.quickbite.delivery.entity;
 
+import com.quickbite.common.id.TimeOrderedId;
 import com.quickbite.users.entity.User;
 import com.quickbite.orders.entity.Order;
 import jakarta.persistence.*;
@@ -24,7 +25,7 @@ import java.util.UUID;
 public class DeliveryProof {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     @Column(columnDefinition = "uuid")
     private UUID id;
 
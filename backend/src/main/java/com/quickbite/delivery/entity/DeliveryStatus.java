@@ -1,5 +1,6 @@
 package com.quickbite.delivery.entity;
 
+import com.quickbite.common.id.TimeOrderedId;
 import com.quickbite.orders.entity.Order;
 import com.quickbite.orders.entity.OrderStatus;
 import jakarta.persistence.*;
@@ -27,7 +28,7 @@ import java.util.UUID;
 public class DeliveryStatus {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     @Column(columnDefinition = "uuid")
     private UUID id;
 
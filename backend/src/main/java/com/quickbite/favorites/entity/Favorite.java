@@ -1,5 +1,6 @@
 package com.quickbite.favorites.entity;
 
+import com.quickbite.common.id.TimeOrderedId;
 import com.quickbite.users.entity.User;
 import com.quickbite.vendors.entity.Vendor;
 import jakarta.persistence.*;
@@ -23,7 +24,7 @@ import java.util.UUID;
 public class Favorite {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     @Column(columnDefinition = "uuid")
     private UUID id;
 
@@ -1,8 +1,14 @@
 package com.quickbite.orders.controller;
 
 import com.quickbite.common.dto.ApiResponse;
+import com.quickbite.common.pagination.CursorPage;
+import com.quickbite.orders.dto.OrderResponseDTO;
 import com.quickbite.orders.entity.EventTimeline;
+import com.quickbite.orders.entity.OrderStatus;
+import com.quickbite.orders.projection.OrderSummaryProjector;
+import com.quickbite.orders.repository.OrderListFilter;
 import com.quickbite.orders.service.EventTimelineService;
+import com.quickbite.orders.service.OrderService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -21,6 +27,58 @@ import java.util.UUID;
 public class AdminOrderController {
 
     private final EventTimelineService eventTimelineService;
+    private final OrderService orderService;
+    private final OrderSummaryProjector orderSummaryProjector;
+
+    /**
+     * List all orders (newest first) with keyset pagination and optional filters.
+     * Omit {@code cursor} for the first page, then pass the returned {@code nextCursor}.
+     */
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<CursorPage<OrderResponseDTO>>> listOrders(
+            @RequestParam(required = false) UUID customerId,
+            @RequestParam(required = false) UUID vendorId,
+            @RequestParam(required = false) UUID driverId,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        CursorPage<OrderResponseDTO> orders = orderService.listOrdersAfter(
+                new OrderListFilter(customerId, vendorId, driverId, status), cursor, size, includeTotal);
+        return ResponseEntity.ok(ApiResponse.success(orders));
+    }
+
+    /**
+     * Rebuild the order_summary projection from orders (chunked; safe to run while live).
+     */
+    @PostMapping("/summary/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Long>>> rebuildSummaries() {
+        long rows = orderSummaryProjector.rebuild();
+        return ResponseEntity.ok(ApiResponse.success("Order summary rebuilt", Map.of("rows", rows)));
+    }
+
+    /**
+     * Compare order_summary with orders updated in the last {@code hours} (all orders when omitted).
+     */
+    @GetMapping("/summary/consistency")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<OrderSummaryProjector.ConsistencyReport>> checkSummaryConsistency(
+            @RequestParam(required = false) Integer hours) {
+        return ResponseEntity.ok(ApiResponse.success(orderSummaryProjector.checkConsistency(hours, false)));
+    }
+
+    /**
+     * Same comparison as the consistency check, re-projecting every stale or missing row found.
+     */
+    @PostMapping("/summary/repair")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<OrderSummaryProjector.ConsistencyReport>> repairSummaries(
+            @RequestParam(required = false) Integer hours) {
+        return ResponseEntity.ok(ApiResponse.success(orderSummaryProjector.checkConsistency(hours, true)));
+    }
 
     /**
      * Get the full audit timeline for an order.
@@ -1,15 +1,21 @@
 package com.quickbite.orders.controller;
 
 import com.quickbite.common.dto.ApiResponse;
-import com.quickbite.delivery.entity.DeliveryStatus;
-import com.quickbite.delivery.repository.DeliveryStatusRepository;
+import com.quickbite.common.pagination.CursorPage;
+import com.quickbite.orders.driver.ActiveDelivery;
+import com.quickbite.orders.driver.ActiveDeliveryCache;
+import com.quickbite.orders.driver.AvailableOrderIndex;
+import com.quickbite.orders.driver.DriverGeoIndex;
 import com.quickbite.orders.driver.DriverLocationDTO;
+import com.quickbite.orders.driver.DriverLocationIngest;
 import com.quickbite.orders.driver.DriverLocationService;
+import com.quickbite.orders.driver.DriverPresenceService;
 import com.quickbite.orders.driver.DriverProfileDTO;
 import com.quickbite.orders.driver.DriverProfileService;
 import com.quickbite.orders.dto.OrderResponseDTO;
 import com.quickbite.orders.entity.Order;
 import com.quickbite.orders.entity.OrderStatus;
+import com.quickbite.orders.repository.OrderListFilter;
 import com.quickbite.orders.repository.OrderRepository;
 import com.quickbite.orders.service.OrderService;
 import com.quickbite.websocket.OrderUpdatePublisher;
@@ -25,7 +31,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -41,25 +47,52 @@ import java.util.stream.Collectors;
 @SecurityRequirement(name = "bearerAuth")
 public class DriverController {
 
+    private static final int MAX_AVAILABLE_PAGE_SIZE = 50;
+
     private final OrderRepository orderRepository;
     private final OrderService orderService;
-    private final DeliveryStatusRepository deliveryStatusRepository;
     private final DriverProfileService driverProfileService;
     private final DriverLocationService driverLocationService;
+    private final DriverLocationIngest driverLocationIngest;
+    private final ActiveDeliveryCache activeDeliveryCache;
+    private final AvailableOrderIndex availableOrderIndex;
+    private final DriverGeoIndex driverGeoIndex;
+    private final DriverPresenceService driverPresenceService;
     private final OrderUpdatePublisher orderUpdatePublisher;
 
     /**
-     * Get available (unassigned) READY orders a driver can pick up.
+     * Get available (unassigned) READY orders a driver can pick up, nearest pickup first.
+     * Ranked around {@code lat}/{@code lng} if given, else the driver's last reported position.
+     * Changes are pushed on {@code /topic/drivers.{id}.available} (see {@link AvailableOrderIndex}).
      */
     @GetMapping("/available-orders")
     @PreAuthorize("hasRole('DRIVER')")
-    @Operation(summary = "Available orders", description = "List unassigned READY orders for pickup")
-    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getAvailableOrders(Authentication auth) {
+    @Operation(summary = "Available orders", description = "List unassigned READY orders for pickup, nearest first")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getAvailableOrders(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lng,
+            Authentication auth) {
         UUID driverId = extractUserId(auth);
-        log.info("Driver {} fetching available orders", driverId);
+        log.debug("Driver {} fetching available orders (page {})", driverId, page);
+
+        if (!availableOrderIndex.isReady()) {
+            // Index not loaded yet (startup): fall back to the full READY list
+            List<Order> ready = orderRepository.findByDriverIsNullAndStatus(OrderStatus.READY);
+            List<Map<String, Object>> list = ready.stream().map(this::orderSummary).collect(Collectors.toList());
+            return ResponseEntity.ok(ApiResponse.success("Available orders", list));
+        }
 
-        List<Order> ready = orderRepository.findByDriverIsNullAndStatus(OrderStatus.READY);
-        List<Map<String, Object>> list = ready.stream().map(this::orderSummary).collect(Collectors.toList());
+        if (lat == null || lng == null) {
+            Optional<DriverGeoIndex.Position> position = driverGeoIndex.position(driverId);
+            lat = position.map(DriverGeoIndex.Position::lat).orElse(null);
+            lng = position.map(DriverGeoIndex.Position::lng).orElse(null);
+        }
+        List<Map<String, Object>> list = availableOrderIndex
+                .nearby(lat, lng, page, Math.min(Math.max(size, 1), MAX_AVAILABLE_PAGE_SIZE)).stream()
+                .map(this::availableSummary)
+                .collect(Collectors.toList());
 
         return ResponseEntity.ok(ApiResponse.success("Available orders", list));
     }
@@ -83,7 +116,8 @@ public class DriverController {
     }
 
     /**
-     * Get the driver's current active delivery (first non-terminal assigned order).
+     * Get the driver's current active delivery (first non-terminal assigned order),
+     * served from the active-delivery cache.
      */
     @GetMapping("/active-delivery")
     @PreAuthorize("hasRole('DRIVER')")
@@ -91,79 +125,53 @@ public class DriverController {
     public ResponseEntity<ApiResponse<Map<String, Object>>> getActiveDelivery(Authentication auth) {
         UUID driverId = extractUserId(auth);
 
-        // Active statuses for a driver: ASSIGNED, PICKED_UP, ENROUTE
-        List<OrderStatus> activeStatuses = List.of(
-                OrderStatus.ASSIGNED, OrderStatus.PICKED_UP, OrderStatus.ENROUTE);
-
-        Optional<Order> active = activeStatuses.stream()
-                .flatMap(s -> orderRepository.findByDriverIdAndStatus(driverId, s).stream())
-                .findFirst();
-
+        Optional<ActiveDelivery> active = activeDeliveryCache.find(driverId);
         if (active.isEmpty()) {
             return ResponseEntity.ok(ApiResponse.success("No active delivery", null));
         }
 
-        return ResponseEntity.ok(ApiResponse.success("Active delivery", orderSummary(active.get())));
+        return ResponseEntity.ok(ApiResponse.success("Active delivery", activeSummary(active.get())));
     }
 
     /**
      * Update driver location for current delivery.
-     * Stores in driver_locations history table (server-side rate guard: 12/min)
-     * and broadcasts to WebSocket subscribers.
+     * Every ping is a presence heartbeat. The position is handed to the write-behind ingest
+     * (rate guard: 12/min, batched inserts into driver_locations and driver_profiles, appended
+     * to the active order's GPS trail) and broadcast to WebSocket subscribers.
      */
     @PutMapping("/location")
     @PreAuthorize("hasRole('DRIVER')")
     @Operation(summary = "Update location", description = "Report driver GPS location for active delivery")
-    @Transactional
     public ResponseEntity<ApiResponse<Void>> updateLocation(
             @RequestBody LocationUpdateDTO dto, Authentication auth) {
 
         UUID driverId = extractUserId(auth);
-        log.info("Driver {} location update: lat={}, lng={}, accuracy={}", driverId, dto.getLat(), dto.getLng(), dto.getAccuracy());
-
-        // Record to driver_locations history (rate-guarded: 12 samples/min)
-        if (dto.getLat() != null && dto.getLng() != null) {
-            try {
-                driverLocationService.recordLocation(driverId, dto.getLat(), dto.getLng(),
-                        dto.getAccuracy(), dto.getSpeed(), dto.getHeading());
-            } catch (IllegalStateException e) {
-                // Rate limit exceeded — still update profile & broadcast, just skip history
-                log.debug("Location history rate limit for driver {}: {}", driverId, e.getMessage());
+        log.debug("Driver {} location update: lat={}, lng={}, accuracy={}", driverId, dto.getLat(), dto.getLng(), dto.getAccuracy());
+        driverPresenceService.ping(driverId);
+
+        // Find active order for this driver (cached; no orders query per ping)
+        Optional<UUID> activeOrderId = activeDeliveryCache.find(driverId).map(ActiveDelivery::orderId);
+
+        boolean hasFix = dto.getLat() != null && dto.getLng() != null;
+        if (hasFix) {
+            DriverLocationIngest.Outcome outcome = driverLocationIngest.offer(new DriverLocationIngest.LocationPing(
+                    driverId, dto.getLat(), dto.getLng(), dto.getAccuracy(), dto.getSpeed(), dto.getHeading(),
+                    Instant.now(),
+                    activeOrderId.orElse(null)));
+            if (outcome != DriverLocationIngest.Outcome.ACCEPTED) {
+                // Not stored — dispatch index and subscribers still get the position
+                log.debug("Location ping for driver {} not stored: {}", driverId, outcome);
             }
         }
 
-        // Find active order for this driver
-        List<OrderStatus> activeStatuses = List.of(
-                OrderStatus.ASSIGNED, OrderStatus.PICKED_UP, OrderStatus.ENROUTE);
-
-        Optional<Order> activeOrder = activeStatuses.stream()
-                .flatMap(s -> orderRepository.findByDriverIdAndStatus(driverId, s).stream())
-                .findFirst();
-
-        // Always update driver profile GPS (trackable when online)
-        if (dto.getLat() != null && dto.getLng() != null) {
-            driverProfileService.updateLocation(driverId, dto.getLat(), dto.getLng());
-        }
-
-        if (activeOrder.isEmpty()) {
+        if (activeOrderId.isEmpty()) {
             return ResponseEntity.ok(ApiResponse.success("Location updated (no active delivery)", null));
         }
 
-        // Record a location-only delivery status entry
-        DeliveryStatus loc = DeliveryStatus.builder()
-                .order(activeOrder.get())
-                .status(activeOrder.get().getStatus())
-                .changedByUserId(driverId)
-                .note("Location update")
-                .locationLat(dto.getLat() != null ? BigDecimal.valueOf(dto.getLat()) : null)
-                .locationLng(dto.getLng() != null ? BigDecimal.valueOf(dto.getLng()) : null)
-                .build();
-        deliveryStatusRepository.save(loc);
-
         // Broadcast location to WebSocket subscribers
-        if (dto.getLat() != null && dto.getLng() != null) {
+        if (hasFix) {
             orderUpdatePublisher.publishDriverLocation(driverId, dto.getLat(), dto.getLng(),
-                    activeOrder.get().getId());
+                    activeOrderId.get());
         }
 
         return ResponseEntity.ok(ApiResponse.success("Location updated", null));
@@ -238,6 +246,27 @@ public class DriverController {
         return ResponseEntity.ok(ApiResponse.success("Delivery history", list));
     }
 
+    /**
+     * Delivery history with keyset pagination (selected when {@code cursor} is present,
+     * empty for the first page).
+     */
+    @GetMapping(value = "/delivery-history", params = "cursor")
+    @PreAuthorize("hasRole('DRIVER')")
+    @Operation(summary = "Delivery history (cursor)", description = "List past deliveries with keyset pagination")
+    public ResponseEntity<ApiResponse<CursorPage<Map<String, Object>>>> getDeliveryHistoryByCursor(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            Authentication auth) {
+
+        UUID driverId = extractUserId(auth);
+        CursorPage<Map<String, Object>> history = orderService
+                .pageOrders(OrderListFilter.forDriver(driverId), cursor, size, includeTotal)
+                .map(this::orderSummary);
+
+        return ResponseEntity.ok(ApiResponse.success("Delivery history", history));
+    }
+
     // ── Profile endpoints ────────────────────────────────────────────
 
     /**
@@ -297,7 +326,8 @@ public class DriverController {
     }
 
     /**
-     * List currently online drivers (accessible to VENDOR and ADMIN for runner assignment).
+     * List currently online drivers (accessible to VENDOR and ADMIN for runner assignment),
+     * i.e. drivers with a live presence heartbeat.
      */
     @GetMapping("/online")
     @PreAuthorize("hasAnyRole('VENDOR', 'ADMIN')")
@@ -372,6 +402,52 @@ public class DriverController {
         return m;
     }
 
+    /** Same shape as {@link #orderSummary}, plus the pickup point and its distance from the driver. */
+    private Map<String, Object> availableSummary(AvailableOrderIndex.Nearby nearby) {
+        AvailableOrderIndex.AvailableOrder o = nearby.order();
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("orderId", o.orderId());
+        m.put("status", OrderStatus.READY.name());
+        m.put("totalCents", o.totalCents());
+        m.put("vendorId", o.vendorId());
+        m.put("vendorName", o.vendorName());
+        m.put("vendorLat", o.vendorLat());
+        m.put("vendorLng", o.vendorLng());
+        m.put("distanceKm", nearby.distanceKm());
+        m.put("customerId", o.customerId());
+        if (o.line1() != null || o.city() != null) {
+            Map<String, Object> addr = new LinkedHashMap<>();
+            addr.put("line1", o.line1());
+            addr.put("city", o.city());
+            addr.put("state", o.state());
+            addr.put("postal", o.postal());
+            m.put("deliveryAddress", addr);
+        }
+        m.put("createdAt", o.createdAt() != null ? o.createdAt().toString() : null);
+        return m;
+    }
+
+    /** Same shape as {@link #orderSummary} for the active-delivery card. */
+    private Map<String, Object> activeSummary(ActiveDelivery d) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("orderId", d.orderId());
+        m.put("status", d.status().name());
+        m.put("totalCents", d.totalCents());
+        m.put("vendorId", d.vendorId());
+        m.put("vendorName", d.vendorName());
+        m.put("customerId", d.customerId());
+        if (d.line1() != null || d.city() != null) {
+            Map<String, Object> addr = new LinkedHashMap<>();
+            addr.put("line1", d.line1());
+            addr.put("city", d.city());
+            addr.put("state", d.state());
+            addr.put("postal", d.postal());
+            m.put("deliveryAddress", addr);
+        }
+        m.put("createdAt", d.createdAt() != null ? d.createdAt().toString() : null);
+        return m;
+    }
+
     private UUID extractUserId(Authentication authentication) {
         return UUID.fromString(authentication.getName());
     }
@@ -1,13 +1,22 @@
 package com.quickbite.orders.controller;
 
+import com.quickbite.auth.security.StreamTicketService;
 import com.quickbite.common.dto.ApiResponse;
+import com.quickbite.common.pagination.CursorPage;
 import com.quickbite.delivery.entity.DeliveryStatus;
+import com.quickbite.orders.driver.DeliveryTrailStore;
+import com.quickbite.orders.dto.OrderBatchCreateDTO;
+import com.quickbite.orders.dto.OrderBatchResultDTO;
 import com.quickbite.orders.dto.OrderCreateDTO;
 import com.quickbite.orders.dto.OrderResponseDTO;
 import com.quickbite.orders.dto.StatusUpdateDTO;
 import com.quickbite.orders.entity.OrderStatus;
+import com.quickbite.orders.projection.OrderSummary;
+import com.quickbite.orders.projection.OrderSummaryRepository;
+import com.quickbite.orders.repository.OrderListFilter;
 import com.quickbite.orders.service.OrderService;
 import com.quickbite.vendors.repository.VendorRepository;
+import com.quickbite.websocket.OrderEventStream;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -23,6 +32,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -41,8 +51,21 @@ import java.util.stream.Collectors;
 @SecurityRequirement(name = "bearerAuth")
 public class OrderController {
 
+    private static final int MAX_DASHBOARD_SIZE = 200;
+    private static final List<OrderStatus> VENDOR_ACTIVE_STATUSES = List.of(
+            OrderStatus.PLACED, OrderStatus.ACCEPTED, OrderStatus.PREPARING, OrderStatus.READY);
+    private static final List<OrderStatus> DRIVER_ACTIVE_STATUSES = List.of(
+            OrderStatus.ASSIGNED, OrderStatus.PICKED_UP, OrderStatus.ENROUTE);
+    private static final List<OrderStatus> ACTIVE_STATUSES = List.of(
+            OrderStatus.PLACED, OrderStatus.ACCEPTED, OrderStatus.PREPARING, OrderStatus.READY,
+            OrderStatus.ASSIGNED, OrderStatus.PICKED_UP, OrderStatus.ENROUTE);
+
     private final OrderService orderService;
+    private final DeliveryTrailStore deliveryTrailStore;
     private final VendorRepository vendorRepository;
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final OrderEventStream orderEventStream;
+    private final StreamTicketService streamTicketService;
 
     /**
      * Create a new order (CUSTOMER only).
@@ -63,6 +86,36 @@ public class OrderController {
                 .body(ApiResponse.success("Order created successfully", order));
     }
 
+    /**
+     * Place a batch of orders in one request (CUSTOMER only).
+     * Returns 201 when every order is placed, 207 when some fail and 422 when none are placed;
+     * the body always carries one result per requested order.
+     */
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('CUSTOMER')")
+    @Operation(summary = "Create orders in batch", description = "Place up to 50 orders (e.g. a group order) in one request")
+    public ResponseEntity<ApiResponse<OrderBatchResultDTO>> createOrders(
+            @Valid @RequestBody OrderBatchCreateDTO dto,
+            Authentication authentication
+    ) {
+        UUID customerId = extractUserId(authentication);
+        log.info("Creating batch of {} orders for customer: {}", dto.getOrders().size(), customerId);
+
+        OrderBatchResultDTO result = orderService.createOrders(dto.getOrders(), customerId);
+
+        if (result.getCreated() == 0) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                    .body(ApiResponse.<OrderBatchResultDTO>builder()
+                            .success(false)
+                            .message("No orders could be created")
+                            .data(result)
+                            .build());
+        }
+        HttpStatus status = result.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(status)
+                .body(ApiResponse.success(result.getCreated() + " of " + result.getRequested() + " orders created", result));
+    }
+
     /**
      * Get order by ID.
      * Accessible to customer, vendor, driver, or admin.
@@ -124,6 +177,86 @@ public class OrderController {
         return ResponseEntity.ok(ApiResponse.success("Orders retrieved successfully", orders));
     }
 
+    /**
+     * List orders newest first with keyset pagination.
+     * Selected when the {@code cursor} parameter is present (empty for the first page);
+     * pass the returned {@code nextCursor} to fetch the next page. Customers and vendors
+     * always see only their own orders, whatever {@code customerId} / {@code vendorId} they
+     * pass; drivers see their assigned orders.
+     */
+    @GetMapping(params = "cursor")
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'VENDOR', 'DRIVER', 'ADMIN')")
+    @Operation(summary = "List orders (cursor)", description = "List orders with keyset pagination and optional exact total")
+    public ResponseEntity<ApiResponse<CursorPage<OrderResponseDTO>>> listOrdersByCursor(
+            @RequestParam(required = false) UUID customerId,
+            @RequestParam(required = false) UUID vendorId,
+            @RequestParam(required = false) String status,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            Authentication authentication
+    ) {
+        UUID userId = extractUserId(authentication);
+        OrderStatus orderStatus = status != null ? OrderStatus.valueOf(status.toUpperCase()) : null;
+        UUID driverId = null;
+        if (!hasRole(authentication, "ADMIN")) {
+            if (hasRole(authentication, "CUSTOMER")) {
+                customerId = userId;
+            } else if (hasRole(authentication, "VENDOR")) {
+                vendorId = vendorRepository.findByUserId(userId)
+                        .map(v -> v.getId())
+                        .orElse(userId);
+            } else if (hasRole(authentication, "DRIVER")) {
+                // Driver sees only their assigned orders
+                customerId = null;
+                vendorId = null;
+                orderStatus = null;
+                driverId = userId;
+            }
+        }
+
+        CursorPage<OrderResponseDTO> orders = orderService.listOrdersAfter(
+                new OrderListFilter(customerId, vendorId, driverId, orderStatus), cursor, size, includeTotal);
+
+        return ResponseEntity.ok(ApiResponse.success("Orders retrieved successfully", orders));
+    }
+
+    /**
+     * Dashboard rows from the order_summary projection, one index lookup per call.
+     * Vendors and drivers get their active orders oldest first, customers their recent orders
+     * and admins all active orders newest first; {@code status} overrides the default statuses.
+     * Every role gets at most {@code size} rows.
+     */
+    @GetMapping("/dashboard")
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'VENDOR', 'DRIVER', 'ADMIN')")
+    @Operation(summary = "Order dashboard", description = "Flat order summaries for KDS, driver and admin dashboards")
+    public ResponseEntity<ApiResponse<List<OrderSummary>>> getDashboard(
+            @RequestParam(required = false) List<OrderStatus> status,
+            @RequestParam(defaultValue = "50") int size,
+            Authentication authentication
+    ) {
+        UUID userId = extractUserId(authentication);
+        Pageable limit = PageRequest.of(0, Math.max(1, Math.min(size, MAX_DASHBOARD_SIZE)));
+        List<OrderSummary> summaries;
+        if (hasRole(authentication, "ADMIN")) {
+            summaries = orderSummaryRepository.findByStatusInOrderByCreatedAtDesc(
+                    status != null ? status : ACTIVE_STATUSES, limit);
+        } else if (hasRole(authentication, "VENDOR")) {
+            UUID vendorId = vendorRepository.findByUserId(userId)
+                    .map(v -> v.getId())
+                    .orElse(userId);
+            summaries = orderSummaryRepository.findByVendorIdAndStatusInOrderByCreatedAtAsc(
+                    vendorId, status != null ? status : VENDOR_ACTIVE_STATUSES, limit);
+        } else if (hasRole(authentication, "DRIVER")) {
+            summaries = orderSummaryRepository.findByDriverIdAndStatusInOrderByCreatedAtAsc(
+                    userId, status != null ? status : DRIVER_ACTIVE_STATUSES, limit);
+        } else {
+            summaries = orderSummaryRepository.findByCustomerIdOrderByCreatedAtDesc(userId, limit);
+        }
+
+        return ResponseEntity.ok(ApiResponse.success("Dashboard retrieved successfully", summaries));
+    }
+
     /**
      * Update order status.
      * Role-based access: vendor can update until READY, driver after READY.
@@ -205,6 +338,74 @@ public class OrderController {
         return ResponseEntity.ok(ApiResponse.success("Status history retrieved", response));
     }
 
+    /**
+     * Get the GPS trail of a delivery: live while in progress, the stored simplified trail
+     * afterwards. Used by the customer replay map and for dispute review.
+     */
+    @GetMapping("/{id}/trail")
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'VENDOR', 'DRIVER', 'ADMIN')")
+    @Operation(summary = "Get delivery trail", description = "Get the driver's GPS trail for an order")
+    public ResponseEntity<ApiResponse<DeliveryTrailStore.DeliveryTrail>> getDeliveryTrail(
+            @PathVariable UUID id,
+            Authentication authentication
+    ) {
+        boolean admin = authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+        if (!admin) {
+            orderService.checkOrderAccess(id, extractUserId(authentication));
+        }
+        DeliveryTrailStore.DeliveryTrail trail = deliveryTrailStore.getTrail(id).orElse(null);
+        return ResponseEntity.ok(ApiResponse.success(trail != null ? "Delivery trail retrieved" : "No trail recorded", trail));
+    }
+
+    /**
+     * Issue a single-use ticket for {@code GET /api/orders/{id}/events?ticket=...}, for clients
+     * such as browser EventSource that cannot send the JWT in a header. Valid for
+     * {@code sse.order-events.ticket-ttl-seconds}; every (re)connect needs a new one.
+     */
+    @PostMapping("/{id}/events/ticket")
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'VENDOR', 'DRIVER', 'ADMIN')")
+    @Operation(summary = "Issue order event stream ticket", description = "Short-lived single-use ticket for the SSE stream")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> issueOrderEventsTicket(
+            @PathVariable UUID id,
+            Authentication authentication
+    ) {
+        UUID userId = extractUserId(authentication);
+        boolean admin = authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+        if (!admin) {
+            orderService.checkOrderAccess(id, userId);
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("ticket", streamTicketService.issue(userId, id));
+        response.put("expiresIn", streamTicketService.ttl().toSeconds());
+        return ResponseEntity.ok(ApiResponse.success("Stream ticket issued", response));
+    }
+
+    /**
+     * Server-Sent Events stream of an order's updates and driver location: a lighter
+     * alternative to a STOMP session for tracking one order. Authenticated by the JWT in the
+     * Authorization header or a ticket from {@code POST /{id}/events/ticket}. Reconnects send
+     * {@code Last-Event-ID} (or, from a new EventSource, the {@code lastEventId} parameter) and
+     * get the updates they missed.
+     */
+    @GetMapping("/{id}/events")
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'VENDOR', 'DRIVER', 'ADMIN')")
+    @Operation(summary = "Stream order events", description = "SSE stream of order updates and driver location")
+    public SseEmitter streamOrderEvents(
+            @PathVariable UUID id,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(value = "lastEventId", required = false) String lastEventIdParam,
+            Authentication authentication
+    ) {
+        boolean admin = authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+        if (!admin) {
+            orderService.checkOrderAccess(id, extractUserId(authentication));
+        }
+        return orderEventStream.open(id, lastEventId != null ? lastEventId : lastEventIdParam);
+    }
+
     /**
      * Manually assign a driver to an order.
      */
@@ -0,0 +1,65 @@
+package com.quickbite.orders.controller;
+
+import com.quickbite.common.dto.ApiResponse;
+import com.quickbite.orders.exception.BusinessException;
+import com.quickbite.vendors.repository.VendorRepository;
+import com.quickbite.websocket.VendorOrderStream;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+/**
+ * Snapshot and resume endpoints for the vendor KDS stream on {@code /topic/vendors.{id}.orders}.
+ * <p>
+ * Tablets load the snapshot once, apply topic deltas with a higher {@code seq}, and after a
+ * reconnect ask for the deltas since their last {@code seq} instead of re-listing orders.
+ */
+@RestController
+@RequestMapping("/api/vendors/my/orders/stream")
+@RequiredArgsConstructor
+@Tag(name = "Vendor KDS stream", description = "Snapshot + sequenced deltas for kitchen displays")
+@SecurityRequirement(name = "bearerAuth")
+public class VendorOrderStreamController {
+
+    private final VendorOrderStream vendorOrderStream;
+    private final VendorRepository vendorRepository;
+
+    /**
+     * Active KDS orders plus the epoch and sequence they reflect.
+     */
+    @GetMapping("/snapshot")
+    @PreAuthorize("hasRole('VENDOR')")
+    @Operation(summary = "KDS snapshot", description = "Active orders and the last stream sequence")
+    public ResponseEntity<ApiResponse<VendorOrderStream.VendorOrderSnapshot>> getSnapshot(Authentication authentication) {
+        return ResponseEntity.ok(ApiResponse.success(vendorOrderStream.snapshot(resolveVendorId(authentication))));
+    }
+
+    /**
+     * Deltas after {@code since} in {@code epoch}. When {@code resync} is true in the response
+     * the missed events are gone and the client must load a new snapshot.
+     */
+    @GetMapping
+    @PreAuthorize("hasRole('VENDOR')")
+    @Operation(summary = "Resume KDS stream", description = "Deltas missed since the given sequence")
+    public ResponseEntity<ApiResponse<VendorOrderStream.VendorOrderReplay>> resume(
+            @RequestParam String epoch,
+            @RequestParam long since,
+            Authentication authentication) {
+        return ResponseEntity.ok(ApiResponse.success(
+                vendorOrderStream.since(resolveVendorId(authentication), epoch, since)));
+    }
+
+    private UUID resolveVendorId(Authentication authentication) {
+        UUID userId = UUID.fromString(authentication.getName());
+        return vendorRepository.findByUserId(userId)
+                .map(v -> v.getId())
+                .orElseThrow(() -> new BusinessException("No vendor profile for current user"));
+    }
+}
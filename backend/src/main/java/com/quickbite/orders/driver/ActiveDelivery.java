@@ -0,0 +1,54 @@
+package com.quickbite.orders.driver;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.quickbite.orders.entity.Order;
+import com.quickbite.orders.entity.OrderStatus;
+import com.quickbite.users.entity.Address;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Snapshot of a driver's current delivery: enough to tag location pings and render the driver
+ * app's active-delivery card without loading the order. Everything except {@code status} is
+ * fixed for the life of the order. {@link #NONE} caches "no active delivery".
+ */
+public record ActiveDelivery(UUID orderId,
+                             OrderStatus status,
+                             UUID vendorId,
+                             String vendorName,
+                             UUID customerId,
+                             Long totalCents,
+                             String line1,
+                             String city,
+                             String state,
+                             String postal,
+                             OffsetDateTime createdAt) {
+
+    public static final ActiveDelivery NONE =
+            new ActiveDelivery(null, null, null, null, null, null, null, null, null, null, null);
+
+    @JsonIgnore
+    public boolean isActive() {
+        return orderId != null;
+    }
+
+    /**
+     * Build from an order whose vendor, customer and address are loaded (or loadable).
+     */
+    public static ActiveDelivery of(Order order) {
+        Address address = order.getDeliveryAddress();
+        return new ActiveDelivery(
+                order.getId(),
+                order.getStatus(),
+                order.getVendor() != null ? order.getVendor().getId() : null,
+                order.getVendor() != null ? order.getVendor().getName() : null,
+                order.getCustomer() != null ? order.getCustomer().getId() : null,
+                order.getTotalCents(),
+                address != null ? address.getLine1() : null,
+                address != null ? address.getCity() : null,
+                address != null ? address.getState() : null,
+                address != null ? address.getPostal() : null,
+                order.getCreatedAt());
+    }
+}
@@ -0,0 +1,144 @@
+package com.quickbite.orders.driver;
+
+import com.quickbite.common.transaction.AfterCommit;
+import com.quickbite.orders.entity.Order;
+import com.quickbite.orders.entity.OrderStatus;
+import com.quickbite.orders.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * driverId → current delivery (order, status, vendor), so location pings and active-delivery
+ * reads do not query the orders table.
+ * <p>
+ * OrderService reports assignments and transitions through {@link #orderChanged}; the entry is
+ * updated once the transaction commits. A miss loads the driver's active orders in one query
+ * (ASSIGNED before PICKED_UP before ENROUTE, as the per-status lookups did) and caches the
+ * result — including "no active delivery" for {@code driver.active-delivery.none-ttl-seconds}.
+ * Every entry expires after {@code driver.active-delivery.ttl-seconds}, which bounds how long a
+ * missed update can be served. Use driver.active-delivery.store=redis to share entries across
+ * replicas; if the store fails, lookups fall back to the database.
+ */
+@Slf4j
+@Component
+public class ActiveDeliveryCache {
+
+    static final List<OrderStatus> ACTIVE_STATUSES = List.of(
+            OrderStatus.ASSIGNED, OrderStatus.PICKED_UP, OrderStatus.ENROUTE);
+
+    private final ActiveDeliveryStore store;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    // Metrics
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    @Value("${driver.active-delivery.ttl-seconds:120}")
+    private long ttlSeconds = 120;
+
+    @Value("${driver.active-delivery.none-ttl-seconds:30}")
+    private long noneTtlSeconds = 30;
+
+    public ActiveDeliveryCache(ActiveDeliveryStore store,
+                               OrderRepository orderRepository,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry) {
+        this.store = store;
+        this.orderRepository = orderRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        this.hitCounter = Counter.builder("driver.active.delivery.hits")
+                .description("Active-delivery lookups served from the cache")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("driver.active.delivery.misses")
+                .description("Active-delivery lookups loaded from the database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The driver's current delivery, if any.
+     */
+    public Optional<ActiveDelivery> find(UUID driverId) {
+        Optional<ActiveDelivery> cached;
+        try {
+            cached = store.get(driverId);
+        } catch (Exception e) {
+            log.warn("Active-delivery store unavailable, loading driver {} from orders: {}", driverId, e.getMessage());
+            return Optional.of(load(driverId)).filter(ActiveDelivery::isActive);
+        }
+        if (cached.isPresent()) {
+            hitCounter.increment();
+            return cached.filter(ActiveDelivery::isActive);
+        }
+
+        missCounter.increment();
+        ActiveDelivery loaded = load(driverId);
+        try {
+            store.put(driverId, loaded, ttlFor(loaded));
+        } catch (Exception e) {
+            log.warn("Failed to cache active delivery for driver {}: {}", driverId, e.getMessage());
+        }
+        return Optional.of(loaded).filter(ActiveDelivery::isActive);
+    }
+
+    /**
+     * Record an order's new driver and/or status once the surrounding transaction commits.
+     * Must be called while the order's vendor, customer and address can still be loaded.
+     */
+    public void orderChanged(Order order) {
+        orderChanged(order, null);
+    }
+
+    /**
+     * As {@link #orderChanged(Order)}, also releasing {@code previousDriverId} after a reassignment.
+     */
+    public void orderChanged(Order order, UUID previousDriverId) {
+        UUID orderId = order.getId();
+        UUID driverId = order.getDriver() != null ? order.getDriver().getId() : null;
+        ActiveDelivery delivery = driverId != null && ACTIVE_STATUSES.contains(order.getStatus())
+                ? ActiveDelivery.of(order)
+                : null;
+
+        // On failure the entry expires and is reloaded from the database
+        AfterCommit.run("update active-delivery cache", () -> {
+            if (previousDriverId != null && !previousDriverId.equals(driverId)) {
+                store.release(previousDriverId, orderId);
+            }
+            if (driverId == null) {
+                return;
+            }
+            if (delivery != null) {
+                store.update(driverId, delivery, Duration.ofSeconds(ttlSeconds));
+            } else {
+                store.release(driverId, orderId);
+            }
+        });
+    }
+
+    private ActiveDelivery load(UUID driverId) {
+        return readOnlyTransaction.execute(status -> orderRepository
+                .findDetailByDriverIdAndStatusIn(driverId, ACTIVE_STATUSES).stream()
+                .min(Comparator.comparingInt((Order o) -> ACTIVE_STATUSES.indexOf(o.getStatus()))
+                        .thenComparing(Order::getCreatedAt, Comparator.nullsLast(Comparator.<OffsetDateTime>naturalOrder())))
+                .map(ActiveDelivery::of)
+                .orElse(ActiveDelivery.NONE));
+    }
+
+    private Duration ttlFor(ActiveDelivery delivery) {
+        return Duration.ofSeconds(delivery.isActive() ? ttlSeconds : noneTtlSeconds);
+    }
+}
@@ -0,0 +1,38 @@
+package com.quickbite.orders.driver;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * driverId → {@link ActiveDelivery} entries backing {@link ActiveDeliveryCache}.
+ * <p>
+ * Entries expire after their TTL so that anything missed (a lost update, a transition made
+ * outside OrderService) is corrected by the next load from the database.
+ */
+public interface ActiveDeliveryStore {
+
+    /**
+     * Read the driver's entry.
+     *
+     * @return the cached delivery ({@link ActiveDelivery#NONE} if the driver has none), or empty on a miss
+     */
+    Optional<ActiveDelivery> get(UUID driverId);
+
+    /**
+     * Cache a value loaded from the database.
+     */
+    void put(UUID driverId, ActiveDelivery delivery, Duration ttl);
+
+    /**
+     * Apply a committed assignment or transition of an active order. Replaces a missing,
+     * {@link ActiveDelivery#NONE} or same-order entry; an entry for another order is dropped
+     * so the next read reloads the driver from the database.
+     */
+    void update(UUID driverId, ActiveDelivery delivery, Duration ttl);
+
+    /**
+     * Drop the driver's entry if it is for {@code orderId}.
+     */
+    void release(UUID driverId, UUID orderId);
+}
@@ -0,0 +1,137 @@
+package com.quickbite.orders.driver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Solves order × driver assignment on a score matrix (higher is better).
+ * <p>
+ * Cells that are {@link Double#NaN} are infeasible (driver out of range or at capacity)
+ * and are never returned. Each order gets at most one driver and each driver at most one order.
+ */
+public final class AssignmentSolver {
+
+    public enum Strategy {
+        /** Take the best remaining pair until none is left: O(k log k) for k feasible pairs. */
+        GREEDY,
+        /** Kuhn–Munkres: matches as many orders as possible, then maximises the total score. O(n²·m). */
+        HUNGARIAN
+    }
+
+    /** Cost of an infeasible cell; larger than any sum of real costs (scores are in [0, 1]). */
+    private static final double INFEASIBLE_COST = 1e9;
+
+    private AssignmentSolver() {
+    }
+
+    /**
+     * @param scores scores[order][driver]; NaN marks infeasible pairs
+     * @return for each order the chosen driver column, or -1 if unmatched
+     */
+    public static int[] solve(double[][] scores, Strategy strategy) {
+        int orders = scores.length;
+        int drivers = orders == 0 ? 0 : scores[0].length;
+        int[] assignment = new int[orders];
+        Arrays.fill(assignment, -1);
+        if (orders == 0 || drivers == 0) {
+            return assignment;
+        }
+        return strategy == Strategy.GREEDY
+                ? greedy(scores, assignment)
+                : hungarian(scores, assignment);
+    }
+
+    private static int[] greedy(double[][] scores, int[] assignment) {
+        List<double[]> pairs = new ArrayList<>();
+        for (int i = 0; i < scores.length; i++) {
+            for (int j = 0; j < scores[i].length; j++) {
+                if (!Double.isNaN(scores[i][j])) {
+                    pairs.add(new double[]{scores[i][j], i, j});
+                }
+            }
+        }
+        pairs.sort((a, b) -> Double.compare(b[0], a[0]));
+        boolean[] driverTaken = new boolean[scores[0].length];
+        for (double[] pair : pairs) {
+            int order = (int) pair[1];
+            int driver = (int) pair[2];
+            if (assignment[order] == -1 && !driverTaken[driver]) {
+                assignment[order] = driver;
+                driverTaken[driver] = true;
+            }
+        }
+        return assignment;
+    }
+
+    private static int[] hungarian(double[][] scores, int[] assignment) {
+        int orders = scores.length;
+        int drivers = scores[0].length;
+        // The algorithm below needs rows <= columns; transpose when there are more orders than drivers
+        boolean transposed = orders > drivers;
+        int n = transposed ? drivers : orders;
+        int m = transposed ? orders : drivers;
+        double[][] cost = new double[n + 1][m + 1];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < m; j++) {
+                double score = transposed ? scores[j][i] : scores[i][j];
+                cost[i + 1][j + 1] = Double.isNaN(score) ? INFEASIBLE_COST : 1.0 - score;
+            }
+        }
+
+        double[] u = new double[n + 1];
+        double[] v = new double[m + 1];
+        int[] p = new int[m + 1];
+        int[] way = new int[m + 1];
+        for (int i = 1; i <= n; i++) {
+            p[0] = i;
+            int j0 = 0;
+            double[] minv = new double[m + 1];
+            Arrays.fill(minv, Double.POSITIVE_INFINITY);
+            boolean[] used = new boolean[m + 1];
+            do {
+                used[j0] = true;
+                int i0 = p[j0];
+                double delta = Double.POSITIVE_INFINITY;
+                int j1 = 0;
+                for (int j = 1; j <= m; j++) {
+                    if (!used[j]) {
+                        double cur = cost[i0][j] - u[i0] - v[j];
+                        if (cur < minv[j]) {
+                            minv[j] = cur;
+                            way[j] = j0;
+                        }
+                        if (minv[j] < delta) {
+                            delta = minv[j];
+                            j1 = j;
+                        }
+                    }
+                }
+                for (int j = 0; j <= m; j++) {
+                    if (used[j]) {
+                        u[p[j]] += delta;
+                        v[j] -= delta;
+                    } else {
+                        minv[j] -= delta;
+                    }
+                }
+                j0 = j1;
+            } while (p[j0] != 0);
+            do {
+                int j1 = way[j0];
+                p[j0] = p[j1];
+                j0 = j1;
+            } while (j0 != 0);
+        }
+
+        for (int j = 1; j <= m; j++) {
+            if (p[j] == 0) continue;
+            int order = transposed ? j - 1 : p[j] - 1;
+            int driver = transposed ? p[j] - 1 : j - 1;
+            if (!Double.isNaN(scores[order][driver])) {
+                assignment[order] = driver;
+            }
+        }
+        return assignment;
+    }
+}
@@ -0,0 +1,314 @@
+package com.quickbite.orders.driver;
+
+import com.quickbite.common.transaction.AfterCommit;
+import com.quickbite.orders.entity.Order;
+import com.quickbite.orders.entity.OrderStatus;
+import com.quickbite.orders.repository.OrderRepository;
+import com.quickbite.users.entity.Address;
+import com.quickbite.vendors.entity.Vendor;
+import com.quickbite.websocket.OrderUpdatePublisher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of open (READY, unassigned) orders keyed by vendor pickup location, serving
+ * the drivers' available-orders feed.
+ * <p>
+ * Orders are bucketed in a lat/lng grid ({@code driver.available-orders.cell-km} cells);
+ * {@link #nearby} scans only the cells within {@code driver.available-orders.radius-km} of the
+ * driver and returns one page, nearest first, so the payload and the work scale with the local
+ * area instead of every READY order on the platform. Orders whose vendor has no coordinates are
+ * listed after the located ones.
+ * <p>
+ * OrderService reports transitions through {@link #orderChanged}; once the transaction commits
+ * the order is added or removed and an ADDED/REMOVED {@link Change} is pushed to
+ * {@code /topic/drivers.{id}.available} for up to {@code driver.available-orders.max-notify}
+ * online drivers near the pickup. {@link #reconcile()} periodically replaces the index with the
+ * READY orders in the database (healing rolled-back or missed events and changes made on other
+ * instances) and pushes the differences too. Until the first reconciliation {@link #isReady()}
+ * is false and callers fall back to the database.
+ */
+@Slf4j
+@Component
+public class AvailableOrderIndex {
+
+    private static final long UNLOCATED = Long.MIN_VALUE;
+
+    private final OrderRepository orderRepository;
+    private final DriverGeoIndex driverGeoIndex;
+    private final OrderUpdatePublisher orderUpdatePublisher;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Map<UUID, Entry> orders = new ConcurrentHashMap<>();
+    private final Map<Long, Set<UUID>> cells = new ConcurrentHashMap<>();
+    /** orderId → time it was last added or removed by an event, so reconcile does not undo newer events. */
+    private final Map<UUID, Long> changedAt = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    // Metrics
+    private final Counter pushedCounter;
+    private final Counter reconcileCorrections;
+
+    private final GeoGrid grid;
+
+    @Value("${driver.available-orders.radius-km:15}")
+    private double radiusKm = 15;
+
+    @Value("${driver.available-orders.max-notify:50}")
+    private int maxNotify = 50;
+
+    public AvailableOrderIndex(OrderRepository orderRepository,
+                               DriverGeoIndex driverGeoIndex,
+                               OrderUpdatePublisher orderUpdatePublisher,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${driver.available-orders.cell-km:2.0}") double cellKm) {
+        this.orderRepository = orderRepository;
+        this.driverGeoIndex = driverGeoIndex;
+        this.orderUpdatePublisher = orderUpdatePublisher;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.grid = new GeoGrid(cellKm);
+
+        this.pushedCounter = Counter.builder("driver.available_orders.pushed")
+                .description("Available-order changes pushed to driver topics")
+                .register(meterRegistry);
+        this.reconcileCorrections = Counter.builder("driver.available_orders.reconcile.corrections")
+                .description("Open orders added or removed by reconciliation with the orders table")
+                .register(meterRegistry);
+        Gauge.builder("driver.available_orders.open", orders, Map::size)
+                .description("READY unassigned orders in the available-orders index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Record an order's new status and/or driver once the surrounding transaction commits.
+     * Must be called while the order's vendor, customer and address can still be loaded.
+     */
+    public void orderChanged(Order order) {
+        UUID orderId = order.getId();
+        AvailableOrder open = order.getStatus() == OrderStatus.READY && order.getDriver() == null
+                ? AvailableOrder.of(order)
+                : null;
+        // On failure reconciliation repairs the index
+        AfterCommit.run("update available-order index", () -> {
+            changedAt.put(orderId, System.currentTimeMillis());
+            if (open != null) {
+                add(open);
+            } else {
+                remove(orderId);
+            }
+        });
+    }
+
+    /**
+     * One page of open orders around the point, nearest first, within
+     * {@code driver.available-orders.radius-km}; without a point, the longest waiting first.
+     */
+    public List<Nearby> nearby(Double lat, Double lng, int page, int size) {
+        int from = Math.max(page, 0) * size;
+        if (size <= 0) {
+            return List.of();
+        }
+        List<Nearby> located = new ArrayList<>();
+        List<Nearby> unlocated = new ArrayList<>();
+        if (lat != null && lng != null) {
+            GeoGrid.Rings rings = grid.rings(lat, radiusKm);
+            long latIdx = grid.latIndex(lat);
+            long lngIdx = grid.lngIndex(lng);
+            for (long dLat = -rings.lat(); dLat <= rings.lat(); dLat++) {
+                for (long dLng = -rings.lng(); dLng <= rings.lng(); dLng++) {
+                    Set<UUID> bucket = cells.get(GeoGrid.cellKey(latIdx + dLat, lngIdx + dLng));
+                    if (bucket == null) continue;
+                    for (UUID orderId : bucket) {
+                        Entry entry = orders.get(orderId);
+                        if (entry == null) continue;
+                        AvailableOrder o = entry.order();
+                        double distance = DriverGeoIndex.haversineKm(lat, lng, o.vendorLat(), o.vendorLng());
+                        if (distance <= radiusKm) {
+                            located.add(new Nearby(o, Math.round(distance * 10) / 10.0));
+                        }
+                    }
+                }
+            }
+            located.sort(Comparator.comparingDouble(Nearby::distanceKm)
+                    .thenComparing(n -> n.order().createdAt(), Comparator.nullsLast(Comparator.<OffsetDateTime>naturalOrder())));
+        }
+        for (Entry entry : orders.values()) {
+            if (lat == null || lng == null || entry.cellKey() == UNLOCATED) {
+                unlocated.add(new Nearby(entry.order(), null));
+            }
+        }
+        unlocated.sort(Comparator.comparing((Nearby n) -> n.order().createdAt(),
+                Comparator.nullsLast(Comparator.<OffsetDateTime>naturalOrder())));
+        located.addAll(unlocated);
+        if (from >= located.size()) {
+            return List.of();
+        }
+        return new ArrayList<>(located.subList(from, Math.min(from + size, located.size())));
+    }
+
+    /**
+     * True once the index has been loaded from the orders table at least once.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Replace the index with the READY unassigned orders in the database. Orders changed by an
+     * event after the snapshot was read are left alone; the next run picks them up.
+     */
+    @Scheduled(fixedDelayString = "${driver.available-orders.reconcile-ms:30000}")
+    public void reconcile() {
+        long snapshotAt = System.currentTimeMillis();
+        Map<UUID, AvailableOrder> open = readOnlyTransaction.execute(status -> {
+            Map<UUID, AvailableOrder> byId = new HashMap<>();
+            for (Order order : orderRepository.findDetailByDriverIsNullAndStatus(OrderStatus.READY)) {
+                byId.put(order.getId(), AvailableOrder.of(order));
+            }
+            return byId;
+        });
+
+        int corrections = 0;
+        for (UUID orderId : new ArrayList<>(orders.keySet())) {
+            if (!open.containsKey(orderId) && changedAt.getOrDefault(orderId, 0L) <= snapshotAt) {
+                if (remove(orderId)) corrections++;
+            }
+        }
+        for (AvailableOrder order : open.values()) {
+            if (!orders.containsKey(order.orderId()) && changedAt.getOrDefault(order.orderId(), 0L) <= snapshotAt) {
+                add(order);
+                corrections++;
+            }
+        }
+        changedAt.values().removeIf(at -> at <= snapshotAt);
+
+        if (ready && corrections > 0) {
+            reconcileCorrections.increment(corrections);
+            log.info("Available-order index reconciled: {} correction(s), {} open", corrections, open.size());
+        }
+        ready = true;
+    }
+
+    int openCount() {
+        return orders.size();
+    }
+
+    private void add(AvailableOrder order) {
+        long key = order.vendorLat() != null && order.vendorLng() != null
+                ? grid.cellKey(order.vendorLat(), order.vendorLng())
+                : UNLOCATED;
+        Entry previous = orders.put(order.orderId(), new Entry(order, key));
+        if (previous != null) {
+            unplace(order.orderId(), previous.cellKey());
+        }
+        if (key != UNLOCATED) {
+            cells.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(order.orderId());
+        }
+        if (previous == null) {
+            push(order, new Change(ChangeType.ADDED, order.orderId(), order));
+        }
+    }
+
+    private boolean remove(UUID orderId) {
+        Entry removed = orders.remove(orderId);
+        if (removed == null) {
+            return false;
+        }
+        unplace(orderId, removed.cellKey());
+        push(removed.order(), new Change(ChangeType.REMOVED, orderId, null));
+        return true;
+    }
+
+    /** Notify online drivers near the pickup; unlocated orders are only visible by polling. */
+    private void push(AvailableOrder order, Change change) {
+        // The initial load is not news to anyone
+        if (!ready || order.vendorLat() == null || order.vendorLng() == null || maxNotify <= 0) {
+            return;
+        }
+        List<UUID> driverIds = driverGeoIndex.nearest(order.vendorLat(), order.vendorLng(), radiusKm, maxNotify)
+                .stream().map(DriverGeoIndex.Candidate::driverId).toList();
+        if (!driverIds.isEmpty()) {
+            orderUpdatePublisher.publishAvailableOrderChange(driverIds, change);
+            pushedCounter.increment(driverIds.size());
+        }
+    }
+
+    private void unplace(UUID orderId, long key) {
+        if (key == UNLOCATED) return;
+        cells.computeIfPresent(key, (k, bucket) -> {
+            bucket.remove(orderId);
+            return bucket.isEmpty() ? null : bucket;
+        });
+    }
+
+    private record Entry(AvailableOrder order, long cellKey) {
+    }
+
+    /**
+     * An open order as listed to drivers; the pickup point is the vendor's location.
+     */
+    public record AvailableOrder(UUID orderId,
+                                 UUID vendorId,
+                                 String vendorName,
+                                 Double vendorLat,
+                                 Double vendorLng,
+                                 UUID customerId,
+                                 Long totalCents,
+                                 String line1,
+                                 String city,
+                                 String state,
+                                 String postal,
+                                 OffsetDateTime createdAt) {
+
+        static AvailableOrder of(Order order) {
+            Address address = order.getDeliveryAddress();
+            Vendor vendor = order.getVendor();
+            return new AvailableOrder(
+                    order.getId(),
+                    vendor != null ? vendor.getId() : null,
+                    vendor != null ? vendor.getName() : null,
+                    vendor != null && vendor.getLat() != null ? vendor.getLat().doubleValue() : null,
+                    vendor != null && vendor.getLng() != null ? vendor.getLng().doubleValue() : null,
+                    order.getCustomer() != null ? order.getCustomer().getId() : null,
+                    order.getTotalCents(),
+                    address != null ? address.getLine1() : null,
+                    address != null ? address.getCity() : null,
+                    address != null ? address.getState() : null,
+                    address != null ? address.getPostal() : null,
+                    order.getCreatedAt());
+        }
+    }
+
+    /**
+     * An open order and its distance from the requesting driver (null when unknown).
+     */
+    public record Nearby(AvailableOrder order, Double distanceKm) {
+    }
+
+    public enum ChangeType { ADDED, REMOVED }
+
+    /**
+     * Feed delta pushed to {@code /topic/drivers.{id}.available}; {@code order} is null on REMOVED.
+     */
+    public record Change(ChangeType type, UUID orderId, AvailableOrder order) {
+    }
+}
@@ -0,0 +1,259 @@
+package com.quickbite.orders.driver;
+
+import com.quickbite.orders.entity.OrderStatus;
+import com.quickbite.orders.repository.OrderRepository;
+import com.quickbite.orders.service.OrderService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Batch dispatcher: on every tick, matches all unassigned READY orders against nearby online
+ * drivers at once instead of giving each order the single nearest driver as it becomes ready.
+ * <p>
+ * Each order × driver pair is scored (higher is better):
+ * <ul>
+ *   <li>distance to the vendor — 40% (linear, zero at {@code dispatch.batch.radius-km})</li>
+ *   <li>current load — 30% (active orders vs. {@code dispatch.batch.max-load})</li>
+ *   <li>success rate — 20% ({@code driver_profiles.success_rate})</li>
+ *   <li>shift duration — 10% (drivers early in their shift are preferred)</li>
+ * </ul>
+ * Pairs out of range or at full load are infeasible. The matrix is solved with
+ * {@link AssignmentSolver} ({@code dispatch.batch.strategy}: GREEDY or HUNGARIAN) and each match
+ * is applied through {@link OrderService#assignDispatchedDriver}, whose compare-and-set claim
+ * makes overlapping ticks (or several instances) safe. Driver notifications go through the order
+ * outbox to {@code OrderUpdatePublisher.publishDriverOrderAssignment}.
+ * <p>
+ * The matrix is capped at {@code dispatch.batch.max-orders} × {@code dispatch.batch.max-drivers};
+ * older orders are matched first and the rest wait for the next tick.
+ * <p>
+ * {@code dispatch.batch.max-load} defaults to 1: location broadcasts and delivery trails follow
+ * a driver's single current delivery ({@link ActiveDeliveryCache}), so a stacked second order
+ * would get neither until the first is delivered.
+ */
+@Slf4j
+@Service
+public class BatchDispatchService {
+
+    static final double WEIGHT_DISTANCE = 0.4;
+    static final double WEIGHT_LOAD = 0.3;
+    static final double WEIGHT_SUCCESS = 0.2;
+    static final double WEIGHT_SHIFT = 0.1;
+
+    /** Shift length at which the shift component reaches zero. */
+    private static final double SHIFT_FULL_HOURS = 10.0;
+
+    private static final List<OrderStatus> ACTIVE_STATUSES = List.of(
+            OrderStatus.ASSIGNED, OrderStatus.PICKED_UP, OrderStatus.ENROUTE);
+
+    private final OrderRepository orderRepository;
+    private final DriverProfileRepository driverProfileRepository;
+    private final DriverGeoIndex driverGeoIndex;
+    private final OrderService orderService;
+
+    // Metrics
+    private final Timer tickTimer;
+    private final Counter assignedCounter;
+    private final Counter lostCounter;
+    private final AtomicInteger backlog = new AtomicInteger();
+
+    @Value("${dispatch.batch.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${dispatch.batch.strategy:HUNGARIAN}")
+    private AssignmentSolver.Strategy strategy = AssignmentSolver.Strategy.HUNGARIAN;
+
+    @Value("${dispatch.batch.radius-km:10}")
+    private double radiusKm = 10;
+
+    @Value("${dispatch.batch.candidates-per-order:8}")
+    private int candidatesPerOrder = 8;
+
+    @Value("${dispatch.batch.max-orders:100}")
+    private int maxOrders = 100;
+
+    @Value("${dispatch.batch.max-drivers:200}")
+    private int maxDrivers = 200;
+
+    @Value("${dispatch.batch.max-load:1}")
+    private int maxLoad = 1;
+
+    public BatchDispatchService(OrderRepository orderRepository,
+                                DriverProfileRepository driverProfileRepository,
+                                DriverGeoIndex driverGeoIndex,
+                                OrderService orderService,
+                                MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.driverProfileRepository = driverProfileRepository;
+        this.driverGeoIndex = driverGeoIndex;
+        this.orderService = orderService;
+
+        this.tickTimer = Timer.builder("dispatch.batch.tick")
+                .description("Time to match and assign one batch of READY orders")
+                .register(meterRegistry);
+        this.assignedCounter = Counter.builder("dispatch.batch.assigned")
+                .description("Orders assigned by the batch dispatcher")
+                .register(meterRegistry);
+        this.lostCounter = Counter.builder("dispatch.batch.lost")
+                .description("Matches not applied because the order or driver changed meanwhile")
+                .register(meterRegistry);
+        Gauge.builder("dispatch.batch.backlog", backlog, AtomicInteger::get)
+                .description("Unassigned READY orders seen by the last tick")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${dispatch.batch.tick-ms:5000}", initialDelayString = "${dispatch.batch.tick-ms:5000}")
+    public void scheduledDispatch() {
+        if (!enabled || !driverGeoIndex.isReady()) {
+            return;
+        }
+        try {
+            tickTimer.record(() -> {
+                dispatch();
+            });
+        } catch (Exception e) {
+            log.error("Batch dispatch tick failed", e);
+        }
+    }
+
+    /**
+     * Run one matching round.
+     */
+    public DispatchRound dispatch() {
+        List<Object[]> rows = orderRepository.findDispatchBacklog(OrderStatus.READY, PageRequest.of(0, maxOrders));
+        backlog.set(rows.size());
+        if (rows.isEmpty()) {
+            return new DispatchRound(0, 0, 0, 0);
+        }
+
+        List<UUID> orderIds = new ArrayList<>(rows.size());
+        double[][] pickups = new double[rows.size()][];
+        Map<UUID, DriverGeoIndex.Candidate> candidates = new LinkedHashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] row = rows.get(i);
+            orderIds.add((UUID) row[0]);
+            pickups[i] = new double[]{((BigDecimal) row[1]).doubleValue(), ((BigDecimal) row[2]).doubleValue()};
+            for (DriverGeoIndex.Candidate candidate
+                    : driverGeoIndex.nearest(pickups[i][0], pickups[i][1], radiusKm, candidatesPerOrder)) {
+                if (candidates.size() >= maxDrivers && !candidates.containsKey(candidate.driverId())) break;
+                candidates.putIfAbsent(candidate.driverId(), candidate);
+            }
+        }
+        if (candidates.isEmpty()) {
+            log.debug("Batch dispatch: {} order(s) waiting, no drivers in range", rows.size());
+            return new DispatchRound(rows.size(), 0, 0, 0);
+        }
+
+        List<DriverGeoIndex.Candidate> drivers = new ArrayList<>(candidates.values());
+        double[][] scores = score(pickups, drivers, loadByDriver(candidates.keySet()), profilesByDriver(candidates.keySet()));
+        int[] match = AssignmentSolver.solve(scores, strategy);
+
+        int matched = 0;
+        int assigned = 0;
+        for (int i = 0; i < match.length; i++) {
+            if (match[i] < 0) continue;
+            matched++;
+            UUID orderId = orderIds.get(i);
+            DriverGeoIndex.Candidate driver = drivers.get(match[i]);
+            double distanceKm = DriverGeoIndex.haversineKm(pickups[i][0], pickups[i][1], driver.lat(), driver.lng());
+            try {
+                boolean applied = orderService.assignDispatchedDriver(orderId, driver.driverId(), Map.of(
+                        "source", "batch-dispatch",
+                        "strategy", strategy.name(),
+                        "score", Math.round(scores[i][match[i]] * 1000) / 1000.0,
+                        "distanceKm", Math.round(distanceKm * 10) / 10.0));
+                if (applied) {
+                    assigned++;
+                } else {
+                    lostCounter.increment();
+                }
+            } catch (Exception e) {
+                lostCounter.increment();
+                log.warn("Batch dispatch could not assign driver {} to order {}: {}",
+                        driver.driverId(), orderId, e.getMessage());
+            }
+        }
+        assignedCounter.increment(assigned);
+        log.info("Batch dispatch ({}): {} order(s) × {} driver(s), {} matched, {} assigned",
+                strategy, orderIds.size(), drivers.size(), matched, assigned);
+        return new DispatchRound(orderIds.size(), drivers.size(), matched, assigned);
+    }
+
+    double[][] score(double[][] pickups, List<DriverGeoIndex.Candidate> drivers,
+                     Map<UUID, Long> load, Map<UUID, DriverProfile> profiles) {
+        OffsetDateTime now = OffsetDateTime.now();
+        double[] driverTerms = new double[drivers.size()];
+        for (int j = 0; j < drivers.size(); j++) {
+            UUID driverId = drivers.get(j).driverId();
+            long active = load.getOrDefault(driverId, 0L);
+            if (active >= maxLoad) {
+                driverTerms[j] = Double.NaN;
+                continue;
+            }
+            DriverProfile profile = profiles.get(driverId);
+            double success = profile != null && profile.getSuccessRate() != null
+                    ? profile.getSuccessRate().doubleValue() / 100.0 : 1.0;
+            double shiftHours = profile != null && profile.getShiftStartedAt() != null
+                    ? Duration.between(profile.getShiftStartedAt(), now).toMinutes() / 60.0 : 0.0;
+            driverTerms[j] = WEIGHT_LOAD * (1.0 - (double) active / maxLoad)
+                    + WEIGHT_SUCCESS * clamp(success)
+                    + WEIGHT_SHIFT * (1.0 - clamp(shiftHours / SHIFT_FULL_HOURS));
+        }
+
+        double[][] scores = new double[pickups.length][drivers.size()];
+        for (int i = 0; i < pickups.length; i++) {
+            for (int j = 0; j < drivers.size(); j++) {
+                DriverGeoIndex.Candidate driver = drivers.get(j);
+                double distanceKm = DriverGeoIndex.haversineKm(pickups[i][0], pickups[i][1], driver.lat(), driver.lng());
+                scores[i][j] = Double.isNaN(driverTerms[j]) || distanceKm > radiusKm
+                        ? Double.NaN
+                        : WEIGHT_DISTANCE * (1.0 - distanceKm / radiusKm) + driverTerms[j];
+            }
+        }
+        return scores;
+    }
+
+    private Map<UUID, Long> loadByDriver(Collection<UUID> driverIds) {
+        Map<UUID, Long> load = new HashMap<>();
+        for (Object[] row : orderRepository.countActiveByDriverIds(driverIds, ACTIVE_STATUSES)) {
+            load.put((UUID) row[0], ((Number) row[1]).longValue());
+        }
+        return load;
+    }
+
+    private Map<UUID, DriverProfile> profilesByDriver(Collection<UUID> driverIds) {
+        Map<UUID, DriverProfile> profiles = new HashMap<>();
+        for (DriverProfile profile : driverProfileRepository.findByUserIds(driverIds)) {
+            profiles.put(profile.getUser().getId(), profile);
+        }
+        return profiles;
+    }
+
+    private static double clamp(double value) {
+        return Math.max(0.0, Math.min(1.0, value));
+    }
+
+    /**
+     * Outcome of one dispatch tick.
+     */
+    public record DispatchRound(int orders, int drivers, int matched, int assigned) {
+    }
+}
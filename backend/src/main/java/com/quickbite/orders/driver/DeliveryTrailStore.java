@@ -0,0 +1,269 @@
+package com.quickbite.orders.driver;
+
+import com.quickbite.orders.entity.Order;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-order GPS trail of an active delivery (ASSIGNED, PICKED_UP, ENROUTE).
+ * <p>
+ * Location pings for an active order are appended in memory. When the order is delivered or
+ * cancelled the trail is simplified with Douglas–Peucker ({@code delivery.trail.tolerance-meters})
+ * and stored as one {@link GpsTrailCodec}-encoded row in {@code order_gps_trails}, replacing
+ * the per-ping {@code delivery_status} "Location update" rows. Long deliveries are simplified
+ * in place when they reach {@code delivery.trail.max-points}.
+ * <p>
+ * The in-memory trail only holds the pings that reached this instance; with several replicas a
+ * delivery's pings are spread across them. Completion therefore always reads the driver's
+ * {@code driver_locations} samples from the order's {@code assigned_at} (where the driver was
+ * before taking the order is not part of its trail) and merges them with the local
+ * points (which cover pings not yet flushed), and the live trail served while the delivery is in
+ * progress is built the same way. The local trail is a buffer, not the source of truth: losing it
+ * to a restart or eviction costs at most the pings still waiting in that instance's ingest queue.
+ */
+@Slf4j
+@Component
+public class DeliveryTrailStore {
+
+    private static final String INSERT_TRAIL = """
+            INSERT INTO order_gps_trails (order_id, driver_id, encoding, raw_points, stored_points, started_at, ended_at, trail)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (order_id) DO NOTHING
+            """;
+
+    private static final String SELECT_TRAIL = """
+            SELECT driver_id, raw_points, trail FROM order_gps_trails WHERE order_id = ?
+            """;
+
+    private static final String SELECT_ACTIVE_ORDER = """
+            SELECT driver_id, COALESCE(assigned_at, created_at) AS since FROM orders
+            WHERE id = ? AND driver_id IS NOT NULL AND status IN ('ASSIGNED', 'PICKED_UP', 'ENROUTE')
+            """;
+
+    private static final String SELECT_SAMPLES = """
+            SELECT lat, lng, recorded_at FROM driver_locations
+            WHERE driver_id = ? AND recorded_at >= ? AND recorded_at <= ?
+            ORDER BY recorded_at
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate ownTransaction;
+    private final Map<UUID, Trail> trails = new ConcurrentHashMap<>();
+
+    // Metrics
+    private final Counter storedCounter;
+    private final Counter rawPointsCounter;
+    private final Counter storedPointsCounter;
+
+    @Value("${delivery.trail.tolerance-meters:8}")
+    private double toleranceMeters = 8;
+
+    @Value("${delivery.trail.max-points:5000}")
+    private int maxPoints = 5_000;
+
+    @Value("${delivery.trail.idle-minutes:240}")
+    private long idleMinutes = 240;
+
+    public DeliveryTrailStore(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        // A failed insert must not abort the caller's (outbox relay) transaction
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.storedCounter = Counter.builder("delivery.trail.stored")
+                .description("Delivery GPS trails persisted")
+                .register(meterRegistry);
+        this.rawPointsCounter = Counter.builder("delivery.trail.points.raw")
+                .description("GPS points collected for persisted trails")
+                .register(meterRegistry);
+        this.storedPointsCounter = Counter.builder("delivery.trail.points.stored")
+                .description("GPS points kept after simplification")
+                .register(meterRegistry);
+        Gauge.builder("delivery.trail.active", trails, Map::size)
+                .description("Deliveries with an in-memory GPS trail")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Add a point to an active delivery's trail.
+     */
+    public void append(UUID orderId, UUID driverId, double lat, double lng, Instant at) {
+        Trail trail = trails.computeIfAbsent(orderId, id -> new Trail(driverId));
+        synchronized (trail) {
+            trail.add(new GpsTrailCodec.Point(lat, lng, at.toEpochMilli()), maxPoints, toleranceMeters);
+        }
+    }
+
+    /**
+     * Simplify, encode and store the trail of a delivered or cancelled order. Idempotent:
+     * a trail already stored for the order is kept.
+     */
+    public void complete(Order order) {
+        Trail trail = trails.remove(order.getId());
+        UUID driverId = trail != null ? trail.driverId
+                : order.getDriver() != null ? order.getDriver().getId() : null;
+        if (driverId == null) {
+            return;
+        }
+        LocalPoints local = snapshot(trail);
+        OffsetDateTime until = order.getDeliveredAt() != null ? order.getDeliveredAt()
+                : order.getCancelledAt() != null ? order.getCancelledAt() : OffsetDateTime.now();
+        OffsetDateTime since = order.getAssignedAt() != null ? order.getAssignedAt()
+                : order.getCreatedAt() != null ? order.getCreatedAt() : until.minusHours(6);
+        List<GpsTrailCodec.Point> points = merge(local.points(), samplesFromHistory(driverId, since, until), since);
+        if (points.isEmpty()) {
+            return;
+        }
+        int rawPoints = Math.max(local.rawPoints(), points.size());
+
+        List<GpsTrailCodec.Point> simplified = GpsTrailCodec.simplify(points, toleranceMeters);
+        byte[] encoded = GpsTrailCodec.encode(simplified);
+        ownTransaction.executeWithoutResult(status -> jdbcTemplate.update(INSERT_TRAIL,
+                order.getId(), driverId, GpsTrailCodec.VERSION, rawPoints, simplified.size(),
+                new Timestamp(simplified.get(0).epochMillis()),
+                new Timestamp(simplified.get(simplified.size() - 1).epochMillis()),
+                encoded));
+        storedCounter.increment();
+        rawPointsCounter.increment(rawPoints);
+        storedPointsCounter.increment(simplified.size());
+        log.debug("Stored GPS trail for order {}: {} raw point(s) -> {} ({} bytes)",
+                order.getId(), rawPoints, simplified.size(), encoded.length);
+    }
+
+    /**
+     * The live trail of an active delivery, or the stored trail of a finished one (empty until
+     * the outbox relay has stored it).
+     */
+    public Optional<DeliveryTrail> getTrail(UUID orderId) {
+        Trail trail = trails.get(orderId);
+        List<ActiveDelivery> active = jdbcTemplate.query(SELECT_ACTIVE_ORDER, (rs, row) -> new ActiveDelivery(
+                rs.getObject("driver_id", UUID.class),
+                rs.getObject("since", OffsetDateTime.class)), orderId);
+        if (!active.isEmpty()) {
+            ActiveDelivery delivery = active.get(0);
+            LocalPoints local = snapshot(trail);
+            OffsetDateTime since = delivery.since() != null ? delivery.since()
+                    : OffsetDateTime.now().minusHours(6);
+            List<GpsTrailCodec.Point> points = merge(local.points(),
+                    samplesFromHistory(delivery.driverId(), since, OffsetDateTime.now()), since);
+            int rawPoints = Math.max(local.rawPoints(), points.size());
+            if (points.size() > maxPoints) {
+                points = GpsTrailCodec.simplify(points, toleranceMeters);
+            }
+            return Optional.of(new DeliveryTrail(orderId, delivery.driverId(), true, rawPoints, points));
+        }
+        return jdbcTemplate.query(SELECT_TRAIL, rs -> {
+            if (!rs.next()) {
+                return Optional.<DeliveryTrail>empty();
+            }
+            return Optional.of(new DeliveryTrail(orderId,
+                    rs.getObject("driver_id", UUID.class),
+                    false,
+                    rs.getInt("raw_points"),
+                    GpsTrailCodec.decode(rs.getBytes("trail"))));
+        }, orderId);
+    }
+
+    /**
+     * Drop trails of deliveries that stopped receiving pings without completing; their pings
+     * are in driver_locations, which completion reads anyway.
+     */
+    @Scheduled(fixedDelay = 600_000, initialDelay = 600_000)
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleMinutes * 60_000;
+        trails.values().removeIf(trail -> trail.lastAppended < cutoff);
+    }
+
+    int activeCount() {
+        return trails.size();
+    }
+
+    private List<GpsTrailCodec.Point> samplesFromHistory(UUID driverId, OffsetDateTime since, OffsetDateTime until) {
+        return jdbcTemplate.query(SELECT_SAMPLES, (rs, row) -> new GpsTrailCodec.Point(
+                rs.getDouble("lat"), rs.getDouble("lng"),
+                rs.getTimestamp("recorded_at").getTime()), driverId, since, until);
+    }
+
+    private static LocalPoints snapshot(Trail trail) {
+        if (trail == null) {
+            return new LocalPoints(List.of(), 0);
+        }
+        synchronized (trail) {
+            return new LocalPoints(new ArrayList<>(trail.points), trail.rawPoints);
+        }
+    }
+
+    /**
+     * Union of local and stored samples from {@code since} on, in time order; a local point wins
+     * over a stored sample with the same timestamp (the same ping, flushed).
+     */
+    static List<GpsTrailCodec.Point> merge(List<GpsTrailCodec.Point> local, List<GpsTrailCodec.Point> history,
+                                           OffsetDateTime since) {
+        long sinceMillis = since.toInstant().toEpochMilli();
+        TreeMap<Long, GpsTrailCodec.Point> byTime = new TreeMap<>();
+        for (GpsTrailCodec.Point point : history) {
+            byTime.put(point.epochMillis(), point);
+        }
+        for (GpsTrailCodec.Point point : local) {
+            byTime.put(point.epochMillis(), point);
+        }
+        return new ArrayList<>(byTime.tailMap(sinceMillis, true).values());
+    }
+
+    private record LocalPoints(List<GpsTrailCodec.Point> points, int rawPoints) {
+    }
+
+    private record ActiveDelivery(UUID driverId, OffsetDateTime since) {
+    }
+
+    private static final class Trail {
+        private final UUID driverId;
+        private final List<GpsTrailCodec.Point> points = new ArrayList<>();
+        private int rawPoints;
+        private volatile long lastAppended = System.currentTimeMillis();
+
+        private Trail(UUID driverId) {
+            this.driverId = driverId;
+        }
+
+        private void add(GpsTrailCodec.Point point, int maxPoints, double toleranceMeters) {
+            rawPoints++;
+            lastAppended = System.currentTimeMillis();
+            points.add(point);
+            if (points.size() >= maxPoints) {
+                List<GpsTrailCodec.Point> simplified = GpsTrailCodec.simplify(points, toleranceMeters);
+                points.clear();
+                points.addAll(simplified);
+            }
+        }
+    }
+
+    /**
+     * A delivery's GPS trail; {@code live} while the delivery is still in progress.
+     */
+    public record DeliveryTrail(UUID orderId, UUID driverId, boolean live, int rawPoints,
+                                List<GpsTrailCodec.Point> points) {
+    }
+}
@@ -12,11 +12,16 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 /**
  * Phase 4.1: Enhanced auto-dispatch engine with real spatial queries and driver scoring.
  * Scoring: distance (40%), current load (30%), success rate (20%), shift duration (10%).
+ * <p>
+ * Candidates come from the in-memory {@link DriverGeoIndex}; the {@code driver_locations}
+ * scan is only used until the index has loaded after startup. Only drivers that are online
+ * in {@link DriverPresenceService} are considered.
  */
 @Slf4j
 @Service
@@ -25,6 +30,11 @@ public class DriverAssignmentService {
 
     private final UserRepository userRepository;
     private final DriverLocationRepository driverLocationRepository;
+    private final DriverGeoIndex driverGeoIndex;
+    private final DriverPresenceService driverPresenceService;
+
+    /** Nearest index candidates checked against users before falling back. */
+    private static final int INDEX_CANDIDATES = 5;
 
     @PersistenceContext
     private EntityManager entityManager;
@@ -41,7 +51,74 @@ public class DriverAssignmentService {
 
         log.info("Searching for available driver near lat={}, lng={}, radius={}km", latitude, longitude, radiusKm);
 
-        // Try to use real location data from driver_locations table
+        Set<UUID> online = driverPresenceService.onlineDriverIds();
+        if (online.isEmpty()) {
+            log.warn("No available drivers found: nobody is online");
+            return Optional.empty();
+        }
+
+        if (driverGeoIndex.isReady()) {
+            for (DriverGeoIndex.Candidate candidate : driverGeoIndex.nearest(latitude, longitude, radiusKm, INDEX_CANDIDATES)) {
+                Optional<User> user = userRepository.findById(candidate.driverId())
+                        .filter(u -> Boolean.TRUE.equals(u.getActive()))
+                        .filter(u -> u.getRole() != null && "DRIVER".equals(u.getRole().getName()));
+                if (user.isPresent()) {
+                    DriverInfo info = DriverInfo.builder()
+                            .driverId(candidate.driverId())
+                            .name(user.get().getName())
+                            .phone(user.get().getPhone())
+                            .lat(candidate.lat())
+                            .lng(candidate.lng())
+                            .distanceKm(candidate.distanceKm())
+                            .build();
+                    log.info("Found driver via geo index: {} ({}km away)", info.getName(), String.format("%.1f", info.getDistanceKm()));
+                    return Optional.of(info);
+                }
+            }
+            log.debug("No indexed drivers within {}km, falling back", radiusKm);
+        } else {
+            // Index not loaded yet: use real location data from driver_locations table
+            Optional<DriverInfo> fromLocations = findNearestFromLocations(latitude, longitude, radiusKm, online);
+            if (fromLocations.isPresent()) {
+                return fromLocations;
+            }
+        }
+
+        // Fallback: any active online driver, position unknown
+        var driver = userRepository.findAllById(online).stream()
+                .filter(u -> u.getRole() != null && "DRIVER".equals(u.getRole().getName()))
+                .filter(u -> Boolean.TRUE.equals(u.getActive()))
+                .findFirst();
+
+        if (driver.isEmpty()) {
+            log.warn("No available drivers found");
+            return Optional.empty();
+        }
+
+        var driverUser = driver.get();
+        var defaultAddress = driverUser.getAddresses().stream()
+                .filter(addr -> addr.getIsDefault() != null && addr.getIsDefault())
+                .findFirst()
+                .orElse(null);
+
+        DriverInfo info = DriverInfo.builder()
+                .driverId(driverUser.getId())
+                .name(driverUser.getName())
+                .phone(driverUser.getPhone())
+                .lat(defaultAddress != null && defaultAddress.getLat() != null ? defaultAddress.getLat().doubleValue() : null)
+                .lng(defaultAddress != null && defaultAddress.getLng() != null ? defaultAddress.getLng().doubleValue() : null)
+                .distanceKm(null)
+                .build();
+
+        log.info("Fallback driver assigned: {} (ID: {})", info.getName(), info.getDriverId());
+        return Optional.of(info);
+    }
+
+    /**
+     * Latest position per online driver from the last 10 minutes of {@code driver_locations}.
+     */
+    private Optional<DriverInfo> findNearestFromLocations(Double latitude, Double longitude, Double radiusKm,
+                                                          Set<UUID> online) {
         try {
             // Get latest location for each active driver within the last 10 minutes
             String sql = """
@@ -55,10 +132,9 @@ public class DriverAssignmentService {
                 FROM driver_locations dl
                 INNER JOIN users u ON dl.driver_id = u.id
                 INNER JOIN roles r ON u.role_id = r.id
-                LEFT JOIN driver_profiles dp ON u.id = dp.user_id
                 WHERE r.name = 'DRIVER'
                   AND u.active = true
-                  AND COALESCE(dp.is_online, false) = true
+                  AND dl.driver_id IN (:online)
                   AND dl.recorded_at > NOW() - INTERVAL '10 minutes'
                 ORDER BY dl.driver_id, dl.recorded_at DESC
                 """;
@@ -67,6 +143,7 @@ public class DriverAssignmentService {
             List<Object[]> rows = entityManager.createNativeQuery(sql)
                     .setParameter("lat", latitude)
                     .setParameter("lng", longitude)
+                    .setParameter("online", online)
                     .getResultList();
 
             // Filter by radius and sort by distance
@@ -97,35 +174,7 @@ public class DriverAssignmentService {
         } catch (Exception e) {
             log.warn("Spatial query failed, falling back to simple assignment: {}", e.getMessage());
         }
-
-        // Fallback: Find any active online driver
-        var driver = userRepository.findAll().stream()
-                .filter(u -> u.getRole() != null && "DRIVER".equals(u.getRole().getName()))
-                .filter(u -> Boolean.TRUE.equals(u.getActive()))
-                .findFirst();
-
-        if (driver.isEmpty()) {
-            log.warn("No available drivers found");
-            return Optional.empty();
-        }
-
-        var driverUser = driver.get();
-        var defaultAddress = driverUser.getAddresses().stream()
-                .filter(addr -> addr.getIsDefault() != null && addr.getIsDefault())
-                .findFirst()
-                .orElse(null);
-
-        DriverInfo info = DriverInfo.builder()
-                .driverId(driverUser.getId())
-                .name(driverUser.getName())
-                .phone(driverUser.getPhone())
-                .lat(defaultAddress != null && defaultAddress.getLat() != null ? defaultAddress.getLat().doubleValue() : null)
-                .lng(defaultAddress != null && defaultAddress.getLng() != null ? defaultAddress.getLng().doubleValue() : null)
-                .distanceKm(null)
-                .build();
-
-        log.info("Fallback driver assigned: {} (ID: {})", info.getName(), info.getDriverId());
-        return Optional.of(info);
+        return Optional.empty();
     }
 
     /**
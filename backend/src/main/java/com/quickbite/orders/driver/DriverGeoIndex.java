@@ -0,0 +1,331 @@
+package com.quickbite.orders.driver;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory spatial index of online drivers for dispatch.
+ * <p>
+ * Drivers are bucketed in a uniform lat/lng grid ({@code driver.geo-index.cell-km} square cells
+ * at the equator). Location pings move a driver between buckets, shift start/end add and remove
+ * them, and {@link #nearest} scans rings of cells outward from the query point, stopping as soon
+ * as no unscanned cell can beat the k-th best candidate — so a lookup touches only the drivers
+ * around the pickup instead of every recent {@code driver_locations} row.
+ * <p>
+ * The online set follows {@link DriverPresenceEvent}s and positions follow location pings;
+ * {@link #reconcile()} periodically replaces the online set with the drivers that are present
+ * in {@link DriverPresenceService} and active in {@code driver_profiles} to heal missed events
+ * (rolled-back transactions, other instances, restarts). Until the first reconciliation the
+ * index reports {@link #isReady()} false and callers fall back to the database.
+ */
+@Slf4j
+@Component
+public class DriverGeoIndex {
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    private final DriverProfileRepository driverProfileRepository;
+    private final DriverPresenceService driverPresenceService;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Map<UUID, DriverState> drivers = new ConcurrentHashMap<>();
+    private final Map<Long, Set<UUID>> cells = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    // Metrics
+    private final Counter reconcileCorrections;
+
+    private final GeoGrid grid;
+
+    @Value("${driver.geo-index.max-age-minutes:10}")
+    private long maxAgeMinutes = 10;
+
+    public DriverGeoIndex(DriverProfileRepository driverProfileRepository,
+                          DriverPresenceService driverPresenceService,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          @Value("${driver.geo-index.cell-km:1.0}") double cellKm) {
+        this.driverProfileRepository = driverProfileRepository;
+        this.driverPresenceService = driverPresenceService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.grid = new GeoGrid(cellKm);
+
+        this.reconcileCorrections = Counter.builder("driver.geo_index.reconcile.corrections")
+                .description("Drivers added, removed or moved by reconciliation with presence and driver_profiles")
+                .register(meterRegistry);
+        Gauge.builder("driver.geo_index.drivers", this, DriverGeoIndex::indexedCount)
+                .description("Online drivers with a position in the dispatch index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Driver started a shift or went online. Indexed once a position is known.
+     */
+    public void online(UUID driverId) {
+        drivers.compute(driverId, (id, state) -> {
+            DriverState next = state != null ? state : new DriverState();
+            next.online = true;
+            next.changedAt = System.currentTimeMillis();
+            place(id, next);
+            return next;
+        });
+    }
+
+    /**
+     * Driver ended a shift or went offline.
+     */
+    public void offline(UUID driverId) {
+        drivers.computeIfPresent(driverId, (id, state) -> {
+            unplace(id, state);
+            return null;
+        });
+    }
+
+    @EventListener
+    public void onPresenceChanged(DriverPresenceEvent event) {
+        if (event.online()) {
+            online(event.driverId());
+        } else {
+            offline(event.driverId());
+        }
+    }
+
+    /**
+     * Location ping. Positions of offline drivers are remembered but not searchable.
+     */
+    public void updateLocation(UUID driverId, double lat, double lng) {
+        long now = System.currentTimeMillis();
+        drivers.compute(driverId, (id, state) -> {
+            DriverState next = state != null ? state : new DriverState();
+            next.lat = lat;
+            next.lng = lng;
+            next.pingedAt = now;
+            next.positioned = true;
+            next.changedAt = now;
+            place(id, next);
+            return next;
+        });
+    }
+
+    /**
+     * Up to {@code limit} online drivers within {@code radiusKm} of the point, nearest first.
+     * Drivers whose last ping is older than {@code driver.geo-index.max-age-minutes} are skipped.
+     */
+    public List<Candidate> nearest(double lat, double lng, double radiusKm, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        long staleBefore = System.currentTimeMillis() - maxAgeMinutes * 60_000;
+        double cellKm = grid.cellKm();
+        GeoGrid.Rings rings = grid.rings(lat, radiusKm);
+        double cosLat = rings.cosLat();
+        int latRings = rings.lat();
+        int lngRings = rings.lng();
+        int maxRing = Math.max(latRings, lngRings);
+
+        long latIdx = grid.latIndex(lat);
+        long lngIdx = grid.lngIndex(lng);
+        // Max-heap on distance holding the best `limit` candidates so far
+        PriorityQueue<Candidate> best = new PriorityQueue<>(
+                Comparator.comparingDouble(Candidate::distanceKm).reversed());
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // Every cell in this ring is at least (ring - 1) narrow cells away from the query point
+            if (best.size() == limit && (ring - 1) * cellKm * cosLat > best.peek().distanceKm()) {
+                break;
+            }
+            for (long dLat = -ring; dLat <= ring; dLat++) {
+                if (Math.abs(dLat) > latRings) continue;
+                boolean edgeRow = Math.abs(dLat) == ring;
+                for (long dLng = -ring; dLng <= ring; dLng += edgeRow ? 1 : 2L * ring) {
+                    if (Math.abs(dLng) <= lngRings) {
+                        scanCell(GeoGrid.cellKey(latIdx + dLat, lngIdx + dLng), lat, lng, radiusKm,
+                                staleBefore, limit, best);
+                    }
+                    if (ring == 0) break;
+                }
+            }
+        }
+
+        List<Candidate> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(Candidate::distanceKm));
+        return result;
+    }
+
+    /**
+     * Last known position of the driver (from pings or driver_profiles), online or not.
+     */
+    public Optional<Position> position(UUID driverId) {
+        DriverState state = drivers.get(driverId);
+        if (state == null || !state.positioned) {
+            return Optional.empty();
+        }
+        return Optional.of(new Position(state.lat, state.lng, state.pingedAt));
+    }
+
+    /**
+     * True once the index has been reconciled at least once.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Replace the online set with the present drivers whose profile is online and active.
+     * Drivers changed by an event after the snapshot was read are left alone; the next run
+     * picks them up.
+     */
+    @Scheduled(fixedDelayString = "${driver.geo-index.reconcile-ms:60000}")
+    public void reconcile() {
+        long snapshotAt = System.currentTimeMillis();
+        Set<UUID> present = driverPresenceService.onlineDriverIds();
+        Map<UUID, DriverProfile> online = readOnlyTransaction.execute(status -> {
+            Map<UUID, DriverProfile> byUser = new HashMap<>();
+            for (DriverProfile profile : driverProfileRepository.findOnlineActiveDrivers()) {
+                if (present.contains(profile.getUser().getId())) {
+                    byUser.put(profile.getUser().getId(), profile);
+                }
+            }
+            return byUser;
+        });
+
+        int corrections = 0;
+        for (UUID driverId : drivers.keySet()) {
+            if (!online.containsKey(driverId)) {
+                DriverState removed = drivers.computeIfPresent(driverId, (id, state) -> {
+                    if (state.changedAt > snapshotAt || !state.online) return state;
+                    unplace(id, state);
+                    return null;
+                });
+                if (removed == null) corrections++;
+            }
+        }
+        for (Map.Entry<UUID, DriverProfile> entry : online.entrySet()) {
+            DriverProfile profile = entry.getValue();
+            boolean[] corrected = {false};
+            drivers.compute(entry.getKey(), (id, state) -> {
+                DriverState next = state != null ? state : new DriverState();
+                if (next.changedAt > snapshotAt) return next;
+                if (!next.online) {
+                    next.online = true;
+                    corrected[0] = true;
+                }
+                if (!next.positioned && profile.getCurrentLat() != null && profile.getCurrentLng() != null) {
+                    next.lat = profile.getCurrentLat().doubleValue();
+                    next.lng = profile.getCurrentLng().doubleValue();
+                    next.pingedAt = profile.getLastSeenAt() != null
+                            ? profile.getLastSeenAt().toInstant().toEpochMilli() : 0L;
+                    next.positioned = true;
+                    corrected[0] = true;
+                }
+                place(id, next);
+                return next;
+            });
+            if (corrected[0]) corrections++;
+        }
+
+        if (ready && corrections > 0) {
+            reconcileCorrections.increment(corrections);
+            log.info("Driver geo index reconciled: {} correction(s), {} online", corrections, online.size());
+        }
+        ready = true;
+    }
+
+    int indexedCount() {
+        return cells.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private void scanCell(long key, double lat, double lng, double radiusKm, long staleBefore,
+                          int limit, PriorityQueue<Candidate> best) {
+        Set<UUID> bucket = cells.get(key);
+        if (bucket == null) return;
+        for (UUID driverId : bucket) {
+            DriverState state = drivers.get(driverId);
+            if (state == null || state.pingedAt < staleBefore) continue;
+            double dLat = state.lat;
+            double dLng = state.lng;
+            double distance = haversineKm(lat, lng, dLat, dLng);
+            if (distance > radiusKm) continue;
+            if (best.size() < limit) {
+                best.add(new Candidate(driverId, dLat, dLng, distance));
+            } else if (distance < best.peek().distanceKm()) {
+                best.poll();
+                best.add(new Candidate(driverId, dLat, dLng, distance));
+            }
+        }
+    }
+
+    /** Move the driver to the bucket for its current position (called inside drivers.compute). */
+    private void place(UUID driverId, DriverState state) {
+        long key = state.online && state.positioned ? grid.cellKey(state.lat, state.lng) : -1L;
+        if (key == state.cellKey) return;
+        unplace(driverId, state);
+        if (key != -1L) {
+            cells.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(driverId);
+            state.cellKey = key;
+        }
+    }
+
+    private void unplace(UUID driverId, DriverState state) {
+        if (state.cellKey == -1L) return;
+        cells.computeIfPresent(state.cellKey, (k, bucket) -> {
+            bucket.remove(driverId);
+            return bucket.isEmpty() ? null : bucket;
+        });
+        state.cellKey = -1L;
+    }
+
+    /**
+     * Great-circle distance between two points in kilometres.
+     */
+    public static double haversineKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    private static final class DriverState {
+        private volatile double lat;
+        private volatile double lng;
+        private volatile long pingedAt;
+        private boolean positioned;
+        private boolean online;
+        private long changedAt;
+        private long cellKey = -1L;
+    }
+
+    /**
+     * An online driver near a query point.
+     */
+    public record Candidate(UUID driverId, double lat, double lng, double distanceKm) {
+    }
+
+    /**
+     * A driver's last known position and when it was reported (epoch millis, 0 if unknown).
+     */
+    public record Position(double lat, double lng, long pingedAt) {
+    }
+}
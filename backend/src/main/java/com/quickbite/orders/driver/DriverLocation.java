@@ -1,5 +1,6 @@
 package com.quickbite.orders.driver;
 
+import com.quickbite.common.id.TimeOrderedId;
 import com.quickbite.users.entity.User;
 import jakarta.persistence.*;
 import lombok.*;
@@ -12,11 +13,12 @@ import java.util.UUID;
 /**
  * GPS sample point recorded while a driver is on-shift.
  * Stores recent location history for ETA estimation and audit.
+ * The table is partitioned by day on recorded_at (see {@link DriverLocationPartitionManager});
+ * V40 also adds a BRIN index on recorded_at, which JPA cannot declare.
  */
 @Entity
 @Table(name = "driver_locations", indexes = {
-        @Index(name = "idx_driver_locations_driver_time", columnList = "driver_id, recorded_at DESC"),
-        @Index(name = "idx_driver_locations_recorded", columnList = "recorded_at")
+        @Index(name = "idx_driver_locations_driver_time", columnList = "driver_id, recorded_at DESC")
 })
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
@@ -24,7 +26,7 @@ import java.util.UUID;
 public class DriverLocation {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
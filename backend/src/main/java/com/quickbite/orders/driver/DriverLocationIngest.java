@@ -0,0 +1,313 @@
+package com.quickbite.orders.driver;
+
+import com.quickbite.common.id.UuidV7;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Write-behind ingest for driver GPS pings.
+ * <p>
+ * {@link #offer} does all per-ping work in memory: a per-driver token bucket replaces the
+ * {@code COUNT} rate-guard query, repeated identical fixes are deduplicated, the dispatch
+ * {@link DriverGeoIndex} is updated immediately, and accepted pings go into a bounded lock-free
+ * queue. Pings for an active delivery are also added to its {@link DeliveryTrailStore} trail.
+ * Every ping — including deduplicated, rate-limited and dropped ones — also replaces the
+ * driver's entry in a latest-position map, so the rate guard only thins history and never
+ * delays the profile position or {@code last_seen_at}.
+ * Every {@code driver.location.ingest.flush-ms} the queue and the latest-position map are
+ * drained and written in one transaction with JDBC batches: {@code driver_locations} rows and
+ * one {@code driver_profiles} position update per driver.
+ * <p>
+ * When the queue is full the {@code driver.location.ingest.drop-policy} decides which ping is lost
+ * (DROP_OLDEST keeps the freshest positions, DROP_NEWEST keeps what is already queued). Pings
+ * still queued at shutdown are flushed; a crash loses at most one flush interval of history,
+ * which the next ping from each driver supersedes.
+ */
+@Slf4j
+@Component
+public class DriverLocationIngest {
+
+    public enum DropPolicy { DROP_OLDEST, DROP_NEWEST }
+
+    /** What happened to an offered ping. */
+    public enum Outcome { ACCEPTED, DEDUPLICATED, RATE_LIMITED, DROPPED }
+
+    private static final String INSERT_LOCATION = """
+            INSERT INTO driver_locations (id, driver_id, lat, lng, accuracy, speed, heading, recorded_at, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String UPDATE_PROFILE = """
+            UPDATE driver_profiles SET current_lat = ?, current_lng = ?, last_seen_at = ?, updated_at = ?
+            WHERE user_id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DriverGeoIndex driverGeoIndex;
+    private final DeliveryTrailStore deliveryTrailStore;
+
+    private final ConcurrentLinkedQueue<LocationPing> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Map<UUID, DriverWindow> windows = new ConcurrentHashMap<>();
+    /** driverId → newest ping since the last flush, for the driver_profiles update. */
+    private final Map<UUID, LocationPing> latestPositions = new ConcurrentHashMap<>();
+
+    // Metrics
+    private final Counter acceptedCounter;
+    private final Counter dedupedCounter;
+    private final Counter rateLimitedCounter;
+    private final Counter droppedCounter;
+    private final Counter flushedCounter;
+    private final Timer flushTimer;
+
+    @Value("${driver.location.ingest.capacity:20000}")
+    private int capacity = 20_000;
+
+    @Value("${driver.location.ingest.max-batch:5000}")
+    private int maxBatch = 5_000;
+
+    @Value("${driver.location.ingest.drop-policy:DROP_OLDEST}")
+    private DropPolicy dropPolicy = DropPolicy.DROP_OLDEST;
+
+    /** Max samples per driver per minute (same budget as the old COUNT guard). */
+    @Value("${driver.location.ingest.max-per-minute:12}")
+    private int maxPerMinute = 12;
+
+    /** Identical fixes within this window are not stored again. */
+    @Value("${driver.location.ingest.dedupe-ms:30000}")
+    private long dedupeMillis = 30_000;
+
+    public DriverLocationIngest(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                DriverGeoIndex driverGeoIndex,
+                                DeliveryTrailStore deliveryTrailStore,
+                                MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.driverGeoIndex = driverGeoIndex;
+        this.deliveryTrailStore = deliveryTrailStore;
+
+        this.acceptedCounter = Counter.builder("driver.location.ingest.accepted")
+                .description("GPS pings queued for write-behind")
+                .register(meterRegistry);
+        this.dedupedCounter = Counter.builder("driver.location.ingest.deduplicated")
+                .description("GPS pings repeating the previous fix")
+                .register(meterRegistry);
+        this.rateLimitedCounter = Counter.builder("driver.location.ingest.rate_limited")
+                .description("GPS pings over the per-driver budget")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("driver.location.ingest.dropped")
+                .description("GPS pings lost because the ingest queue was full")
+                .register(meterRegistry);
+        this.flushedCounter = Counter.builder("driver.location.ingest.flushed")
+                .description("GPS pings written to the database")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("driver.location.ingest.flush")
+                .description("Time to write one ingest batch")
+                .register(meterRegistry);
+        Gauge.builder("driver.location.ingest.queue", queued, AtomicInteger::get)
+                .description("GPS pings waiting to be flushed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Accept a ping for write-behind. The position is visible to dispatch immediately;
+     * the database rows are written on the next flush.
+     */
+    public Outcome offer(LocationPing ping) {
+        driverGeoIndex.updateLocation(ping.driverId(), ping.lat(), ping.lng());
+        rememberPosition(ping);
+
+        DriverWindow window = windows.computeIfAbsent(ping.driverId(), id -> new DriverWindow(maxPerMinute));
+        Outcome admitted = window.admit(ping, maxPerMinute, dedupeMillis);
+        if (admitted == Outcome.DEDUPLICATED) {
+            dedupedCounter.increment();
+            return admitted;
+        }
+        if (admitted == Outcome.RATE_LIMITED) {
+            rateLimitedCounter.increment();
+            return admitted;
+        }
+        if (ping.orderId() != null) {
+            deliveryTrailStore.append(ping.orderId(), ping.driverId(), ping.lat(), ping.lng(), ping.recordedAt());
+        }
+
+        if (queued.incrementAndGet() > capacity) {
+            if (dropPolicy == DropPolicy.DROP_NEWEST) {
+                queued.decrementAndGet();
+                droppedCounter.increment();
+                return Outcome.DROPPED;
+            }
+            if (queue.poll() != null) {
+                queued.decrementAndGet();
+                droppedCounter.increment();
+            }
+        }
+        queue.add(ping);
+        acceptedCounter.increment();
+        return Outcome.ACCEPTED;
+    }
+
+    /**
+     * Drain and write queued pings until the queue is empty or a batch is smaller than max-batch.
+     */
+    @Scheduled(fixedDelayString = "${driver.location.ingest.flush-ms:250}")
+    public void flush() {
+        Map<UUID, LocationPing> positions = drainPositions();
+        List<LocationPing> batch;
+        do {
+            batch = drain();
+            if (batch.isEmpty() && positions.isEmpty()) {
+                return;
+            }
+            List<LocationPing> toWrite = batch;
+            Map<UUID, LocationPing> positionsToWrite = positions;
+            try {
+                flushTimer.record(() -> write(toWrite, positionsToWrite.values()));
+                flushedCounter.increment(toWrite.size());
+            } catch (Exception e) {
+                droppedCounter.increment(toWrite.size());
+                // Positions go back for the next flush unless a newer ping replaced them meanwhile
+                positionsToWrite.values().forEach(this::rememberPosition);
+                log.error("Failed to write {} driver location ping(s)", toWrite.size(), e);
+                return;
+            }
+            positions = Map.of();
+        } while (batch.size() == maxBatch);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Forget rate windows of drivers that have not pinged for a while.
+     */
+    @Scheduled(fixedDelay = 600_000, initialDelay = 600_000)
+    public void evictIdleWindows() {
+        long cutoff = System.currentTimeMillis() - 600_000;
+        windows.values().removeIf(window -> window.lastSeenMillis < cutoff);
+    }
+
+    int queued() {
+        return queued.get();
+    }
+
+    private List<LocationPing> drain() {
+        List<LocationPing> batch = new ArrayList<>(Math.min(queued.get(), maxBatch));
+        LocationPing ping;
+        while (batch.size() < maxBatch && (ping = queue.poll()) != null) {
+            queued.decrementAndGet();
+            batch.add(ping);
+        }
+        return batch;
+    }
+
+    private Map<UUID, LocationPing> drainPositions() {
+        Map<UUID, LocationPing> positions = new HashMap<>();
+        for (Map.Entry<UUID, LocationPing> entry : latestPositions.entrySet()) {
+            if (latestPositions.remove(entry.getKey(), entry.getValue())) {
+                positions.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return positions;
+    }
+
+    private void rememberPosition(LocationPing ping) {
+        latestPositions.merge(ping.driverId(), ping, (a, b) -> b.recordedAt().isAfter(a.recordedAt()) ? b : a);
+    }
+
+    private void write(List<LocationPing> batch, Collection<LocationPing> positions) {
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> locations = new ArrayList<>(batch.size());
+        for (LocationPing ping : batch) {
+            Timestamp recordedAt = Timestamp.from(ping.recordedAt());
+            locations.add(new Object[]{UuidV7.next(), ping.driverId(),
+                    BigDecimal.valueOf(ping.lat()), BigDecimal.valueOf(ping.lng()),
+                    ping.accuracy(), ping.speed(), ping.heading(), recordedAt, now});
+        }
+        List<Object[]> profiles = new ArrayList<>(positions.size());
+        for (LocationPing ping : positions) {
+            profiles.add(new Object[]{BigDecimal.valueOf(ping.lat()), BigDecimal.valueOf(ping.lng()),
+                    Timestamp.from(ping.recordedAt()), now, ping.driverId()});
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!locations.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_LOCATION, locations);
+            }
+            if (!profiles.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPDATE_PROFILE, profiles);
+            }
+        });
+        log.debug("Flushed {} ping(s) and {} driver position(s)", batch.size(), profiles.size());
+    }
+
+    /**
+     * Token bucket plus last fix for one driver.
+     */
+    private static final class DriverWindow {
+        private double tokens;
+        private long refilledAt = System.currentTimeMillis();
+        private double lastLat = Double.NaN;
+        private double lastLng = Double.NaN;
+        private long lastStoredMillis;
+        private volatile long lastSeenMillis = System.currentTimeMillis();
+
+        private DriverWindow(int maxPerMinute) {
+            this.tokens = maxPerMinute;
+        }
+
+        private synchronized Outcome admit(LocationPing ping, int maxPerMinute, long dedupeMillis) {
+            long now = System.currentTimeMillis();
+            lastSeenMillis = now;
+            if (ping.lat() == lastLat && ping.lng() == lastLng && now - lastStoredMillis < dedupeMillis) {
+                return Outcome.DEDUPLICATED;
+            }
+            tokens = Math.min(maxPerMinute, tokens + (now - refilledAt) * maxPerMinute / 60_000.0);
+            refilledAt = now;
+            if (tokens < 1.0) {
+                return Outcome.RATE_LIMITED;
+            }
+            tokens -= 1.0;
+            lastLat = ping.lat();
+            lastLng = ping.lng();
+            lastStoredMillis = now;
+            return Outcome.ACCEPTED;
+        }
+    }
+
+    /**
+     * One GPS fix. {@code orderId} is set when the driver has an active delivery,
+     * which adds the fix to that order's trail.
+     */
+    public record LocationPing(UUID driverId, double lat, double lng,
+                               Double accuracy, Double speed, Double heading,
+                               Instant recordedAt, UUID orderId) {
+    }
+}
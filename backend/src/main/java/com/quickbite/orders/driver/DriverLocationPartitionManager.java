@@ -0,0 +1,155 @@
+package com.quickbite.orders.driver;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Maintains the daily range partitions of {@code driver_locations} (see V40).
+ * <p>
+ * Every run makes sure a partition exists for today and the next
+ * {@code driver.location.partitions.premake-days} UTC days, and drops partitions whose whole day
+ * ended more than {@code driver.location.partitions.retention-hours} ago. Dropping a partition is
+ * a catalog operation, so retention no longer deletes rows one by one, bloats the table or
+ * floods the WAL. Samples are therefore kept for at least the retention window and at most one
+ * day longer.
+ */
+@Slf4j
+@Component
+public class DriverLocationPartitionManager {
+
+    static final String PARENT = "driver_locations";
+    static final String PREFIX = PARENT + "_p";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private static final String LIST_PARTITIONS = """
+            SELECT c.relname FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            JOIN pg_class p ON p.oid = i.inhparent
+            WHERE p.relname = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Metrics
+    private final Counter createdCounter;
+    private final Counter droppedCounter;
+
+    @Value("${driver.location.partitions.premake-days:3}")
+    private int premakeDays = 3;
+
+    @Value("${driver.location.partitions.retention-hours:24}")
+    private int retentionHours = 24;
+
+    public DriverLocationPartitionManager(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+
+        this.createdCounter = Counter.builder("driver.location.partitions.created")
+                .description("driver_locations partitions created ahead of time")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("driver.location.partitions.dropped")
+                .description("driver_locations partitions dropped by retention")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Pre-create upcoming partitions and drop expired ones. Runs at startup and hourly.
+     */
+    @Scheduled(fixedDelayString = "${driver.location.partitions.maintain-ms:3600000}", initialDelay = 0)
+    public void maintain() {
+        maintain(OffsetDateTime.now(ZoneOffset.UTC));
+    }
+
+    void maintain(OffsetDateTime now) {
+        try {
+            TreeSet<LocalDate> existing = existingPartitions();
+            LocalDate today = now.withOffsetSameInstant(ZoneOffset.UTC).toLocalDate();
+            for (int i = 0; i <= premakeDays; i++) {
+                LocalDate day = today.plusDays(i);
+                if (!existing.contains(day)) {
+                    create(day);
+                }
+            }
+            for (LocalDate day : expired(existing, now)) {
+                drop(day);
+            }
+            // Stray rows outside the pre-created range; normally none
+            int stray = jdbcTemplate.update("DELETE FROM " + PARENT + "_default WHERE recorded_at < ?",
+                    now.minusHours(retentionHours));
+            if (stray > 0) {
+                log.info("Purged {} expired row(s) from {}_default", stray, PARENT);
+            }
+        } catch (Exception e) {
+            log.error("driver_locations partition maintenance failed", e);
+        }
+    }
+
+    /**
+     * Partition days whose upper bound is older than the retention window.
+     */
+    List<LocalDate> expired(TreeSet<LocalDate> existing, OffsetDateTime now) {
+        OffsetDateTime cutoff = now.minusHours(retentionHours);
+        List<LocalDate> expired = new ArrayList<>();
+        for (LocalDate day : existing) {
+            if (!day.plusDays(1).atStartOfDay().atOffset(ZoneOffset.UTC).isAfter(cutoff)) {
+                expired.add(day);
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Lower bound for history queries, so they only touch partitions that can still hold rows.
+     */
+    public OffsetDateTime retainedSince() {
+        return OffsetDateTime.now(ZoneOffset.UTC).minusHours(retentionHours).truncatedTo(ChronoUnit.DAYS);
+    }
+
+    private TreeSet<LocalDate> existingPartitions() {
+        TreeSet<LocalDate> days = new TreeSet<>();
+        for (String name : jdbcTemplate.queryForList(LIST_PARTITIONS, String.class, PARENT)) {
+            if (!name.startsWith(PREFIX)) continue;   // driver_locations_default
+            try {
+                days.add(LocalDate.parse(name.substring(PREFIX.length()), SUFFIX));
+            } catch (DateTimeParseException e) {
+                log.warn("Ignoring unexpected driver_locations partition {}", name);
+            }
+        }
+        return days;
+    }
+
+    private void create(LocalDate day) {
+        String name = PREFIX + SUFFIX.format(day);
+        try {
+            jdbcTemplate.execute(String.format(
+                    "CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s 00:00:00+00') TO ('%s 00:00:00+00')",
+                    name, PARENT, day, day.plusDays(1)));
+            createdCounter.increment();
+            log.info("Created partition {}", name);
+        } catch (Exception e) {
+            // Fails if driver_locations_default already holds rows for that day
+            log.warn("Could not create partition {}: {}", name, e.getMessage());
+        }
+    }
+
+    private void drop(LocalDate day) {
+        String name = PREFIX + SUFFIX.format(day);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + name);
+        droppedCounter.increment();
+        log.info("Dropped partition {} (older than {} hours)", name, retentionHours);
+    }
+}
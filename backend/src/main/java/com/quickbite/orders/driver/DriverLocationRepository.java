@@ -1,8 +1,6 @@
 package com.quickbite.orders.driver;
 
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
-import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.OffsetDateTime;
@@ -17,25 +15,14 @@ public interface DriverLocationRepository extends JpaRepository<DriverLocation,
 
     /**
      * Return the N most recent location points for a driver, newest first.
+     * The lower bound lets Postgres skip partitions outside the retention window.
      */
-    List<DriverLocation> findTop20ByDriverIdOrderByRecordedAtDesc(UUID driverId);
+    List<DriverLocation> findTop20ByDriverIdAndRecordedAtGreaterThanEqualOrderByRecordedAtDesc(
+            UUID driverId, OffsetDateTime since);
 
     /**
-     * Return this driver's most recent location point.
+     * Return this driver's most recent location point since the given time.
      */
-    DriverLocation findFirstByDriverIdOrderByRecordedAtDesc(UUID driverId);
-
-    /**
-     * Count how many samples a driver has recorded in the given window.
-     * Used for server-side rate-limit validation.
-     */
-    @Query("SELECT COUNT(dl) FROM DriverLocation dl WHERE dl.driver.id = :driverId AND dl.recordedAt >= :since")
-    long countByDriverIdSince(UUID driverId, OffsetDateTime since);
-
-    /**
-     * Prune old location samples older than the given cutoff.
-     */
-    @Modifying
-    @Query("DELETE FROM DriverLocation dl WHERE dl.recordedAt < :cutoff")
-    int deleteOlderThan(OffsetDateTime cutoff);
+    DriverLocation findFirstByDriverIdAndRecordedAtGreaterThanEqualOrderByRecordedAtDesc(
+            UUID driverId, OffsetDateTime since);
 }
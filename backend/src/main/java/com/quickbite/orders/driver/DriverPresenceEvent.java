@@ -0,0 +1,22 @@
+package com.quickbite.orders.driver;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Published by {@link DriverPresenceService} when a driver comes online or drops off.
+ * Listeners run synchronously on the thread that observed the change.
+ */
+public record DriverPresenceEvent(UUID driverId, boolean online, Cause cause, Instant at) {
+
+    public enum Cause {
+        /** Went online or started a shift. */
+        SIGNED_ON,
+        /** Went offline or ended a shift. */
+        SIGNED_OFF,
+        /** Location ping from an online driver whose presence had lapsed. */
+        HEARTBEAT,
+        /** No heartbeat within {@code driver.presence.ttl-seconds}. */
+        EXPIRED
+    }
+}
@@ -0,0 +1,200 @@
+package com.quickbite.orders.driver;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Which drivers are online right now — the single answer used by dispatch, the online-drivers
+ * list and admin reporting.
+ * <p>
+ * A driver is present while they are signed on (online toggle / shift start) and keep sending
+ * location pings: each ping renews a {@code driver.presence.ttl-seconds} deadline, at most once
+ * per third of the TTL per instance, and a lapsed driver is dropped by {@link #sweep()}. A ping
+ * from a driver whose presence lapsed restores it if {@code driver_profiles.is_online} says they
+ * never signed off. Every change is published as a {@link DriverPresenceEvent}.
+ * <p>
+ * Use driver.presence.store=redis to share presence across replicas; if the store fails, reads
+ * fall back to {@code driver_profiles.is_online}.
+ */
+@Slf4j
+@Service
+public class DriverPresenceService {
+
+    private final DriverPresenceStore store;
+    private final DriverProfileRepository driverProfileRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /** driverId → last time this instance wrote a heartbeat (epoch millis), to throttle renewals. */
+    private final Map<UUID, Long> lastBeat = new ConcurrentHashMap<>();
+    private volatile long lastCount;
+
+    // Metrics
+    private final Counter heartbeatCounter;
+    private final Counter expiredCounter;
+
+    @Value("${driver.presence.ttl-seconds:90}")
+    private long ttlSeconds = 90;
+
+    public DriverPresenceService(DriverPresenceStore store,
+                                 DriverProfileRepository driverProfileRepository,
+                                 ApplicationEventPublisher eventPublisher,
+                                 MeterRegistry meterRegistry) {
+        this.store = store;
+        this.driverProfileRepository = driverProfileRepository;
+        this.eventPublisher = eventPublisher;
+
+        this.heartbeatCounter = Counter.builder("driver.presence.heartbeats")
+                .description("Presence heartbeats written to the store")
+                .register(meterRegistry);
+        this.expiredCounter = Counter.builder("driver.presence.expired")
+                .description("Drivers dropped after missing heartbeats")
+                .register(meterRegistry);
+        Gauge.builder("driver.presence.online", this, s -> s.lastCount)
+                .description("Online drivers as of the last presence sweep")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Driver went online or started a shift.
+     */
+    public void signedOn(UUID driverId) {
+        Instant now = Instant.now();
+        lastBeat.put(driverId, now.toEpochMilli());
+        boolean changed = true;
+        try {
+            changed = store.heartbeat(driverId, now, ttl());
+            heartbeatCounter.increment();
+        } catch (Exception e) {
+            // Still tell local listeners; the shared view catches up on the next ping
+            log.warn("Presence store unavailable, driver {} signed on locally only: {}", driverId, e.getMessage());
+        }
+        if (changed) {
+            publish(driverId, true, DriverPresenceEvent.Cause.SIGNED_ON, now);
+        }
+    }
+
+    /**
+     * Driver went offline or ended a shift.
+     */
+    public void signedOff(UUID driverId) {
+        Instant now = Instant.now();
+        lastBeat.remove(driverId);
+        boolean changed = true;
+        try {
+            changed = store.remove(driverId, now);
+        } catch (Exception e) {
+            log.warn("Presence store unavailable, driver {} signed off locally only: {}", driverId, e.getMessage());
+        }
+        if (changed) {
+            publish(driverId, false, DriverPresenceEvent.Cause.SIGNED_OFF, now);
+        }
+    }
+
+    /**
+     * Location ping: keeps a present driver online, and brings back a signed-on driver whose
+     * presence lapsed (e.g. after a network gap or a restart of the in-process store).
+     */
+    public void ping(UUID driverId) {
+        Instant now = Instant.now();
+        Long last = lastBeat.get(driverId);
+        if (last != null && now.toEpochMilli() - last < ttl().toMillis() / 3) {
+            return;
+        }
+        lastBeat.put(driverId, now.toEpochMilli());
+        try {
+            heartbeatCounter.increment();
+            if (store.renew(driverId, now, ttl())) {
+                return;
+            }
+            boolean signedOn = driverProfileRepository.findByUserId(driverId)
+                    .map(profile -> Boolean.TRUE.equals(profile.getIsOnline()))
+                    .orElse(false);
+            if (signedOn && store.heartbeat(driverId, now, ttl())) {
+                publish(driverId, true, DriverPresenceEvent.Cause.HEARTBEAT, now);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to record presence heartbeat for driver {}: {}", driverId, e.getMessage());
+        }
+    }
+
+    public boolean isOnline(UUID driverId) {
+        try {
+            return store.isPresent(driverId, Instant.now());
+        } catch (Exception e) {
+            log.warn("Presence store unavailable, reading driver {} from driver_profiles: {}", driverId, e.getMessage());
+            return driverProfileRepository.findByUserId(driverId)
+                    .map(profile -> Boolean.TRUE.equals(profile.getIsOnline()))
+                    .orElse(false);
+        }
+    }
+
+    public Set<UUID> onlineDriverIds() {
+        try {
+            return store.present(Instant.now());
+        } catch (Exception e) {
+            log.warn("Presence store unavailable, reading online drivers from driver_profiles: {}", e.getMessage());
+            return driverProfileRepository.findOnlineActiveDrivers().stream()
+                    .map(profile -> profile.getUser().getId())
+                    .collect(Collectors.toSet());
+        }
+    }
+
+    public long onlineCount() {
+        try {
+            return store.count(Instant.now());
+        } catch (Exception e) {
+            return onlineDriverIds().size();
+        }
+    }
+
+    /**
+     * Drop drivers whose heartbeat deadline passed and publish their expiry.
+     */
+    @Scheduled(fixedDelayString = "${driver.presence.sweep-ms:15000}")
+    public void sweep() {
+        Instant now = Instant.now();
+        List<UUID> expired;
+        try {
+            expired = store.expire(now);
+            lastCount = store.count(now);
+        } catch (Exception e) {
+            log.warn("Presence sweep failed: {}", e.getMessage());
+            return;
+        }
+        for (UUID driverId : expired) {
+            lastBeat.remove(driverId);
+            publish(driverId, false, DriverPresenceEvent.Cause.EXPIRED, now);
+        }
+        long staleBefore = now.toEpochMilli() - ttl().toMillis();
+        lastBeat.values().removeIf(at -> at < staleBefore);
+
+        if (!expired.isEmpty()) {
+            expiredCounter.increment(expired.size());
+            log.info("Presence expired for {} driver(s), {} online", expired.size(), lastCount);
+        }
+    }
+
+    private void publish(UUID driverId, boolean online, DriverPresenceEvent.Cause cause, Instant at) {
+        log.debug("Driver {} presence {} ({})", driverId, online ? "ONLINE" : "OFFLINE", cause);
+        eventPublisher.publishEvent(new DriverPresenceEvent(driverId, online, cause, at));
+    }
+
+    private Duration ttl() {
+        return Duration.ofSeconds(ttlSeconds);
+    }
+}
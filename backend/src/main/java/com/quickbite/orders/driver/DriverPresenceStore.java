@@ -0,0 +1,49 @@
+package com.quickbite.orders.driver;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Online drivers with a heartbeat deadline, backing {@link DriverPresenceService}.
+ * <p>
+ * A driver is present from a heartbeat until its TTL lapses or it is removed. Expired entries
+ * stay invisible to reads and are handed out once by {@link #expire}, so exactly one caller
+ * reports each expiry even when several replicas sweep the same store.
+ */
+public interface DriverPresenceStore {
+
+    /**
+     * Mark the driver present until {@code now + ttl}.
+     *
+     * @return true if the driver was not present before (absent or expired)
+     */
+    boolean heartbeat(UUID driverId, Instant now, Duration ttl);
+
+    /**
+     * Extend the deadline of a driver who is still present; absent or expired drivers are left out.
+     *
+     * @return true if the deadline was extended
+     */
+    boolean renew(UUID driverId, Instant now, Duration ttl);
+
+    /**
+     * Drop the driver.
+     *
+     * @return true if the driver was present
+     */
+    boolean remove(UUID driverId, Instant now);
+
+    boolean isPresent(UUID driverId, Instant now);
+
+    Set<UUID> present(Instant now);
+
+    long count(Instant now);
+
+    /**
+     * Remove and return the drivers whose deadline passed.
+     */
+    List<UUID> expire(Instant now);
+}
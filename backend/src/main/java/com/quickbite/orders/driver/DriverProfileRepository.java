@@ -1,8 +1,11 @@
 package com.quickbite.orders.driver;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -17,5 +20,14 @@ public interface DriverProfileRepository extends JpaRepository<DriverProfile, UU
 
     List<DriverProfile> findByIsOnlineTrue();
 
+    /**
+     * Online profiles of active users with the user loaded (dispatch index reconciliation).
+     */
+    @Query("SELECT p FROM DriverProfile p JOIN FETCH p.user u WHERE p.isOnline = true AND u.active = true")
+    List<DriverProfile> findOnlineActiveDrivers();
+
     boolean existsByUserId(UUID userId);
+
+    @Query("SELECT p FROM DriverProfile p JOIN FETCH p.user u WHERE u.id IN :userIds")
+    List<DriverProfile> findByUserIds(@Param("userIds") Collection<UUID> userIds);
 }
@@ -12,8 +12,11 @@ import java.time.OffsetDateTime;
 import java.util.UUID;
 
 /**
- * Service for driver profile operations — online/offline toggle, profile CRUD, location updates.
+ * Service for driver profile operations — online/offline toggle, profile CRUD, shifts.
  * Phase 1 — Driver Dashboard Enhancement.
+ * <p>
+ * Online status changes sign the driver on or off in {@link DriverPresenceService}. Location
+ * pings go through {@link DriverLocationIngest}, not this service.
  */
 @Slf4j
 @Service
@@ -22,6 +25,7 @@ public class DriverProfileService {
 
     private final DriverProfileRepository driverProfileRepository;
     private final UserRepository userRepository;
+    private final DriverPresenceService driverPresenceService;
 
     /**
      * Get or auto-create a driver profile for the given user.
@@ -77,22 +81,15 @@ public class DriverProfileService {
             profile.setLastSeenAt(OffsetDateTime.now());
         }
         driverProfileRepository.save(profile);
+        if (online) {
+            driverPresenceService.signedOn(userId);
+        } else {
+            driverPresenceService.signedOff(userId);
+        }
         log.info("Driver {} is now {}", userId, online ? "ONLINE" : "OFFLINE");
         return mapToDTO(profile);
     }
 
-    /**
-     * Update the driver's GPS location and mark them as recently seen.
-     */
-    @Transactional
-    public void updateLocation(UUID userId, double lat, double lng) {
-        DriverProfile profile = getOrCreateProfile(userId);
-        profile.setCurrentLat(BigDecimal.valueOf(lat));
-        profile.setCurrentLng(BigDecimal.valueOf(lng));
-        profile.setLastSeenAt(OffsetDateTime.now());
-        driverProfileRepository.save(profile);
-    }
-
     /**
      * Start shift: set online, record shift_started_at, clear shift_ended_at.
      */
@@ -104,6 +101,7 @@ public class DriverProfileService {
         profile.setShiftEndedAt(null);
         profile.setLastSeenAt(OffsetDateTime.now());
         driverProfileRepository.save(profile);
+        driverPresenceService.signedOn(userId);
         log.info("Driver {} started shift", userId);
         return mapToDTO(profile);
     }
@@ -119,6 +117,7 @@ public class DriverProfileService {
         profile.setCurrentLat(null);
         profile.setCurrentLng(null);
         driverProfileRepository.save(profile);
+        driverPresenceService.signedOff(userId);
         log.info("Driver {} ended shift", userId);
         return mapToDTO(profile);
     }
@@ -159,10 +158,14 @@ public class DriverProfileService {
     }
 
     /**
-     * List all currently online drivers (for vendor runner assignment).
+     * List all currently online drivers (for vendor runner assignment), as seen by presence.
      */
     @Transactional(readOnly = true)
     public java.util.List<DriverProfile> getOnlineDrivers() {
-        return driverProfileRepository.findByIsOnlineTrue();
+        java.util.Set<UUID> online = driverPresenceService.onlineDriverIds();
+        if (online.isEmpty()) {
+            return java.util.List.of();
+        }
+        return driverProfileRepository.findByUserIds(online);
     }
 }
@@ -0,0 +1,54 @@
+package com.quickbite.orders.driver;
+
+/**
+ * Uniform lat/lng grid shared by the in-memory driver and open-order indexes: cells are
+ * {@code cellKm} square at the equator and keyed by their packed lat/lng indexes.
+ */
+final class GeoGrid {
+
+    static final double KM_PER_DEGREE = 111.32;
+
+    private final double cellDegrees;
+
+    GeoGrid(double cellKm) {
+        this.cellDegrees = cellKm / KM_PER_DEGREE;
+    }
+
+    double cellKm() {
+        return cellDegrees * KM_PER_DEGREE;
+    }
+
+    long latIndex(double lat) {
+        return (long) Math.floor((lat + 90.0) / cellDegrees);
+    }
+
+    long lngIndex(double lng) {
+        return (long) Math.floor((lng + 180.0) / cellDegrees);
+    }
+
+    long cellKey(double lat, double lng) {
+        return cellKey(latIndex(lat), lngIndex(lng));
+    }
+
+    static long cellKey(long latIdx, long lngIdx) {
+        return (latIdx << 32) | (lngIdx & 0xFFFFFFFFL);
+    }
+
+    /**
+     * How many cells around {@code lat} a search of {@code radiusKm} has to cover. Longitude
+     * cells shrink towards the poles, so rings are sized by the narrowest cell within the radius.
+     */
+    Rings rings(double lat, double radiusKm) {
+        double poleward = Math.min(Math.abs(lat) + radiusKm / KM_PER_DEGREE, 89.0);
+        double cosLat = Math.max(Math.cos(Math.toRadians(poleward)), 0.01);
+        double cellKm = cellKm();
+        return new Rings((int) Math.ceil(radiusKm / cellKm), (int) Math.ceil(radiusKm / (cellKm * cosLat)), cosLat);
+    }
+
+    /**
+     * Cells to scan on each side of the query cell, and the cosine of the most poleward
+     * latitude in range (the narrowest longitude cell is {@code cellKm * cosLat} wide).
+     */
+    record Rings(int lat, int lng, double cosLat) {
+    }
+}
@@ -0,0 +1,168 @@
+package com.quickbite.orders.driver;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Simplification and compact binary encoding of a delivery's GPS trail.
+ * <p>
+ * Format (version 1): a version byte, the point count as an unsigned varint, then per point the
+ * zigzag varint deltas of latitude and longitude in 1e-5 degree units (~1.1 m) and of the time in
+ * seconds, each relative to the previous point (the first point relative to zero). Consecutive
+ * points a few metres and seconds apart cost 3–6 bytes instead of a ~100 byte row.
+ */
+public final class GpsTrailCodec {
+
+    static final byte VERSION = 1;
+    private static final double SCALE = 1e5;
+    private static final double EARTH_RADIUS_M = 6_371_000.0;
+
+    private GpsTrailCodec() {
+    }
+
+    /**
+     * Douglas–Peucker: keep the fewest points such that no dropped point is further than
+     * {@code toleranceMeters} from the simplified line. First and last points are always kept.
+     */
+    public static List<Point> simplify(List<Point> points, double toleranceMeters) {
+        int n = points.size();
+        if (n < 3 || toleranceMeters <= 0) {
+            return new ArrayList<>(points);
+        }
+        boolean[] keep = new boolean[n];
+        keep[0] = true;
+        keep[n - 1] = true;
+        Deque<int[]> ranges = new ArrayDeque<>();
+        ranges.push(new int[]{0, n - 1});
+        while (!ranges.isEmpty()) {
+            int[] range = ranges.pop();
+            int first = range[0];
+            int last = range[1];
+            double maxDistance = -1;
+            int farthest = -1;
+            for (int i = first + 1; i < last; i++) {
+                double distance = distanceToSegmentMeters(points.get(i), points.get(first), points.get(last));
+                if (distance > maxDistance) {
+                    maxDistance = distance;
+                    farthest = i;
+                }
+            }
+            if (farthest != -1 && maxDistance > toleranceMeters) {
+                keep[farthest] = true;
+                ranges.push(new int[]{first, farthest});
+                ranges.push(new int[]{farthest, last});
+            }
+        }
+        List<Point> simplified = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (keep[i]) simplified.add(points.get(i));
+        }
+        return simplified;
+    }
+
+    public static byte[] encode(List<Point> points) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8 + points.size() * 6);
+        out.write(VERSION);
+        writeUnsigned(out, points.size());
+        long prevLat = 0;
+        long prevLng = 0;
+        long prevSeconds = 0;
+        for (Point point : points) {
+            long lat = Math.round(point.lat() * SCALE);
+            long lng = Math.round(point.lng() * SCALE);
+            long seconds = Math.floorDiv(point.epochMillis(), 1000L);
+            writeSigned(out, lat - prevLat);
+            writeSigned(out, lng - prevLng);
+            writeSigned(out, seconds - prevSeconds);
+            prevLat = lat;
+            prevLng = lng;
+            prevSeconds = seconds;
+        }
+        return out.toByteArray();
+    }
+
+    public static List<Point> decode(byte[] data) {
+        if (data == null || data.length == 0) {
+            return List.of();
+        }
+        if (data[0] != VERSION) {
+            throw new IllegalArgumentException("Unsupported GPS trail encoding version: " + data[0]);
+        }
+        int[] pos = {1};
+        int count = (int) readUnsigned(data, pos);
+        List<Point> points = new ArrayList<>(count);
+        long lat = 0;
+        long lng = 0;
+        long seconds = 0;
+        for (int i = 0; i < count; i++) {
+            lat += readSigned(data, pos);
+            lng += readSigned(data, pos);
+            seconds += readSigned(data, pos);
+            points.add(new Point(lat / SCALE, lng / SCALE, seconds * 1000L));
+        }
+        return points;
+    }
+
+    /**
+     * Distance from {@code p} to the segment a–b, on a local equirectangular projection
+     * (accurate to well under a metre over delivery distances).
+     */
+    static double distanceToSegmentMeters(Point p, Point a, Point b) {
+        double cosLat = Math.cos(Math.toRadians(a.lat()));
+        double ax = 0;
+        double ay = 0;
+        double bx = Math.toRadians(b.lng() - a.lng()) * cosLat * EARTH_RADIUS_M;
+        double by = Math.toRadians(b.lat() - a.lat()) * EARTH_RADIUS_M;
+        double px = Math.toRadians(p.lng() - a.lng()) * cosLat * EARTH_RADIUS_M;
+        double py = Math.toRadians(p.lat() - a.lat()) * EARTH_RADIUS_M;
+        double dx = bx - ax;
+        double dy = by - ay;
+        double lengthSq = dx * dx + dy * dy;
+        double t = lengthSq == 0 ? 0 : Math.max(0, Math.min(1, ((px - ax) * dx + (py - ay) * dy) / lengthSq));
+        double cx = ax + t * dx - px;
+        double cy = ay + t * dy - py;
+        return Math.sqrt(cx * cx + cy * cy);
+    }
+
+    private static void writeSigned(ByteArrayOutputStream out, long value) {
+        writeUnsigned(out, (value << 1) ^ (value >> 63));
+    }
+
+    private static void writeUnsigned(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readSigned(byte[] data, int[] pos) {
+        long raw = readUnsigned(data, pos);
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    private static long readUnsigned(byte[] data, int[] pos) {
+        long value = 0;
+        int shift = 0;
+        while (true) {
+            if (pos[0] >= data.length || shift > 63) {
+                throw new IllegalArgumentException("Truncated GPS trail");
+            }
+            byte b = data[pos[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+            shift += 7;
+        }
+    }
+
+    /**
+     * One trail point; time is kept at one-second resolution once encoded.
+     */
+    public record Point(double lat, double lng, long epochMillis) {
+    }
+}
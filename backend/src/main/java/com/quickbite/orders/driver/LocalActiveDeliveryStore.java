@@ -0,0 +1,77 @@
+package com.quickbite.orders.driver;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process active-delivery entries. Updates made on another replica are only seen once the
+ * entry expires, so this is only exact with a single replica.
+ * Active when driver.active-delivery.store=local (default).
+ */
+@Component
+@ConditionalOnProperty(name = "driver.active-delivery.store", havingValue = "local", matchIfMissing = true)
+public class LocalActiveDeliveryStore implements ActiveDeliveryStore {
+
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+
+    public LocalActiveDeliveryStore(MeterRegistry meterRegistry) {
+        Gauge.builder("driver.active.delivery.cached", entries, Map::size)
+                .description("Drivers with an in-memory active-delivery entry")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Optional<ActiveDelivery> get(UUID driverId) {
+        Entry entry = entries.get(driverId);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (entry.expired(System.currentTimeMillis())) {
+            entries.remove(driverId, entry);
+            return Optional.empty();
+        }
+        return Optional.of(entry.delivery());
+    }
+
+    @Override
+    public void put(UUID driverId, ActiveDelivery delivery, Duration ttl) {
+        entries.put(driverId, new Entry(delivery, System.currentTimeMillis() + ttl.toMillis()));
+    }
+
+    @Override
+    public void update(UUID driverId, ActiveDelivery delivery, Duration ttl) {
+        long now = System.currentTimeMillis();
+        entries.compute(driverId, (id, current) ->
+                current == null || current.expired(now) || !current.delivery().isActive()
+                        || current.delivery().orderId().equals(delivery.orderId())
+                        ? new Entry(delivery, now + ttl.toMillis())
+                        : null);
+    }
+
+    @Override
+    public void release(UUID driverId, UUID orderId) {
+        entries.computeIfPresent(driverId, (id, current) ->
+                orderId.equals(current.delivery().orderId()) ? null : current);
+    }
+
+    @Scheduled(fixedDelay = 300_000, initialDelay = 300_000)
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expired(now));
+    }
+
+    private record Entry(ActiveDelivery delivery, long expiresAt) {
+        boolean expired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
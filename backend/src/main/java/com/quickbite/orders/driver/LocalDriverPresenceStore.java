@@ -0,0 +1,85 @@
+package com.quickbite.orders.driver;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * In-process presence — driverId → heartbeat deadline (epoch millis).
+ * Only this instance's heartbeats count, so this is only accurate with a single replica.
+ * Active when driver.presence.store=local (default).
+ */
+@Component
+@ConditionalOnProperty(name = "driver.presence.store", havingValue = "local", matchIfMissing = true)
+public class LocalDriverPresenceStore implements DriverPresenceStore {
+
+    private final Map<UUID, Long> deadlines = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean heartbeat(UUID driverId, Instant now, Duration ttl) {
+        Long previous = deadlines.put(driverId, now.plus(ttl).toEpochMilli());
+        return previous == null || previous <= now.toEpochMilli();
+    }
+
+    @Override
+    public boolean renew(UUID driverId, Instant now, Duration ttl) {
+        long nowMillis = now.toEpochMilli();
+        AtomicBoolean renewed = new AtomicBoolean();
+        deadlines.computeIfPresent(driverId, (id, deadline) -> {
+            if (deadline <= nowMillis) return deadline;
+            renewed.set(true);
+            return now.plus(ttl).toEpochMilli();
+        });
+        return renewed.get();
+    }
+
+    @Override
+    public boolean remove(UUID driverId, Instant now) {
+        Long previous = deadlines.remove(driverId);
+        return previous != null && previous > now.toEpochMilli();
+    }
+
+    @Override
+    public boolean isPresent(UUID driverId, Instant now) {
+        Long deadline = deadlines.get(driverId);
+        return deadline != null && deadline > now.toEpochMilli();
+    }
+
+    @Override
+    public Set<UUID> present(Instant now) {
+        long nowMillis = now.toEpochMilli();
+        return deadlines.entrySet().stream()
+                .filter(e -> e.getValue() > nowMillis)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public long count(Instant now) {
+        long nowMillis = now.toEpochMilli();
+        return deadlines.values().stream().filter(deadline -> deadline > nowMillis).count();
+    }
+
+    @Override
+    public List<UUID> expire(Instant now) {
+        long nowMillis = now.toEpochMilli();
+        List<UUID> expired = new ArrayList<>();
+        for (Map.Entry<UUID, Long> entry : deadlines.entrySet()) {
+            // remove(key, value) loses to a concurrent heartbeat, which keeps the driver
+            if (entry.getValue() <= nowMillis && deadlines.remove(entry.getKey(), entry.getValue())) {
+                expired.add(entry.getKey());
+            }
+        }
+        return expired;
+    }
+}
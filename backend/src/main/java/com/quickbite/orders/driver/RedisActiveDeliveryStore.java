@@ -0,0 +1,112 @@
+package com.quickbite.orders.driver;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Redis-backed active-delivery entries shared by all replicas.
+ * <p>
+ * One hash per driver ({@code driver:active:<driverId>}) with the order id ({@code order},
+ * empty for {@link ActiveDelivery#NONE}) and the JSON snapshot ({@code data}), expiring after
+ * the entry TTL. Conditional updates and releases are Lua scripts comparing {@code order},
+ * so a late transition of one order never overwrites or drops another order's entry.
+ * Active when driver.active-delivery.store=redis.
+ */
+@Component
+@ConditionalOnProperty(name = "driver.active-delivery.store", havingValue = "redis")
+public class RedisActiveDeliveryStore implements ActiveDeliveryStore {
+
+    private static final String KEY_PREFIX = "driver:active:";
+    private static final String DATA = "data";
+
+    /** ARGV = order id, JSON, TTL seconds. */
+    private static final DefaultRedisScript<Long> PUT = new DefaultRedisScript<>("""
+            redis.call('HSET', KEYS[1], 'order', ARGV[1], 'data', ARGV[2])
+            redis.call('EXPIRE', KEYS[1], ARGV[3])
+            return 1
+            """, Long.class);
+
+    /** ARGV = order id, JSON, TTL seconds. */
+    private static final DefaultRedisScript<Long> UPDATE = new DefaultRedisScript<>("""
+            local current = redis.call('HGET', KEYS[1], 'order')
+            if current and current ~= '' and current ~= ARGV[1] then
+              redis.call('DEL', KEYS[1])
+              return 0
+            end
+            redis.call('HSET', KEYS[1], 'order', ARGV[1], 'data', ARGV[2])
+            redis.call('EXPIRE', KEYS[1], ARGV[3])
+            return 1
+            """, Long.class);
+
+    /** ARGV = order id. */
+    private static final DefaultRedisScript<Long> RELEASE = new DefaultRedisScript<>("""
+            if redis.call('HGET', KEYS[1], 'order') == ARGV[1] then
+              return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    public RedisActiveDeliveryStore(StringRedisTemplate redisTemplate, ObjectMapper objectMapper) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Optional<ActiveDelivery> get(UUID driverId) {
+        Object json = redisTemplate.opsForHash().get(key(driverId), DATA);
+        if (json == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue((String) json, ActiveDelivery.class));
+        } catch (JsonProcessingException e) {
+            // Unreadable entry (e.g. written by an older version): treat as a miss and reload
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void put(UUID driverId, ActiveDelivery delivery, Duration ttl) {
+        redisTemplate.execute(PUT, List.of(key(driverId)), orderField(delivery), toJson(delivery),
+                Long.toString(ttl.toSeconds()));
+    }
+
+    @Override
+    public void update(UUID driverId, ActiveDelivery delivery, Duration ttl) {
+        redisTemplate.execute(UPDATE, List.of(key(driverId)), orderField(delivery), toJson(delivery),
+                Long.toString(ttl.toSeconds()));
+    }
+
+    @Override
+    public void release(UUID driverId, UUID orderId) {
+        redisTemplate.execute(RELEASE, List.of(key(driverId)), orderId.toString());
+    }
+
+    private String toJson(ActiveDelivery delivery) {
+        try {
+            return objectMapper.writeValueAsString(delivery);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize active delivery " + delivery.orderId(), e);
+        }
+    }
+
+    private static String orderField(ActiveDelivery delivery) {
+        return delivery.isActive() ? delivery.orderId().toString() : "";
+    }
+
+    private static String key(UUID driverId) {
+        return KEY_PREFIX + driverId;
+    }
+}
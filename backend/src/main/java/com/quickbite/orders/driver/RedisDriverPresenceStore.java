@@ -0,0 +1,117 @@
+package com.quickbite.orders.driver;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Redis-backed presence shared by all replicas.
+ * <p>
+ * One sorted set ({@code driver:presence}) with the driver id as member and the heartbeat
+ * deadline (epoch millis) as score: lookups are ZSCORE / ZRANGEBYSCORE / ZCOUNT above now.
+ * Heartbeats, renewals and the expiry sweep are Lua scripts, so a renewal never revives an
+ * expired driver and each expired driver is returned to exactly one sweeping replica.
+ * Active when driver.presence.store=redis.
+ */
+@Component
+@ConditionalOnProperty(name = "driver.presence.store", havingValue = "redis")
+public class RedisDriverPresenceStore implements DriverPresenceStore {
+
+    private static final String KEY = "driver:presence";
+
+    /** ARGV = driver id, now, deadline. Returns 1 if the driver was not present. */
+    private static final DefaultRedisScript<Long> HEARTBEAT = new DefaultRedisScript<>("""
+            local previous = redis.call('ZSCORE', KEYS[1], ARGV[1])
+            redis.call('ZADD', KEYS[1], ARGV[3], ARGV[1])
+            if previous and tonumber(previous) > tonumber(ARGV[2]) then return 0 end
+            return 1
+            """, Long.class);
+
+    /** ARGV = driver id, now, deadline. Returns 1 if renewed. */
+    private static final DefaultRedisScript<Long> RENEW = new DefaultRedisScript<>("""
+            local previous = redis.call('ZSCORE', KEYS[1], ARGV[1])
+            if not previous or tonumber(previous) <= tonumber(ARGV[2]) then return 0 end
+            redis.call('ZADD', KEYS[1], ARGV[3], ARGV[1])
+            return 1
+            """, Long.class);
+
+    /** ARGV = driver id, now. Returns 1 if the driver was present. */
+    private static final DefaultRedisScript<Long> REMOVE = new DefaultRedisScript<>("""
+            local previous = redis.call('ZSCORE', KEYS[1], ARGV[1])
+            redis.call('ZREM', KEYS[1], ARGV[1])
+            if previous and tonumber(previous) > tonumber(ARGV[2]) then return 1 end
+            return 0
+            """, Long.class);
+
+    /** ARGV = now. Returns the expired driver ids. */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final DefaultRedisScript<List> EXPIRE = new DefaultRedisScript<>("""
+            local expired = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1])
+            if #expired > 0 then redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', ARGV[1]) end
+            return expired
+            """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisDriverPresenceStore(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public boolean heartbeat(UUID driverId, Instant now, Duration ttl) {
+        return run(HEARTBEAT, driverId.toString(), millis(now), millis(now.plus(ttl)));
+    }
+
+    @Override
+    public boolean renew(UUID driverId, Instant now, Duration ttl) {
+        return run(RENEW, driverId.toString(), millis(now), millis(now.plus(ttl)));
+    }
+
+    @Override
+    public boolean remove(UUID driverId, Instant now) {
+        return run(REMOVE, driverId.toString(), millis(now));
+    }
+
+    @Override
+    public boolean isPresent(UUID driverId, Instant now) {
+        Double deadline = redisTemplate.opsForZSet().score(KEY, driverId.toString());
+        return deadline != null && deadline > now.toEpochMilli();
+    }
+
+    @Override
+    public Set<UUID> present(Instant now) {
+        Set<String> ids = redisTemplate.opsForZSet()
+                .rangeByScore(KEY, now.toEpochMilli() + 1, Double.POSITIVE_INFINITY);
+        return ids == null ? Set.of() : ids.stream().map(UUID::fromString).collect(Collectors.toSet());
+    }
+
+    @Override
+    public long count(Instant now) {
+        Long count = redisTemplate.opsForZSet().count(KEY, now.toEpochMilli() + 1, Double.POSITIVE_INFINITY);
+        return count != null ? count : 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<UUID> expire(Instant now) {
+        List<String> expired = redisTemplate.execute(EXPIRE, List.of(KEY), millis(now));
+        return expired == null ? List.of() : expired.stream().map(UUID::fromString).toList();
+    }
+
+    private boolean run(DefaultRedisScript<Long> script, String... args) {
+        Long result = redisTemplate.execute(script, List.of(KEY), (Object[]) args);
+        return result != null && result == 1L;
+    }
+
+    private static String millis(Instant instant) {
+        return Long.toString(instant.toEpochMilli());
+    }
+}
@@ -0,0 +1,26 @@
+package com.quickbite.orders.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for placing several orders in one request (group / office orders).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBatchCreateDTO {
+
+    @NotEmpty(message = "Batch must contain at least one order")
+    @Size(max = 50, message = "Batch cannot contain more than 50 orders")
+    @Valid
+    private List<OrderCreateDTO> orders;
+}
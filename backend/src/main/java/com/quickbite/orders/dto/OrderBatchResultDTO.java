@@ -0,0 +1,36 @@
+package com.quickbite.orders.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Per-order outcome of a batch order placement.
+ * Results are in request order; failed entries carry the reason instead of an order.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBatchResultDTO {
+
+    private int requested;
+    private int created;
+    private int failed;
+    private List<Item> results;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        /** Position of the order in the request. */
+        private int index;
+        private boolean success;
+        private OrderResponseDTO order;
+        private String error;
+    }
+}
@@ -1,5 +1,6 @@
 package com.quickbite.orders.entity;
 
+import com.quickbite.common.id.TimeOrderedId;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -25,7 +26,7 @@ import java.util.UUID;
 public class EventTimeline {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     @Column(columnDefinition = "uuid")
     private UUID id;
 
@@ -1,5 +1,6 @@
 package com.quickbite.orders.entity;
 
+import com.quickbite.common.id.TimeOrderedId;
 import com.quickbite.payments.entity.Payment;
 import com.quickbite.payments.entity.PaymentMethod;
 import com.quickbite.payments.entity.PaymentStatus;
@@ -22,12 +23,21 @@ import java.util.UUID;
  */
 @Entity
 @Table(name = "orders", indexes = {
-    @Index(name = "idx_order_customer", columnList = "customer_id"),
-    @Index(name = "idx_order_vendor", columnList = "vendor_id"),
-    @Index(name = "idx_order_driver", columnList = "driver_id"),
-    @Index(name = "idx_order_status", columnList = "status"),
-    @Index(name = "idx_order_created", columnList = "created_at"),
-    @Index(name = "idx_order_customer_status", columnList = "customer_id, status")
+    @Index(name = "idx_order_customer_created", columnList = "customer_id, created_at, id"),
+    @Index(name = "idx_order_customer_status_created", columnList = "customer_id, status, created_at, id"),
+    @Index(name = "idx_order_vendor_created", columnList = "vendor_id, created_at, id"),
+    @Index(name = "idx_order_vendor_status_created", columnList = "vendor_id, status, created_at, id"),
+    @Index(name = "idx_order_driver_created", columnList = "driver_id, created_at, id"),
+    @Index(name = "idx_order_driver_status", columnList = "driver_id, status"),
+    @Index(name = "idx_order_status_created", columnList = "status, created_at, id"),
+    @Index(name = "idx_order_created_id", columnList = "created_at, id")
+})
+@NamedEntityGraph(name = Order.DETAIL_GRAPH, attributeNodes = {
+    @NamedAttributeNode("customer"),
+    @NamedAttributeNode("vendor"),
+    @NamedAttributeNode("driver"),
+    @NamedAttributeNode("deliveryAddress"),
+    @NamedAttributeNode("payment")
 })
 @Getter
 @Setter
@@ -36,8 +46,11 @@ import java.util.UUID;
 @Builder
 public class Order {
 
+    /** Entity graph for the to-one associations rendered by OrderMapper. */
+    public static final String DETAIL_GRAPH = "Order.detail";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     @Column(columnDefinition = "uuid")
     private UUID id;
 
@@ -92,6 +105,10 @@ public class Order {
     @Column(name = "scheduled_time", columnDefinition = "timestamptz")
     private OffsetDateTime scheduledTime;
 
+    /** When the current driver was assigned; the start of the delivery's GPS trail. */
+    @Column(name = "assigned_at", columnDefinition = "timestamptz")
+    private OffsetDateTime assignedAt;
+
     @Column(name = "delivered_at", columnDefinition = "timestamptz")
     private OffsetDateTime deliveredAt;
 
@@ -149,6 +166,11 @@ public class Order {
     @Builder.Default
     private List<OrderItem> orderItems = new ArrayList<>();
 
+    /** Optimistic lock; also bumped by the compare-and-set status updates in OrderRepository. */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @CreationTimestamp
     @Column(name = "created_at", columnDefinition = "timestamptz", updatable = false)
     private OffsetDateTime createdAt;
@@ -0,0 +1,22 @@
+package com.quickbite.orders.exception;
+
+import com.quickbite.orders.service.TransitionResult;
+
+/**
+ * Thrown when an order status transition lost a race: the order was no longer in the
+ * expected status when the compare-and-set update ran.
+ */
+public class TransitionConflictException extends RuntimeException {
+
+    private final TransitionResult result;
+
+    public TransitionConflictException(TransitionResult result) {
+        super(String.format("Order status changed concurrently: expected %s, now %s (wanted %s)",
+                result.expected(), result.current(), result.target()));
+        this.result = result;
+    }
+
+    public TransitionResult getResult() {
+        return result;
+    }
+}
@@ -0,0 +1,36 @@
+package com.quickbite.orders.fraud;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Keeps no counters: every check is served by the one-query seed from {@code orders}, so the
+ * limits hold across any number of replicas without shared state.
+ * Active when fraud.velocity.store=db (default).
+ */
+@Component
+@ConditionalOnProperty(name = "fraud.velocity.store", havingValue = "db", matchIfMissing = true)
+public class DatabaseFraudVelocityStore implements FraudVelocityStore {
+
+    @Override
+    public Optional<VelocitySnapshot> snapshot(UUID customerId, Instant now) {
+        return Optional.empty();
+    }
+
+    @Override
+    public void seed(UUID customerId, List<VelocitySample> samples, Instant now) {
+    }
+
+    @Override
+    public void recordOrder(UUID customerId, long totalCents, Instant at) {
+    }
+
+    @Override
+    public void recordCancellation(UUID customerId, Instant at) {
+    }
+}
@@ -0,0 +1,38 @@
+package com.quickbite.orders.fraud;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Per-customer sliding-window counters backing the fraud velocity checks.
+ * <p>
+ * A customer's counters only exist once they have been seeded from the database;
+ * increments for unseeded customers are dropped, since the next check seeds from
+ * the committed orders anyway.
+ */
+public interface FraudVelocityStore {
+
+    /**
+     * Read the customer's current counters.
+     *
+     * @return snapshot, or empty if the customer has not been seeded
+     */
+    Optional<VelocitySnapshot> snapshot(UUID customerId, Instant now);
+
+    /**
+     * Seed a customer's counters from recent orders. No-op if already seeded.
+     */
+    void seed(UUID customerId, List<VelocitySample> samples, Instant now);
+
+    /**
+     * Count a placed order against the hourly order and daily spend windows.
+     */
+    void recordOrder(UUID customerId, long totalCents, Instant at);
+
+    /**
+     * Count a cancellation against the daily cancellation window.
+     */
+    void recordCancellation(UUID customerId, Instant at);
+}
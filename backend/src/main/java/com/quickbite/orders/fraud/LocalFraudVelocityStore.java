@@ -0,0 +1,183 @@
+package com.quickbite.orders.fraud;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process velocity counters — one set of ring buffers per customer.
+ * Counts are per instance, so this is only accurate with a single replica — with N replicas
+ * each sees roughly 1/N of a customer's orders and the limits are effectively multiplied by N.
+ * Active when fraud.velocity.store=local.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "fraud.velocity.store", havingValue = "local")
+public class LocalFraudVelocityStore implements FraudVelocityStore {
+
+    private final Map<UUID, CustomerCounters> counters = new ConcurrentHashMap<>();
+
+    public LocalFraudVelocityStore(MeterRegistry meterRegistry) {
+        Gauge.builder("fraud.velocity.tracked", counters, Map::size)
+                .description("Customers with in-memory fraud velocity counters")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Optional<VelocitySnapshot> snapshot(UUID customerId, Instant now) {
+        CustomerCounters c = counters.get(customerId);
+        return c == null ? Optional.empty() : Optional.of(c.snapshot(now));
+    }
+
+    @Override
+    public void seed(UUID customerId, List<VelocitySample> samples, Instant now) {
+        counters.computeIfAbsent(customerId, id -> {
+            CustomerCounters c = new CustomerCounters(now);
+            for (VelocitySample sample : samples) {
+                if (sample.createdAt() != null) {
+                    c.addOrder(sample.totalCents(), sample.createdAt());
+                }
+                if (sample.cancelledAt() != null) {
+                    c.addCancellation(sample.cancelledAt());
+                }
+            }
+            return c;
+        });
+    }
+
+    @Override
+    public void recordOrder(UUID customerId, long totalCents, Instant at) {
+        CustomerCounters c = counters.get(customerId);
+        if (c != null) {
+            c.addOrder(totalCents, at);
+        }
+    }
+
+    @Override
+    public void recordCancellation(UUID customerId, Instant at) {
+        CustomerCounters c = counters.get(customerId);
+        if (c != null) {
+            c.addCancellation(at);
+        }
+    }
+
+    /**
+     * Drop customers with no activity inside the day window; they are re-seeded on next check.
+     * Runs every 15 minutes.
+     */
+    @Scheduled(fixedDelay = 900_000, initialDelay = 900_000)
+    public void evictIdle() {
+        Instant now = Instant.now();
+        int before = counters.size();
+        counters.values().removeIf(c -> c.isIdle(now));
+        int evicted = before - counters.size();
+        if (evicted > 0) {
+            log.debug("Evicted {} idle fraud velocity entries", evicted);
+        }
+    }
+
+    /**
+     * Counters for one customer. Each window is a ring of buckets with a running total,
+     * so reads and writes touch only the buckets that expired since the last access.
+     */
+    static final class CustomerCounters {
+
+        private final Ring hourOrders = new Ring(VelocityWindow.HOUR);
+        private final Ring daySpend = new Ring(VelocityWindow.DAY);
+        private final Ring dayCancellations = new Ring(VelocityWindow.DAY);
+        private Instant lastActivity;
+
+        CustomerCounters(Instant now) {
+            this.lastActivity = now;
+        }
+
+        synchronized void addOrder(long totalCents, Instant at) {
+            hourOrders.add(at, 1);
+            daySpend.add(at, totalCents);
+            touch(at);
+        }
+
+        synchronized void addCancellation(Instant at) {
+            dayCancellations.add(at, 1);
+            touch(at);
+        }
+
+        synchronized VelocitySnapshot snapshot(Instant now) {
+            return new VelocitySnapshot(hourOrders.total(now), daySpend.total(now), dayCancellations.total(now));
+        }
+
+        synchronized boolean isIdle(Instant now) {
+            return !VelocityWindow.DAY.contains(VelocityWindow.DAY.bucketOf(lastActivity), VelocityWindow.DAY.bucketOf(now));
+        }
+
+        private void touch(Instant at) {
+            if (at.isAfter(lastActivity)) {
+                lastActivity = at;
+            }
+        }
+    }
+
+    static final class Ring {
+
+        private final VelocityWindow window;
+        private final long[] slots;
+        private long head = Long.MIN_VALUE;
+        private long total;
+
+        Ring(VelocityWindow window) {
+            this.window = window;
+            this.slots = new long[window.buckets()];
+        }
+
+        void add(Instant at, long amount) {
+            long bucket = window.bucketOf(at);
+            advance(bucket);
+            if (!window.contains(bucket, head)) {
+                return; // older than the window
+            }
+            slots[slot(bucket)] += amount;
+            total += amount;
+        }
+
+        long total(Instant now) {
+            advance(window.bucketOf(now));
+            return total;
+        }
+
+        private void advance(long bucket) {
+            if (head == Long.MIN_VALUE) {
+                head = bucket;
+                return;
+            }
+            if (bucket <= head) {
+                return;
+            }
+            if (bucket - head >= slots.length) {
+                Arrays.fill(slots, 0);
+                total = 0;
+            } else {
+                for (long b = head + 1; b <= bucket; b++) {
+                    int i = slot(b);
+                    total -= slots[i];
+                    slots[i] = 0;
+                }
+            }
+            head = bucket;
+        }
+
+        private int slot(long bucket) {
+            return (int) Math.floorMod(bucket, (long) slots.length);
+        }
+    }
+}
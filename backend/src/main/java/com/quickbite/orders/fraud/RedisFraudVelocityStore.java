@@ -0,0 +1,148 @@
+package com.quickbite.orders.fraud;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Redis-backed velocity counters shared by all replicas.
+ * <p>
+ * One hash per customer ({@code fraud:velocity:<customerId>}) holding a {@code seeded}
+ * marker plus one field per bucket: {@code o:<minute>} order count, {@code s:<quarter-hour>}
+ * spend in cents and {@code c:<quarter-hour>} cancellations. A check is a single HGETALL;
+ * expired bucket fields are removed on read. Writes are Lua scripts so that seeding happens
+ * once and increments never land on an unseeded hash.
+ * Active when fraud.velocity.store=redis.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "fraud.velocity.store", havingValue = "redis")
+public class RedisFraudVelocityStore implements FraudVelocityStore {
+
+    private static final String KEY_PREFIX = "fraud:velocity:";
+    private static final String SEEDED = "seeded";
+    private static final String ORDERS = "o:";
+    private static final String SPEND = "s:";
+    private static final String CANCELLED = "c:";
+
+    /** ARGV = field, increment pairs followed by the TTL in seconds. */
+    private static final DefaultRedisScript<Long> INCREMENT_IF_SEEDED = new DefaultRedisScript<>("""
+            if redis.call('HEXISTS', KEYS[1], 'seeded') == 0 then return 0 end
+            for i = 1, #ARGV - 1, 2 do redis.call('HINCRBY', KEYS[1], ARGV[i], ARGV[i + 1]) end
+            redis.call('EXPIRE', KEYS[1], ARGV[#ARGV])
+            return 1
+            """, Long.class);
+
+    private static final DefaultRedisScript<Long> SEED_ONCE = new DefaultRedisScript<>("""
+            if redis.call('HSETNX', KEYS[1], 'seeded', '1') == 0 then return 0 end
+            for i = 1, #ARGV - 1, 2 do redis.call('HINCRBY', KEYS[1], ARGV[i], ARGV[i + 1]) end
+            redis.call('EXPIRE', KEYS[1], ARGV[#ARGV])
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisFraudVelocityStore(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public Optional<VelocitySnapshot> snapshot(UUID customerId, Instant now) {
+        String key = key(customerId);
+        Map<Object, Object> fields = redisTemplate.opsForHash().entries(key);
+        if (!fields.containsKey(SEEDED)) {
+            return Optional.empty();
+        }
+
+        long hourNow = VelocityWindow.HOUR.bucketOf(now);
+        long dayNow = VelocityWindow.DAY.bucketOf(now);
+        long orders = 0;
+        long spend = 0;
+        long cancelled = 0;
+        List<Object> expired = new ArrayList<>();
+
+        for (Map.Entry<Object, Object> entry : fields.entrySet()) {
+            String field = (String) entry.getKey();
+            if (SEEDED.equals(field)) continue;
+            long bucket = Long.parseLong(field.substring(2));
+            long value = Long.parseLong((String) entry.getValue());
+            if (field.startsWith(ORDERS)) {
+                if (VelocityWindow.HOUR.contains(bucket, hourNow)) orders += value;
+                else if (bucket < hourNow) expired.add(field);
+            } else if (VelocityWindow.DAY.contains(bucket, dayNow)) {
+                if (field.startsWith(SPEND)) spend += value;
+                else cancelled += value;
+            } else if (bucket < dayNow) {
+                expired.add(field);
+            }
+        }
+
+        if (!expired.isEmpty()) {
+            redisTemplate.opsForHash().delete(key, expired.toArray());
+        }
+        return Optional.of(new VelocitySnapshot(orders, spend, cancelled));
+    }
+
+    @Override
+    public void seed(UUID customerId, List<VelocitySample> samples, Instant now) {
+        Map<String, Long> increments = new HashMap<>();
+        long hourNow = VelocityWindow.HOUR.bucketOf(now);
+        long dayNow = VelocityWindow.DAY.bucketOf(now);
+        for (VelocitySample sample : samples) {
+            if (sample.createdAt() != null) {
+                long hourBucket = VelocityWindow.HOUR.bucketOf(sample.createdAt());
+                if (VelocityWindow.HOUR.contains(hourBucket, hourNow)) {
+                    increments.merge(ORDERS + hourBucket, 1L, Long::sum);
+                }
+                long dayBucket = VelocityWindow.DAY.bucketOf(sample.createdAt());
+                if (VelocityWindow.DAY.contains(dayBucket, dayNow)) {
+                    increments.merge(SPEND + dayBucket, sample.totalCents(), Long::sum);
+                }
+            }
+            if (sample.cancelledAt() != null) {
+                long dayBucket = VelocityWindow.DAY.bucketOf(sample.cancelledAt());
+                if (VelocityWindow.DAY.contains(dayBucket, dayNow)) {
+                    increments.merge(CANCELLED + dayBucket, 1L, Long::sum);
+                }
+            }
+        }
+
+        List<String> args = new ArrayList<>(increments.size() * 2 + 1);
+        increments.forEach((field, amount) -> {
+            args.add(field);
+            args.add(Long.toString(amount));
+        });
+        args.add(Long.toString(VelocityWindow.DAY.ttlSeconds()));
+        Long seeded = redisTemplate.execute(SEED_ONCE, List.of(key(customerId)), args.toArray());
+        log.debug("Fraud velocity seed for customer {}: {} samples, applied={}", customerId, samples.size(), seeded);
+    }
+
+    @Override
+    public void recordOrder(UUID customerId, long totalCents, Instant at) {
+        redisTemplate.execute(INCREMENT_IF_SEEDED, List.of(key(customerId)),
+                ORDERS + VelocityWindow.HOUR.bucketOf(at), "1",
+                SPEND + VelocityWindow.DAY.bucketOf(at), Long.toString(totalCents),
+                Long.toString(VelocityWindow.DAY.ttlSeconds()));
+    }
+
+    @Override
+    public void recordCancellation(UUID customerId, Instant at) {
+        redisTemplate.execute(INCREMENT_IF_SEEDED, List.of(key(customerId)),
+                CANCELLED + VelocityWindow.DAY.bucketOf(at), "1",
+                Long.toString(VelocityWindow.DAY.ttlSeconds()));
+    }
+
+    private static String key(UUID customerId) {
+        return KEY_PREFIX + customerId;
+    }
+}
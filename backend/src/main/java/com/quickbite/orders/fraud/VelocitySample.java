@@ -0,0 +1,13 @@
+package com.quickbite.orders.fraud;
+
+import java.time.Instant;
+
+/**
+ * A recent order used to seed velocity counters from the database.
+ *
+ * @param createdAt   when the order was placed
+ * @param totalCents  order total
+ * @param cancelledAt when the order was cancelled, or {@code null}
+ */
+public record VelocitySample(Instant createdAt, long totalCents, Instant cancelledAt) {
+}
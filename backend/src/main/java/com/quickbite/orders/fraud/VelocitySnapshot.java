@@ -0,0 +1,36 @@
+package com.quickbite.orders.fraud;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Current per-customer velocity figures.
+ */
+public record VelocitySnapshot(long ordersLastHour, long spendLastDayCents, long cancelledLastDay) {
+
+    /**
+     * Compute a snapshot directly from samples, using the same bucket boundaries as the stores.
+     */
+    public static VelocitySnapshot fromSamples(List<VelocitySample> samples, Instant now) {
+        long hourNow = VelocityWindow.HOUR.bucketOf(now);
+        long dayNow = VelocityWindow.DAY.bucketOf(now);
+        long orders = 0;
+        long spend = 0;
+        long cancelled = 0;
+        for (VelocitySample sample : samples) {
+            if (sample.createdAt() != null) {
+                if (VelocityWindow.HOUR.contains(VelocityWindow.HOUR.bucketOf(sample.createdAt()), hourNow)) {
+                    orders++;
+                }
+                if (VelocityWindow.DAY.contains(VelocityWindow.DAY.bucketOf(sample.createdAt()), dayNow)) {
+                    spend += sample.totalCents();
+                }
+            }
+            if (sample.cancelledAt() != null
+                    && VelocityWindow.DAY.contains(VelocityWindow.DAY.bucketOf(sample.cancelledAt()), dayNow)) {
+                cancelled++;
+            }
+        }
+        return new VelocitySnapshot(orders, spend, cancelled);
+    }
+}
@@ -0,0 +1,42 @@
+package com.quickbite.orders.fraud;
+
+import java.time.Instant;
+
+/**
+ * Sliding windows used by fraud velocity counters.
+ * Each window is split into fixed-width buckets; a bucket is in the window
+ * when it is one of the {@code buckets} most recent ones (current bucket included).
+ */
+public enum VelocityWindow {
+
+    /** Orders per hour — 60 one-minute buckets. */
+    HOUR(60, 60),
+
+    /** Spend and cancellations per day — 96 fifteen-minute buckets. */
+    DAY(900, 96);
+
+    private final long bucketSeconds;
+    private final int buckets;
+
+    VelocityWindow(long bucketSeconds, int buckets) {
+        this.bucketSeconds = bucketSeconds;
+        this.buckets = buckets;
+    }
+
+    public int buckets() {
+        return buckets;
+    }
+
+    public long bucketOf(Instant at) {
+        return Math.floorDiv(at.getEpochSecond(), bucketSeconds);
+    }
+
+    public boolean contains(long bucket, long nowBucket) {
+        return bucket <= nowBucket && bucket > nowBucket - buckets;
+    }
+
+    /** Length of the window plus one bucket — used as the Redis key TTL. */
+    public long ttlSeconds() {
+        return bucketSeconds * (buckets + 1L);
+    }
+}
@@ -0,0 +1,202 @@
+package com.quickbite.orders.outbox;
+
+import com.quickbite.email.service.EmailDispatchService;
+import com.quickbite.notifications.entity.NotificationType;
+import com.quickbite.notifications.service.NotificationService;
+import com.quickbite.orders.driver.DeliveryTrailStore;
+import com.quickbite.orders.entity.Order;
+import com.quickbite.orders.entity.OrderStatus;
+import com.quickbite.orders.repository.OrderRepository;
+import com.quickbite.sms.service.SmsDispatchService;
+import com.quickbite.websocket.OrderUpdatePublisher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Fans a single outbox event out to notifications, email, SMS and WebSocket topics.
+ * Runs inside the relay's per-event transaction, after the originating order change committed.
+ * <p>
+ * The in-app notification insert runs first and is allowed to throw (the relay retries);
+ * email/SMS are async fire-and-forget and WebSocket publishes go last so a retry does not
+ * re-broadcast. Publishes carry the order's current state, not a snapshot.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderOutboxDispatcher {
+
+    private final OrderRepository orderRepository;
+    private final NotificationService notificationService;
+    private final EmailDispatchService emailDispatchService;
+    private final SmsDispatchService smsDispatchService;
+    private final OrderUpdatePublisher orderUpdatePublisher;
+    private final DeliveryTrailStore deliveryTrailStore;
+
+    public void dispatch(OrderOutboxEvent event) {
+        Order order = orderRepository.findById(event.getOrderId()).orElse(null);
+        if (order == null) {
+            log.warn("Outbox event {} references missing order {}, dropping", event.getId(), event.getOrderId());
+            return;
+        }
+
+        Map<String, Object> payload = event.getPayload() != null ? event.getPayload() : Map.of();
+        switch (event.getEventType()) {
+            case ORDER_PLACED -> onOrderPlaced(order);
+            case STATUS_CHANGED -> onStatusChanged(order,
+                    payload.get("oldStatus") != null ? OrderStatus.valueOf((String) payload.get("oldStatus")) : null,
+                    OrderStatus.valueOf((String) payload.get("newStatus")));
+            case ORDER_UPDATED -> publish(order);
+            case DRIVER_ASSIGNED -> orderUpdatePublisher.publishDriverOrderAssignment(
+                    UUID.fromString((String) payload.get("driverId")), order);
+        }
+    }
+
+    private void onOrderPlaced(Order order) {
+        var customer = order.getCustomer();
+
+        notificationService.createNotification(
+                customer.getId(), NotificationType.ORDER_UPDATE,
+                "Order Placed",
+                "Your order " + order.getOrderNumber() + " has been placed!",
+                order.getId());
+
+        try {
+            emailDispatchService.sendOrderConfirmation(
+                    customer.getEmail(),
+                    customer.getName() != null ? customer.getName() : "Customer",
+                    order.getOrderNumber(),
+                    order.getTotalCents(),
+                    order.getItems().size() + " item(s)");
+        } catch (Exception e) {
+            log.warn("Failed to send order confirmation email for order {}: {}", order.getId(), e.getMessage());
+        }
+        try {
+            if (customer.getPhone() != null) {
+                smsDispatchService.sendOrderPlacedSms(customer.getPhone(), order.getOrderNumber());
+            }
+        } catch (Exception e) {
+            log.warn("Failed to send order placed SMS for order {}: {}", order.getId(), e.getMessage());
+        }
+
+        publish(order);
+    }
+
+    /**
+     * Send in-app notification to customer (and driver where applicable) on status change,
+     * plus email/SMS for key transitions, then publish the order.
+     */
+    private void onStatusChanged(Order order, OrderStatus oldStatus, OrderStatus newStatus) {
+        UUID customerId = order.getCustomer().getId();
+        UUID orderId = order.getId();
+        String orderNum = order.getOrderNumber() != null ? order.getOrderNumber() : orderId.toString().substring(0, 8);
+
+        String title = null;
+        String message = null;
+
+        switch (newStatus) {
+            case ACCEPTED -> {
+                title = "Order Accepted";
+                message = "Your order #" + orderNum + " has been accepted by the restaurant.";
+            }
+            case PREPARING -> {
+                title = "Preparing Your Order";
+                message = "Your order #" + orderNum + " is being prepared.";
+            }
+            case READY -> {
+                title = "Order Ready";
+                message = "Your order #" + orderNum + " is ready for pickup!";
+            }
+            case ASSIGNED -> {
+                title = "Driver Assigned";
+                message = "A driver has been assigned to deliver your order #" + orderNum + ".";
+                // Also notify the driver
+                if (order.getDriver() != null) {
+                    notificationService.createNotification(
+                            order.getDriver().getId(),
+                            NotificationType.DRIVER_ASSIGNED,
+                            "New Delivery Assignment",
+                            "You have been assigned order #" + orderNum + ".",
+                            orderId
+                    );
+                }
+            }
+            case PICKED_UP -> {
+                title = "Order Picked Up";
+                message = "Your driver has picked up your order #" + orderNum + ".";
+            }
+            case ENROUTE -> {
+                title = "On the Way!";
+                message = "Your order #" + orderNum + " is on its way to you.";
+            }
+            case DELIVERED -> {
+                title = "Order Delivered";
+                message = "Your order #" + orderNum + " has been delivered. Enjoy your meal!";
+                storeTrail(order);
+            }
+            case CANCELLED -> {
+                storeTrail(order);
+                title = "Order Cancelled";
+                message = "Your order #" + orderNum + " has been cancelled.";
+                if (order.getCancellationReason() != null) {
+                    message += " Reason: " + order.getCancellationReason();
+                }
+            }
+            default -> {
+                // No notification for other statuses
+            }
+        }
+
+        if (title != null) {
+            notificationService.createNotification(customerId, NotificationType.ORDER_UPDATE,
+                    title, message, orderId);
+
+            try {
+                emailDispatchService.sendOrderStatusUpdate(
+                        order.getCustomer().getEmail(),
+                        order.getCustomer().getName() != null ? order.getCustomer().getName() : "Customer",
+                        orderNum,
+                        oldStatus != null ? oldStatus.name() : null,
+                        newStatus.name());
+            } catch (Exception ex) {
+                log.warn("Email dispatch failed for order {} status {}: {}", orderId, newStatus, ex.getMessage());
+            }
+
+            try {
+                String phone = order.getCustomer().getPhone();
+                if (phone != null) {
+                    if (newStatus == OrderStatus.DELIVERED) {
+                        smsDispatchService.sendOrderDeliveredSms(phone, orderNum);
+                    } else if (newStatus == OrderStatus.ENROUTE || newStatus == OrderStatus.PICKED_UP) {
+                        smsDispatchService.sendOutForDeliverySms(phone, orderNum);
+                    }
+                }
+            } catch (Exception ex) {
+                log.warn("SMS dispatch failed for order {} status {}: {}", orderId, newStatus, ex.getMessage());
+            }
+
+            log.debug("Notification sent to customer {} for order {} status: {}", customerId, orderId, newStatus);
+        }
+
+        publish(order);
+    }
+
+    /**
+     * Persist the delivery's GPS trail; a failure must not make the relay retry the notifications.
+     */
+    private void storeTrail(Order order) {
+        try {
+            deliveryTrailStore.complete(order);
+        } catch (Exception e) {
+            log.warn("Failed to store GPS trail for order {}: {}", order.getId(), e.getMessage());
+        }
+    }
+
+    private void publish(Order order) {
+        // Order topic plus the vendor's KDS topic, serialized once
+        orderUpdatePublisher.publishOrderUpdate(order);
+    }
+}
@@ -0,0 +1,71 @@
+package com.quickbite.orders.outbox;
+
+import com.quickbite.common.id.TimeOrderedId;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Outbox row for an order side effect, written in the same transaction as the order change
+ * and fanned out by {@link OrderOutboxRelay} after commit.
+ */
+@Entity
+@Table(name = "order_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderOutboxEvent {
+
+    @Id
+    @TimeOrderedId
+    @Column(columnDefinition = "uuid")
+    private UUID id;
+
+    /** Database-assigned sequence; defines relay order within an order. */
+    @Column(name = "sequence_no", insertable = false, updatable = false)
+    private Long sequenceNo;
+
+    @Column(name = "order_id", nullable = false, columnDefinition = "uuid")
+    private UUID orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 50)
+    private OutboxEventType eventType;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb")
+    private Map<String, Object> payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false, columnDefinition = "timestamptz")
+    private OffsetDateTime nextAttemptAt;
+
+    @Column(name = "locked_until", columnDefinition = "timestamptz")
+    private OffsetDateTime lockedUntil;
+
+    @Column(name = "last_error", columnDefinition = "text")
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(name = "created_at", columnDefinition = "timestamptz", updatable = false)
+    private OffsetDateTime createdAt;
+
+    @Column(name = "dispatched_at", columnDefinition = "timestamptz")
+    private OffsetDateTime dispatchedAt;
+}
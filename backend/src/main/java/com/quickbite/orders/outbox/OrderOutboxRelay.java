@@ -0,0 +1,190 @@
+package com.quickbite.orders.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Relays committed order outbox events to {@link OrderOutboxDispatcher}.
+ * <p>
+ * Claiming is serialized across replicas with a Postgres transaction-scoped advisory lock;
+ * claimed rows are leased ({@code IN_FLIGHT} + {@code locked_until}) so a crashed relay's
+ * batch is picked up again once the lease expires. Each event is dispatched in its own
+ * transaction. Events for one order are delivered in sequence: on failure the event is
+ * backed off exponentially and later events for that order wait behind it. After
+ * {@code max-attempts} the event is parked as {@code FAILED} and the order's queue moves on.
+ */
+@Slf4j
+@Component
+public class OrderOutboxRelay {
+
+    /** Advisory lock key shared by all relay instances. */
+    private static final long CLAIM_LOCK_KEY = 0x51B1_0B0BL;
+
+    /** Base backoff in milliseconds — doubles each retry, capped at {@link #MAX_BACKOFF_MILLIS}. */
+    private static final long BASE_BACKOFF_MILLIS = 500;
+    private static final long MAX_BACKOFF_MILLIS = 60_000;
+
+    private static final List<OutboxStatus> UNDELIVERED = List.of(OutboxStatus.PENDING, OutboxStatus.IN_FLIGHT);
+
+    private final OrderOutboxRepository outboxRepository;
+    private final OrderOutboxDispatcher dispatcher;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // Metrics
+    private final Counter dispatchedCounter;
+    private final Counter failedCounter;
+    private final Counter deadCounter;
+    private final Timer lagTimer;
+    private final AtomicLong pendingEvents = new AtomicLong();
+
+    @Value("${outbox.relay.enabled:true}")
+    private boolean relayEnabled;
+
+    @Value("${outbox.relay.batch-size:100}")
+    private int batchSize;
+
+    @Value("${outbox.relay.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${outbox.relay.lease-seconds:30}")
+    private int leaseSeconds;
+
+    public OrderOutboxRelay(OrderOutboxRepository outboxRepository,
+                            OrderOutboxDispatcher dispatcher,
+                            JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.dispatcher = dispatcher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        this.dispatchedCounter = Counter.builder("outbox.dispatched")
+                .description("Total order outbox events delivered")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("outbox.failed")
+                .description("Total order outbox delivery failures")
+                .register(meterRegistry);
+        this.deadCounter = Counter.builder("outbox.dead")
+                .description("Total order outbox events parked after max attempts")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("outbox.lag")
+                .description("Time from outbox write to delivery")
+                .register(meterRegistry);
+        Gauge.builder("outbox.pending", pendingEvents, AtomicLong::get)
+                .description("Order outbox events awaiting delivery")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Claim and deliver a batch of due events.
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:250}", initialDelay = 5_000)
+    public void relay() {
+        if (!relayEnabled) return;
+
+        List<OrderOutboxEvent> claimed = claimBatch();
+        if (claimed.isEmpty()) return;
+
+        log.debug("Relaying {} outbox events", claimed.size());
+        Set<UUID> blockedOrders = new HashSet<>();
+        List<UUID> released = new ArrayList<>();
+
+        for (OrderOutboxEvent event : claimed) {
+            if (blockedOrders.contains(event.getOrderId())) {
+                // An earlier event for this order failed — keep per-order ordering
+                released.add(event.getId());
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(tx -> {
+                    dispatcher.dispatch(event);
+                    outboxRepository.markDispatched(event.getId(), OutboxStatus.SENT, OffsetDateTime.now());
+                });
+                dispatchedCounter.increment();
+                if (event.getCreatedAt() != null) {
+                    lagTimer.record(Duration.between(event.getCreatedAt(), OffsetDateTime.now()));
+                }
+            } catch (Exception e) {
+                blockedOrders.add(event.getOrderId());
+                handleFailure(event, e);
+            }
+        }
+
+        if (!released.isEmpty()) {
+            transactionTemplate.executeWithoutResult(tx ->
+                    outboxRepository.release(released, OutboxStatus.PENDING));
+        }
+    }
+
+    /**
+     * Lease the next batch of claimable events. Returns an empty list when another
+     * instance currently holds the claim lock.
+     */
+    private List<OrderOutboxEvent> claimBatch() {
+        List<OrderOutboxEvent> claimed = transactionTemplate.execute(tx -> {
+            Boolean locked = jdbcTemplate.queryForObject(
+                    "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, CLAIM_LOCK_KEY);
+            if (!Boolean.TRUE.equals(locked)) {
+                return List.<OrderOutboxEvent>of();
+            }
+
+            OffsetDateTime now = OffsetDateTime.now();
+            List<OrderOutboxEvent> events = outboxRepository.findClaimable(now, batchSize);
+            OffsetDateTime leaseUntil = now.plusSeconds(leaseSeconds);
+            for (OrderOutboxEvent event : events) {
+                event.setStatus(OutboxStatus.IN_FLIGHT);
+                event.setLockedUntil(leaseUntil);
+            }
+            outboxRepository.saveAll(events);
+            pendingEvents.set(outboxRepository.countByStatusIn(UNDELIVERED));
+            return events;
+        });
+        return claimed != null ? claimed : List.of();
+    }
+
+    private void handleFailure(OrderOutboxEvent event, Exception error) {
+        failedCounter.increment();
+        String message = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+
+        transactionTemplate.executeWithoutResult(tx -> outboxRepository.findById(event.getId()).ifPresent(row -> {
+            int attempts = row.getAttempts() + 1;
+            row.setAttempts(attempts);
+            row.setLastError(message.length() > 1000 ? message.substring(0, 1000) : message);
+            row.setLockedUntil(null);
+
+            if (attempts >= maxAttempts) {
+                row.setStatus(OutboxStatus.FAILED);
+                deadCounter.increment();
+                log.error("Outbox event {} ({}) for order {} failed after {} attempts: {}",
+                        row.getId(), row.getEventType(), row.getOrderId(), attempts, message);
+            } else {
+                long backoffMillis = Math.min(MAX_BACKOFF_MILLIS, BASE_BACKOFF_MILLIS << Math.min(attempts - 1, 16));
+                row.setStatus(OutboxStatus.PENDING);
+                row.setNextAttemptAt(OffsetDateTime.now().plus(Duration.ofMillis(backoffMillis)));
+                log.warn("Outbox event {} ({}) for order {} retry #{} in {}ms: {}",
+                        row.getId(), row.getEventType(), row.getOrderId(), attempts, backoffMillis, message);
+            }
+            outboxRepository.save(row);
+        }));
+    }
+}
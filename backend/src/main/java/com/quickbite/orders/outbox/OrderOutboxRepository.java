@@ -0,0 +1,60 @@
+package com.quickbite.orders.outbox;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for order outbox rows.
+ */
+@Repository
+public interface OrderOutboxRepository extends JpaRepository<OrderOutboxEvent, UUID> {
+
+    /**
+     * Find events ready to relay, oldest first.
+     * A row is claimable when it is due (or its lease expired) and no earlier event
+     * for the same order is still in flight or waiting out a retry back-off,
+     * which keeps delivery ordered per order.
+     */
+    @Query(value = """
+            SELECT o.* FROM order_outbox o
+            WHERE ((o.status = 'PENDING' AND o.next_attempt_at <= :now)
+                OR (o.status = 'IN_FLIGHT' AND o.locked_until < :now))
+              AND NOT EXISTS (
+                  SELECT 1 FROM order_outbox p
+                  WHERE p.order_id = o.order_id
+                    AND p.sequence_no < o.sequence_no
+                    AND ((p.status = 'IN_FLIGHT' AND p.locked_until >= :now)
+                      OR (p.status = 'PENDING' AND p.next_attempt_at > :now)))
+            ORDER BY o.sequence_no
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<OrderOutboxEvent> findClaimable(@Param("now") OffsetDateTime now, @Param("limit") int limit);
+
+    /**
+     * Mark an event as delivered.
+     */
+    @Modifying
+    @Query("UPDATE OrderOutboxEvent e SET e.status = :status, e.dispatchedAt = :at, e.lockedUntil = null " +
+           "WHERE e.id = :id")
+    int markDispatched(@Param("id") UUID id, @Param("status") OutboxStatus status, @Param("at") OffsetDateTime at);
+
+    /**
+     * Return claimed events to the queue without counting an attempt.
+     */
+    @Modifying
+    @Query("UPDATE OrderOutboxEvent e SET e.status = :status, e.lockedUntil = null WHERE e.id IN :ids")
+    int release(@Param("ids") Collection<UUID> ids, @Param("status") OutboxStatus status);
+
+    /**
+     * Count undelivered events (for the backlog gauge).
+     */
+    long countByStatusIn(Collection<OutboxStatus> statuses);
+}
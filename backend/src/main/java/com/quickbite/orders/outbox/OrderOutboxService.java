@@ -0,0 +1,89 @@
+package com.quickbite.orders.outbox;
+
+import com.quickbite.orders.entity.Order;
+import com.quickbite.orders.entity.OrderStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Writes order side-effect events to the outbox.
+ * Must be called inside the transaction that changes the order, so events are
+ * committed (or rolled back) together with it.
+ */
+@Slf4j
+@Service
+public class OrderOutboxService {
+
+    private final OrderOutboxRepository outboxRepository;
+    private final Counter enqueuedCounter;
+
+    public OrderOutboxService(OrderOutboxRepository outboxRepository, MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.enqueuedCounter = Counter.builder("outbox.enqueued")
+                .description("Total order outbox events written")
+                .register(meterRegistry);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderPlaced(Order order) {
+        enqueue(order.getId(), OutboxEventType.ORDER_PLACED, new HashMap<>());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void ordersPlaced(List<Order> orders) {
+        List<OrderOutboxEvent> events = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            events.add(newEvent(order.getId(), OutboxEventType.ORDER_PLACED, new HashMap<>()));
+        }
+        outboxRepository.saveAll(events);
+        enqueuedCounter.increment(events.size());
+        log.debug("Outbox: {} ORDER_PLACED events queued", events.size());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void statusChanged(Order order, OrderStatus oldStatus, OrderStatus newStatus) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("oldStatus", oldStatus != null ? oldStatus.name() : null);
+        payload.put("newStatus", newStatus.name());
+        enqueue(order.getId(), OutboxEventType.STATUS_CHANGED, payload);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderUpdated(Order order) {
+        enqueue(order.getId(), OutboxEventType.ORDER_UPDATED, new HashMap<>());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void driverAssigned(Order order, UUID driverId) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("driverId", driverId.toString());
+        enqueue(order.getId(), OutboxEventType.DRIVER_ASSIGNED, payload);
+    }
+
+    private void enqueue(UUID orderId, OutboxEventType type, Map<String, Object> payload) {
+        outboxRepository.save(newEvent(orderId, type, payload));
+        enqueuedCounter.increment();
+        log.debug("Outbox event {} queued for order {}", type, orderId);
+    }
+
+    private OrderOutboxEvent newEvent(UUID orderId, OutboxEventType type, Map<String, Object> payload) {
+        return OrderOutboxEvent.builder()
+                .orderId(orderId)
+                .eventType(type)
+                .payload(payload)
+                .status(OutboxStatus.PENDING)
+                .nextAttemptAt(OffsetDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,15 @@
+package com.quickbite.orders.outbox;
+
+/**
+ * Kinds of order side effects relayed through the outbox.
+ */
+public enum OutboxEventType {
+    /** New order: customer notification, confirmation email/SMS, customer + vendor topics. */
+    ORDER_PLACED,
+    /** Status transition: customer (and driver) notification, email/SMS, customer + vendor topics. */
+    STATUS_CHANGED,
+    /** Order changed without a customer-facing notification: customer + vendor topics only. */
+    ORDER_UPDATED,
+    /** Driver attached to an order: customer topic + driver assignment push. */
+    DRIVER_ASSIGNED
+}
@@ -0,0 +1,11 @@
+package com.quickbite.orders.outbox;
+
+/**
+ * Delivery state of an {@link OrderOutboxEvent}.
+ */
+public enum OutboxStatus {
+    PENDING,
+    IN_FLIGHT,
+    SENT,
+    FAILED
+}
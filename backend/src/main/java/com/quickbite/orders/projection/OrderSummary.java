@@ -0,0 +1,96 @@
+package com.quickbite.orders.projection;
+
+import com.quickbite.orders.entity.DeliveryType;
+import com.quickbite.orders.entity.OrderStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Flat, denormalized view of an order for dashboards (vendor KDS, driver lists, admin).
+ * Written only by {@link OrderSummaryProjector}; read through {@link OrderSummaryRepository}.
+ */
+@Entity
+@Immutable
+@Table(name = "order_summary")
+@Getter
+@NoArgsConstructor
+public class OrderSummary {
+
+    @Id
+    @Column(name = "order_id", columnDefinition = "uuid")
+    private UUID orderId;
+
+    @Column(name = "order_number")
+    private String orderNumber;
+
+    @Column(name = "customer_id", columnDefinition = "uuid")
+    private UUID customerId;
+
+    @Column(name = "customer_name")
+    private String customerName;
+
+    @Column(name = "customer_phone")
+    private String customerPhone;
+
+    @Column(name = "vendor_id", columnDefinition = "uuid")
+    private UUID vendorId;
+
+    @Column(name = "vendor_name")
+    private String vendorName;
+
+    @Column(name = "driver_id", columnDefinition = "uuid")
+    private UUID driverId;
+
+    @Column(name = "driver_name")
+    private String driverName;
+
+    @Column(name = "driver_phone")
+    private String driverPhone;
+
+    @Column(name = "delivery_address", columnDefinition = "text")
+    private String deliveryAddress;
+
+    @Column(name = "delivery_lat", precision = 10, scale = 7)
+    private BigDecimal deliveryLat;
+
+    @Column(name = "delivery_lng", precision = 10, scale = 7)
+    private BigDecimal deliveryLng;
+
+    @Column(name = "item_count")
+    private Integer itemCount;
+
+    @Column(name = "total_cents")
+    private Long totalCents;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 50)
+    private OrderStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "delivery_type", length = 20)
+    private DeliveryType deliveryType;
+
+    @Column(name = "scheduled_time", columnDefinition = "timestamptz")
+    private OffsetDateTime scheduledTime;
+
+    @Column(name = "estimated_prep_mins")
+    private Integer estimatedPrepMins;
+
+    @Column(name = "estimated_delivery_at", columnDefinition = "timestamptz")
+    private OffsetDateTime estimatedDeliveryAt;
+
+    @Column(name = "created_at", columnDefinition = "timestamptz")
+    private OffsetDateTime createdAt;
+
+    @Column(name = "updated_at", columnDefinition = "timestamptz")
+    private OffsetDateTime updatedAt;
+
+    @Column(name = "projected_at", columnDefinition = "timestamptz")
+    private OffsetDateTime projectedAt;
+}
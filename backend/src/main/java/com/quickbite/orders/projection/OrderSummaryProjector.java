@@ -0,0 +1,276 @@
+package com.quickbite.orders.projection;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Maintains the order_summary projection from orders, users, vendors, addresses and order_items.
+ * <p>
+ * {@link #refresh(UUID)} is called by the order write paths. Inside a transaction the order ids
+ * are collected and projected with one upsert just before commit (after the JPA flush), so the
+ * summary row commits or rolls back with the order change and several changes to the same order
+ * cost one statement. {@link #rebuild()} re-projects every order in id-ordered chunks and
+ * {@link #checkConsistency(Integer, boolean)} compares the projection against its source —
+ * the scheduled check also repairs rows made stale by changes outside OrderService
+ * (e.g. a customer renaming their profile).
+ */
+@Slf4j
+@Component
+public class OrderSummaryProjector {
+
+    private static final String PENDING_RESOURCE_KEY = OrderSummaryProjector.class.getName() + ".pending";
+    private static final int REBUILD_CHUNK_SIZE = 1_000;
+    private static final int SAMPLE_SIZE = 20;
+
+    private static final String COLUMNS = """
+            order_id, order_number, customer_id, customer_name, customer_phone,
+            vendor_id, vendor_name, driver_id, driver_name, driver_phone,
+            delivery_address, delivery_lat, delivery_lng, item_count, total_cents,
+            status, delivery_type, scheduled_time, estimated_prep_mins,
+            estimated_delivery_at, created_at, updated_at""";
+
+    /** Projection source; the {@code %s} placeholder is the WHERE clause on {@code o}. */
+    private static final String SOURCE_SELECT = """
+            SELECT o.id AS order_id, o.order_number, o.customer_id, cu.name AS customer_name, cu.phone AS customer_phone,
+                   o.vendor_id, v.name AS vendor_name, o.driver_id, d.name AS driver_name, d.phone AS driver_phone,
+                   NULLIF(concat_ws(', ', a.line1, a.line2, a.city, a.state, a.postal), '') AS delivery_address,
+                   a.lat AS delivery_lat, a.lng AS delivery_lng,
+                   (SELECT COALESCE(SUM(oi.quantity), 0) FROM order_items oi WHERE oi.order_id = o.id)::int AS item_count,
+                   o.total_cents, o.status, o.delivery_type, o.scheduled_time, o.estimated_prep_mins,
+                   o.estimated_delivery_at, o.created_at, o.updated_at
+            FROM orders o
+            JOIN users cu ON cu.id = o.customer_id
+            JOIN vendors v ON v.id = o.vendor_id
+            LEFT JOIN users d ON d.id = o.driver_id
+            LEFT JOIN addresses a ON a.id = o.delivery_address_id
+            WHERE %s""";
+
+    private static final String UPSERT = "INSERT INTO order_summary (" + COLUMNS + ") "
+            + SOURCE_SELECT.formatted("o.id = ANY(?)") + """
+
+            ON CONFLICT (order_id) DO UPDATE SET
+                order_number = EXCLUDED.order_number,
+                customer_id = EXCLUDED.customer_id,
+                customer_name = EXCLUDED.customer_name,
+                customer_phone = EXCLUDED.customer_phone,
+                vendor_id = EXCLUDED.vendor_id,
+                vendor_name = EXCLUDED.vendor_name,
+                driver_id = EXCLUDED.driver_id,
+                driver_name = EXCLUDED.driver_name,
+                driver_phone = EXCLUDED.driver_phone,
+                delivery_address = EXCLUDED.delivery_address,
+                delivery_lat = EXCLUDED.delivery_lat,
+                delivery_lng = EXCLUDED.delivery_lng,
+                item_count = EXCLUDED.item_count,
+                total_cents = EXCLUDED.total_cents,
+                status = EXCLUDED.status,
+                delivery_type = EXCLUDED.delivery_type,
+                scheduled_time = EXCLUDED.scheduled_time,
+                estimated_prep_mins = EXCLUDED.estimated_prep_mins,
+                estimated_delivery_at = EXCLUDED.estimated_delivery_at,
+                created_at = EXCLUDED.created_at,
+                updated_at = EXCLUDED.updated_at,
+                projected_at = NOW()""";
+
+    /** Source rows with no summary row or a summary row whose columns differ. */
+    private static final String DRIFTED_IDS = "SELECT s.order_id FROM ("
+            + SOURCE_SELECT.formatted("(?::timestamptz IS NULL OR o.updated_at >= ?::timestamptz)") + """
+            ) s
+            LEFT JOIN order_summary p ON p.order_id = s.order_id
+            WHERE p.order_id IS NULL
+               OR (s.order_number, s.customer_id, s.customer_name, s.customer_phone, s.vendor_id, s.vendor_name,
+                   s.driver_id, s.driver_name, s.driver_phone, s.delivery_address, s.delivery_lat, s.delivery_lng,
+                   s.item_count, s.total_cents, s.status, s.delivery_type, s.scheduled_time, s.estimated_prep_mins,
+                   s.estimated_delivery_at, s.created_at, s.updated_at)
+                  IS DISTINCT FROM
+                  (p.order_number, p.customer_id, p.customer_name, p.customer_phone, p.vendor_id, p.vendor_name,
+                   p.driver_id, p.driver_name, p.driver_phone, p.delivery_address, p.delivery_lat, p.delivery_lng,
+                   p.item_count, p.total_cents, p.status, p.delivery_type, p.scheduled_time, p.estimated_prep_mins,
+                   p.estimated_delivery_at, p.created_at, p.updated_at)
+            ORDER BY s.order_id
+            LIMIT ?""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Metrics
+    private final Counter projectedCounter;
+    private final Timer rebuildTimer;
+    private final AtomicLong lastDrift = new AtomicLong();
+
+    @Value("${order-summary.consistency.enabled:true}")
+    private boolean consistencyCheckEnabled;
+
+    @Value("${order-summary.consistency.window-hours:24}")
+    private int consistencyWindowHours;
+
+    @Value("${order-summary.consistency.repair:true}")
+    private boolean repairOnCheck;
+
+    @Value("${order-summary.consistency.max-rows:5000}")
+    private int maxDriftRows;
+
+    public OrderSummaryProjector(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        this.projectedCounter = Counter.builder("order_summary.projected")
+                .description("Order summary rows written")
+                .register(meterRegistry);
+        this.rebuildTimer = Timer.builder("order_summary.rebuild.duration")
+                .description("Time to rebuild the order summary projection")
+                .register(meterRegistry);
+        Gauge.builder("order_summary.drift", lastDrift, AtomicLong::get)
+                .description("Stale or missing order summary rows found by the last consistency check")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Re-project one order. Deferred to just before commit when a transaction is active.
+     */
+    public void refresh(UUID orderId) {
+        refreshAll(List.of(orderId));
+    }
+
+    /**
+     * Re-project several orders. Deferred to just before commit when a transaction is active,
+     * where all orders touched by the transaction are written with a single upsert.
+     */
+    @SuppressWarnings("unchecked")
+    public void refreshAll(Collection<UUID> orderIds) {
+        if (orderIds.isEmpty()) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            project(orderIds);
+            return;
+        }
+
+        Set<UUID> pending = (Set<UUID>) TransactionSynchronizationManager.getResource(PENDING_RESOURCE_KEY);
+        if (pending == null) {
+            Set<UUID> batch = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(PENDING_RESOURCE_KEY, batch);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    entityManager.flush();
+                    project(batch);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_RESOURCE_KEY);
+                }
+            });
+            pending = batch;
+        }
+        pending.addAll(orderIds);
+    }
+
+    /**
+     * Rebuild the whole projection from orders, one transaction per chunk of {@value #REBUILD_CHUNK_SIZE}.
+     *
+     * @return the number of summary rows written
+     */
+    public long rebuild() {
+        return rebuildTimer.record(() -> {
+            long written = 0;
+            UUID after = null;
+            while (true) {
+                List<UUID> ids = after == null
+                        ? jdbcTemplate.queryForList("SELECT id FROM orders ORDER BY id LIMIT ?",
+                                UUID.class, REBUILD_CHUNK_SIZE)
+                        : jdbcTemplate.queryForList("SELECT id FROM orders WHERE id > ? ORDER BY id LIMIT ?",
+                                UUID.class, after, REBUILD_CHUNK_SIZE);
+                if (ids.isEmpty()) break;
+
+                Integer rows = transactionTemplate.execute(status -> project(ids));
+                written += rows != null ? rows : 0;
+                after = ids.get(ids.size() - 1);
+            }
+            log.info("Rebuilt order summary projection: {} rows", written);
+            return written;
+        });
+    }
+
+    /**
+     * Compare the projection against orders updated within the last {@code windowHours}
+     * (all orders when null) and optionally re-project the drifted rows.
+     */
+    public ConsistencyReport checkConsistency(Integer windowHours, boolean repair) {
+        Timestamp since = windowHours != null
+                ? Timestamp.from(OffsetDateTime.now().minusHours(windowHours).toInstant())
+                : null;
+        List<UUID> drifted = jdbcTemplate.queryForList(DRIFTED_IDS, UUID.class, since, since, maxDriftRows);
+        lastDrift.set(drifted.size());
+
+        int repaired = 0;
+        if (repair && !drifted.isEmpty()) {
+            for (int from = 0; from < drifted.size(); from += REBUILD_CHUNK_SIZE) {
+                List<UUID> chunk = drifted.subList(from, Math.min(from + REBUILD_CHUNK_SIZE, drifted.size()));
+                Integer rows = transactionTemplate.execute(status -> project(chunk));
+                repaired += rows != null ? rows : 0;
+            }
+        }
+
+        if (!drifted.isEmpty()) {
+            log.warn("Order summary drift: {} rows (window={}h, repaired={})",
+                    drifted.size(), windowHours != null ? windowHours : "all", repaired);
+        }
+        return new ConsistencyReport(windowHours, drifted.size(), drifted.size() >= maxDriftRows,
+                List.copyOf(drifted.subList(0, Math.min(SAMPLE_SIZE, drifted.size()))), repaired);
+    }
+
+    /**
+     * Periodic consistency check over recently updated orders (every 15 minutes by default).
+     */
+    @Scheduled(cron = "${order-summary.consistency.cron:0 */15 * * * *}")
+    public void scheduledConsistencyCheck() {
+        if (!consistencyCheckEnabled) return;
+        try {
+            checkConsistency(consistencyWindowHours, repairOnCheck);
+        } catch (Exception e) {
+            log.error("Order summary consistency check failed: {}", e.getMessage());
+        }
+    }
+
+    private int project(Collection<UUID> orderIds) {
+        if (orderIds.isEmpty()) return 0;
+        UUID[] ids = orderIds.toArray(new UUID[0]);
+        int rows = jdbcTemplate.update(UPSERT, ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", ids)));
+        projectedCounter.increment(rows);
+        return rows;
+    }
+
+    /**
+     * Result of a consistency check. {@code truncated} is set when the drift count hit the scan cap.
+     */
+    public record ConsistencyReport(Integer windowHours, int drifted, boolean truncated,
+                                    List<UUID> sampleOrderIds, int repaired) {
+    }
+}
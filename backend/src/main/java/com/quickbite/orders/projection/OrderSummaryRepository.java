@@ -0,0 +1,36 @@
+package com.quickbite.orders.projection;
+
+import com.quickbite.orders.entity.OrderStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Read-only access to the order_summary projection.
+ * Each finder is served by one order_summary index (see V38); there are no save methods —
+ * rows are maintained by {@link OrderSummaryProjector}.
+ */
+@Transactional(readOnly = true)
+public interface OrderSummaryRepository extends Repository<OrderSummary, UUID> {
+
+    Optional<OrderSummary> findByOrderId(UUID orderId);
+
+    /** Vendor KDS: orders in the given statuses, oldest first. */
+    List<OrderSummary> findByVendorIdAndStatusInOrderByCreatedAtAsc(UUID vendorId, Collection<OrderStatus> statuses,
+                                                                     Pageable pageable);
+
+    /** Driver list: assigned orders in the given statuses, oldest first. */
+    List<OrderSummary> findByDriverIdAndStatusInOrderByCreatedAtAsc(UUID driverId, Collection<OrderStatus> statuses,
+                                                                     Pageable pageable);
+
+    /** Customer history, newest first. */
+    List<OrderSummary> findByCustomerIdOrderByCreatedAtDesc(UUID customerId, Pageable pageable);
+
+    /** Admin board: orders in the given statuses, newest first. */
+    List<OrderSummary> findByStatusInOrderByCreatedAtDesc(Collection<OrderStatus> statuses, Pageable pageable);
+}
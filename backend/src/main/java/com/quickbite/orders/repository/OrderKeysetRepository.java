@@ -0,0 +1,27 @@
+package com.quickbite.orders.repository;
+
+import com.quickbite.common.pagination.KeysetCursor;
+import com.quickbite.orders.entity.Order;
+
+import java.util.List;
+
+/**
+ * Keyset (cursor) pagination over orders, newest first by {@code (created_at, id)}.
+ * Unlike offset paging, the cost of a page does not grow with its depth and no
+ * {@code COUNT(*)} is issued unless {@link #countMatching} is called explicitly.
+ */
+public interface OrderKeysetRepository {
+
+    /**
+     * Load up to {@code limit} orders strictly after {@code after}, with the
+     * {@link Order#DETAIL_GRAPH} associations fetched.
+     *
+     * @param after position of the last row of the previous page, or {@code null} for the first page
+     */
+    List<Order> findPage(OrderListFilter filter, KeysetCursor after, int limit);
+
+    /**
+     * Exact number of orders matching the filter.
+     */
+    long countMatching(OrderListFilter filter);
+}
@@ -0,0 +1,63 @@
+package com.quickbite.orders.repository;
+
+import com.quickbite.common.pagination.KeysetCursor;
+import com.quickbite.orders.entity.Order;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.List;
+
+/**
+ * JPQL implementation of {@link OrderKeysetRepository}.
+ * Only the filters that are set end up in the WHERE clause, so each combination
+ * can use its own {@code (filter…, created_at, id)} index (see V37).
+ */
+public class OrderKeysetRepositoryImpl implements OrderKeysetRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Order> findPage(OrderListFilter filter, KeysetCursor after, int limit) {
+        StringBuilder jpql = new StringBuilder("SELECT o FROM Order o WHERE 1 = 1");
+        appendFilter(jpql, filter);
+        if (after != null) {
+            jpql.append(" AND (o.createdAt, o.id) < (:afterCreatedAt, :afterId)");
+        }
+        jpql.append(" ORDER BY o.createdAt DESC, o.id DESC");
+
+        TypedQuery<Order> query = entityManager.createQuery(jpql.toString(), Order.class)
+                .setHint("jakarta.persistence.fetchgraph", entityManager.getEntityGraph(Order.DETAIL_GRAPH))
+                .setMaxResults(limit);
+        bindFilter(query, filter);
+        if (after != null) {
+            query.setParameter("afterCreatedAt", after.createdAt());
+            query.setParameter("afterId", after.id());
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    public long countMatching(OrderListFilter filter) {
+        StringBuilder jpql = new StringBuilder("SELECT COUNT(o) FROM Order o WHERE 1 = 1");
+        appendFilter(jpql, filter);
+        TypedQuery<Long> query = entityManager.createQuery(jpql.toString(), Long.class);
+        bindFilter(query, filter);
+        return query.getSingleResult();
+    }
+
+    private static void appendFilter(StringBuilder jpql, OrderListFilter filter) {
+        if (filter.customerId() != null) jpql.append(" AND o.customer.id = :customerId");
+        if (filter.vendorId() != null) jpql.append(" AND o.vendor.id = :vendorId");
+        if (filter.driverId() != null) jpql.append(" AND o.driver.id = :driverId");
+        if (filter.status() != null) jpql.append(" AND o.status = :status");
+    }
+
+    private static void bindFilter(TypedQuery<?> query, OrderListFilter filter) {
+        if (filter.customerId() != null) query.setParameter("customerId", filter.customerId());
+        if (filter.vendorId() != null) query.setParameter("vendorId", filter.vendorId());
+        if (filter.driverId() != null) query.setParameter("driverId", filter.driverId());
+        if (filter.status() != null) query.setParameter("status", filter.status());
+    }
+}
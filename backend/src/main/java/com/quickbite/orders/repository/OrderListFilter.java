@@ -0,0 +1,19 @@
+package com.quickbite.orders.repository;
+
+import com.quickbite.orders.entity.OrderStatus;
+
+import java.util.UUID;
+
+/**
+ * Optional filters for order listing; {@code null} fields are not applied.
+ */
+public record OrderListFilter(UUID customerId, UUID vendorId, UUID driverId, OrderStatus status) {
+
+    public static OrderListFilter all() {
+        return new OrderListFilter(null, null, null, null);
+    }
+
+    public static OrderListFilter forDriver(UUID driverId) {
+        return new OrderListFilter(null, null, driverId, null);
+    }
+}
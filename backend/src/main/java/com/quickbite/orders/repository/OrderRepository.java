@@ -2,15 +2,20 @@ package com.quickbite.orders.repository;
 
 import com.quickbite.orders.entity.Order;
 import com.quickbite.orders.entity.OrderStatus;
+import com.quickbite.users.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -18,7 +23,7 @@ import java.util.UUID;
  * Provides order search, filtering by customer, vendor, driver, and status.
  */
 @Repository
-public interface OrderRepository extends JpaRepository<Order, UUID> {
+public interface OrderRepository extends JpaRepository<Order, UUID>, OrderKeysetRepository {
 
     /**
      * Find orders by customer ID.
@@ -159,6 +164,54 @@ public interface OrderRepository extends JpaRepository<Order, UUID> {
         @Param("endDate") OffsetDateTime endDate
     );
 
+    // ── Read model (listing / detail) ──
+    // To-one associations used by OrderMapper are joined via the Order.detail entity graph;
+    // items and their menu items are loaded for a whole page by fetchItems.
+
+    @EntityGraph(Order.DETAIL_GRAPH)
+    Optional<Order> findDetailById(UUID id);
+
+    @EntityGraph(Order.DETAIL_GRAPH)
+    Page<Order> findDetailByCustomerId(UUID customerId, Pageable pageable);
+
+    @EntityGraph(Order.DETAIL_GRAPH)
+    Page<Order> findDetailByCustomerIdAndStatus(UUID customerId, OrderStatus status, Pageable pageable);
+
+    @EntityGraph(Order.DETAIL_GRAPH)
+    Page<Order> findDetailByVendorId(UUID vendorId, Pageable pageable);
+
+    @EntityGraph(Order.DETAIL_GRAPH)
+    Page<Order> findDetailByVendorIdAndStatus(UUID vendorId, OrderStatus status, Pageable pageable);
+
+    @EntityGraph(Order.DETAIL_GRAPH)
+    List<Order> findDetailByVendorIdAndStatusInOrderByCreatedAtAsc(UUID vendorId, Collection<OrderStatus> statuses);
+
+    @EntityGraph(Order.DETAIL_GRAPH)
+    Page<Order> findDetailByDriverId(UUID driverId, Pageable pageable);
+
+    @EntityGraph(Order.DETAIL_GRAPH)
+    List<Order> findDetailByDriverIdAndStatusIn(UUID driverId, Collection<OrderStatus> statuses);
+
+    @EntityGraph(Order.DETAIL_GRAPH)
+    List<Order> findDetailByDriverIsNullAndStatus(OrderStatus status);
+
+    @EntityGraph(Order.DETAIL_GRAPH)
+    Page<Order> findDetailByStatus(OrderStatus status, Pageable pageable);
+
+    @EntityGraph(Order.DETAIL_GRAPH)
+    @Query(value = "SELECT o FROM Order o", countQuery = "SELECT COUNT(o) FROM Order o")
+    Page<Order> findDetailAll(Pageable pageable);
+
+    /**
+     * Initialize the items (and their menu items) of already-loaded orders in one query.
+     *
+     * @param ids order IDs, typically one page
+     * @return the same orders with their item collections fetched
+     */
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.orderItems i LEFT JOIN FETCH i.menuItem " +
+           "WHERE o.id IN :ids")
+    List<Order> fetchItems(@Param("ids") Collection<UUID> ids);
+
     // ── Fraud velocity queries ──
 
     /**
@@ -183,6 +236,82 @@ public interface OrderRepository extends JpaRepository<Order, UUID> {
         UUID customerId, OrderStatus status, OffsetDateTime after
     );
 
+    /**
+     * Recent orders for seeding fraud velocity counters: [createdAt, totalCents, status, updatedAt].
+     * Includes older orders cancelled after {@code after}.
+     */
+    @Query("SELECT o.createdAt, o.totalCents, o.status, o.updatedAt FROM Order o " +
+           "WHERE o.customer.id = :customerId " +
+           "AND (o.createdAt > :after OR (o.status = :cancelled AND o.updatedAt > :after))")
+    List<Object[]> findVelocitySamples(
+        @Param("customerId") UUID customerId,
+        @Param("after") OffsetDateTime after,
+        @Param("cancelled") OrderStatus cancelled
+    );
+
+    // ── Compare-and-set status transitions (see OrderStateMachine#transition) ──
+
+    /**
+     * Move an order from {@code expected} to {@code target} and bump its version.
+     *
+     * @return 1 if applied, 0 if the order is no longer in {@code expected}
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :target, o.version = o.version + 1, o.updatedAt = :now " +
+           "WHERE o.id = :id AND o.status = :expected")
+    int compareAndSetStatus(
+        @Param("id") UUID id,
+        @Param("expected") OrderStatus expected,
+        @Param("target") OrderStatus target,
+        @Param("now") OffsetDateTime now
+    );
+
+    /**
+     * Set the driver and move the order from {@code expected} to {@code target}.
+     * Unless {@code reassign} is set, only applies while the order has no driver
+     * (or already has this one), so two drivers cannot claim the same order.
+     * {@code assignedAt} is set to {@code now} unless the order already had this driver.
+     *
+     * @return 1 if applied, 0 otherwise
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Order o SET o.driver = :driver, o.status = :target, o.version = o.version + 1, o.updatedAt = :now, " +
+           "o.assignedAt = CASE WHEN o.driver = :driver AND o.assignedAt IS NOT NULL THEN o.assignedAt ELSE :now END " +
+           "WHERE o.id = :id AND o.status = :expected " +
+           "AND (:reassign = true OR o.driver IS NULL OR o.driver = :driver)")
+    int compareAndSetDriver(
+        @Param("id") UUID id,
+        @Param("expected") OrderStatus expected,
+        @Param("target") OrderStatus target,
+        @Param("driver") User driver,
+        @Param("reassign") boolean reassign,
+        @Param("now") OffsetDateTime now
+    );
+
+    @Query("SELECT o.status FROM Order o WHERE o.id = :id")
+    Optional<OrderStatus> findStatusById(@Param("id") UUID id);
+
+    // ── Batch dispatch ──
+
+    /**
+     * Unassigned orders waiting for a driver with their pickup point: [orderId, vendorLat, vendorLng],
+     * longest waiting first.
+     */
+    @Query("SELECT o.id, v.lat, v.lng FROM Order o JOIN o.vendor v " +
+           "WHERE o.status = :status AND o.driver IS NULL AND v.lat IS NOT NULL AND v.lng IS NOT NULL " +
+           "ORDER BY o.updatedAt ASC")
+    List<Object[]> findDispatchBacklog(@Param("status") OrderStatus status, Pageable pageable);
+
+    /**
+     * Active order count per driver: [driverId, count].
+     */
+    @Query("SELECT o.driver.id, COUNT(o) FROM Order o " +
+           "WHERE o.driver.id IN :driverIds AND o.status IN :statuses GROUP BY o.driver.id")
+    List<Object[]> countActiveByDriverIds(
+        @Param("driverIds") Collection<UUID> driverIds,
+        @Param("statuses") Collection<OrderStatus> statuses
+    );
+
     // ── Data retention queries ──
 
     /**
@@ -0,0 +1,152 @@
+package com.quickbite.orders.service;
+
+import com.quickbite.orders.dto.OrderItemDTO;
+import com.quickbite.orders.entity.OrderItem;
+import com.quickbite.orders.exception.BusinessException;
+import com.quickbite.vendors.entity.MenuItem;
+import com.quickbite.vendors.entity.Vendor;
+import com.quickbite.vendors.repository.MenuItemRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Cart pricing stage for order creation.
+ * Loads every requested menu item (and its vendor) in one query, validates
+ * availability and the single-vendor constraint in memory, and returns priced lines.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CartPricingService {
+
+    private final MenuItemRepository menuItemRepository;
+
+    /**
+     * Price a cart.
+     *
+     * @param items cart lines as submitted by the client
+     * @return priced cart with vendor, lines and subtotal
+     * @throws BusinessException if an item is missing, unavailable, or from another vendor
+     */
+    @Transactional(readOnly = true)
+    public PricedCart price(List<OrderItemDTO> items) {
+        Set<UUID> ids = distinctIds(items);
+        return priceLoaded(items, ids, loadMenuItems(ids));
+    }
+
+    /**
+     * Price several carts with a single menu-item lookup shared by all of them.
+     * A cart that fails validation yields a failed {@link CartPricing}; the others are unaffected.
+     *
+     * @param carts cart lines per order, in request order
+     * @return one pricing result per cart, in the same order
+     */
+    @Transactional(readOnly = true)
+    public List<CartPricing> priceAll(List<List<OrderItemDTO>> carts) {
+        Set<UUID> allIds = carts.stream()
+                .flatMap(List::stream)
+                .map(OrderItemDTO::getMenuItemId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<UUID, MenuItem> menuItemMap = loadMenuItems(allIds);
+
+        List<CartPricing> results = new ArrayList<>(carts.size());
+        for (List<OrderItemDTO> items : carts) {
+            try {
+                results.add(new CartPricing(priceLoaded(items, distinctIds(items), menuItemMap), null));
+            } catch (BusinessException e) {
+                results.add(new CartPricing(null, e.getMessage()));
+            }
+        }
+        log.debug("Priced {} carts with one lookup of {} distinct items", carts.size(), allIds.size());
+        return results;
+    }
+
+    private Set<UUID> distinctIds(List<OrderItemDTO> items) {
+        return items.stream()
+                .map(OrderItemDTO::getMenuItemId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private Map<UUID, MenuItem> loadMenuItems(Set<UUID> ids) {
+        return menuItemRepository.findAllWithVendorByIdIn(ids).stream()
+                .collect(Collectors.toMap(MenuItem::getId, Function.identity()));
+    }
+
+    private PricedCart priceLoaded(List<OrderItemDTO> items, Set<UUID> ids, Map<UUID, MenuItem> menuItemMap) {
+        Vendor vendor = null;
+        for (UUID id : ids) {
+            MenuItem menuItem = menuItemMap.get(id);
+            if (menuItem == null) {
+                throw new BusinessException("Menu item not found: " + id);
+            }
+            if (!Boolean.TRUE.equals(menuItem.getAvailable())) {
+                throw new BusinessException("Menu item not available: " + menuItem.getName());
+            }
+            if (vendor == null) {
+                vendor = menuItem.getVendor();
+            } else if (!vendor.getId().equals(menuItem.getVendor().getId())) {
+                throw new BusinessException("All items must be from the same vendor");
+            }
+        }
+
+        long subtotalCents = 0;
+        List<PricedLine> lines = new ArrayList<>(items.size());
+        for (OrderItemDTO itemDto : items) {
+            MenuItem menuItem = menuItemMap.get(itemDto.getMenuItemId());
+            long lineTotal = menuItem.getPriceCents() * itemDto.getQuantity();
+            subtotalCents += lineTotal;
+            lines.add(new PricedLine(menuItem, itemDto.getQuantity(), menuItem.getPriceCents(),
+                    lineTotal, itemDto.getSpecialInstructions()));
+        }
+
+        log.debug("Priced cart: {} lines, {} distinct items, subtotal={}", lines.size(), ids.size(), subtotalCents);
+        return new PricedCart(vendor, lines, subtotalCents);
+    }
+
+    /**
+     * A single priced cart line. The unit price is snapshotted from the menu item.
+     */
+    public record PricedLine(MenuItem menuItem, int quantity, long unitPriceCents,
+                             long lineTotalCents, String specialInstructions) {
+
+        public OrderItem toOrderItem() {
+            return OrderItem.builder()
+                    .menuItem(menuItem)
+                    .quantity(quantity)
+                    .priceCents(unitPriceCents)
+                    .specialInstructions(specialInstructions)
+                    .build();
+        }
+    }
+
+    /**
+     * Result of pricing a cart.
+     */
+    public record PricedCart(Vendor vendor, List<PricedLine> lines, long subtotalCents) {
+
+        public List<OrderItem> toOrderItems() {
+            return lines.stream().map(PricedLine::toOrderItem).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Outcome of pricing one cart in a batch: either a priced cart or the validation error.
+     */
+    public record CartPricing(PricedCart cart, String error) {
+
+        public boolean isPriced() {
+            return cart != null;
+        }
+    }
+}
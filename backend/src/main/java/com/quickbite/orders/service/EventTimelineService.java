@@ -9,6 +9,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -49,6 +50,34 @@ public class EventTimelineService {
         return entry;
     }
 
+    /**
+     * Record the same status change for several orders by one actor.
+     * The actor role is resolved once and the entries are saved as one batch.
+     *
+     * @param metaByOrder per-order metadata keyed by order ID, in insertion order
+     */
+    @Transactional
+    public List<EventTimeline> recordStatusChanges(UUID actorId, OrderStatus oldStatus, OrderStatus newStatus,
+                                                   Map<UUID, Map<String, Object>> metaByOrder) {
+        String actorRole = resolveRole(actorId);
+
+        List<EventTimeline> entries = new ArrayList<>(metaByOrder.size());
+        metaByOrder.forEach((orderId, meta) -> entries.add(EventTimeline.builder()
+                .orderId(orderId)
+                .actorId(actorId)
+                .actorRole(actorRole)
+                .eventType("STATUS_CHANGE")
+                .oldStatus(oldStatus != null ? oldStatus.name() : null)
+                .newStatus(newStatus != null ? newStatus.name() : null)
+                .meta(meta)
+                .build()));
+
+        List<EventTimeline> saved = repository.saveAll(entries);
+        log.debug("Timeline entries: {} orders {} → {} by {} ({})",
+                saved.size(), oldStatus, newStatus, actorId, actorRole);
+        return saved;
+    }
+
     /**
      * Record a generic event (payment, assignment, etc.).
      */
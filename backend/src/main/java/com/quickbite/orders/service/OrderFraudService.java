@@ -1,6 +1,10 @@
 package com.quickbite.orders.service;
 
+import com.quickbite.common.transaction.AfterCommit;
 import com.quickbite.orders.entity.OrderStatus;
+import com.quickbite.orders.fraud.FraudVelocityStore;
+import com.quickbite.orders.fraud.VelocitySample;
+import com.quickbite.orders.fraud.VelocitySnapshot;
 import com.quickbite.orders.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -8,14 +12,21 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
  * Basic fraud velocity checks for order creation.
  * Validates order frequency and spend patterns against configurable thresholds.
+ * <p>
+ * Checks read per-customer sliding-window counters from {@link FraudVelocityStore}.
+ * A customer without counters is seeded from their last day of orders with one query;
+ * if the store is unavailable the checks fall back to aggregate queries on {@code orders}.
  */
 @Slf4j
 @Service
@@ -23,6 +34,7 @@ import java.util.UUID;
 public class OrderFraudService {
 
     private final OrderRepository orderRepository;
+    private final FraudVelocityStore velocityStore;
 
     @Value("${fraud.max-orders-per-hour:5}")
     private int maxOrdersPerHour;
@@ -42,26 +54,33 @@ public class OrderFraudService {
      */
     @Transactional(readOnly = true)
     public FraudCheckResult checkOrderCreation(UUID customerId, long orderTotalCents) {
+        return checkOrderCreation(customerId, 1, orderTotalCents);
+    }
+
+    /**
+     * Perform fraud velocity checks before creating {@code orderCount} orders at once (a batch
+     * checkout). Each order counts against the hourly limit, so batching cannot get past it.
+     */
+    @Transactional(readOnly = true)
+    public FraudCheckResult checkOrderCreation(UUID customerId, int orderCount, long orderTotalCents) {
         if (!fraudCheckEnabled) {
             return FraudCheckResult.safe();
         }
 
         List<String> warnings = new ArrayList<>();
         boolean blocked = false;
+        VelocitySnapshot velocity = currentVelocity(customerId);
 
         // Check 1: Orders per hour
-        OffsetDateTime oneHourAgo = OffsetDateTime.now().minusHours(1);
-        long recentOrders = orderRepository.countByCustomerIdAndCreatedAtAfter(customerId, oneHourAgo);
-        if (recentOrders >= maxOrdersPerHour) {
+        long recentOrders = velocity.ordersLastHour();
+        if (recentOrders + orderCount > maxOrdersPerHour) {
             warnings.add("Too many orders in the last hour (" + recentOrders + "/" + maxOrdersPerHour + ")");
             blocked = true;
             log.warn("FRAUD: Customer {} exceeded max orders/hour: {}", customerId, recentOrders);
         }
 
         // Check 2: Daily spend
-        OffsetDateTime oneDayAgo = OffsetDateTime.now().minusDays(1);
-        Long dailySpend = orderRepository.sumTotalCentsByCustomerIdAndCreatedAtAfter(customerId, oneDayAgo);
-        if (dailySpend == null) dailySpend = 0L;
+        long dailySpend = velocity.spendLastDayCents();
         if (dailySpend + orderTotalCents > maxSpendPerDayCents) {
             warnings.add("Daily spend limit would be exceeded (₹" + ((dailySpend + orderTotalCents) / 100) + "/₹" + (maxSpendPerDayCents / 100) + ")");
             log.warn("FRAUD: Customer {} daily spend would exceed limit: {} + {} > {}",
@@ -69,8 +88,7 @@ public class OrderFraudService {
         }
 
         // Check 3: Cancelled orders in last 24h
-        long cancelledToday = orderRepository.countByCustomerIdAndStatusAndCreatedAtAfter(
-                customerId, OrderStatus.CANCELLED, oneDayAgo);
+        long cancelledToday = velocity.cancelledLastDay();
         if (cancelledToday >= maxCancelledPerDay) {
             warnings.add("Too many cancelled orders today (" + cancelledToday + "/" + maxCancelledPerDay + ")");
             blocked = true;
@@ -80,6 +98,81 @@ public class OrderFraudService {
         return new FraudCheckResult(blocked, warnings);
     }
 
+    /**
+     * Count a placed order against the customer's velocity windows once the transaction commits.
+     */
+    public void recordOrderPlaced(UUID customerId, long totalCents) {
+        if (!fraudCheckEnabled) return;
+        AfterCommit.run("update fraud velocity counters",
+                () -> velocityStore.recordOrder(customerId, totalCents, Instant.now()));
+    }
+
+    /**
+     * Count each placed order of a batch against the customer's velocity windows once the
+     * transaction commits — one sample per order, as the seed from {@code orders} counts them.
+     */
+    public void recordOrdersPlaced(UUID customerId, List<Long> totalsCents) {
+        if (!fraudCheckEnabled || totalsCents.isEmpty()) return;
+        List<Long> totals = List.copyOf(totalsCents);
+        AfterCommit.run("update fraud velocity counters", () -> {
+            Instant now = Instant.now();
+            totals.forEach(totalCents -> velocityStore.recordOrder(customerId, totalCents, now));
+        });
+    }
+
+    /**
+     * Count a cancellation against the customer's velocity window once the transaction commits.
+     */
+    public void recordCancellation(UUID customerId) {
+        if (!fraudCheckEnabled) return;
+        AfterCommit.run("update fraud velocity counters",
+                () -> velocityStore.recordCancellation(customerId, Instant.now()));
+    }
+
+    private VelocitySnapshot currentVelocity(UUID customerId) {
+        Instant now = Instant.now();
+        try {
+            Optional<VelocitySnapshot> cached = velocityStore.snapshot(customerId, now);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+            List<VelocitySample> samples = loadSamples(customerId, now);
+            velocityStore.seed(customerId, samples, now);
+            return VelocitySnapshot.fromSamples(samples, now);
+        } catch (Exception e) {
+            log.warn("Fraud velocity store unavailable, using order aggregates for customer {}: {}",
+                    customerId, e.getMessage());
+            return aggregateFromOrders(customerId);
+        }
+    }
+
+    private List<VelocitySample> loadSamples(UUID customerId, Instant now) {
+        OffsetDateTime oneDayAgo = OffsetDateTime.ofInstant(now, ZoneOffset.UTC).minusDays(1);
+        List<Object[]> rows = orderRepository.findVelocitySamples(customerId, oneDayAgo, OrderStatus.CANCELLED);
+        List<VelocitySample> samples = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            OffsetDateTime createdAt = (OffsetDateTime) row[0];
+            Long totalCents = (Long) row[1];
+            OffsetDateTime updatedAt = (OffsetDateTime) row[3];
+            Instant cancelledAt = row[2] == OrderStatus.CANCELLED && updatedAt != null ? updatedAt.toInstant() : null;
+            samples.add(new VelocitySample(
+                    createdAt != null ? createdAt.toInstant() : null,
+                    totalCents != null ? totalCents : 0L,
+                    cancelledAt));
+        }
+        return samples;
+    }
+
+    private VelocitySnapshot aggregateFromOrders(UUID customerId) {
+        OffsetDateTime oneHourAgo = OffsetDateTime.now().minusHours(1);
+        OffsetDateTime oneDayAgo = OffsetDateTime.now().minusDays(1);
+        long recentOrders = orderRepository.countByCustomerIdAndCreatedAtAfter(customerId, oneHourAgo);
+        Long dailySpend = orderRepository.sumTotalCentsByCustomerIdAndCreatedAtAfter(customerId, oneDayAgo);
+        long cancelledToday = orderRepository.countByCustomerIdAndStatusAndCreatedAtAfter(
+                customerId, OrderStatus.CANCELLED, oneDayAgo);
+        return new VelocitySnapshot(recentOrders, dailySpend != null ? dailySpend : 0L, cancelledToday);
+    }
+
     /**
      * Result of a fraud check.
      */
@@ -0,0 +1,103 @@
+package com.quickbite.orders.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Compact, monotonic order numbers, e.g. {@code ORD-0DXK3V7Q1A02C}.
+ * <p>
+ * Each number packs a 63-bit value — 41 bits of milliseconds since 2024-01-01, a 10-bit
+ * node id and a 12-bit per-millisecond sequence — into 13 Crockford base32 characters,
+ * so numbers sort by creation time and stay unique across replicas without a DB round trip.
+ * Timestamp + sequence advance with a CAS loop; if the clock steps back or a millisecond's
+ * 4096 sequence values run out, the generator borrows from the next millisecond.
+ * <p>
+ * Set {@code order.number.node-id} (0–1023) per replica. When unset, the node id is
+ * derived from the host name, which can collide — the unique index on order_number
+ * still guards against duplicates.
+ */
+@Slf4j
+@Component
+public class OrderNumberGenerator {
+
+    static final String PREFIX = "ORD-";
+    static final long EPOCH_MILLIS = 1_704_067_200_000L; // 2024-01-01T00:00:00Z
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int ENCODED_LENGTH = 13;
+
+    private final int nodeId;
+    private final LongSupplier clock;
+
+    /** Last issued (millisSinceEpoch << 12 | sequence). */
+    private final AtomicLong last = new AtomicLong();
+
+    @Autowired
+    public OrderNumberGenerator(@Value("${order.number.node-id:-1}") int configuredNodeId) {
+        this(resolveNodeId(configuredNodeId), System::currentTimeMillis);
+    }
+
+    OrderNumberGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("order.number.node-id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+
+    public String next() {
+        long stamp;
+        while (true) {
+            long prev = last.get();
+            long fresh = (clock.getAsLong() - EPOCH_MILLIS) << SEQUENCE_BITS;
+            stamp = fresh > prev ? fresh : prev + 1;
+            if (last.compareAndSet(prev, stamp)) break;
+        }
+
+        long millis = stamp >>> SEQUENCE_BITS;
+        long value = (millis << (NODE_BITS + SEQUENCE_BITS))
+                | ((long) nodeId << SEQUENCE_BITS)
+                | (stamp & SEQUENCE_MASK);
+        return PREFIX + encode(value);
+    }
+
+    public int nodeId() {
+        return nodeId;
+    }
+
+    private static String encode(long value) {
+        char[] out = new char[ENCODED_LENGTH];
+        for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+            out[i] = ALPHABET[(int) (value & 31)];
+            value >>>= 5;
+        }
+        return new String(out);
+    }
+
+    private static int resolveNodeId(int configured) {
+        if (configured >= 0) {
+            return configured;
+        }
+        String host = System.getenv("HOSTNAME");
+        if (host == null || host.isBlank()) {
+            try {
+                host = java.net.InetAddress.getLocalHost().getHostName();
+            } catch (Exception e) {
+                host = "localhost";
+            }
+        }
+        int derived = Math.floorMod(host.hashCode(), MAX_NODE_ID + 1);
+        log.info("order.number.node-id not set; derived node id {} from host '{}'", derived, host);
+        return derived;
+    }
+}
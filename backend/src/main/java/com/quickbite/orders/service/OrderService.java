@@ -1,8 +1,13 @@
 package com.quickbite.orders.service;
 
+import com.quickbite.common.pagination.CursorPage;
+import com.quickbite.common.pagination.KeysetCursor;
 import com.quickbite.delivery.entity.DeliveryStatus;
 import com.quickbite.delivery.repository.DeliveryStatusRepository;
+import com.quickbite.orders.driver.ActiveDeliveryCache;
+import com.quickbite.orders.driver.AvailableOrderIndex;
 import com.quickbite.orders.driver.DriverAssignmentService;
+import com.quickbite.orders.dto.OrderBatchResultDTO;
 import com.quickbite.orders.dto.OrderCreateDTO;
 import com.quickbite.orders.dto.OrderResponseDTO;
 import com.quickbite.orders.dto.StatusUpdateDTO;
@@ -13,6 +18,9 @@ import com.quickbite.orders.entity.OrderStatus;
 import com.quickbite.orders.exception.BusinessException;
 import com.quickbite.orders.exception.OrderNotFoundException;
 import com.quickbite.orders.mapper.OrderMapper;
+import com.quickbite.orders.outbox.OrderOutboxService;
+import com.quickbite.orders.projection.OrderSummaryProjector;
+import com.quickbite.orders.repository.OrderListFilter;
 import com.quickbite.orders.repository.OrderRepository;
 import com.quickbite.payments.service.PaymentService;
 import com.quickbite.payments.entity.Payment;
@@ -22,16 +30,12 @@ import com.quickbite.users.entity.Address;
 import com.quickbite.users.entity.User;
 import com.quickbite.users.repository.AddressRepository;
 import com.quickbite.users.repository.UserRepository;
-import com.quickbite.vendors.entity.MenuItem;
 import com.quickbite.vendors.entity.Vendor;
-import com.quickbite.vendors.repository.MenuItemRepository;
+import com.quickbite.promotions.dto.PromoValidateResponse;
 import com.quickbite.promotions.service.PromoCodeService;
 import com.quickbite.notifications.service.NotificationService;
 import com.quickbite.notifications.entity.NotificationType;
-import com.quickbite.email.service.EmailDispatchService;
-import com.quickbite.sms.service.SmsDispatchService;
 import com.quickbite.vendors.service.VendorCommissionService;
-import com.quickbite.websocket.OrderUpdatePublisher;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
@@ -55,28 +59,31 @@ import java.util.stream.Collectors;
 public class OrderService {
 
     private final OrderRepository orderRepository;
-    private final MenuItemRepository menuItemRepository;
+    private final CartPricingService cartPricingService;
+    private final OrderNumberGenerator orderNumberGenerator;
     private final UserRepository userRepository;
     private final AddressRepository addressRepository;
     private final DeliveryStatusRepository deliveryStatusRepository;
     private final PaymentService paymentService;
     private final DriverAssignmentService driverAssignmentService;
     private final OrderMapper orderMapper;
-    private final OrderUpdatePublisher orderUpdatePublisher;
+    private final OrderOutboxService orderOutboxService;
     private final OrderStateMachine orderStateMachine;
     private final EventTimelineService eventTimelineService;
     private final PromoCodeService promoCodeService;
     private final NotificationService notificationService;
     private final EtaService etaService;
-    private final EmailDispatchService emailDispatchService;
-    private final SmsDispatchService smsDispatchService;
     private final OrderFraudService orderFraudService;
     private final VendorCommissionService vendorCommissionService;
+    private final OrderSummaryProjector orderSummaryProjector;
+    private final ActiveDeliveryCache activeDeliveryCache;
+    private final AvailableOrderIndex availableOrderIndex;
 
     // Metrics
     private final Counter orderCreatedCounter;
     private final Counter orderTransitionCounter;
     private final Timer orderCreateTimer;
+    private final Timer orderBatchCreateTimer;
 
     // Configurable tax and delivery fee (no longer hardcoded)
     @Value("${order.tax-rate:0.05}")
@@ -85,43 +92,53 @@ public class OrderService {
     @Value("${order.delivery-fee-cents:5000}")
     private long deliveryFeeCents;
 
+    // READY orders are matched on the BatchDispatchService tick instead of one at a time
+    @Value("${dispatch.batch.enabled:true}")
+    private boolean batchDispatchEnabled;
+
+    static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     public OrderService(OrderRepository orderRepository,
-                        MenuItemRepository menuItemRepository,
+                        CartPricingService cartPricingService,
+                        OrderNumberGenerator orderNumberGenerator,
                         UserRepository userRepository,
                         AddressRepository addressRepository,
                         DeliveryStatusRepository deliveryStatusRepository,
                         PaymentService paymentService,
                         DriverAssignmentService driverAssignmentService,
                         OrderMapper orderMapper,
-                        OrderUpdatePublisher orderUpdatePublisher,
+                        OrderOutboxService orderOutboxService,
                         OrderStateMachine orderStateMachine,
                         EventTimelineService eventTimelineService,
                         PromoCodeService promoCodeService,
                         NotificationService notificationService,
                         EtaService etaService,
-                        EmailDispatchService emailDispatchService,
-                        SmsDispatchService smsDispatchService,
                         OrderFraudService orderFraudService,
                         VendorCommissionService vendorCommissionService,
+                        OrderSummaryProjector orderSummaryProjector,
+                        ActiveDeliveryCache activeDeliveryCache,
+                        AvailableOrderIndex availableOrderIndex,
                         MeterRegistry meterRegistry) {
         this.orderRepository = orderRepository;
-        this.menuItemRepository = menuItemRepository;
+        this.cartPricingService = cartPricingService;
+        this.orderNumberGenerator = orderNumberGenerator;
         this.userRepository = userRepository;
         this.addressRepository = addressRepository;
         this.deliveryStatusRepository = deliveryStatusRepository;
         this.paymentService = paymentService;
         this.driverAssignmentService = driverAssignmentService;
         this.orderMapper = orderMapper;
-        this.orderUpdatePublisher = orderUpdatePublisher;
+        this.orderOutboxService = orderOutboxService;
         this.orderStateMachine = orderStateMachine;
         this.eventTimelineService = eventTimelineService;
         this.promoCodeService = promoCodeService;
         this.notificationService = notificationService;
         this.etaService = etaService;
-        this.emailDispatchService = emailDispatchService;
-        this.smsDispatchService = smsDispatchService;
         this.orderFraudService = orderFraudService;
         this.vendorCommissionService = vendorCommissionService;
+        this.orderSummaryProjector = orderSummaryProjector;
+        this.activeDeliveryCache = activeDeliveryCache;
+        this.availableOrderIndex = availableOrderIndex;
 
         this.orderCreatedCounter = Counter.builder("orders.created")
                 .description("Total orders created")
@@ -132,6 +149,9 @@ public class OrderService {
         this.orderCreateTimer = Timer.builder("orders.create.duration")
                 .description("Time to create an order")
                 .register(meterRegistry);
+        this.orderBatchCreateTimer = Timer.builder("orders.create.batch.duration")
+                .description("Time to create a batch of orders")
+                .register(meterRegistry);
     }
 
     /**
@@ -161,66 +181,14 @@ public class OrderService {
             throw new BusinessException("Address does not belong to customer");
         }
 
-        // 3. Load menu items and validate availability
-        Map<UUID, MenuItem> menuItemMap = new HashMap<>();
-        for (var itemDto : dto.getItems()) {
-            MenuItem menuItem = menuItemRepository.findById(itemDto.getMenuItemId())
-                    .orElseThrow(() -> new BusinessException("Menu item not found: " + itemDto.getMenuItemId()));
-
-            if (!Boolean.TRUE.equals(menuItem.getAvailable())) {
-                throw new BusinessException("Menu item not available: " + menuItem.getName());
-            }
-
-            menuItemMap.put(menuItem.getId(), menuItem);
-        }
-
-        // 4. Determine vendor (all items must be from same vendor)
-        Set<UUID> vendorIds = menuItemMap.values().stream()
-                .map(mi -> mi.getVendor().getId())
-                .collect(Collectors.toSet());
-
-        if (vendorIds.size() > 1) {
-            throw new BusinessException("All items must be from the same vendor");
-        }
-
-        // Get vendor from first menu item        
-        Vendor vendor = menuItemMap.values().iterator().next().getVendor();
-
-        // 5. Calculate totals
-        long subtotalCents = 0;
-        List<OrderItem> orderItems = new ArrayList<>();
-
-        for (var itemDto : dto.getItems()) {
-            MenuItem menuItem = menuItemMap.get(itemDto.getMenuItemId());
-            long itemTotal = menuItem.getPriceCents() * itemDto.getQuantity();
-            subtotalCents += itemTotal;
-
-            OrderItem orderItem = OrderItem.builder()
-                    .menuItem(menuItem)
-                    .quantity(itemDto.getQuantity())
-                    .priceCents(menuItem.getPriceCents()) // Snapshot price
-                    .specialInstructions(itemDto.getSpecialInstructions())
-                    .build();
-
-            orderItems.add(orderItem);
-        }
-
-        // Determine delivery type (PICKUP = no delivery fee)
-        DeliveryType deliveryTypeEnum = DeliveryType.DELIVERY;
-        if (dto.getDeliveryType() != null) {
-            try {
-                deliveryTypeEnum = DeliveryType.valueOf(dto.getDeliveryType().toUpperCase());
-            } catch (IllegalArgumentException e) {
-                log.warn("Invalid delivery type '{}', defaulting to DELIVERY", dto.getDeliveryType());
-            }
-        }
-        long effectiveDeliveryFee = deliveryTypeEnum == DeliveryType.PICKUP ? 0L : deliveryFeeCents;
+        // 3. Load and price cart items in one round trip (availability + same-vendor checks)
+        CartPricingService.PricedCart pricedCart = cartPricingService.price(dto.getItems());
 
-        long taxCents = Math.round(subtotalCents * taxRate);
-        long totalCents = subtotalCents + taxCents + effectiveDeliveryFee;
+        // 4-5. Calculate totals — PICKUP orders pay no delivery fee
+        OrderTotals totals = calculateTotals(dto, pricedCart.subtotalCents());
 
         // 5b. Fraud velocity checks
-        OrderFraudService.FraudCheckResult fraudCheck = orderFraudService.checkOrderCreation(customerId, totalCents);
+        OrderFraudService.FraudCheckResult fraudCheck = orderFraudService.checkOrderCreation(customerId, totals.totalCents());
         if (fraudCheck.blocked()) {
             throw new BusinessException("Order blocked: " + String.join("; ", fraudCheck.warnings()));
         }
@@ -230,51 +198,17 @@ public class OrderService {
 
         // 5c. Apply promo code discount
         long discountCents = 0;
-        String promoCode = null;
-        if (dto.getPromoCode() != null && !dto.getPromoCode().isBlank()) {
-            discountCents = promoCodeService.applyPromo(dto.getPromoCode().trim(), subtotalCents, customerId, null);
-            promoCode = dto.getPromoCode().trim().toUpperCase();
-            totalCents -= discountCents;
-            if (totalCents < 0) totalCents = 0;
+        if (hasPromoCode(dto)) {
+            discountCents = promoCodeService.applyPromo(dto.getPromoCode().trim(), pricedCart.subtotalCents(), customerId, null);
         }
 
-        // 6. Create order
-        Order order = Order.builder()
-                .orderNumber(generateOrderNumber())
-                .customer(customer)
-                .vendor(vendor)
-                .deliveryAddress(deliveryAddress)
-                .status(OrderStatus.PLACED)
-                .subtotalCents(subtotalCents)
-                .deliveryFeeCents(effectiveDeliveryFee)
-                .taxCents(taxCents)
-                .discountCents(discountCents)
-                .totalCents(totalCents)
-                .promoCode(promoCode)
-                .deliveryType(deliveryTypeEnum)
-                .paymentMethod(mapPaymentMethod(dto.getPaymentMethod()))
-                .paymentStatus(PaymentStatus.PENDING)
-                .scheduledTime(dto.getScheduledTime() != null ? dto.getScheduledTime().atOffset(ZoneOffset.UTC) : OffsetDateTime.now())
-                .specialInstructions(dto.getSpecialInstructions())
-                .build();
-
-        // 6b. Calculate vendor commission
-        try {
-            var commission = vendorCommissionService.calculateCommission(vendor.getId(), subtotalCents);
-            order.setCommissionCents(commission.get("commissionCents"));
-            order.setVendorPayoutCents(commission.get("vendorPayoutCents"));
-        } catch (Exception e) {
-            log.warn("Commission calculation failed for vendor {}: {}", vendor.getId(), e.getMessage());
-        }
-
-        // Associate order items with order
-        for (OrderItem item : orderItems) {
-            item.setOrder(order);
-        }
-        order.setItems(orderItems);
+        // 6. Create order (with commission and price-snapshot items)
+        Order order = buildOrder(dto, customer, deliveryAddress, pricedCart, totals, discountCents);
+        long totalCents = order.getTotalCents();
 
         order = orderRepository.save(order);
         log.info("Order created: {} (ID: {})", order.getOrderNumber(), order.getId());
+        orderFraudService.recordOrderPlaced(customer.getId(), totalCents);
 
         // 7. Create payment intent
         Payment payment = paymentService.createPaymentIntent(
@@ -313,46 +247,170 @@ public class OrderService {
             log.warn("ETA calculation failed for order {}: {}", order.getId(), e.getMessage());
         }
 
-        // 9c. Create notification for customer (Phase 3)
-        try {
-            notificationService.createNotification(
-                    customer.getId(), NotificationType.ORDER_UPDATE,
-                    "Order Placed",
-                    "Your order " + order.getOrderNumber() + " has been placed!",
-                    order.getId());
-        } catch (Exception e) {
-            log.warn("Failed to create notification for order {}: {}", order.getId(), e.getMessage());
+        // 10. Customer notification, email/SMS and real-time publishes are relayed
+        // from the outbox after this transaction commits
+        orderOutboxService.orderPlaced(order);
+        orderSummaryProjector.refresh(order.getId());
+
+        orderCreatedCounter.increment();
+        return orderMapper.toResponseDTO(order);
+    }
+
+    /**
+     * Place several orders for one customer in a single transaction (group / office orders).
+     * <p>
+     * Carts are priced with one menu lookup and orders, payments, delivery statuses, timeline
+     * entries and outbox events are written as JDBC batches. An order that fails validation
+     * (address, availability, vendor mix, promo) is reported in its result entry and the rest
+     * are still placed. Fraud checks run once against the batch total; a blocked batch and
+     * any infrastructure error fail the whole request.
+     *
+     * @param dtos orders in request order
+     * @param customerId authenticated customer ID
+     * @return per-order results in request order
+     */
+    @Transactional
+    public OrderBatchResultDTO createOrders(List<OrderCreateDTO> dtos, UUID customerId) {
+        return orderBatchCreateTimer.record(() -> doCreateOrders(dtos, customerId));
+    }
+
+    private OrderBatchResultDTO doCreateOrders(List<OrderCreateDTO> dtos, UUID customerId) {
+        log.info("Creating batch of {} orders for customer: {}", dtos.size(), customerId);
+
+        // 1. Load customer and all delivery addresses once
+        User customer = userRepository.findById(customerId)
+                .orElseThrow(() -> new BusinessException("Customer not found: " + customerId));
+        Set<UUID> addressIds = dtos.stream().map(OrderCreateDTO::getAddressId).collect(Collectors.toSet());
+        Map<UUID, Address> addresses = addressRepository.findAllById(addressIds).stream()
+                .collect(Collectors.toMap(Address::getId, a -> a));
+
+        // 2. Price every cart with one menu-item lookup
+        List<CartPricingService.CartPricing> pricings = cartPricingService.priceAll(
+                dtos.stream().map(OrderCreateDTO::getItems).toList());
+
+        // 3. Validate each order; failures are reported per entry
+        OrderBatchResultDTO.Item[] results = new OrderBatchResultDTO.Item[dtos.size()];
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        List<OrderTotals> acceptedTotals = new ArrayList<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            OrderCreateDTO dto = dtos.get(i);
+            Address address = addresses.get(dto.getAddressId());
+            CartPricingService.CartPricing pricing = pricings.get(i);
+            if (address == null) {
+                results[i] = failedItem(i, "Delivery address not found: " + dto.getAddressId());
+            } else if (!address.getUser().getId().equals(customerId)) {
+                results[i] = failedItem(i, "Address does not belong to customer");
+            } else if (!pricing.isPriced()) {
+                results[i] = failedItem(i, pricing.error());
+            } else {
+                OrderTotals totals = calculateTotals(dto, pricing.cart().subtotalCents());
+                acceptedIndexes.add(i);
+                acceptedTotals.add(totals);
+            }
         }
 
-        // 9d. Send order confirmation email + SMS (Phase 3.2 / 3.3)
-        try {
-            emailDispatchService.sendOrderConfirmation(
-                    customer.getEmail(),
-                    customer.getName() != null ? customer.getName() : "Customer",
-                    order.getOrderNumber(),
-                    order.getTotalCents(),
-                    order.getItems().size() + " item(s)");
-        } catch (Exception e) {
-            log.warn("Failed to send order confirmation email for order {}: {}", order.getId(), e.getMessage());
+        // 4. Promo codes are validated first, so a rejected code fails only its own entry
+        //    instead of marking the batch transaction rollback-only or counting towards velocity
+        List<Integer> candidates = new ArrayList<>(acceptedIndexes.size());
+        long batchTotalCents = 0;
+        for (int k = 0; k < acceptedIndexes.size(); k++) {
+            int i = acceptedIndexes.get(k);
+            OrderCreateDTO dto = dtos.get(i);
+            if (hasPromoCode(dto)) {
+                PromoValidateResponse promo = promoCodeService.validatePromo(
+                        dto.getPromoCode().trim(), pricings.get(i).cart().subtotalCents(), customerId);
+                if (!promo.isValid()) {
+                    results[i] = failedItem(i, promo.getMessage());
+                    continue;
+                }
+            }
+            candidates.add(k);
+            batchTotalCents += acceptedTotals.get(k).totalCents();
         }
-        try {
-            if (customer.getPhone() != null) {
-                smsDispatchService.sendOrderPlacedSms(customer.getPhone(), order.getOrderNumber());
+
+        // 5. Fraud velocity checks — one check for the orders about to be placed, each counted
+        if (!candidates.isEmpty()) {
+            OrderFraudService.FraudCheckResult fraudCheck = orderFraudService.checkOrderCreation(
+                    customerId, candidates.size(), batchTotalCents);
+            if (fraudCheck.blocked()) {
+                throw new BusinessException("Order blocked: " + String.join("; ", fraudCheck.warnings()));
+            }
+            if (!fraudCheck.warnings().isEmpty()) {
+                log.warn("Fraud warnings for customer {} batch: {}", customerId, fraudCheck.warnings());
             }
-        } catch (Exception e) {
-            log.warn("Failed to send order placed SMS for order {}: {}", order.getId(), e.getMessage());
         }
 
-        // 10. Publish real-time update
-        orderUpdatePublisher.publishOrderUpdate(order);
+        List<Order> orders = new ArrayList<>(candidates.size());
+        List<Integer> orderIndexes = new ArrayList<>(candidates.size());
+        for (int k : candidates) {
+            int i = acceptedIndexes.get(k);
+            OrderCreateDTO dto = dtos.get(i);
+            CartPricingService.PricedCart pricedCart = pricings.get(i).cart();
+
+            long discountCents = 0;
+            if (hasPromoCode(dto)) {
+                discountCents = promoCodeService.applyPromo(dto.getPromoCode().trim(), pricedCart.subtotalCents(), customerId, null);
+            }
 
-        // 10b. Notify vendor via WebSocket (for KDS / vendor dashboard live feed)
-        if (order.getVendor() != null) {
-            orderUpdatePublisher.publishVendorOrderUpdate(order.getVendor().getId(), order);
+            Order order = buildOrder(dto, customer, addresses.get(dto.getAddressId()), pricedCart,
+                    acceptedTotals.get(k), discountCents);
+            try {
+                order.setEstimatedPrepMins(etaService.estimatePrepTime(order));
+                order.setEstimatedDeliveryAt(etaService.estimateDelivery(order));
+            } catch (Exception e) {
+                log.warn("ETA calculation failed for order {}: {}", order.getOrderNumber(), e.getMessage());
+            }
+            orders.add(order);
+            orderIndexes.add(i);
+        }
+
+        if (!orders.isEmpty()) {
+            // 6. Persist orders + items, then payments, delivery statuses and timeline in batches
+            orders = orderRepository.saveAll(orders);
+            paymentService.createPaymentIntents(orders, "INR");
+
+            deliveryStatusRepository.saveAll(orders.stream()
+                    .map(order -> DeliveryStatus.builder()
+                            .order(order)
+                            .status(OrderStatus.PLACED)
+                            .changedByUserId(customerId)
+                            .note("Order placed")
+                            .build())
+                    .toList());
+
+            Map<UUID, Map<String, Object>> timelineMeta = new LinkedHashMap<>();
+            List<Long> placedTotalsCents = new ArrayList<>(orders.size());
+            for (Order order : orders) {
+                timelineMeta.put(order.getId(), Map.of("orderNumber", order.getOrderNumber(),
+                        "totalCents", order.getTotalCents(), "batchSize", orders.size()));
+                placedTotalsCents.add(order.getTotalCents());
+                notifyVendor(order);
+            }
+            eventTimelineService.recordStatusChanges(customerId, null, OrderStatus.PLACED, timelineMeta);
+
+            // 7. Side effects are relayed from the outbox after commit
+            orderOutboxService.ordersPlaced(orders);
+            orderSummaryProjector.refreshAll(orders.stream().map(Order::getId).toList());
+            orderFraudService.recordOrdersPlaced(customerId, placedTotalsCents);
+            orderCreatedCounter.increment(orders.size());
+
+            for (int k = 0; k < orders.size(); k++) {
+                int i = orderIndexes.get(k);
+                results[i] = OrderBatchResultDTO.Item.builder()
+                        .index(i)
+                        .success(true)
+                        .order(orderMapper.toResponseDTO(orders.get(k)))
+                        .build();
+            }
         }
 
-        orderCreatedCounter.increment();
-        return orderMapper.toResponseDTO(order);
+        log.info("Batch for customer {}: {} of {} orders created", customerId, orders.size(), dtos.size());
+        return OrderBatchResultDTO.builder()
+                .requested(dtos.size())
+                .created(orders.size())
+                .failed(dtos.size() - orders.size())
+                .results(Arrays.asList(results))
+                .build();
     }
 
     /**
@@ -364,7 +422,7 @@ public class OrderService {
      */
     @Transactional(readOnly = true)
     public OrderResponseDTO getOrder(UUID orderId, UUID userId) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findDetailById(orderId)
                 .orElseThrow(() -> new OrderNotFoundException(orderId));
 
         // Check visibility: customer, vendor, driver, or admin can view
@@ -372,16 +430,28 @@ public class OrderService {
             throw new BusinessException("Access denied to order: " + orderId);
         }
 
+        orderRepository.fetchItems(List.of(orderId));
         return orderMapper.toResponseDTO(order);
     }
 
+    /**
+     * Throws unless the user is the order's customer, vendor or driver.
+     */
+    @Transactional(readOnly = true)
+    public void checkOrderAccess(UUID orderId, UUID userId) {
+        Order order = orderRepository.findDetailById(orderId)
+                .orElseThrow(() -> new OrderNotFoundException(orderId));
+        if (!hasOrderAccess(order, userId)) {
+            throw new BusinessException("Access denied to order: " + orderId);
+        }
+    }
+
     /**
      * List orders assigned to a driver.
      */
     @Transactional(readOnly = true)
     public Page<OrderResponseDTO> listDriverOrders(UUID driverId, Pageable pageable) {
-        Page<Order> orders = orderRepository.findByDriverId(driverId, pageable);
-        return orders.map(orderMapper::toResponseDTO);
+        return toResponsePage(orderRepository.findDetailByDriverId(driverId, pageable));
     }
 
     /**
@@ -398,25 +468,64 @@ public class OrderService {
         Page<Order> orders;
 
         if (customerId != null && status != null) {
-            orders = orderRepository.findByCustomerIdAndStatus(customerId, status, pageable);
+            orders = orderRepository.findDetailByCustomerIdAndStatus(customerId, status, pageable);
         } else if (customerId != null) {
-            orders = orderRepository.findByCustomerId(customerId, pageable);
+            orders = orderRepository.findDetailByCustomerId(customerId, pageable);
         } else if (vendorId != null && status != null) {
-            // Note: Repository method returns List, need to convert to Page
-            List<Order> orderList = orderRepository.findByVendorIdAndStatus(vendorId, status);
-            int start = (int) pageable.getOffset();
-            int end = Math.min((start + pageable.getPageSize()), orderList.size());
-            List<Order> pageContent = (start < orderList.size()) ? orderList.subList(start, end) : new ArrayList<>();
-            orders = new org.springframework.data.domain.PageImpl<>(pageContent, pageable, orderList.size());
+            orders = orderRepository.findDetailByVendorIdAndStatus(vendorId, status, pageable);
         } else if (vendorId != null) {
-            orders = orderRepository.findByVendorId(vendorId, pageable);
+            orders = orderRepository.findDetailByVendorId(vendorId, pageable);
         } else if (status != null) {
-            orders = orderRepository.findByStatus(status, pageable);
+            orders = orderRepository.findDetailByStatus(status, pageable);
         } else {
-            orders = orderRepository.findAll(pageable);
+            orders = orderRepository.findDetailAll(pageable);
         }
 
-        return orders.map(orderMapper::toResponseDTO);
+        return toResponsePage(orders);
+    }
+
+    /**
+     * List orders newest first using keyset pagination on {@code (created_at, id)}.
+     *
+     * @param filter optional customer / vendor / driver / status filters
+     * @param cursor {@code nextCursor} of the previous page; null or blank for the first page
+     * @param size page size (capped at {@value #MAX_CURSOR_PAGE_SIZE})
+     * @param includeTotal also return the exact number of matching orders (one extra COUNT)
+     * @return CursorPage<OrderResponseDTO>
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<OrderResponseDTO> listOrdersAfter(OrderListFilter filter, String cursor, int size, boolean includeTotal) {
+        CursorPage<Order> page = pageOrders(filter, cursor, size, includeTotal);
+        if (!page.getContent().isEmpty()) {
+            orderRepository.fetchItems(page.getContent().stream().map(Order::getId).toList());
+        }
+        return page.map(orderMapper::toResponseDTO);
+    }
+
+    /**
+     * Keyset page of order entities with the {@link Order#DETAIL_GRAPH} associations loaded
+     * (items are not fetched).
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Order> pageOrders(OrderListFilter filter, String cursor, int size, boolean includeTotal) {
+        int limit = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        List<Order> rows = orderRepository.findPage(filter, KeysetCursor.decode(cursor), limit + 1);
+
+        boolean hasNext = rows.size() > limit;
+        List<Order> content = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            Order last = content.get(content.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return CursorPage.<Order>builder()
+                .content(content)
+                .size(content.size())
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .totalElements(includeTotal ? orderRepository.countMatching(filter) : null)
+                .build();
     }
 
     /**
@@ -435,19 +544,23 @@ public class OrderService {
                 .orElseThrow(() -> new OrderNotFoundException(orderId));
 
         OrderStatus newStatus = OrderStatus.valueOf(dto.getStatus().toUpperCase());
+        String actorRole = resolveActorRole(actorId);
 
-        // Validate transition
-        validateStatusTransition(order, newStatus, actorId);
-
-        // Update status
-        OrderStatus oldStatus = order.getStatus();
-        order.setStatus(newStatus);
+        // Validate + compare-and-set the status; an admin cancel is retried from whatever status won
+        OrderStateMachine.RetryPolicy retryPolicy = newStatus == OrderStatus.CANCELLED && "ADMIN".equals(actorRole)
+                ? OrderStateMachine.RetryPolicy.REVALIDATE
+                : OrderStateMachine.RetryPolicy.NONE;
+        OrderStatus oldStatus = orderStateMachine.transition(order, newStatus, actorRole, retryPolicy)
+                .orThrow()
+                .expected();
 
         // Handle special status changes
         switch (newStatus) {
             case READY -> {
-                // Assign driver when order is ready
-                assignDriverToOrder(order);
+                // Assign driver when order is ready (or leave it for the next batch dispatch tick)
+                if (!batchDispatchEnabled) {
+                    assignDriverToOrder(order);
+                }
             }
             case DELIVERED -> {
                 order.setDeliveredAt(OffsetDateTime.now());
@@ -459,6 +572,7 @@ public class OrderService {
             }
             case CANCELLED -> {
                 order.setCancellationReason(dto.getNote());
+                orderFraudService.recordCancellation(order.getCustomer().getId());
                 // Refund if payment was captured
                 if (order.getPaymentStatus() == PaymentStatus.CAPTURED) {
                     paymentService.refundPayment(order.getPayment().getId());
@@ -482,16 +596,11 @@ public class OrderService {
 
         log.info("Order {} status updated: {} -> {}", orderId, oldStatus, newStatus);
 
-        // Publish real-time update
-        orderUpdatePublisher.publishOrderUpdate(order);
-
-        // Broadcast to vendor's KDS topic whenever an order changes
-        if (order.getVendor() != null) {
-            orderUpdatePublisher.publishVendorOrderUpdate(order.getVendor().getId(), order);
-        }
-
-        // ── Phase 3: Send notification to customer on major status transitions ──
-        sendStatusChangeNotification(order, oldStatus, newStatus);
+        // Publish + notify customer on major status transitions (relayed after commit)
+        orderOutboxService.statusChanged(order, oldStatus, newStatus);
+        orderSummaryProjector.refresh(order.getId());
+        activeDeliveryCache.orderChanged(order);
+        availableOrderIndex.orderChanged(order);
 
         orderTransitionCounter.increment();
         return orderMapper.toResponseDTO(order);
@@ -515,8 +624,8 @@ public class OrderService {
             throw new BusinessException("Order cannot be accepted in current status: " + order.getStatus());
         }
 
-        order.setStatus(OrderStatus.ACCEPTED);
-        order = orderRepository.save(order);
+        orderStateMachine.transition(order, OrderStatus.ACCEPTED, "VENDOR", OrderStateMachine.RetryPolicy.NONE)
+                .orThrow();
 
         createDeliveryStatusEntry(order, OrderStatus.ACCEPTED, vendorId, "Order accepted by vendor");
 
@@ -524,11 +633,9 @@ public class OrderService {
         eventTimelineService.recordStatusChange(order.getId(), vendorId,
                 OrderStatus.PLACED, OrderStatus.ACCEPTED, Map.of("action", "accept"));
 
-        // Publish real-time update
-        orderUpdatePublisher.publishOrderUpdate(order);
-
-        // Notify customer
-        sendStatusChangeNotification(order, OrderStatus.PLACED, OrderStatus.ACCEPTED);
+        // Publish + notify customer (relayed after commit)
+        orderOutboxService.statusChanged(order, OrderStatus.PLACED, OrderStatus.ACCEPTED);
+        orderSummaryProjector.refresh(order.getId());
 
         return orderMapper.toResponseDTO(order);
     }
@@ -551,9 +658,11 @@ public class OrderService {
             throw new BusinessException("Order cannot be rejected in current status: " + order.getStatus());
         }
 
-        order.setStatus(OrderStatus.CANCELLED);
+        orderStateMachine.transition(order, OrderStatus.CANCELLED, "VENDOR", OrderStateMachine.RetryPolicy.NONE)
+                .orThrow();
         order.setCancellationReason(reason);
         order = orderRepository.save(order);
+        orderFraudService.recordCancellation(order.getCustomer().getId());
 
         // Refund if payment was authorized
         if (order.getPaymentStatus() == PaymentStatus.AUTHORIZED) {
@@ -567,8 +676,9 @@ public class OrderService {
         eventTimelineService.recordStatusChange(order.getId(), vendorId,
                 OrderStatus.PLACED, OrderStatus.CANCELLED, Map.of("action", "reject", "reason", reason));
 
-        // Publish real-time update
-        orderUpdatePublisher.publishOrderUpdate(order);
+        // Publish real-time update (relayed after commit)
+        orderOutboxService.orderUpdated(order);
+        orderSummaryProjector.refresh(order.getId());
 
         return orderMapper.toResponseDTO(order);
     }
@@ -618,16 +728,80 @@ public class OrderService {
 
     // ========== Helper Methods ==========
 
-    private void validateStatusTransition(Order order, OrderStatus newStatus, UUID actorId) {
-        OrderStatus currentStatus = order.getStatus();
+    private OrderTotals calculateTotals(OrderCreateDTO dto, long subtotalCents) {
+        DeliveryType deliveryType = DeliveryType.DELIVERY;
+        if (dto.getDeliveryType() != null) {
+            try {
+                deliveryType = DeliveryType.valueOf(dto.getDeliveryType().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                log.warn("Invalid delivery type '{}', defaulting to DELIVERY", dto.getDeliveryType());
+            }
+        }
+        long effectiveDeliveryFee = deliveryType == DeliveryType.PICKUP ? 0L : deliveryFeeCents;
+        long taxCents = Math.round(subtotalCents * taxRate);
+        return new OrderTotals(deliveryType, subtotalCents, effectiveDeliveryFee, taxCents,
+                subtotalCents + taxCents + effectiveDeliveryFee);
+    }
+
+    private Order buildOrder(OrderCreateDTO dto, User customer, Address deliveryAddress,
+                             CartPricingService.PricedCart pricedCart, OrderTotals totals, long discountCents) {
+        Vendor vendor = pricedCart.vendor();
+        long totalCents = Math.max(0, totals.totalCents() - discountCents);
 
-        // Resolve actor role
-        String actorRole = userRepository.findById(actorId)
+        Order order = Order.builder()
+                .orderNumber(orderNumberGenerator.next())
+                .customer(customer)
+                .vendor(vendor)
+                .deliveryAddress(deliveryAddress)
+                .status(OrderStatus.PLACED)
+                .subtotalCents(totals.subtotalCents())
+                .deliveryFeeCents(totals.deliveryFeeCents())
+                .taxCents(totals.taxCents())
+                .discountCents(discountCents)
+                .totalCents(totalCents)
+                .promoCode(hasPromoCode(dto) ? dto.getPromoCode().trim().toUpperCase() : null)
+                .deliveryType(totals.deliveryType())
+                .paymentMethod(mapPaymentMethod(dto.getPaymentMethod()))
+                .paymentStatus(PaymentStatus.PENDING)
+                .scheduledTime(dto.getScheduledTime() != null ? dto.getScheduledTime().atOffset(ZoneOffset.UTC) : OffsetDateTime.now())
+                .specialInstructions(dto.getSpecialInstructions())
+                .build();
+
+        // Calculate vendor commission
+        try {
+            var commission = vendorCommissionService.calculateCommission(vendor.getId(), totals.subtotalCents());
+            order.setCommissionCents(commission.get("commissionCents"));
+            order.setVendorPayoutCents(commission.get("vendorPayoutCents"));
+        } catch (Exception e) {
+            log.warn("Commission calculation failed for vendor {}: {}", vendor.getId(), e.getMessage());
+        }
+
+        // Associate order items with order
+        List<OrderItem> orderItems = pricedCart.toOrderItems();
+        for (OrderItem item : orderItems) {
+            item.setOrder(order);
+        }
+        order.setItems(orderItems);
+        return order;
+    }
+
+    private static boolean hasPromoCode(OrderCreateDTO dto) {
+        return dto.getPromoCode() != null && !dto.getPromoCode().isBlank();
+    }
+
+    private static OrderBatchResultDTO.Item failedItem(int index, String error) {
+        return OrderBatchResultDTO.Item.builder().index(index).success(false).error(error).build();
+    }
+
+    /** Order amounts before any promo discount. */
+    private record OrderTotals(DeliveryType deliveryType, long subtotalCents, long deliveryFeeCents,
+                               long taxCents, long totalCents) {
+    }
+
+    private String resolveActorRole(UUID actorId) {
+        return userRepository.findById(actorId)
                 .map(u -> u.getRole().getName())
                 .orElse(null);
-
-        // Delegate to central state machine (throws InvalidTransitionException on failure)
-        orderStateMachine.validateTransition(currentStatus, newStatus, actorRole);
     }
 
     private void assignDriverToOrder(Order order) {
@@ -641,9 +815,9 @@ public class OrderService {
                 id -> {
                     User driver = userRepository.findById(id)
                             .orElseThrow(() -> new BusinessException("Driver not found: " + id));
-                    order.setDriver(driver);
-                    order.setStatus(OrderStatus.ASSIGNED);
-                    log.info("Driver {} assigned to order {}", driver.getName(), order.getId());
+                    if (orderStateMachine.assignDriver(order, driver, false).isApplied()) {
+                        log.info("Driver {} assigned to order {}", driver.getName(), order.getId());
+                    }
                 },
                 () -> log.warn("No available driver found for order {}", order.getId())
         );
@@ -661,6 +835,17 @@ public class OrderService {
         log.debug("Delivery status entry created: {} for order {}", status, order.getId());
     }
 
+    /**
+     * Map a page loaded through the detail entity graph, fetching all items of the page in
+     * one extra query so the mapper never touches an uninitialized association.
+     */
+    private Page<OrderResponseDTO> toResponsePage(Page<Order> orders) {
+        if (orders.hasContent()) {
+            orderRepository.fetchItems(orders.getContent().stream().map(Order::getId).toList());
+        }
+        return orders.map(orderMapper::toResponseDTO);
+    }
+
     private boolean hasOrderAccess(Order order, UUID userId) {
         return order.getCustomer().getId().equals(userId)
                 || order.getVendor().getUser().getId().equals(userId)
@@ -668,11 +853,6 @@ public class OrderService {
         // Would also check if userId has ADMIN role
     }
 
-    private String generateOrderNumber() {
-        // Simple order number generation (could use more sophisticated pattern)
-        return "ORD-" + System.currentTimeMillis() + "-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-    }
-
     private PaymentMethod mapPaymentMethod(OrderCreateDTO.PaymentMethod method) {
         return switch (method) {
             case CARD -> PaymentMethod.CARD;
@@ -708,123 +888,58 @@ public class OrderService {
         User driver = userRepository.findById(driverId)
                 .orElseThrow(() -> new BusinessException("Driver not found: " + driverId));
 
-        order.setDriver(driver);
-        if (order.getStatus() != OrderStatus.ASSIGNED) {
-            OrderStatus oldStatus = order.getStatus();
-            order.setStatus(OrderStatus.ASSIGNED);
-            order = orderRepository.save(order);
+        // A driver claiming an order for themselves only wins while it is unassigned;
+        // admins and vendors may reassign
+        boolean reassign = !driverId.equals(actorId);
+        UUID previousDriverId = order.getDriver() != null ? order.getDriver().getId() : null;
+        OrderStatus oldStatus = orderStateMachine.assignDriver(order, driver, reassign)
+                .orThrow()
+                .expected();
+        if (oldStatus != OrderStatus.ASSIGNED) {
             createDeliveryStatusEntry(order, OrderStatus.ASSIGNED, actorId, "Driver manually assigned");
             eventTimelineService.recordStatusChange(order.getId(), actorId,
                     oldStatus, OrderStatus.ASSIGNED,
                     Map.of("driverId", driverId.toString(), "driverName", driver.getName()));
-        } else {
-            order = orderRepository.save(order);
         }
 
-        orderUpdatePublisher.publishOrderUpdate(order);
-        // Notify the driver about the new assignment via WebSocket
-        orderUpdatePublisher.publishDriverOrderAssignment(driverId, order);
+        // Publish + notify the driver about the new assignment (relayed after commit)
+        orderOutboxService.driverAssigned(order, driverId);
+        orderSummaryProjector.refresh(order.getId());
+        activeDeliveryCache.orderChanged(order, previousDriverId);
+        availableOrderIndex.orderChanged(order);
         return orderMapper.toResponseDTO(order);
     }
 
-    // ── Phase 3: Notification helper for status transitions ──────────────
-
     /**
-     * Send in-app notification to customer (and driver where applicable) on status change.
+     * Assign a driver chosen by the batch dispatcher to a READY order.
+     *
+     * @return false if the order is no longer READY and unassigned or the driver was not found
      */
-    private void sendStatusChangeNotification(Order order, OrderStatus oldStatus, OrderStatus newStatus) {
-        try {
-            UUID customerId = order.getCustomer().getId();
-            UUID orderId = order.getId();
-            String orderNum = order.getOrderNumber() != null ? order.getOrderNumber() : orderId.toString().substring(0, 8);
-
-            String title;
-            String message;
-
-            switch (newStatus) {
-                case ACCEPTED -> {
-                    title = "Order Accepted";
-                    message = "Your order #" + orderNum + " has been accepted by the restaurant.";
-                }
-                case PREPARING -> {
-                    title = "Preparing Your Order";
-                    message = "Your order #" + orderNum + " is being prepared.";
-                }
-                case READY -> {
-                    title = "Order Ready";
-                    message = "Your order #" + orderNum + " is ready for pickup!";
-                }
-                case ASSIGNED -> {
-                    title = "Driver Assigned";
-                    message = "A driver has been assigned to deliver your order #" + orderNum + ".";
-                    // Also notify the driver
-                    if (order.getDriver() != null) {
-                        notificationService.createNotification(
-                                order.getDriver().getId(),
-                                NotificationType.DRIVER_ASSIGNED,
-                                "New Delivery Assignment",
-                                "You have been assigned order #" + orderNum + ".",
-                                orderId
-                        );
-                    }
-                }
-                case PICKED_UP -> {
-                    title = "Order Picked Up";
-                    message = "Your driver has picked up your order #" + orderNum + ".";
-                }
-                case ENROUTE -> {
-                    title = "On the Way!";
-                    message = "Your order #" + orderNum + " is on its way to you.";
-                }
-                case DELIVERED -> {
-                    title = "Order Delivered";
-                    message = "Your order #" + orderNum + " has been delivered. Enjoy your meal!";
-                }
-                case CANCELLED -> {
-                    title = "Order Cancelled";
-                    message = "Your order #" + orderNum + " has been cancelled.";
-                    if (order.getCancellationReason() != null) {
-                        message += " Reason: " + order.getCancellationReason();
-                    }
-                }
-                default -> {
-                    return; // No notification for other statuses
-                }
-            }
-
-            notificationService.createNotification(customerId, NotificationType.ORDER_UPDATE,
-                    title, message, orderId);
-
-            // Phase 3.2 / 3.3: Send email + SMS for key status transitions
-            try {
-                emailDispatchService.sendOrderStatusUpdate(
-                        order.getCustomer().getEmail(),
-                        order.getCustomer().getName() != null ? order.getCustomer().getName() : "Customer",
-                        orderNum,
-                        oldStatus.name(),
-                        newStatus.name());
-            } catch (Exception ex) {
-                log.warn("Email dispatch failed for order {} status {}: {}", orderId, newStatus, ex.getMessage());
-            }
-
-            try {
-                String phone = order.getCustomer().getPhone();
-                if (phone != null) {
-                    if (newStatus == OrderStatus.DELIVERED) {
-                        smsDispatchService.sendOrderDeliveredSms(phone, orderNum);
-                    } else if (newStatus == OrderStatus.ENROUTE || newStatus == OrderStatus.PICKED_UP) {
-                        smsDispatchService.sendOutForDeliverySms(phone, orderNum);
-                    }
-                }
-            } catch (Exception ex) {
-                log.warn("SMS dispatch failed for order {} status {}: {}", orderId, newStatus, ex.getMessage());
-            }
-
-            log.debug("Notification sent to customer {} for order {} status: {}", customerId, orderId, newStatus);
-        } catch (Exception e) {
-            // Don't let notification failures break the status update flow
-            log.warn("Failed to send status notification for order {}: {}", order.getId(), e.getMessage());
-        }
+    @Transactional
+    public boolean assignDispatchedDriver(UUID orderId, UUID driverId, Map<String, Object> meta) {
+        Order order = orderRepository.findById(orderId).orElse(null);
+        if (order == null || order.getStatus() != OrderStatus.READY || order.getDriver() != null) {
+            return false;
+        }
+        User driver = userRepository.findById(driverId).orElse(null);
+        if (driver == null || !orderStateMachine.assignDriver(order, driver, false).isApplied()) {
+            return false;
+        }
+
+        createDeliveryStatusEntry(order, OrderStatus.ASSIGNED, null, "Driver assigned by dispatcher");
+        Map<String, Object> timelineMeta = new HashMap<>(meta);
+        timelineMeta.put("driverId", driverId.toString());
+        timelineMeta.put("driverName", driver.getName());
+        eventTimelineService.recordStatusChange(order.getId(), null,
+                OrderStatus.READY, OrderStatus.ASSIGNED, timelineMeta);
+
+        // Publish + notify the driver about the new assignment (relayed after commit)
+        orderOutboxService.driverAssigned(order, driverId);
+        orderSummaryProjector.refresh(order.getId());
+        activeDeliveryCache.orderChanged(order);
+        availableOrderIndex.orderChanged(order);
+        log.info("Dispatcher assigned driver {} to order {}", driver.getName(), orderId);
+        return true;
     }
 
     // ── Tip feature ──────────────────────────────────────────────────────
@@ -847,6 +962,7 @@ public class OrderService {
 
         order.setTipCents(tipCents);
         order = orderRepository.save(order);
+        orderSummaryProjector.refresh(order.getId());
 
         // Notify the driver about the tip
         if (order.getDriver() != null) {
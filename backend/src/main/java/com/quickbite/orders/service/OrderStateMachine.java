@@ -1,11 +1,23 @@
 package com.quickbite.orders.service;
 
+import com.quickbite.orders.entity.Order;
 import com.quickbite.orders.entity.OrderStatus;
 import com.quickbite.orders.exception.InvalidTransitionException;
+import com.quickbite.orders.repository.OrderRepository;
+import com.quickbite.users.entity.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
 /**
@@ -29,11 +41,44 @@ import java.util.Set;
  * ENROUTE ─→ DELIVERED  (DRIVER)
  *         ─→ CANCELLED (ADMIN)
  * </pre>
+ * <p>
+ * {@link #transition} applies a validated transition as a compare-and-set
+ * ({@code UPDATE orders ... WHERE id = ? AND status = ?}) instead of saving a read-modify-write
+ * entity, so concurrent writers cannot overwrite each other's status change and no row lock
+ * is held between read and write. Losers get a typed {@link TransitionResult}; the
+ * {@link RetryPolicy} decides whether a transition is re-validated and retried from the
+ * status that won.
  */
 @Slf4j
 @Service
 public class OrderStateMachine {
 
+    /**
+     * What to do when the order left the expected status before the update ran.
+     */
+    public enum RetryPolicy {
+        /** Report the conflict; the caller's decision was based on a status that no longer holds. */
+        NONE,
+        /** Retry from the new status while the transition is still allowed (e.g. admin cancel). */
+        REVALIDATE
+    }
+
+    private final OrderRepository orderRepository;
+    private final Counter conflictCounter;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${order.transition.max-attempts:3}")
+    private int maxAttempts = 3;
+
+    public OrderStateMachine(OrderRepository orderRepository, MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.conflictCounter = Counter.builder("orders.transition.conflicts")
+                .description("Order status transitions that lost a compare-and-set race")
+                .register(meterRegistry);
+    }
+
     /**
      * Transition definition: from-status → Set<to-status>.
      */
@@ -125,6 +170,70 @@ public class OrderStateMachine {
         }
     }
 
+    /**
+     * Validate and apply {@code order.status → target} with a compare-and-set update.
+     * On success the managed entity is refreshed (new status and version); on a lost race
+     * the entity is left untouched and must not be saved.
+     *
+     * @throws InvalidTransitionException if the transition is not permitted from the current status
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public TransitionResult transition(Order order, OrderStatus target, String actorRole, RetryPolicy retryPolicy) {
+        OrderStatus expected = order.getStatus();
+        validateTransition(expected, target, actorRole);
+
+        for (int attempt = 1; ; attempt++) {
+            if (orderRepository.compareAndSetStatus(order.getId(), expected, target, OffsetDateTime.now()) == 1) {
+                entityManager.refresh(order);
+                return TransitionResult.applied(expected, target, attempt);
+            }
+
+            TransitionResult lost = lostRace(order, expected, target, attempt);
+            if (lost.outcome() != TransitionResult.Outcome.CONFLICT
+                    || retryPolicy == RetryPolicy.NONE
+                    || attempt >= maxAttempts
+                    || !isAllowed(lost.current(), target, actorRole)) {
+                return lost;
+            }
+            log.debug("Retrying transition of order {} from {} (expected {}) to {}",
+                    order.getId(), lost.current(), expected, target);
+            expected = lost.current();
+        }
+    }
+
+    /**
+     * Assign {@code driver} and move the order to ASSIGNED with a compare-and-set update.
+     * Without {@code reassign} the update only applies while the order has no driver
+     * (or already has this one), so concurrent claims for the same order have one winner.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public TransitionResult assignDriver(Order order, User driver, boolean reassign) {
+        OrderStatus expected = order.getStatus();
+        int updated = orderRepository.compareAndSetDriver(
+                order.getId(), expected, OrderStatus.ASSIGNED, driver, reassign, OffsetDateTime.now());
+        if (updated == 1) {
+            entityManager.refresh(order);
+            return TransitionResult.applied(expected, OrderStatus.ASSIGNED, 1);
+        }
+        TransitionResult lost = lostRace(order, expected, OrderStatus.ASSIGNED, 1);
+        // Already ASSIGNED here means assigned to someone else — that is a conflict for the caller
+        return lost.outcome() == TransitionResult.Outcome.ALREADY_IN_TARGET
+                ? new TransitionResult(TransitionResult.Outcome.CONFLICT, expected, OrderStatus.ASSIGNED,
+                        lost.current(), 1)
+                : lost;
+    }
+
+    private TransitionResult lostRace(Order order, OrderStatus expected, OrderStatus target, int attempt) {
+        conflictCounter.increment();
+        Optional<OrderStatus> current = orderRepository.findStatusById(order.getId());
+        TransitionResult.Outcome outcome = current.isEmpty() ? TransitionResult.Outcome.NOT_FOUND
+                : current.get() == target ? TransitionResult.Outcome.ALREADY_IN_TARGET
+                : TransitionResult.Outcome.CONFLICT;
+        log.info("Transition of order {} {}->{} lost: {} (now {})",
+                order.getId(), expected, target, outcome, current.orElse(null));
+        return new TransitionResult(outcome, expected, target, current.orElse(null), attempt);
+    }
+
     private static String key(OrderStatus from, OrderStatus to) {
         return from.name() + "->" + to.name();
     }
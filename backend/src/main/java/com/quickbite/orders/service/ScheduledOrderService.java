@@ -4,6 +4,7 @@ import com.quickbite.orders.dto.OrderResponseDTO;
 import com.quickbite.orders.entity.Order;
 import com.quickbite.orders.entity.OrderStatus;
 import com.quickbite.orders.mapper.OrderMapper;
+import com.quickbite.orders.projection.OrderSummaryProjector;
 import com.quickbite.orders.repository.OrderRepository;
 import com.quickbite.vendors.entity.Vendor;
 import com.quickbite.vendors.repository.VendorRepository;
@@ -36,6 +37,8 @@ public class ScheduledOrderService {
     private final OrderRepository orderRepository;
     private final VendorRepository vendorRepository;
     private final OrderMapper orderMapper;
+    private final OrderSummaryProjector orderSummaryProjector;
+    private final OrderStateMachine orderStateMachine;
 
     /**
      * Validate that a scheduled time is acceptable:
@@ -96,7 +99,8 @@ public class ScheduledOrderService {
     /**
      * Process scheduled orders that are due within the processing window.
      * Runs every 60 seconds. Finds orders with scheduledTime &lt;= now + 15 min
-     * and status = PLACED, then transitions them to ACCEPTED.
+     * and status = PLACED, then transitions them to ACCEPTED (compare-and-set, so a
+     * vendor acting on the same order at the same time wins or loses cleanly).
      */
     @Scheduled(fixedRate = 60000)
     @Transactional
@@ -115,8 +119,14 @@ public class ScheduledOrderService {
 
         for (Order order : dueOrders) {
             try {
-                order.setStatus(OrderStatus.ACCEPTED);
-                orderRepository.save(order);
+                // Compare-and-set: skips orders the vendor accepted or cancelled since the scan
+                TransitionResult result = orderStateMachine.transition(
+                        order, OrderStatus.ACCEPTED, null, OrderStateMachine.RetryPolicy.NONE);
+                if (!result.isApplied()) {
+                    log.info("Scheduled order {} skipped: {} (now {})", order.getId(), result.outcome(), result.current());
+                    continue;
+                }
+                orderSummaryProjector.refresh(order.getId());
                 log.info("Scheduled order {} transitioned to ACCEPTED", order.getId());
             } catch (Exception e) {
                 log.error("Failed to process scheduled order {}: {}", order.getId(), e.getMessage());
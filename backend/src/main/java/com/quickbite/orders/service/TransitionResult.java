@@ -0,0 +1,46 @@
+package com.quickbite.orders.service;
+
+import com.quickbite.orders.entity.OrderStatus;
+import com.quickbite.orders.exception.TransitionConflictException;
+
+/**
+ * Outcome of a compare-and-set status transition (see {@link OrderStateMachine#transition}).
+ *
+ * @param outcome  what happened
+ * @param expected status the last attempt expected the order to be in
+ * @param target   requested status
+ * @param current  status the order was found in (equals {@code target} when applied; null when not found)
+ * @param attempts number of compare-and-set attempts made
+ */
+public record TransitionResult(Outcome outcome, OrderStatus expected, OrderStatus target,
+                               OrderStatus current, int attempts) {
+
+    public enum Outcome {
+        /** This call moved the order from {@code expected} to {@code target}. */
+        APPLIED,
+        /** Another writer already moved the order to {@code target}. */
+        ALREADY_IN_TARGET,
+        /** The order moved to a different status first. */
+        CONFLICT,
+        /** The order no longer exists. */
+        NOT_FOUND
+    }
+
+    public static TransitionResult applied(OrderStatus expected, OrderStatus target, int attempts) {
+        return new TransitionResult(Outcome.APPLIED, expected, target, target, attempts);
+    }
+
+    public boolean isApplied() {
+        return outcome == Outcome.APPLIED;
+    }
+
+    /**
+     * Return this result if applied, otherwise throw {@link TransitionConflictException}.
+     */
+    public TransitionResult orThrow() {
+        if (!isApplied()) {
+            throw new TransitionConflictException(this);
+        }
+        return this;
+    }
+}
@@ -1,5 +1,6 @@
 package com.quickbite.payments.entity;
 
+import com.quickbite.common.id.TimeOrderedId;
 import com.quickbite.orders.entity.Order;
 import jakarta.persistence.*;
 import lombok.*;
@@ -27,7 +28,7 @@ import java.util.UUID;
 public class Payment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     @Column(columnDefinition = "uuid")
     private UUID id;
 
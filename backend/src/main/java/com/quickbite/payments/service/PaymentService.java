@@ -26,8 +26,12 @@ import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -106,37 +110,9 @@ public class PaymentService {
                 ? request.getCurrency() : "INR";
 
         // 3. Decide payment path: CARD/UPI (Stripe) vs COD (offline)
-        boolean isCOD = order.getPaymentMethod() == PaymentMethod.CASH_ON_DELIVERY;
-        boolean isUPI = order.getPaymentMethod() == PaymentMethod.UPI;
-        boolean isCard = order.getPaymentMethod() == PaymentMethod.CARD;
-        String providerPaymentId;
-        String clientSecret = null;
-
-        if ((isCard || isUPI) && isStripeConfigured()) {
-            // -- Real Stripe PaymentIntent (card element handles all online payments) --
-            try {
-                PaymentIntentCreateParams params = PaymentIntentCreateParams.builder()
-                        .setAmount(amountCents)
-                        .setCurrency(currency.toLowerCase())
-                        .addPaymentMethodType("card")
-                        .build();
-                PaymentIntent stripePI = PaymentIntent.create(params);
-                providerPaymentId = stripePI.getId();
-                clientSecret = stripePI.getClientSecret();
-                log.info("Stripe PaymentIntent created: {}", providerPaymentId);
-            } catch (StripeException e) {
-                log.error("Stripe API error creating payment intent", e);
-                throw new RuntimeException("Payment gateway error: " + e.getUserMessage(), e);
-            }
-        } else if (isCOD) {
-            providerPaymentId = "cod_" + UUID.randomUUID();
-            log.info("COD payment — no Stripe intent needed");
-        } else {
-            // Stripe not configured — stub fallback
-            providerPaymentId = "stub_pi_" + UUID.randomUUID();
-            clientSecret = "stub_secret_" + providerPaymentId;
-            log.warn("Stripe not configured — using stub payment ID");
-        }
+        ProviderIntent intent = openProviderIntent(order.getPaymentMethod(), amountCents, currency);
+        String providerPaymentId = intent.providerPaymentId();
+        String clientSecret = intent.clientSecret();
 
         // 4. Create payment record in DB
         Payment payment = Payment.builder()
@@ -162,6 +138,55 @@ public class PaymentService {
         return mapToResponse(payment);
     }
 
+    /**
+     * Create payment intents for a batch of freshly placed orders and save them in one batch.
+     * Provider intents are still opened per order (Stripe has no bulk create), behind the same
+     * {@code stripe} circuit breaker as the single-order flow; COD payments are authorized
+     * immediately. If opening an intent fails, or the surrounding transaction later rolls back,
+     * the intents already opened at Stripe are cancelled so none is left orphaned.
+     *
+     * @param orders persisted orders without a payment
+     * @param currency ISO currency code
+     * @return created payments, in order
+     */
+    @Transactional
+    @CircuitBreaker(name = "stripe", fallbackMethod = "createPaymentIntentsFallback")
+    public List<Payment> createPaymentIntents(List<Order> orders, String currency) {
+        List<String> opened = new ArrayList<>(orders.size());
+        List<Payment> payments = new ArrayList<>(orders.size());
+        try {
+            for (Order order : orders) {
+                ProviderIntent intent = openProviderIntent(order.getPaymentMethod(), order.getTotalCents(), currency);
+                opened.add(intent.providerPaymentId());
+                boolean isCOD = order.getPaymentMethod() == PaymentMethod.CASH_ON_DELIVERY;
+                payments.add(Payment.builder()
+                        .order(order)
+                        .providerPaymentId(intent.providerPaymentId())
+                        .clientSecret(intent.clientSecret())
+                        .provider(isStripeConfigured() ? "stripe" : "stub")
+                        .status(isCOD ? PaymentStatus.AUTHORIZED : PaymentStatus.PENDING)
+                        .amountCents(order.getTotalCents())
+                        .currency(currency)
+                        .build());
+            }
+        } catch (RuntimeException e) {
+            cancelProviderIntents(opened);
+            throw e;
+        }
+        cancelProviderIntentsOnRollback(opened);
+
+        payments = paymentRepository.saveAll(payments);
+        for (int i = 0; i < orders.size(); i++) {
+            Payment payment = payments.get(i);
+            orders.get(i).setPayment(payment);
+            orders.get(i).setPaymentStatus(payment.getStatus());
+        }
+
+        paymentIntentCounter.increment(payments.size());
+        log.info("Created {} payment intents in batch", payments.size());
+        return payments;
+    }
+
     /**
      * Capture payment (called on order delivery).
      *
@@ -354,6 +379,91 @@ public class PaymentService {
         throw new RuntimeException("Payment gateway is temporarily unavailable. Please try again shortly.", t);
     }
 
+    /**
+     * Circuit breaker fallback for batch payment intent creation; fails the batch like the
+     * single-order fallback fails its order.
+     */
+    @SuppressWarnings("unused")
+    private List<Payment> createPaymentIntentsFallback(List<Order> orders, String currency, Throwable t) {
+        log.error("Payment service circuit breaker OPEN — rejecting batch of {} orders: {}", orders.size(), t.getMessage());
+        paymentFailedCounter.increment();
+        throw new RuntimeException("Payment gateway is temporarily unavailable. Please try again shortly.", t);
+    }
+
+    /**
+     * Cancel the opened Stripe intents if the surrounding transaction rolls back.
+     */
+    private void cancelProviderIntentsOnRollback(List<String> providerPaymentIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    cancelProviderIntents(providerPaymentIds);
+                }
+            }
+        });
+    }
+
+    /**
+     * Best-effort cancel of Stripe intents whose payment rows were never committed.
+     */
+    private void cancelProviderIntents(List<String> providerPaymentIds) {
+        if (!isStripeConfigured()) {
+            return;
+        }
+        for (String providerPaymentId : providerPaymentIds) {
+            if (!providerPaymentId.startsWith("pi_")) {
+                continue;
+            }
+            try {
+                PaymentIntent.retrieve(providerPaymentId).cancel();
+                log.info("Cancelled orphaned Stripe PaymentIntent {}", providerPaymentId);
+            } catch (StripeException e) {
+                log.warn("Failed to cancel orphaned Stripe PaymentIntent {}: {}", providerPaymentId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Open the provider-side intent for a payment method: Stripe for CARD/UPI when configured,
+     * an offline reference for COD, otherwise a stub.
+     */
+    private ProviderIntent openProviderIntent(PaymentMethod method, Long amountCents, String currency) {
+        boolean isCOD = method == PaymentMethod.CASH_ON_DELIVERY;
+        boolean isUPI = method == PaymentMethod.UPI;
+        boolean isCard = method == PaymentMethod.CARD;
+
+        if ((isCard || isUPI) && isStripeConfigured()) {
+            // -- Real Stripe PaymentIntent (card element handles all online payments) --
+            try {
+                PaymentIntentCreateParams params = PaymentIntentCreateParams.builder()
+                        .setAmount(amountCents)
+                        .setCurrency(currency.toLowerCase())
+                        .addPaymentMethodType("card")
+                        .build();
+                PaymentIntent stripePI = PaymentIntent.create(params);
+                log.info("Stripe PaymentIntent created: {}", stripePI.getId());
+                return new ProviderIntent(stripePI.getId(), stripePI.getClientSecret());
+            } catch (StripeException e) {
+                log.error("Stripe API error creating payment intent", e);
+                throw new RuntimeException("Payment gateway error: " + e.getUserMessage(), e);
+            }
+        } else if (isCOD) {
+            log.info("COD payment — no Stripe intent needed");
+            return new ProviderIntent("cod_" + UUID.randomUUID(), null);
+        }
+        // Stripe not configured — stub fallback
+        String providerPaymentId = "stub_pi_" + UUID.randomUUID();
+        log.warn("Stripe not configured — using stub payment ID");
+        return new ProviderIntent(providerPaymentId, "stub_secret_" + providerPaymentId);
+    }
+
+    private record ProviderIntent(String providerPaymentId, String clientSecret) {
+    }
+
     /**
      * Check if Stripe is configured (API key looks valid).
      */
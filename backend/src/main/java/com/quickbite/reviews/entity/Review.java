@@ -1,5 +1,6 @@
 package com.quickbite.reviews.entity;
 
+import com.quickbite.common.id.TimeOrderedId;
 import com.quickbite.orders.entity.Order;
 import com.quickbite.users.entity.User;
 import com.quickbite.vendors.entity.Vendor;
@@ -25,7 +26,7 @@ import java.util.UUID;
 public class Review {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     @Column(columnDefinition = "uuid")
     private UUID id;
 
@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -107,4 +108,14 @@ public interface MenuItemRepository extends JpaRepository<MenuItem, UUID> {
      * @return Page of menu items
      */
     Page<MenuItem> findByVendorId(UUID vendorId, Pageable pageable);
+
+    /**
+     * Load a set of menu items together with their vendor in a single query.
+     * Used by cart pricing so a multi-line cart costs one round trip.
+     *
+     * @param ids menu item IDs
+     * @return matching menu items with vendor initialised
+     */
+    @Query("SELECT m FROM MenuItem m JOIN FETCH m.vendor WHERE m.id IN :ids")
+    List<MenuItem> findAllWithVendorByIdIn(@Param("ids") Collection<UUID> ids);
 }
@@ -0,0 +1,202 @@
+package com.quickbite.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quickbite.orders.driver.DriverGeoIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalescing fan-out of driver GPS positions to {@code /topic/drivers.{id}.location} and
+ * {@code /topic/orders.{id}.location}.
+ * <p>
+ * Subscriptions come from the {@link StompSubscriptionRegistry}, so a ping for a topic nobody
+ * listens to — on this node or, as far as the cross-node broker can tell, on any other — is
+ * dropped immediately. Pings for watched topics are
+ * parked as the pending frame of their destination — a burst within one
+ * {@code websocket.location.frame-ms} interval collapses to the latest position — and a position
+ * closer than {@code websocket.location.min-move-meters} to the last frame sent is skipped unless
+ * {@code websocket.location.keepalive-ms} has passed. Each frame is serialized once and the same
+ * bytes are sent to every destination it is pending on.
+ */
+@Slf4j
+@Component
+public class DriverLocationBroadcaster implements StompSubscriptionRegistry.Listener {
+
+    private static final String DRIVER_TOPIC_PREFIX = "/topic/drivers.";
+    private static final String ORDER_TOPIC_PREFIX = "/topic/orders.";
+    private static final String LOCATION_SUFFIX = ".location";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final StompSubscriptionRegistry subscriptionRegistry;
+
+    private final Map<String, Frame> pending = new ConcurrentHashMap<>();
+    private final Map<String, Sent> lastSent = new ConcurrentHashMap<>();
+
+    // Metrics
+    private final Counter framesIn;
+    private final Counter framesOut;
+    private final Counter suppressedUnsubscribed;
+    private final Counter suppressedCoalesced;
+    private final Counter suppressedStationary;
+
+    @Value("${websocket.location.min-move-meters:10}")
+    private double minMoveMeters = 10;
+
+    @Value("${websocket.location.keepalive-ms:15000}")
+    private long keepaliveMillis = 15_000;
+
+    public DriverLocationBroadcaster(SimpMessagingTemplate messagingTemplate,
+                                     ObjectMapper objectMapper,
+                                     StompSubscriptionRegistry subscriptionRegistry,
+                                     MeterRegistry meterRegistry) {
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        this.subscriptionRegistry = subscriptionRegistry;
+        subscriptionRegistry.addListener(this);
+
+        this.framesIn = Counter.builder("websocket.location.frames.in")
+                .description("Driver positions offered for broadcast (one per destination)")
+                .register(meterRegistry);
+        this.framesOut = Counter.builder("websocket.location.frames.out")
+                .description("Driver location frames sent to the broker")
+                .register(meterRegistry);
+        this.suppressedUnsubscribed = Counter.builder("websocket.location.suppressed.unsubscribed")
+                .description("Driver positions dropped because the topic had no subscribers")
+                .register(meterRegistry);
+        this.suppressedCoalesced = Counter.builder("websocket.location.suppressed.coalesced")
+                .description("Driver positions replaced by a newer one within the same frame interval")
+                .register(meterRegistry);
+        this.suppressedStationary = Counter.builder("websocket.location.suppressed.stationary")
+                .description("Driver positions dropped for moving less than the distance threshold")
+                .register(meterRegistry);
+        Gauge.builder("websocket.location.subscriptions", this, DriverLocationBroadcaster::subscriptionCount)
+                .description("Live subscriptions on this node to driver and order location topics")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queue a driver position for the driver topic and, if set, the order topic.
+     */
+    public void offer(UUID driverId, double lat, double lng, UUID orderId) {
+        Frame frame = new Frame(driverId, lat, lng, OffsetDateTime.now().toString());
+        park(DRIVER_TOPIC_PREFIX + driverId + LOCATION_SUFFIX, frame);
+        if (orderId != null) {
+            park(ORDER_TOPIC_PREFIX + orderId + LOCATION_SUFFIX, frame);
+        }
+    }
+
+    /**
+     * Send the pending frame of every destination; frames shared by several destinations are
+     * serialized once.
+     */
+    @Scheduled(fixedDelayString = "${websocket.location.frame-ms:500}")
+    public void flushFrames() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<Frame, List<String>> byFrame = new IdentityHashMap<>();
+        for (String destination : new ArrayList<>(pending.keySet())) {
+            Frame frame = pending.remove(destination);
+            if (frame != null) {
+                byFrame.computeIfAbsent(frame, f -> new ArrayList<>(2)).add(destination);
+            }
+        }
+        long now = System.currentTimeMillis();
+        for (Map.Entry<Frame, List<String>> entry : byFrame.entrySet()) {
+            Frame frame = entry.getKey();
+            byte[] json;
+            try {
+                json = objectMapper.writeValueAsBytes(frame.payload());
+            } catch (JsonProcessingException e) {
+                log.error("Failed to serialize location frame for driver {}", frame.driverId(), e);
+                continue;
+            }
+            for (String destination : entry.getValue()) {
+                try {
+                    messagingTemplate.send(destination, StompOutbound.jsonMessage(json));
+                    lastSent.put(destination, new Sent(frame.lat(), frame.lng(), now));
+                    framesOut.increment();
+                } catch (Exception e) {
+                    log.error("Failed to publish driver location to {}", destination, e);
+                }
+            }
+        }
+        // Entries past the keepalive no longer suppress anything; with a cross-node broker
+        // destinations are sent to without a local subscription that would release them
+        lastSent.values().removeIf(sent -> now - sent.at() >= keepaliveMillis);
+    }
+
+    /**
+     * True when anyone in the cluster may listen to the destination.
+     */
+    public boolean hasSubscribers(String destination) {
+        return subscriptionRegistry.hasSubscribers(destination);
+    }
+
+    int subscriptionCount() {
+        return subscriptionRegistry.subscriptionCount(DriverLocationBroadcaster::isLocationTopic);
+    }
+
+    @Override
+    public void lastUnsubscribed(String destination) {
+        if (!subscriptionRegistry.isPattern(destination)) {
+            pending.remove(destination);
+            lastSent.remove(destination);
+        }
+    }
+
+    private void park(String destination, Frame frame) {
+        framesIn.increment();
+        if (!hasSubscribers(destination)) {
+            suppressedUnsubscribed.increment();
+            return;
+        }
+        Sent sent = lastSent.get(destination);
+        if (sent != null
+                && System.currentTimeMillis() - sent.at() < keepaliveMillis
+                && DriverGeoIndex.haversineKm(sent.lat(), sent.lng(), frame.lat(), frame.lng()) * 1000 < minMoveMeters) {
+            suppressedStationary.increment();
+            return;
+        }
+        if (pending.put(destination, frame) != null) {
+            suppressedCoalesced.increment();
+        }
+    }
+
+    private static boolean isLocationTopic(String destination) {
+        return destination != null
+                && destination.endsWith(LOCATION_SUFFIX)
+                && (destination.startsWith(DRIVER_TOPIC_PREFIX) || destination.startsWith(ORDER_TOPIC_PREFIX));
+    }
+
+    private record Frame(UUID driverId, double lat, double lng, String timestamp) {
+        Map<String, Object> payload() {
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("driverId", driverId);
+            payload.put("lat", lat);
+            payload.put("lng", lng);
+            payload.put("timestamp", timestamp);
+            return payload;
+        }
+    }
+
+    private record Sent(double lat, double lng, long at) {
+    }
+}
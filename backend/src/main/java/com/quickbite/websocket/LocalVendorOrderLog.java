@@ -0,0 +1,99 @@
+package com.quickbite.websocket;
+
+import com.quickbite.websocket.OrderUpdatePublisher.OrderUpdateDTO;
+import com.quickbite.websocket.VendorOrderStream.VendorOrderEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * In-process vendor logs. Sequences are handed out by the instance whose outbox relay
+ * publishes the event, so with more than one replica snapshots and resumes served by another
+ * instance see a different epoch and force a resync — only use this with a single replica.
+ * Active when kds.stream.store=local (default).
+ */
+@Component
+@ConditionalOnProperty(name = "kds.stream.store", havingValue = "local", matchIfMissing = true)
+public class LocalVendorOrderLog implements VendorOrderLog {
+
+    private final Map<UUID, Log> logs = new ConcurrentHashMap<>();
+
+    @Value("${kds.stream.buffer-size:500}")
+    private int bufferSize;
+
+    @Value("${kds.stream.idle-minutes:360}")
+    private long idleMinutes;
+
+    public LocalVendorOrderLog(MeterRegistry meterRegistry) {
+        Gauge.builder("kds.stream.vendors", logs, Map::size)
+                .description("Vendors with an in-memory KDS stream")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public VendorOrderEvent append(UUID vendorId, OrderUpdateDTO update) {
+        Log log = log(vendorId);
+        synchronized (log) {
+            VendorOrderEvent event = new VendorOrderEvent(vendorId, log.epoch, ++log.sequence, update);
+            log.buffer.addLast(event);
+            while (log.buffer.size() > bufferSize) {
+                log.buffer.removeFirst();
+            }
+            log.touch();
+            return event;
+        }
+    }
+
+    @Override
+    public Window head(UUID vendorId) {
+        Log log = log(vendorId);
+        synchronized (log) {
+            log.touch();
+            return new Window(log.epoch, log.sequence, List.of());
+        }
+    }
+
+    @Override
+    public Window window(UUID vendorId) {
+        Log log = log(vendorId);
+        synchronized (log) {
+            log.touch();
+            return new Window(log.epoch, log.sequence, new ArrayList<>(log.buffer));
+        }
+    }
+
+    /**
+     * Drop logs nobody has published to or read from recently.
+     */
+    @Scheduled(fixedDelay = 600_000, initialDelay = 600_000)
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleMinutes * 60_000;
+        logs.values().removeIf(log -> log.lastTouched < cutoff);
+    }
+
+    private Log log(UUID vendorId) {
+        return logs.computeIfAbsent(vendorId, id -> new Log());
+    }
+
+    private static final class Log {
+        private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+        private final ArrayDeque<VendorOrderEvent> buffer = new ArrayDeque<>();
+        private long sequence;
+        private volatile long lastTouched = System.currentTimeMillis();
+
+        private void touch() {
+            lastTouched = System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,476 @@
+package com.quickbite.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quickbite.orders.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-Sent Events feed behind {@code GET /api/orders/{id}/events}: the order status and
+ * driver location events of one order without a STOMP session.
+ * <p>
+ * Registered on the broker channel, it sees exactly the messages STOMP subscribers of
+ * {@code /topic/orders.{id}} and {@code /topic/orders.{id}.location} get — whoever published
+ * them, and in redis mode whichever replica they came from, because an order with SSE
+ * connections holds both topics in the {@link StompSubscriptionRegistry} like a STOMP
+ * subscription would. In relay mode only updates published on this replica are seen.
+ * <p>
+ * Order events ({@code event: order}) get an id {@code epoch:seq} and the last
+ * {@code sse.order-events.buffer-size} are kept per order. A reconnect sending
+ * {@code Last-Event-ID} is replayed what it missed; a new connection, or one whose id is
+ * no longer buffered, first gets the order's current state. Location events
+ * ({@code event: location}) are not replayed and are coalesced per connection: a connection
+ * whose previous frame is still being written only gets the newest position. Each order event
+ * carries the full order state, so a connection whose unsent order events exceed the buffer is
+ * closed and catches up on reconnect.
+ * <p>
+ * Buffers are kept for {@code sse.order-events.idle-minutes} after the last connection leaves,
+ * so a client reconnecting within that window misses nothing.
+ */
+@Slf4j
+@Component
+public class OrderEventStream implements ChannelInterceptor {
+
+    private static final String ORDER_TOPIC_PREFIX = "/topic/orders.";
+    private static final String LOCATION_SUFFIX = ".location";
+
+    private final StompSubscriptionRegistry subscriptionRegistry;
+    private final OrderRepository orderRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Map<UUID, OrderChannel> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private ExecutorService sender;
+
+    // Metrics
+    private final Counter sentCounter;
+    private final Counter coalescedCounter;
+    private final Counter replayCounter;
+    private final Counter snapshotCounter;
+    private final Counter overflowCounter;
+
+    @Value("${sse.order-events.buffer-size:16}")
+    private int bufferSize;
+
+    @Value("${sse.order-events.timeout-ms:1800000}")
+    private long timeoutMillis;
+
+    @Value("${sse.order-events.idle-minutes:10}")
+    private long idleMinutes;
+
+    @Value("${sse.order-events.send-threads:4}")
+    private int sendThreads;
+
+    public OrderEventStream(StompSubscriptionRegistry subscriptionRegistry,
+                            OrderRepository orderRepository,
+                            ObjectMapper objectMapper,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry) {
+        this.subscriptionRegistry = subscriptionRegistry;
+        this.orderRepository = orderRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        this.sentCounter = Counter.builder("sse.order-events.sent")
+                .description("Events written to SSE connections")
+                .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("sse.order-events.coalesced")
+                .description("Location frames replaced by a newer one before being written")
+                .register(meterRegistry);
+        this.replayCounter = Counter.builder("sse.order-events.replays")
+                .description("Reconnects resumed from the event buffer")
+                .register(meterRegistry);
+        this.snapshotCounter = Counter.builder("sse.order-events.snapshots")
+                .description("Connections started from the order's current state")
+                .register(meterRegistry);
+        this.overflowCounter = Counter.builder("sse.order-events.overflows")
+                .description("Connections closed because their unsent order events exceeded the buffer")
+                .register(meterRegistry);
+        Gauge.builder("sse.order-events.connections", connectionCount, AtomicInteger::get)
+                .description("Open SSE order event connections")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        CustomizableThreadFactory threads = new CustomizableThreadFactory("sse-order-events-");
+        threads.setDaemon(true);
+        sender = Executors.newFixedThreadPool(sendThreads, threads);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        sender.shutdown();
+        sender.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Open an event stream for an order. Access must already have been checked.
+     *
+     * @param lastEventId the {@code Last-Event-ID} a reconnecting client sent, or null
+     */
+    public SseEmitter open(UUID orderId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Connection connection = null;
+        while (connection == null) {
+            OrderChannel channel = channel(orderId);
+            long snapshotSequence;
+            synchronized (channel) {
+                if (channel.evicted) {
+                    continue;
+                }
+                List<OrderEvent> missed = channel.since(lastEventId);
+                if (missed != null) {
+                    replayCounter.increment();
+                    connection = connect(emitter, channel, missed);
+                    break;
+                }
+                snapshotSequence = channel.sequence;
+                channel.touch();
+            }
+            // Read outside the channel lock: postSend takes it on the broker's sender thread
+            OrderEvent current = snapshot(channel, snapshotSequence);
+            synchronized (channel) {
+                if (channel.evicted) {
+                    continue;
+                }
+                // Events published during the read may or may not be in the snapshot; each
+                // carries the full order state, so replaying them after it is harmless
+                List<OrderEvent> events = new ArrayList<>();
+                if (current != null) {
+                    snapshotCounter.increment();
+                    events.add(current);
+                }
+                events.addAll(channel.after(snapshotSequence));
+                connection = connect(emitter, channel, events);
+            }
+        }
+        connectionCount.incrementAndGet();
+        Connection opened = connection;
+        emitter.onCompletion(() -> close(opened));
+        emitter.onTimeout(() -> close(opened));
+        emitter.onError(e -> close(opened));
+        return emitter;
+    }
+
+    /**
+     * Picks order and order-location messages off the broker channel.
+     */
+    @Override
+    public void postSend(Message<?> message, MessageChannel channel, boolean sent) {
+        if (!sent || channels.isEmpty()
+                || SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE
+                || !(message.getPayload() instanceof byte[] payload)) {
+            return;
+        }
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (destination == null || !destination.startsWith(ORDER_TOPIC_PREFIX)) {
+            return;
+        }
+        boolean location = destination.endsWith(LOCATION_SUFFIX);
+        UUID orderId;
+        try {
+            orderId = UUID.fromString(destination.substring(ORDER_TOPIC_PREFIX.length(),
+                    location ? destination.length() - LOCATION_SUFFIX.length() : destination.length()));
+        } catch (IllegalArgumentException notAnOrderTopic) {
+            return;
+        }
+        OrderChannel orderChannel = channels.get(orderId);
+        if (orderChannel == null) {
+            return;
+        }
+        String json = new String(payload, StandardCharsets.UTF_8);
+        if (location) {
+            orderChannel.connections.forEach(connection -> connection.offerLocation(json));
+        } else {
+            synchronized (orderChannel) {
+                OrderEvent event = orderChannel.append(json);
+                orderChannel.connections.forEach(connection -> connection.offerOrder(event));
+            }
+        }
+    }
+
+    /**
+     * Keep idle connections (and the proxies in front of them) alive and drop buffers of
+     * orders nobody has watched for a while.
+     */
+    @Scheduled(fixedDelayString = "${sse.order-events.heartbeat-ms:15000}")
+    public void heartbeat() {
+        long cutoff = System.currentTimeMillis() - idleMinutes * 60_000;
+        for (OrderChannel channel : channels.values()) {
+            channel.connections.forEach(Connection::offerHeartbeat);
+            synchronized (channel) {
+                if (channel.connections.isEmpty() && channel.lastTouched < cutoff) {
+                    channel.evicted = true;
+                    channels.remove(channel.orderId, channel);
+                    subscriptionRegistry.release(ORDER_TOPIC_PREFIX + channel.orderId);
+                    subscriptionRegistry.release(ORDER_TOPIC_PREFIX + channel.orderId + LOCATION_SUFFIX);
+                }
+            }
+        }
+    }
+
+    private OrderChannel channel(UUID orderId) {
+        OrderChannel channel = channels.get(orderId);
+        if (channel != null) {
+            return channel;
+        }
+        OrderChannel created = new OrderChannel(orderId);
+        channel = channels.putIfAbsent(orderId, created);
+        if (channel != null) {
+            return channel;
+        }
+        subscriptionRegistry.acquire(ORDER_TOPIC_PREFIX + orderId);
+        subscriptionRegistry.acquire(ORDER_TOPIC_PREFIX + orderId + LOCATION_SUFFIX);
+        return created;
+    }
+
+    /**
+     * Register a connection with its first events. Called holding the channel lock, so
+     * nothing published meanwhile can overtake them.
+     */
+    private Connection connect(SseEmitter emitter, OrderChannel channel, List<OrderEvent> events) {
+        Connection connection = new Connection(emitter, channel);
+        events.forEach(connection::offerOrder);
+        channel.connections.add(connection);
+        channel.touch();
+        return connection;
+    }
+
+    private OrderEvent snapshot(OrderChannel channel, long sequence) {
+        byte[] json = readOnlyTransaction.execute(status -> orderRepository.findDetailById(channel.orderId)
+                .map(OrderUpdatePublisher::mapToDTO)
+                .map(this::encode)
+                .orElse(null));
+        return json != null ? new OrderEvent(channel.eventId(sequence), new String(json, StandardCharsets.UTF_8)) : null;
+    }
+
+    private byte[] encode(OrderUpdatePublisher.OrderUpdateDTO update) {
+        try {
+            return objectMapper.writeValueAsBytes(update);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize order " + update.getOrderId(), e);
+        }
+    }
+
+    /**
+     * Forget a connection; safe to call more than once. Never called holding a connection lock.
+     */
+    private void close(Connection connection) {
+        connection.closed = true;
+        OrderChannel channel = connection.channel;
+        synchronized (channel) {
+            if (channel.connections.remove(connection)) {
+                connectionCount.decrementAndGet();
+                channel.touch();
+            }
+        }
+    }
+
+    /**
+     * Per-order state: connections, the event sequence and the replay buffer.
+     */
+    private final class OrderChannel {
+        private final UUID orderId;
+        private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+        private final ArrayDeque<OrderEvent> buffer = new ArrayDeque<>();
+        private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+        private long sequence;
+        private boolean evicted;
+        private volatile long lastTouched = System.currentTimeMillis();
+
+        private OrderChannel(UUID orderId) {
+            this.orderId = orderId;
+        }
+
+        private OrderEvent append(String json) {
+            OrderEvent event = new OrderEvent(eventId(++sequence), json);
+            buffer.addLast(event);
+            while (buffer.size() > bufferSize) {
+                buffer.removeFirst();
+            }
+            return event;
+        }
+
+        private String eventId(long seq) {
+            return epoch + ":" + seq;
+        }
+
+        /**
+         * Buffered events after {@code lastEventId}, or null when they can't be told apart
+         * from what the client has (no id, another epoch, or older than the buffer).
+         */
+        private List<OrderEvent> since(String lastEventId) {
+            if (lastEventId == null || !lastEventId.startsWith(epoch + ":")) {
+                return null;
+            }
+            long since;
+            try {
+                since = Long.parseLong(lastEventId.substring(epoch.length() + 1));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            long oldest = sequence - buffer.size() + 1;
+            if (since > sequence || since < oldest - 1) {
+                return null;
+            }
+            return after(since);
+        }
+
+        /**
+         * Buffered events with a sequence above {@code since}; those already evicted from the
+         * buffer are skipped.
+         */
+        private List<OrderEvent> after(long since) {
+            List<OrderEvent> events = new ArrayList<>((int) Math.min(buffer.size(), Math.max(0, sequence - since)));
+            long seq = sequence - buffer.size() + 1;
+            for (OrderEvent event : buffer) {
+                if (seq++ > since) events.add(event);
+            }
+            return events;
+        }
+
+        private void touch() {
+            lastTouched = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * One SSE connection. Offers queue work under the connection lock and schedule at most
+     * one writer task at a time, so a slow client only ever holds one sender thread and its
+     * location frames collapse to the newest.
+     */
+    private final class Connection {
+        private final SseEmitter emitter;
+        private final OrderChannel channel;
+        private final ArrayDeque<OrderEvent> orders = new ArrayDeque<>();
+        private String location;
+        private boolean heartbeatDue;
+        private boolean scheduled;
+        private volatile boolean closed;
+
+        private Connection(SseEmitter emitter, OrderChannel channel) {
+            this.emitter = emitter;
+            this.channel = channel;
+        }
+
+        private void offerOrder(OrderEvent event) {
+            synchronized (this) {
+                if (orders.size() >= bufferSize) {
+                    overflowCounter.increment();
+                    orders.clear();
+                    location = null;
+                    closed = true;
+                    sender.execute(() -> {
+                        emitter.complete();
+                        close(this);
+                    });
+                    return;
+                }
+                orders.addLast(event);
+                schedule();
+            }
+        }
+
+        private void offerLocation(String json) {
+            synchronized (this) {
+                if (location != null) {
+                    coalescedCounter.increment();
+                }
+                location = json;
+                schedule();
+            }
+        }
+
+        private void offerHeartbeat() {
+            synchronized (this) {
+                heartbeatDue = true;
+                schedule();
+            }
+        }
+
+        private void schedule() {
+            if (!scheduled && !closed) {
+                scheduled = true;
+                sender.execute(this::write);
+            }
+        }
+
+        private void write() {
+            while (true) {
+                List<OrderEvent> nextOrders;
+                String nextLocation;
+                boolean heartbeat;
+                synchronized (this) {
+                    if (closed || (orders.isEmpty() && location == null && !heartbeatDue)) {
+                        scheduled = false;
+                        return;
+                    }
+                    nextOrders = new ArrayList<>(orders);
+                    orders.clear();
+                    nextLocation = location;
+                    location = null;
+                    heartbeat = heartbeatDue;
+                    heartbeatDue = false;
+                }
+                try {
+                    for (OrderEvent event : nextOrders) {
+                        emitter.send(SseEmitter.event().id(event.id()).name("order").data(event.json()));
+                        sentCounter.increment();
+                    }
+                    if (nextLocation != null) {
+                        emitter.send(SseEmitter.event().name("location").data(nextLocation));
+                        sentCounter.increment();
+                    }
+                    if (heartbeat && nextOrders.isEmpty() && nextLocation == null) {
+                        emitter.send(SseEmitter.event().comment("keepalive"));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away or the emitter already completed
+                    log.debug("SSE connection for order {} closed: {}", channel.orderId, e.getMessage());
+                    close(this);
+                    synchronized (this) {
+                        scheduled = false;
+                    }
+                    return;
+                }
+            }
+        }
+    }
+
+    private record OrderEvent(String id, String json) {
+    }
+}
@@ -1,6 +1,9 @@
 package com.quickbite.websocket;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quickbite.orders.driver.AvailableOrderIndex;
 import com.quickbite.orders.entity.Order;
 import com.quickbite.orders.entity.OrderStatus;
 import lombok.AllArgsConstructor;
@@ -9,41 +12,51 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 /**
  * Service for publishing real-time order updates to WebSocket clients.
  * Broadcasts order status changes to subscribed clients.
+ * <p>
+ * Each order update is mapped to its DTO and serialized once; the same JSON bytes go to the
+ * order topic and any driver topic, and are embedded as-is in the vendor's sequenced KDS event.
+ * Messages are handed to {@link StompOutbound}, so callers never wait on the broker.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class OrderUpdatePublisher {
 
-    private final SimpMessagingTemplate messagingTemplate;
+    private static final String ORDER_TOPIC_PREFIX = "/topic/orders.";
+    private static final String DRIVER_TOPIC_PREFIX = "/topic/drivers.";
+
+    private final StompOutbound outbound;
+    private final ObjectMapper objectMapper;
+    private final VendorOrderStream vendorOrderStream;
+    private final DriverLocationBroadcaster driverLocationBroadcaster;
 
     /**
-     * Publish order update to WebSocket channel.
+     * Publish an order's current state to {@code /topic/orders.{orderId}} and, as a sequenced
+     * delta, to the vendor's KDS topic (see {@link VendorOrderStream} for snapshot and resume).
      *
      * @param order updated order
      */
     public void publishOrderUpdate(Order order) {
-        try {
-            OrderUpdateDTO update = mapToDTO(order);
-            
-            // Send to order-specific channel: /topic/orders.{orderId}
-            String destination = "/topic/orders." + order.getId();
-            messagingTemplate.convertAndSend(destination, update);
-            
-            log.debug("Published order update to {}: status={}", destination, order.getStatus());
-            
-        } catch (Exception e) {
-            log.error("Failed to publish order update for order {}", order.getId(), e);
-        }
+        publish(order, null, true);
+    }
+
+    /**
+     * Publish a new assignment to the driver's topic and the order topic.
+     */
+    public void publishDriverOrderAssignment(UUID driverId, Order order) {
+        publish(order, driverId, false);
     }
 
     /**
@@ -62,11 +75,11 @@ public class OrderUpdatePublisher {
                     .timestamp(OffsetDateTime.now())
                     .build();
 
-            String destination = "/topic/orders." + orderId;
-            messagingTemplate.convertAndSend(destination, statusChange);
-            
+            String destination = ORDER_TOPIC_PREFIX + orderId;
+            outbound.publish(objectMapper.writeValueAsBytes(statusChange), List.of(destination));
+
             log.debug("Published status change to {}: status={}", destination, status);
-            
+
         } catch (Exception e) {
             log.error("Failed to publish status change for order {}", orderId, e);
         }
@@ -74,64 +87,73 @@ public class OrderUpdatePublisher {
 
     /**
      * Publish driver location update to WebSocket subscribers.
-     * Customers watching an order get the driver's real-time GPS.
+     * Customers watching an order get the driver's real-time GPS; delivery is coalesced
+     * per frame interval and skipped for unwatched topics (see {@link DriverLocationBroadcaster}).
      */
     public void publishDriverLocation(UUID driverId, double lat, double lng, UUID orderId) {
         try {
-            var payload = new java.util.LinkedHashMap<String, Object>();
-            payload.put("driverId", driverId);
-            payload.put("lat", lat);
-            payload.put("lng", lng);
-            payload.put("timestamp", OffsetDateTime.now().toString());
-
-            // Broadcast to driver-specific topic
-            String driverDest = "/topic/drivers." + driverId + ".location";
-            messagingTemplate.convertAndSend(driverDest, payload);
-
-            // Also broadcast to order topic so customer's OrderTrack gets location
-            if (orderId != null) {
-                String orderDest = "/topic/orders." + orderId + ".location";
-                messagingTemplate.convertAndSend(orderDest, payload);
-            }
-
-            log.debug("Published driver {} location: lat={}, lng={}", driverId, lat, lng);
+            driverLocationBroadcaster.offer(driverId, lat, lng, orderId);
         } catch (Exception e) {
             log.error("Failed to publish driver location for driver {}", driverId, e);
         }
     }
 
     /**
-     * Publish new order event to vendor's WebSocket topic (for KDS / live order feed).
+     * Push an available-orders feed change to each driver's {@code /topic/drivers.{id}.available}.
      */
-    public void publishVendorOrderUpdate(UUID vendorId, Order order) {
+    public void publishAvailableOrderChange(Collection<UUID> driverIds, AvailableOrderIndex.Change change) {
+        if (driverIds.isEmpty()) {
+            return;
+        }
         try {
-            OrderUpdateDTO update = mapToDTO(order);
-            String destination = "/topic/vendors." + vendorId + ".orders";
-            messagingTemplate.convertAndSend(destination, update);
-            log.debug("Published vendor order update to {}: orderId={}", destination, order.getId());
+            List<String> destinations = new ArrayList<>(driverIds.size());
+            for (UUID driverId : driverIds) {
+                destinations.add(DRIVER_TOPIC_PREFIX + driverId + ".available");
+            }
+            outbound.publish(objectMapper.writeValueAsBytes(change), destinations);
+            log.debug("Published available order {} {} to {} driver(s)", change.type(), change.orderId(), driverIds.size());
         } catch (Exception e) {
-            log.error("Failed to publish vendor order update for vendor {}", vendorId, e);
+            log.error("Failed to publish available order change for order {}", change.orderId(), e);
         }
     }
 
-    /**
-     * Publish new order assignment push to a driver's topic.
-     */
-    public void publishDriverOrderAssignment(UUID driverId, Order order) {
+    private void publish(Order order, UUID driverId, boolean toVendor) {
         try {
             OrderUpdateDTO update = mapToDTO(order);
-            String destination = "/topic/drivers." + driverId;
-            messagingTemplate.convertAndSend(destination, update);
-            log.debug("Published driver order assignment to {}: orderId={}", destination, order.getId());
+            byte[] json = objectMapper.writeValueAsBytes(update);
+
+            List<String> destinations = new ArrayList<>(2);
+            destinations.add(ORDER_TOPIC_PREFIX + order.getId());
+            if (driverId != null) {
+                destinations.add(DRIVER_TOPIC_PREFIX + driverId);
+            }
+            outbound.publish(json, destinations);
+
+            if (toVendor && order.getVendor() != null) {
+                UUID vendorId = order.getVendor().getId();
+                VendorOrderStream.VendorOrderEvent event = vendorOrderStream.append(vendorId, update);
+                byte[] frame = objectMapper.writeValueAsBytes(new VendorOrderFrame(
+                        vendorId, event.epoch(), event.seq(), new String(json, StandardCharsets.UTF_8)));
+                outbound.publish(frame, List.of("/topic/vendors." + vendorId + ".orders"));
+            }
+            log.debug("Published order update for {}: status={}, driver={}, vendor={}",
+                    order.getId(), order.getStatus(), driverId, toVendor);
+
         } catch (Exception e) {
-            log.error("Failed to publish driver assignment for driver {}", driverId, e);
+            log.error("Failed to publish order update for order {}", order.getId(), e);
         }
     }
 
+    /**
+     * Wire form of {@link VendorOrderStream.VendorOrderEvent} with the order DTO already serialized.
+     */
+    record VendorOrderFrame(UUID vendorId, String epoch, long seq, @JsonRawValue String order) {
+    }
+
     /**
      * Map Order entity to DTO for WebSocket transmission.
      */
-    private OrderUpdateDTO mapToDTO(Order order) {
+    static OrderUpdateDTO mapToDTO(Order order) {
         String deliveryAddressText = order.getDeliveryAddress() != null 
             ? order.getDeliveryAddress().getLine1() + ", " + order.getDeliveryAddress().getCity()
             : null;
@@ -0,0 +1,264 @@
+package com.quickbite.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.listener.Topic;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cross-node fan-out for the in-process simple broker over Redis pub/sub.
+ * <p>
+ * Every node keeps its own simple broker. Messages the application sends to a {@code /topic}
+ * destination are delivered locally as before and also published on the Redis channel
+ * {@code stomp:<destination>}. A node subscribes to that channel only while one of its sessions
+ * listens to the destination (wildcard STOMP subscriptions become PSUBSCRIBE patterns), so Redis
+ * forwards each message to exactly the nodes with subscribers, which hand it to their local
+ * broker. A node ignores its own messages when they come back.
+ * <p>
+ * A publish that reached no node marks the destination cold for
+ * {@code websocket.broker.redis.cold-ttl-ms}; producers that check
+ * {@link StompSubscriptionRegistry#hasSubscribers(String)} (driver location fan-out) skip cold
+ * destinations. A node announces each new subscription on {@code stomp:control} so the other
+ * nodes forget their cold mark immediately; the TTL bounds the damage if an announcement is lost.
+ * If Redis is unreachable, messages are still delivered to this node's sessions.
+ * Active when websocket.broker.mode=redis.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "websocket.broker.mode", havingValue = "redis")
+public class RedisBrokerBridge implements ChannelInterceptor, StompSubscriptionRegistry.Listener,
+        StompSubscriptionRegistry.RemoteSubscriptions {
+
+    static final String CHANNEL_PREFIX = "stomp:";
+    static final String CONTROL_CHANNEL = "stomp:control";
+    /** Set on messages received from another node so they are not published again. */
+    static final String RELAYED_HEADER = "quickbiteRelayed";
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer container;
+    private final StompSubscriptionRegistry subscriptionRegistry;
+    private final ObjectProvider<SimpMessagingTemplate> messagingTemplate;
+    private final MessageListener relayListener = (message, pattern) -> receive(message.getChannel(), message.getBody(), pattern);
+    private final MessageListener controlListener = (message, pattern) -> forgetCold(new String(message.getBody(), StandardCharsets.UTF_8));
+
+    /** destination → epoch millis until which no node is assumed to listen. */
+    private final Map<String, Long> cold = new ConcurrentHashMap<>();
+
+    // Metrics
+    private final Counter publishedCounter;
+    private final Counter receivedCounter;
+    private final Counter failureCounter;
+
+    @Value("${websocket.broker.redis.cold-ttl-ms:30000}")
+    private long coldTtlMillis = 30_000;
+
+    public RedisBrokerBridge(RedisConnectionFactory connectionFactory,
+                             StringRedisTemplate redisTemplate,
+                             StompSubscriptionRegistry subscriptionRegistry,
+                             ObjectProvider<SimpMessagingTemplate> messagingTemplate,
+                             MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.subscriptionRegistry = subscriptionRegistry;
+        this.messagingTemplate = messagingTemplate;
+        this.container = new RedisMessageListenerContainer();
+        this.container.setConnectionFactory(connectionFactory);
+
+        this.publishedCounter = Counter.builder("websocket.broker.redis.published")
+                .description("STOMP messages published to other nodes over Redis")
+                .register(meterRegistry);
+        this.receivedCounter = Counter.builder("websocket.broker.redis.received")
+                .description("STOMP messages received from other nodes and delivered locally")
+                .register(meterRegistry);
+        this.failureCounter = Counter.builder("websocket.broker.redis.failures")
+                .description("STOMP messages that could not be published to Redis (delivered locally only)")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        container.afterPropertiesSet();
+        container.addMessageListener(controlListener, new ChannelTopic(CONTROL_CHANNEL));
+        subscriptionRegistry.addListener(this);
+        subscriptionRegistry.destinations().forEach(this::firstSubscribed);
+        subscriptionRegistry.setRemoteSubscriptions(this);
+        container.start();
+        log.info("WebSocket broker bridged over Redis pub/sub (node {})", nodeId);
+    }
+
+    @PreDestroy
+    void stop() throws Exception {
+        container.destroy();
+    }
+
+    /**
+     * Broker channel interceptor: publish application messages for {@code /topic} destinations
+     * to the other nodes and let the local broker deliver them here.
+     */
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        MessageHeaders headers = message.getHeaders();
+        String destination = SimpMessageHeaderAccessor.getDestination(headers);
+        if (SimpMessageHeaderAccessor.getMessageType(headers) != SimpMessageType.MESSAGE
+                || destination == null || !destination.startsWith(StompSubscriptionRegistry.TOPIC_PREFIX)
+                || headers.containsKey(RELAYED_HEADER)
+                || !(message.getPayload() instanceof byte[] payload)) {
+            return message;
+        }
+        Object contentType = headers.get(MessageHeaders.CONTENT_TYPE);
+        byte[] body = encode(contentType != null ? contentType.toString() : "", payload);
+        byte[] channelName = (CHANNEL_PREFIX + destination).getBytes(StandardCharsets.UTF_8);
+        try {
+            Long receivers = redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(channelName, body));
+            publishedCounter.increment();
+            if (receivers != null && receivers == 0) {
+                cold.put(destination, System.currentTimeMillis() + coldTtlMillis);
+            } else {
+                cold.remove(destination);
+            }
+        } catch (Exception e) {
+            failureCounter.increment();
+            log.warn("Failed to publish {} to Redis, delivering on this node only: {}", destination, e.getMessage());
+        }
+        return message;
+    }
+
+    @Override
+    public boolean mayHaveSubscribers(String destination) {
+        Long until = cold.get(destination);
+        if (until == null) {
+            return true;
+        }
+        if (until <= System.currentTimeMillis()) {
+            cold.remove(destination, until);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void firstSubscribed(String destination) {
+        container.addMessageListener(relayListener, topic(destination));
+        try {
+            redisTemplate.convertAndSend(CONTROL_CHANNEL, destination);
+        } catch (Exception e) {
+            log.warn("Failed to announce subscription to {}: {}", destination, e.getMessage());
+        }
+    }
+
+    @Override
+    public void lastUnsubscribed(String destination) {
+        container.removeMessageListener(relayListener, topic(destination));
+    }
+
+    private void receive(byte[] channel, byte[] body, byte[] pattern) {
+        String destination = new String(channel, StandardCharsets.UTF_8).substring(CHANNEL_PREFIX.length());
+        // A destination matched by several of this node's channels/patterns arrives once per
+        // match; take it through one of them, the local broker fans it out to every session
+        if (pattern != null) {
+            String primary = subscriptionRegistry.localSubscription(destination);
+            if (primary == null || !topic(primary).getTopic().equals(new String(pattern, StandardCharsets.UTF_8))) {
+                return;
+            }
+        }
+        int originEnd = indexOf(body, 0);
+        int typeEnd = originEnd < 0 ? -1 : indexOf(body, originEnd + 1);
+        if (typeEnd < 0 || nodeId.equals(new String(body, 0, originEnd, StandardCharsets.UTF_8))) {
+            return;
+        }
+        String contentType = new String(body, originEnd + 1, typeEnd - originEnd - 1, StandardCharsets.UTF_8);
+        byte[] payload = Arrays.copyOfRange(body, typeEnd + 1, body.length);
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        if (!contentType.isEmpty()) {
+            accessor.setContentType(MimeTypeUtils.parseMimeType(contentType));
+        }
+        accessor.setHeader(RELAYED_HEADER, Boolean.TRUE);
+        accessor.setLeaveMutable(true);
+        try {
+            messagingTemplate.getObject().send(destination, MessageBuilder.createMessage(payload, accessor.getMessageHeaders()));
+            receivedCounter.increment();
+        } catch (Exception e) {
+            log.error("Failed to deliver relayed message to {}", destination, e);
+        }
+    }
+
+    private void forgetCold(String destination) {
+        if (subscriptionRegistry.isPattern(destination)) {
+            cold.clear();
+        } else {
+            cold.remove(destination);
+        }
+    }
+
+    /** {@code nodeId \n contentType \n payload}. */
+    private byte[] encode(String contentType, byte[] payload) {
+        byte[] header = (nodeId + "\n" + contentType + "\n").getBytes(StandardCharsets.UTF_8);
+        byte[] body = new byte[header.length + payload.length];
+        System.arraycopy(header, 0, body, 0, header.length);
+        System.arraycopy(payload, 0, body, header.length, payload.length);
+        return body;
+    }
+
+    private static int indexOf(byte[] body, int from) {
+        for (int i = from; i < body.length; i++) {
+            if (body[i] == '\n') return i;
+        }
+        return -1;
+    }
+
+    private Topic topic(String destination) {
+        return subscriptionRegistry.isPattern(destination)
+                ? new PatternTopic(CHANNEL_PREFIX + toGlob(destination))
+                : new ChannelTopic(CHANNEL_PREFIX + destination);
+    }
+
+    /**
+     * Ant-style STOMP pattern to a Redis glob: {@code *} and {@code **} become {@code *},
+     * glob metacharacters are escaped.
+     */
+    static String toGlob(String antPattern) {
+        StringBuilder glob = new StringBuilder(antPattern.length());
+        for (int i = 0; i < antPattern.length(); i++) {
+            char c = antPattern.charAt(i);
+            if (c == '*') {
+                glob.append('*');
+                while (i + 1 < antPattern.length() && antPattern.charAt(i + 1) == '*') i++;
+            } else if (c == '[' || c == ']' || c == '\\') {
+                glob.append('\\').append(c);
+            } else {
+                glob.append(c);
+            }
+        }
+        return glob.toString();
+    }
+}
@@ -0,0 +1,135 @@
+package com.quickbite.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quickbite.websocket.OrderUpdatePublisher.OrderUpdateDTO;
+import com.quickbite.websocket.VendorOrderStream.VendorOrderEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Redis-backed vendor logs shared by all replicas, so the instance relaying an event and the
+ * one serving a tablet's snapshot or resume agree on epoch and sequence.
+ * <p>
+ * Per vendor a hash {@code kds:{<vendorId>}} holding {@code epoch} and {@code seq}, and a list
+ * {@code kds:{<vendorId>}:events} of {@code "<seq> <order JSON>"} capped at the buffer size,
+ * both expiring after the idle timeout. Every access is one Lua script that first creates the
+ * epoch if the log expired (clearing any stale events), so sequence assignment and buffering
+ * are atomic across replicas.
+ * Active when kds.stream.store=redis.
+ */
+@Component
+@ConditionalOnProperty(name = "kds.stream.store", havingValue = "redis")
+public class RedisVendorOrderLog implements VendorOrderLog {
+
+    private static final String KEY_PREFIX = "kds:{";
+
+    private static final String ENSURE_EPOCH = """
+            local epoch = redis.call('HGET', KEYS[1], 'epoch')
+            if not epoch then
+              epoch = ARGV[1]
+              redis.call('HSET', KEYS[1], 'epoch', epoch, 'seq', 0)
+              redis.call('DEL', KEYS[2])
+            end
+            """;
+
+    /** ARGV = candidate epoch, order JSON, buffer size, TTL seconds. */
+    @SuppressWarnings("rawtypes")
+    private static final DefaultRedisScript<List> APPEND = new DefaultRedisScript<>(ENSURE_EPOCH + """
+            local seq = redis.call('HINCRBY', KEYS[1], 'seq', 1)
+            redis.call('RPUSH', KEYS[2], seq .. ' ' .. ARGV[2])
+            redis.call('LTRIM', KEYS[2], -tonumber(ARGV[3]), -1)
+            redis.call('EXPIRE', KEYS[1], ARGV[4])
+            redis.call('EXPIRE', KEYS[2], ARGV[4])
+            return {epoch, tostring(seq)}
+            """, List.class);
+
+    /** ARGV = candidate epoch, TTL seconds, '1' to include the buffered events. */
+    @SuppressWarnings("rawtypes")
+    private static final DefaultRedisScript<List> READ = new DefaultRedisScript<>(ENSURE_EPOCH + """
+            redis.call('EXPIRE', KEYS[1], ARGV[2])
+            redis.call('EXPIRE', KEYS[2], ARGV[2])
+            local result = {epoch, redis.call('HGET', KEYS[1], 'seq')}
+            if ARGV[3] == '1' then
+              for _, event in ipairs(redis.call('LRANGE', KEYS[2], 0, -1)) do table.insert(result, event) end
+            end
+            return result
+            """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${kds.stream.buffer-size:500}")
+    private int bufferSize;
+
+    @Value("${kds.stream.idle-minutes:360}")
+    private long idleMinutes;
+
+    public RedisVendorOrderLog(StringRedisTemplate redisTemplate, ObjectMapper objectMapper) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public VendorOrderEvent append(UUID vendorId, OrderUpdateDTO update) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(update);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize order update " + update.getOrderId(), e);
+        }
+        List<?> result = redisTemplate.execute(APPEND, keys(vendorId), newEpoch(), json,
+                Integer.toString(bufferSize), ttlSeconds());
+        return new VendorOrderEvent(vendorId, (String) result.get(0), Long.parseLong((String) result.get(1)), update);
+    }
+
+    @Override
+    public Window head(UUID vendorId) {
+        return read(vendorId, false);
+    }
+
+    @Override
+    public Window window(UUID vendorId) {
+        return read(vendorId, true);
+    }
+
+    private Window read(UUID vendorId, boolean withEvents) {
+        List<?> result = redisTemplate.execute(READ, keys(vendorId), newEpoch(), ttlSeconds(), withEvents ? "1" : "0");
+        String epoch = (String) result.get(0);
+        List<VendorOrderEvent> events = new ArrayList<>(result.size() - 2);
+        for (int i = 2; i < result.size(); i++) {
+            String entry = (String) result.get(i);
+            int space = entry.indexOf(' ');
+            try {
+                OrderUpdateDTO update = objectMapper.readValue(entry.substring(space + 1), OrderUpdateDTO.class);
+                events.add(new VendorOrderEvent(vendorId, epoch, Long.parseLong(entry.substring(0, space)), update));
+            } catch (JsonProcessingException e) {
+                // Unreadable entry (e.g. written by an older version): drop it and everything
+                // before it, so a client that missed it resyncs instead of skipping it
+                events.clear();
+            }
+        }
+        return new Window(epoch, Long.parseLong((String) result.get(1)), events);
+    }
+
+    private String ttlSeconds() {
+        return Long.toString(idleMinutes * 60);
+    }
+
+    private static String newEpoch() {
+        return Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    }
+
+    private static List<String> keys(UUID vendorId) {
+        String base = KEY_PREFIX + vendorId + "}";
+        return List.of(base, base + ":events");
+    }
+}
@@ -0,0 +1,157 @@
+package com.quickbite.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded outbound queue for pre-encoded JSON STOMP messages.
+ * <p>
+ * {@link #publish} never blocks the caller: it enqueues the JSON bytes with their destinations
+ * and returns. One sender thread hands each entry to the broker, wrapping the same bytes in a
+ * message per destination, in the order they were published — so a customer never sees
+ * ENROUTE after DELIVERED. When {@code websocket.outbound.capacity} entries are waiting the
+ * new one is dropped and counted; clients recover through their REST reads or the KDS resume.
+ * Entries still queued at shutdown are sent before the broker goes away.
+ */
+@Slf4j
+@Component
+public class StompOutbound {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final BlockingQueue<Outgoing> queue;
+    private volatile boolean running = true;
+    private Thread sender;
+
+    // Metrics
+    private final Counter sentCounter;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+    private final Timer latencyTimer;
+
+    public StompOutbound(SimpMessagingTemplate messagingTemplate,
+                         MeterRegistry meterRegistry,
+                         @Value("${websocket.outbound.capacity:10000}") int capacity) {
+        this.messagingTemplate = messagingTemplate;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+
+        this.sentCounter = Counter.builder("websocket.outbound.sent")
+                .description("Messages handed to the broker (one per destination)")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("websocket.outbound.dropped")
+                .description("Publishes lost because the outbound queue was full")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("websocket.outbound.failed")
+                .description("Messages the broker rejected")
+                .register(meterRegistry);
+        this.latencyTimer = Timer.builder("websocket.outbound.latency")
+                .description("Time from publish to the last destination handed to the broker")
+                .register(meterRegistry);
+        Gauge.builder("websocket.outbound.queue", queue, BlockingQueue::size)
+                .description("Publishes waiting for the sender thread")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        sender = new Thread(this::run, "stomp-outbound");
+        sender.setDaemon(true);
+        sender.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (sender != null) {
+            sender.interrupt();
+            sender.join(5_000);
+        }
+        drain();
+    }
+
+    /**
+     * Queue JSON bytes for every destination.
+     *
+     * @return false when the queue was full and the message was dropped
+     */
+    public boolean publish(byte[] json, List<String> destinations) {
+        if (destinations.isEmpty()) {
+            return true;
+        }
+        if (!queue.offer(new Outgoing(json, List.copyOf(destinations), System.nanoTime()))) {
+            droppedCounter.increment();
+            log.warn("Outbound STOMP queue full, dropped message for {}", destinations);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Send everything queued right now on the calling thread.
+     */
+    void drain() {
+        Outgoing next;
+        while ((next = queue.poll()) != null) {
+            send(next);
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                Outgoing next = queue.poll(1, TimeUnit.SECONDS);
+                if (next != null) {
+                    send(next);
+                }
+            } catch (InterruptedException e) {
+                // stop() drains what is left
+                return;
+            } catch (Exception e) {
+                log.error("Outbound STOMP sender failed", e);
+            }
+        }
+    }
+
+    private void send(Outgoing outgoing) {
+        for (String destination : outgoing.destinations()) {
+            try {
+                messagingTemplate.send(destination, jsonMessage(outgoing.json()));
+                sentCounter.increment();
+            } catch (Exception e) {
+                failedCounter.increment();
+                log.error("Failed to publish to {}", destination, e);
+            }
+        }
+        latencyTimer.record(System.nanoTime() - outgoing.enqueuedNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * A MESSAGE carrying already-serialized JSON; the bytes may be shared between messages.
+     */
+    static Message<byte[]> jsonMessage(byte[] json) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(json, accessor.getMessageHeaders());
+    }
+
+    private record Outgoing(byte[] json, List<String> destinations, long enqueuedNanos) {
+    }
+}
@@ -0,0 +1,204 @@
+package com.quickbite.websocket;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+/**
+ * Per-node registry of STOMP subscriptions to {@code /topic} destinations.
+ * <p>
+ * SUBSCRIBE/UNSUBSCRIBE/DISCONNECT events are counted per destination, exact destinations and
+ * wildcard patterns (e.g. an ops dashboard on {@code /topic/drivers.*.location}) separately.
+ * {@link Listener}s hear when a destination gets its first subscriber on this node and when its
+ * last one leaves — the Redis broker bridge uses this to hold a pub/sub channel only for topics
+ * someone here listens to.
+ * <p>
+ * Watchers that are not STOMP sessions (the SSE order stream) hold destinations through
+ * {@link #acquire(String)} and {@link #release(String)} and count as local subscriptions.
+ * <p>
+ * {@link #hasSubscribers(String)} answers for the whole cluster: this node's subscriptions plus
+ * the {@link RemoteSubscriptions} view of the configured cross-node broker (none for the simple
+ * broker).
+ */
+@Component
+public class StompSubscriptionRegistry {
+
+    static final String TOPIC_PREFIX = "/topic/";
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    /** destination → number of live subscriptions (exact destinations only). */
+    private final Map<String, Integer> subscribers = new ConcurrentHashMap<>();
+    /** Wildcard subscriptions → count. */
+    private final Map<String, Integer> patterns = new ConcurrentHashMap<>();
+    /** sessionId → (subscriptionId → destination), to undo subscriptions on unsubscribe/disconnect. */
+    private final Map<String, Map<String, String>> sessions = new ConcurrentHashMap<>();
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private volatile RemoteSubscriptions remote = destination -> false;
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String destination = accessor.getDestination();
+        if (accessor.getSessionId() == null || accessor.getSubscriptionId() == null
+                || destination == null || !destination.startsWith(TOPIC_PREFIX)) {
+            return;
+        }
+        sessions.computeIfAbsent(accessor.getSessionId(), id -> new ConcurrentHashMap<>())
+                .put(accessor.getSubscriptionId(), destination);
+        acquire(destination);
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        Map<String, String> subscriptions = accessor.getSessionId() != null ? sessions.get(accessor.getSessionId()) : null;
+        if (subscriptions != null && accessor.getSubscriptionId() != null) {
+            release(subscriptions.remove(accessor.getSubscriptionId()));
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, String> subscriptions = sessions.remove(event.getSessionId());
+        if (subscriptions != null) {
+            subscriptions.values().forEach(this::release);
+        }
+    }
+
+    /**
+     * True when a session on this node or, as far as the cross-node broker can tell, on
+     * another node listens to the destination.
+     */
+    public boolean hasSubscribers(String destination) {
+        return hasLocalSubscribers(destination) || remote.mayHaveSubscribers(destination);
+    }
+
+    /**
+     * True when at least one session on this node listens to the destination.
+     */
+    public boolean hasLocalSubscribers(String destination) {
+        return localSubscription(destination) != null;
+    }
+
+    /**
+     * The subscription on this node that a message for {@code destination} is delivered
+     * through: the destination itself when subscribed exactly, otherwise the most specific
+     * matching pattern ({@link AntPathMatcher#getPatternComparator(String)} order, so
+     * {@code /topic/drivers.*.location} before {@code /topic/drivers.**}), ties broken by natural
+     * order; {@code null} when nobody here listens.
+     */
+    public String localSubscription(String destination) {
+        if (subscribers.containsKey(destination)) {
+            return destination;
+        }
+        Comparator<String> specificity = pathMatcher.getPatternComparator(destination)
+                .thenComparing(Comparator.naturalOrder());
+        String best = null;
+        for (String pattern : patterns.keySet()) {
+            if (pathMatcher.match(pattern, destination) && (best == null || specificity.compare(pattern, best) < 0)) {
+                best = pattern;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Destinations and patterns with at least one subscription on this node.
+     */
+    public Set<String> destinations() {
+        Set<String> all = new HashSet<>(subscribers.keySet());
+        all.addAll(patterns.keySet());
+        return all;
+    }
+
+    /**
+     * Live subscriptions on this node to destinations (or patterns) accepted by the filter.
+     */
+    public int subscriptionCount(Predicate<String> filter) {
+        int count = 0;
+        for (Map.Entry<String, Integer> entry : subscribers.entrySet()) {
+            if (filter.test(entry.getKey())) count += entry.getValue();
+        }
+        for (Map.Entry<String, Integer> entry : patterns.entrySet()) {
+            if (filter.test(entry.getKey())) count += entry.getValue();
+        }
+        return count;
+    }
+
+    public boolean isPattern(String destination) {
+        return pathMatcher.isPattern(destination);
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void setRemoteSubscriptions(RemoteSubscriptions remote) {
+        this.remote = remote;
+    }
+
+    /**
+     * Count one more local subscription to the destination.
+     */
+    public synchronized void acquire(String destination) {
+        if (counts(destination).merge(destination, 1, Integer::sum) == 1) {
+            listeners.forEach(listener -> listener.firstSubscribed(destination));
+        }
+    }
+
+    /**
+     * Undo one {@link #acquire(String)}; {@code null} is ignored.
+     */
+    public synchronized void release(String destination) {
+        if (destination == null) {
+            return;
+        }
+        if (counts(destination).computeIfPresent(destination, (d, n) -> n > 1 ? n - 1 : null) == null) {
+            listeners.forEach(listener -> listener.lastUnsubscribed(destination));
+        }
+    }
+
+    private Map<String, Integer> counts(String destination) {
+        return isPattern(destination) ? patterns : subscribers;
+    }
+
+    /**
+     * Notified (under the registry lock) when a destination or pattern gains its first
+     * subscription on this node or loses its last.
+     */
+    public interface Listener {
+
+        default void firstSubscribed(String destination) {
+        }
+
+        default void lastUnsubscribed(String destination) {
+        }
+    }
+
+    /**
+     * The cross-node broker's view of subscriptions held by other nodes.
+     */
+    @FunctionalInterface
+    public interface RemoteSubscriptions {
+
+        /**
+         * False only when the broker knows no other node listens to the destination.
+         */
+        boolean mayHaveSubscribers(String destination);
+    }
+}
@@ -0,0 +1,35 @@
+package com.quickbite.websocket;
+
+import com.quickbite.websocket.OrderUpdatePublisher.OrderUpdateDTO;
+import com.quickbite.websocket.VendorOrderStream.VendorOrderEvent;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Per-vendor sequence and replay buffer backing {@link VendorOrderStream}.
+ * <p>
+ * A log has an epoch, the last sequence handed out in it and the most recent
+ * {@code kds.stream.buffer-size} events. Logs nobody appends to or reads for
+ * {@code kds.stream.idle-minutes} are dropped; the next access starts a new epoch at sequence 0.
+ */
+public interface VendorOrderLog {
+
+    /**
+     * Assign the vendor's next sequence number to an update and buffer it.
+     */
+    VendorOrderEvent append(UUID vendorId, OrderUpdateDTO update);
+
+    /**
+     * The vendor's current epoch and last sequence, without buffered events.
+     */
+    Window head(UUID vendorId);
+
+    /**
+     * The vendor's current epoch, last sequence and buffered events, oldest first.
+     */
+    Window window(UUID vendorId);
+
+    record Window(String epoch, long seq, List<VendorOrderEvent> events) {
+    }
+}
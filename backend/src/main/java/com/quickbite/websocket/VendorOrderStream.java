@@ -0,0 +1,127 @@
+package com.quickbite.websocket;
+
+import com.quickbite.orders.entity.OrderStatus;
+import com.quickbite.orders.repository.OrderRepository;
+import com.quickbite.websocket.OrderUpdatePublisher.OrderUpdateDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Per-vendor KDS event stream: every update published to {@code /topic/vendors.{id}.orders}
+ * gets a sequence number and is kept in a bounded replay buffer ({@link VendorOrderLog}).
+ * <p>
+ * A tablet loads {@link #snapshot(UUID)} once (active orders plus the last sequence) and then
+ * applies deltas with a higher sequence. After a reconnect it calls {@link #since(UUID, String, long)}
+ * and receives only the events it missed; a resync is requested when the log was restarted
+ * (different epoch) or the gap is older than the buffer.
+ * <p>
+ * Snapshots always read the active orders from the orders table, after taking the log
+ * position: an update committed after that read is appended with a higher sequence, and
+ * deltas replace whole orders, so re-applying one already in the snapshot is harmless.
+ * Sequences and the buffer live in the log store — with more than one replica it must be
+ * {@code kds.stream.store=redis}, since the instance relaying a vendor's events is usually
+ * not the one serving the tablet's snapshot or resume.
+ */
+@Component
+public class VendorOrderStream {
+
+    /** Statuses shown on the KDS; an update to any other status removes the order. */
+    static final Set<OrderStatus> KDS_STATUSES = EnumSet.of(
+            OrderStatus.PLACED, OrderStatus.ACCEPTED, OrderStatus.PREPARING,
+            OrderStatus.READY, OrderStatus.ASSIGNED);
+
+    private final VendorOrderLog orderLog;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    // Metrics
+    private final Counter replayCounter;
+    private final Counter resyncCounter;
+
+    public VendorOrderStream(VendorOrderLog orderLog,
+                             OrderRepository orderRepository,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry) {
+        this.orderLog = orderLog;
+        this.orderRepository = orderRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        this.replayCounter = Counter.builder("kds.stream.replays")
+                .description("KDS resumes served from the replay buffer")
+                .register(meterRegistry);
+        this.resyncCounter = Counter.builder("kds.stream.resyncs")
+                .description("KDS resumes that required a fresh snapshot")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Assign the next sequence number to an update and buffer it.
+     */
+    public VendorOrderEvent append(UUID vendorId, OrderUpdateDTO update) {
+        return orderLog.append(vendorId, update);
+    }
+
+    /**
+     * Active KDS orders for a vendor with the sequence they reflect (at least).
+     */
+    public VendorOrderSnapshot snapshot(UUID vendorId) {
+        // Position first: anything the read below misses commits later and gets a higher sequence
+        VendorOrderLog.Window head = orderLog.head(vendorId);
+        List<OrderUpdateDTO> orders = readOnlyTransaction.execute(status ->
+                orderRepository.findDetailByVendorIdAndStatusInOrderByCreatedAtAsc(vendorId, KDS_STATUSES)
+                        .stream()
+                        .map(OrderUpdatePublisher::mapToDTO)
+                        .toList());
+        return new VendorOrderSnapshot(vendorId, head.epoch(), head.seq(), orders);
+    }
+
+    /**
+     * Events after {@code since} in the given epoch, or a resync marker when they are no
+     * longer buffered (or the client's epoch is unknown).
+     */
+    public VendorOrderReplay since(UUID vendorId, String epoch, long since) {
+        VendorOrderLog.Window window = orderLog.window(vendorId);
+        List<VendorOrderEvent> buffered = window.events();
+        long oldest = buffered.isEmpty() ? window.seq() + 1 : buffered.get(0).seq();
+        if (!window.epoch().equals(epoch) || since > window.seq() || since < oldest - 1) {
+            resyncCounter.increment();
+            return new VendorOrderReplay(vendorId, window.epoch(), window.seq(), true, List.of());
+        }
+        List<VendorOrderEvent> missed = new ArrayList<>((int) (window.seq() - since));
+        for (VendorOrderEvent event : buffered) {
+            if (event.seq() > since) missed.add(event);
+        }
+        replayCounter.increment();
+        return new VendorOrderReplay(vendorId, window.epoch(), window.seq(), false, missed);
+    }
+
+    /**
+     * One sequenced KDS delta, as published on the vendor topic.
+     */
+    public record VendorOrderEvent(UUID vendorId, String epoch, long seq, OrderUpdateDTO order) {
+    }
+
+    /**
+     * Active orders as of {@code seq}; apply only deltas with a higher sequence.
+     */
+    public record VendorOrderSnapshot(UUID vendorId, String epoch, long seq, Collection<OrderUpdateDTO> orders) {
+    }
+
+    /**
+     * Missed deltas for a resume; when {@code resync} is set the client must load a new snapshot.
+     */
+    public record VendorOrderReplay(UUID vendorId, String epoch, long seq, boolean resync,
+                                    List<VendorOrderEvent> events) {
+    }
+}
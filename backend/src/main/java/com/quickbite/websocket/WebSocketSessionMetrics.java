@@ -0,0 +1,82 @@
+package com.quickbite.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Micrometer instrumentation for STOMP sessions on this node.
+ * <ul>
+ *   <li>{@code websocket.sessions} — connected STOMP sessions</li>
+ *   <li>{@code websocket.subscriptions} — live {@code /topic} subscriptions, including the two
+ *       topics held for each order with SSE connections ({@link OrderEventStream})</li>
+ *   <li>{@code websocket.channel.inbound.queue} / {@code websocket.channel.outbound.queue} — frames
+ *       waiting for the client inbound / outbound channel thread pools</li>
+ *   <li>{@code websocket.sessions.send_buffer_overflows} — sessions closed because a slow client
+ *       exceeded {@code websocket.transport.send-buffer-size-limit} or
+ *       {@code websocket.transport.send-time-limit-ms}</li>
+ * </ul>
+ */
+@Component
+public class WebSocketSessionMetrics {
+
+    private final Set<String> sessions = ConcurrentHashMap.newKeySet();
+    private final Counter overflowCounter;
+
+    public WebSocketSessionMetrics(StompSubscriptionRegistry subscriptionRegistry,
+                                   @Qualifier("clientInboundChannelExecutor") ThreadPoolTaskExecutor inboundExecutor,
+                                   @Qualifier("clientOutboundChannelExecutor") ThreadPoolTaskExecutor outboundExecutor,
+                                   MeterRegistry meterRegistry) {
+        this.overflowCounter = Counter.builder("websocket.sessions.send_buffer_overflows")
+                .description("Sessions closed because their send buffer or send time limit was exceeded")
+                .register(meterRegistry);
+        Gauge.builder("websocket.sessions", sessions, Set::size)
+                .description("Connected STOMP sessions")
+                .register(meterRegistry);
+        Gauge.builder("websocket.subscriptions", subscriptionRegistry, registry -> registry.subscriptionCount(d -> true))
+                .description("Live STOMP subscriptions to /topic destinations")
+                .register(meterRegistry);
+        Gauge.builder("websocket.channel.inbound.queue", inboundExecutor, WebSocketSessionMetrics::queued)
+                .description("Client frames waiting for the inbound channel thread pool")
+                .register(meterRegistry);
+        Gauge.builder("websocket.channel.outbound.queue", outboundExecutor, WebSocketSessionMetrics::queued)
+                .description("Frames waiting for the outbound channel thread pool")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if (sessionId != null) {
+            sessions.add(sessionId);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        // The disconnect event may be published more than once per session
+        if (sessions.remove(event.getSessionId())
+                && CloseStatus.SESSION_NOT_RELIABLE.equals(event.getCloseStatus())) {
+            overflowCounter.increment();
+        }
+    }
+
+    private static double queued(ThreadPoolTaskExecutor executor) {
+        try {
+            return executor.getThreadPoolExecutor().getQueue().size();
+        } catch (IllegalStateException notInitialized) {
+            return 0;
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package com.quickbite.websocket.config;
 
 import com.quickbite.auth.security.JwtTokenProvider;
+import com.quickbite.websocket.OrderEventStream;
+import com.quickbite.websocket.RedisBrokerBridge;
+import com.quickbite.websocket.StompSubscriptionRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
@@ -17,6 +22,7 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 import java.util.List;
 
@@ -27,6 +33,10 @@ import java.util.List;
  *
  * Clients can connect to: ws://localhost:8080/ws
  * Subscribe to channels: /topic/orders.{orderId}
+ *
+ * Broker (websocket.broker.mode): the in-process simple broker only reaches sessions on
+ * this replica. "redis" bridges the per-replica simple brokers over Redis pub/sub
+ * ({@link RedisBrokerBridge}); "relay" hands /topic to an external STOMP broker.
  */
 @Slf4j
 @Configuration
@@ -35,11 +45,61 @@ import java.util.List;
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final JwtTokenProvider jwtTokenProvider;
+    private final StompSubscriptionRegistry subscriptionRegistry;
+    private final ObjectProvider<RedisBrokerBridge> redisBrokerBridge;
+    private final OrderEventStream orderEventStream;
+
+    @Value("${websocket.broker.mode:simple}")
+    private String brokerMode;
+
+    @Value("${websocket.broker.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${websocket.broker.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${websocket.broker.relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${websocket.broker.relay.passcode:guest}")
+    private String relayPasscode;
+
+    @Value("${websocket.broker.relay.virtual-host:/}")
+    private String relayVirtualHost;
+
+    @Value("${websocket.transport.send-time-limit-ms:10000}")
+    private int sendTimeLimitMs;
+
+    @Value("${websocket.transport.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        // Enable simple broker for /topic prefix
-        config.enableSimpleBroker("/topic");
+        switch (brokerMode) {
+            case "simple" -> config.enableSimpleBroker("/topic");
+            case "redis" -> {
+                // Per-replica simple broker; application messages are also published to Redis
+                config.enableSimpleBroker("/topic");
+                config.configureBrokerChannel().interceptors(redisBrokerBridge.getObject());
+            }
+            case "relay" -> {
+                config.enableStompBrokerRelay("/topic")
+                        .setRelayHost(relayHost)
+                        .setRelayPort(relayPort)
+                        .setClientLogin(relayLogin)
+                        .setClientPasscode(relayPasscode)
+                        .setSystemLogin(relayLogin)
+                        .setSystemPasscode(relayPasscode)
+                        .setVirtualHost(relayVirtualHost);
+                // The external broker routes to whichever replicas hold subscriptions; this one can't tell
+                subscriptionRegistry.setRemoteSubscriptions(destination -> true);
+            }
+            default -> throw new IllegalStateException("Unknown websocket.broker.mode: " + brokerMode);
+        }
+        log.info("WebSocket broker mode: {}", brokerMode);
+
+        // SSE order tracking listens to what the broker delivers
+        config.configureBrokerChannel().interceptors(orderEventStream);
 
         // Application destination prefix for client messages
         config.setApplicationDestinationPrefixes("/app");
@@ -57,6 +117,16 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setAllowedOriginPatterns("*");
     }
 
+    /**
+     * A client that falls behind by more than the buffer or time limit is disconnected
+     * (counted in websocket.sessions.send_buffer_overflows) instead of holding frames forever.
+     */
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(sendTimeLimitMs)
+                .setSendBufferSizeLimit(sendBufferSizeLimit);
+    }
+
     /**
      * Validate JWT on STOMP CONNECT handshake.
      * Clients must send Authorization header: "Bearer {token}"
@@ -0,0 +1,30 @@
+-- V35: Transactional outbox for order side effects
+-- Notifications, email, SMS and WebSocket publishes are written here in the same
+-- transaction as the order change, then fanned out by OrderOutboxRelay after commit.
+
+CREATE TABLE IF NOT EXISTS order_outbox (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    sequence_no BIGSERIAL NOT NULL UNIQUE,               -- strict per-order ordering
+    order_id UUID NOT NULL,
+    event_type VARCHAR(50) NOT NULL,                     -- ORDER_PLACED, STATUS_CHANGED, ORDER_UPDATED, DRIVER_ASSIGNED
+    payload JSONB,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',       -- PENDING, IN_FLIGHT, SENT, FAILED
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    locked_until TIMESTAMPTZ,
+    last_error TEXT,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    dispatched_at TIMESTAMPTZ
+);
+
+-- Relay claim query: only undelivered rows, ordered by sequence
+CREATE INDEX IF NOT EXISTS idx_order_outbox_undelivered
+    ON order_outbox(sequence_no) WHERE status IN ('PENDING', 'IN_FLIGHT');
+
+-- Head-of-line check per order
+CREATE INDEX IF NOT EXISTS idx_order_outbox_order_seq
+    ON order_outbox(order_id, sequence_no);
+
+-- Retention purge of delivered rows
+CREATE INDEX IF NOT EXISTS idx_order_outbox_dispatched
+    ON order_outbox(dispatched_at) WHERE status = 'SENT';
@@ -0,0 +1,31 @@
+-- V36: Time-ordered UUIDv7 primary keys
+-- Entities now generate UUIDv7 keys in the application (@TimeOrderedId). This gives
+-- rows inserted outside JPA (seed scripts, SQL backfills) the same time-ordered keys
+-- on the high-insert tables, so new keys append to the right edge of the PK B-tree.
+-- Existing v4 keys stay as they are: both versions share the uuid type and coexist.
+
+CREATE OR REPLACE FUNCTION uuid_generate_v7() RETURNS uuid AS $$
+DECLARE
+    unix_ms BIGINT := FLOOR(EXTRACT(EPOCH FROM clock_timestamp()) * 1000);
+    bytes   BYTEA  := gen_random_bytes(16);
+BEGIN
+    -- 48-bit big-endian millisecond timestamp
+    bytes := SET_BYTE(bytes, 0, ((unix_ms >> 40) & 255)::INT);
+    bytes := SET_BYTE(bytes, 1, ((unix_ms >> 32) & 255)::INT);
+    bytes := SET_BYTE(bytes, 2, ((unix_ms >> 24) & 255)::INT);
+    bytes := SET_BYTE(bytes, 3, ((unix_ms >> 16) & 255)::INT);
+    bytes := SET_BYTE(bytes, 4, ((unix_ms >> 8) & 255)::INT);
+    bytes := SET_BYTE(bytes, 5, (unix_ms & 255)::INT);
+    -- version 7 and RFC 4122 variant
+    bytes := SET_BYTE(bytes, 6, (GET_BYTE(bytes, 6) & 15) | 112);
+    bytes := SET_BYTE(bytes, 8, (GET_BYTE(bytes, 8) & 63) | 128);
+    RETURN ENCODE(bytes, 'hex')::uuid;
+END
+$$ LANGUAGE plpgsql VOLATILE;
+
+ALTER TABLE orders            ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE order_items       ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE delivery_status   ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE driver_locations  ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE event_timeline    ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE order_outbox      ALTER COLUMN id SET DEFAULT uuid_generate_v7();
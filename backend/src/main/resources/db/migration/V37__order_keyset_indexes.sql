@@ -0,0 +1,28 @@
+-- V37: Composite (filter, created_at, id) indexes for keyset pagination of order lists.
+-- Each list filter (customer, customer+status, vendor, vendor+status, driver, status, none)
+-- gets an index that serves both the WHERE clause and ORDER BY created_at DESC, id DESC,
+-- so a page is a bounded index range scan at any depth.
+
+CREATE INDEX IF NOT EXISTS idx_order_customer_created
+    ON orders(customer_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_order_customer_status_created
+    ON orders(customer_id, status, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_order_vendor_created
+    ON orders(vendor_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_order_vendor_status_created
+    ON orders(vendor_id, status, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_order_driver_created
+    ON orders(driver_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_order_status_created
+    ON orders(status, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_order_created_id
+    ON orders(created_at, id);
+
+-- Superseded: every index below is a leading prefix of one created above
+DROP INDEX IF EXISTS idx_order_customer;
+DROP INDEX IF EXISTS idx_order_customer_status;
+DROP INDEX IF EXISTS idx_order_vendor;
+DROP INDEX IF EXISTS idx_order_vendor_status;
+DROP INDEX IF EXISTS idx_order_driver;
+DROP INDEX IF EXISTS idx_order_status;
+DROP INDEX IF EXISTS idx_order_created;
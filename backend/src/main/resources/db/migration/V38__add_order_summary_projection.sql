@@ -0,0 +1,58 @@
+-- V38: Denormalized order_summary projection for dashboards (vendor KDS, driver lists, admin).
+-- One flat row per order, maintained by OrderSummaryProjector in the same transaction as
+-- the order change; rebuilt/verified from orders via the admin endpoints.
+
+CREATE TABLE IF NOT EXISTS order_summary (
+    order_id              UUID PRIMARY KEY REFERENCES orders(id) ON DELETE CASCADE,
+    order_number          VARCHAR(50),
+    customer_id           UUID NOT NULL,
+    customer_name         VARCHAR(255),
+    customer_phone        VARCHAR(20),
+    vendor_id             UUID NOT NULL,
+    vendor_name           VARCHAR(255),
+    driver_id             UUID,
+    driver_name           VARCHAR(255),
+    driver_phone          VARCHAR(20),
+    delivery_address      TEXT,
+    delivery_lat          NUMERIC(10, 7),
+    delivery_lng          NUMERIC(10, 7),
+    item_count            INTEGER NOT NULL DEFAULT 0,
+    total_cents           BIGINT NOT NULL,
+    status                VARCHAR(50) NOT NULL,
+    delivery_type         VARCHAR(20),
+    scheduled_time        TIMESTAMPTZ,
+    estimated_prep_mins   INTEGER,
+    estimated_delivery_at TIMESTAMPTZ,
+    created_at            TIMESTAMPTZ,
+    updated_at            TIMESTAMPTZ,
+    projected_at          TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+-- Dashboard lookups: vendor KDS / driver list by status, customer history, admin by status
+CREATE INDEX IF NOT EXISTS idx_order_summary_vendor_status
+    ON order_summary(vendor_id, status, created_at);
+CREATE INDEX IF NOT EXISTS idx_order_summary_driver_status
+    ON order_summary(driver_id, status, created_at) WHERE driver_id IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_order_summary_customer_created
+    ON order_summary(customer_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_order_summary_status_created
+    ON order_summary(status, created_at);
+
+-- Initial population
+INSERT INTO order_summary (order_id, order_number, customer_id, customer_name, customer_phone,
+                           vendor_id, vendor_name, driver_id, driver_name, driver_phone,
+                           delivery_address, delivery_lat, delivery_lng, item_count, total_cents,
+                           status, delivery_type, scheduled_time, estimated_prep_mins,
+                           estimated_delivery_at, created_at, updated_at)
+SELECT o.id, o.order_number, o.customer_id, cu.name, cu.phone,
+       o.vendor_id, v.name, o.driver_id, d.name, d.phone,
+       NULLIF(concat_ws(', ', a.line1, a.line2, a.city, a.state, a.postal), ''), a.lat, a.lng,
+       (SELECT COALESCE(SUM(oi.quantity), 0) FROM order_items oi WHERE oi.order_id = o.id),
+       o.total_cents, o.status, o.delivery_type, o.scheduled_time, o.estimated_prep_mins,
+       o.estimated_delivery_at, o.created_at, o.updated_at
+FROM orders o
+JOIN users cu ON cu.id = o.customer_id
+JOIN vendors v ON v.id = o.vendor_id
+LEFT JOIN users d ON d.id = o.driver_id
+LEFT JOIN addresses a ON a.id = o.delivery_address_id
+ON CONFLICT (order_id) DO NOTHING;
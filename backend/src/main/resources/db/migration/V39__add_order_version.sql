@@ -0,0 +1,6 @@
+-- V39: Optimistic versioning for orders.
+-- Incremented by every JPA update and by the compare-and-set status transitions
+-- (UPDATE orders ... WHERE id = ? AND status = ?), so a stale entity fails on flush
+-- instead of overwriting a concurrent change.
+
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
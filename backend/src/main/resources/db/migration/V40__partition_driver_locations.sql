@@ -0,0 +1,59 @@
+-- V40: Daily range partitions for driver_locations
+-- GPS history is append-only and only kept for a short window, so the table is
+-- partitioned by recorded_at (UTC days). DriverLocationPartitionManager creates
+-- partitions ahead of time and drops whole partitions for retention instead of
+-- running DELETE ... WHERE recorded_at < ? over millions of rows.
+--
+-- BRIN on recorded_at is enough for range scans on insert-ordered data and costs a
+-- few pages per partition; the (driver_id, recorded_at) B-tree serves per-driver lookups.
+-- The partition key must be part of the primary key.
+
+ALTER TABLE driver_locations RENAME TO driver_locations_legacy;
+ALTER INDEX IF EXISTS driver_locations_pkey RENAME TO driver_locations_legacy_pkey;
+ALTER INDEX IF EXISTS idx_driver_locations_driver_time RENAME TO idx_driver_locations_legacy_driver_time;
+ALTER INDEX IF EXISTS idx_driver_locations_recorded RENAME TO idx_driver_locations_legacy_recorded;
+
+CREATE TABLE driver_locations (
+    id              UUID NOT NULL DEFAULT uuid_generate_v7(),
+    driver_id       UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    lat             DECIMAL(10,8) NOT NULL,
+    lng             DECIMAL(11,8) NOT NULL,
+    accuracy        DOUBLE PRECISION,
+    speed           DOUBLE PRECISION,
+    heading         DOUBLE PRECISION,
+    recorded_at     TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    created_at      TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (id, recorded_at)
+) PARTITION BY RANGE (recorded_at);
+
+CREATE INDEX idx_driver_locations_driver_time ON driver_locations (driver_id, recorded_at DESC);
+CREATE INDEX idx_driver_locations_recorded_brin ON driver_locations USING BRIN (recorded_at);
+
+-- Catches pings outside the pre-created range (clock skew, manager not run yet)
+CREATE TABLE driver_locations_default PARTITION OF driver_locations DEFAULT;
+
+-- Yesterday through three days ahead; the application keeps extending the window
+DO $$
+DECLARE
+    day DATE;
+BEGIN
+    FOR day IN SELECT generate_series((now() AT TIME ZONE 'UTC')::date - 1,
+                                      (now() AT TIME ZONE 'UTC')::date + 3,
+                                      INTERVAL '1 day')::date
+    LOOP
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS %I PARTITION OF driver_locations FOR VALUES FROM (%L) TO (%L)',
+            'driver_locations_p' || to_char(day, 'YYYYMMDD'),
+            day::timestamp AT TIME ZONE 'UTC',
+            (day + 1)::timestamp AT TIME ZONE 'UTC');
+    END LOOP;
+END
+$$;
+
+-- Carry over the samples still inside the partitioned window; older ones were due for pruning
+INSERT INTO driver_locations (id, driver_id, lat, lng, accuracy, speed, heading, recorded_at, created_at)
+SELECT id, driver_id, lat, lng, accuracy, speed, heading, recorded_at, created_at
+FROM driver_locations_legacy
+WHERE recorded_at >= ((now() AT TIME ZONE 'UTC')::date - 1)::timestamp AT TIME ZONE 'UTC';
+
+DROP TABLE driver_locations_legacy;
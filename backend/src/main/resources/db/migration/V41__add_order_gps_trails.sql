@@ -0,0 +1,18 @@
+-- V41: One compressed GPS trail per delivery
+-- Replaces the per-ping delivery_status "Location update" rows. Written once when the order
+-- is delivered or cancelled: Douglas-Peucker simplified, delta + zigzag-varint encoded
+-- (see GpsTrailCodec). Existing "Location update" rows are left in place.
+
+CREATE TABLE order_gps_trails (
+    order_id        UUID PRIMARY KEY REFERENCES orders(id) ON DELETE CASCADE,
+    driver_id       UUID REFERENCES users(id) ON DELETE SET NULL,
+    encoding        SMALLINT NOT NULL,
+    raw_points      INT NOT NULL,               -- pings collected
+    stored_points   INT NOT NULL,               -- points kept after simplification
+    started_at      TIMESTAMPTZ,
+    ended_at        TIMESTAMPTZ,
+    trail           BYTEA NOT NULL,
+    created_at      TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_order_gps_trails_driver ON order_gps_trails (driver_id, created_at DESC);
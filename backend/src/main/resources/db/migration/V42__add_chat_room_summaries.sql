@@ -0,0 +1,30 @@
+-- V42: Per-participant chat inbox summaries
+-- One row per (room, participant) holding the last message preview and that participant's
+-- unread count, so the inbox is one index range scan instead of two queries per room.
+-- Maintained by ChatService in the same transaction as the message insert / mark-read.
+
+CREATE TABLE chat_room_summaries (
+    room_id          UUID NOT NULL REFERENCES chat_rooms(id) ON DELETE CASCADE,
+    user_id          UUID NOT NULL REFERENCES users(id),
+    other_user_id    UUID NOT NULL REFERENCES users(id),
+    last_message     VARCHAR(255),               -- preview, truncated
+    last_message_at  TIMESTAMPTZ,
+    unread_count     INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (room_id, user_id)
+);
+
+-- Inbox: a user's rooms, most recent activity first
+CREATE INDEX idx_chat_room_summaries_user_recent
+    ON chat_room_summaries (user_id, last_message_at DESC NULLS LAST, room_id DESC);
+
+-- Initial population
+INSERT INTO chat_room_summaries (room_id, user_id, other_user_id, last_message, last_message_at, unread_count)
+SELECT r.id, p.user_id, p.other_user_id, LEFT(lm.content, 200), lm.created_at,
+       (SELECT COUNT(*) FROM chat_messages m
+        WHERE m.room_id = r.id AND m.read = FALSE AND m.sender_id <> p.user_id)
+FROM chat_rooms r
+CROSS JOIN LATERAL (VALUES (r.participant1_id, r.participant2_id),
+                           (r.participant2_id, r.participant1_id)) AS p(user_id, other_user_id)
+LEFT JOIN LATERAL (SELECT m.content, m.created_at FROM chat_messages m
+                   WHERE m.room_id = r.id ORDER BY m.created_at DESC LIMIT 1) lm ON TRUE
+ON CONFLICT (room_id, user_id) DO NOTHING;
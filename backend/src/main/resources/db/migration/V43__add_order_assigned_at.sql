@@ -0,0 +1,16 @@
+-- V43: When the current driver was assigned
+-- Bounds the delivery GPS trail: driver_locations before this belong to the driver's previous
+-- work, not this order. Set by the compare-and-set driver assignment; backfilled from the
+-- latest ASSIGNED delivery_status entry.
+
+ALTER TABLE orders ADD COLUMN assigned_at TIMESTAMPTZ;
+
+UPDATE orders o
+SET assigned_at = ds.changed_at
+FROM (
+    SELECT order_id, MAX(changed_at) AS changed_at
+    FROM delivery_status
+    WHERE status = 'ASSIGNED'
+    GROUP BY order_id
+) ds
+WHERE ds.order_id = o.id AND o.driver_id IS NOT NULL;
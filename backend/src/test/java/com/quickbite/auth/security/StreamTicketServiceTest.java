@@ -0,0 +1,71 @@
+package com.quickbite.auth.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for StreamTicketService over LocalStreamTicketStore (single use, order binding, expiry).
+ */
+class StreamTicketServiceTest {
+
+    private LocalStreamTicketStore store;
+    private StreamTicketService service;
+    private UUID userId;
+    private UUID orderId;
+
+    @BeforeEach
+    void setUp() {
+        store = new LocalStreamTicketStore();
+        service = new StreamTicketService(store, new SimpleMeterRegistry());
+        userId = UUID.randomUUID();
+        orderId = UUID.randomUUID();
+    }
+
+    @Test
+    void issue_returnsDistinctOpaqueTickets() {
+        String first = service.issue(userId, orderId);
+        String second = service.issue(userId, orderId);
+
+        assertThat(first).isNotEqualTo(second).doesNotContain(userId.toString(), orderId.toString());
+        assertThat(first).matches("[A-Za-z0-9_-]{43}");
+    }
+
+    @Test
+    void redeem_returnsUserOnce() {
+        String ticket = service.issue(userId, orderId);
+
+        assertThat(service.redeem(ticket, orderId)).contains(userId);
+        assertThat(service.redeem(ticket, orderId)).isEmpty();
+    }
+
+    @Test
+    void redeem_otherOrder_isRejectedAndBurnsTheTicket() {
+        String ticket = service.issue(userId, orderId);
+
+        assertThat(service.redeem(ticket, UUID.randomUUID())).isEmpty();
+        assertThat(service.redeem(ticket, orderId)).isEmpty();
+    }
+
+    @Test
+    void redeem_unknownTicket_isEmpty() {
+        assertThat(service.redeem("nope", orderId)).isEmpty();
+    }
+
+    @Test
+    void redeem_expiredTicket_isEmpty_andEvicted() {
+        ReflectionTestUtils.setField(service, "ttlSeconds", 0L);
+        String ticket = service.issue(userId, orderId);
+
+        assertThat(service.redeem(ticket, orderId)).isEmpty();
+
+        service.issue(userId, orderId);
+        store.evictExpired();
+        assertThat(store.size()).isZero();
+    }
+}
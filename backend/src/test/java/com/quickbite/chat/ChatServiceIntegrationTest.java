@@ -0,0 +1,112 @@
+package com.quickbite.chat;
+
+import com.quickbite.BaseIntegrationTest;
+import com.quickbite.chat.dto.ChatRoomDTO;
+import com.quickbite.chat.entity.ChatRoom;
+import com.quickbite.chat.repository.ChatMessageRepository;
+import com.quickbite.chat.service.ChatService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Inbox summaries against the sample data: kept current by sendMessage / markRead and
+ * rebuilt for rooms that have none.
+ */
+class ChatServiceIntegrationTest extends BaseIntegrationTest {
+
+    private static final UUID CUSTOMER_ID = UUID.fromString("bbbbbbbb-bbbb-bbbb-bbbb-bbbbbbbbbbbb");
+    private static final UUID DRIVER_ID = UUID.fromString("cccccccc-cccc-cccc-cccc-cccccccccccc");
+    private static final UUID ORDER_ID = UUID.fromString("20000001-0000-0000-0000-000000000001");
+
+    @Autowired
+    private ChatService chatService;
+
+    @Autowired
+    private ChatMessageRepository chatMessageRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID roomId;
+
+    @BeforeEach
+    void setUp() {
+        // A room type of its own so each test starts from an empty room
+        String roomType = "TEST_" + UUID.randomUUID().toString().substring(0, 8);
+        ChatRoom room = chatService.getOrCreateRoom(ORDER_ID, CUSTOMER_ID, DRIVER_ID, roomType);
+        roomId = room.getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM chat_messages WHERE room_id = ?", roomId);
+        jdbcTemplate.update("DELETE FROM chat_rooms WHERE id = ?", roomId);
+    }
+
+    @Test
+    void newRoom_appearsInBothInboxesWithoutMessages() {
+        assertThat(inboxRoom(CUSTOMER_ID).getOtherUserId()).isEqualTo(DRIVER_ID);
+        ChatRoomDTO driverView = inboxRoom(DRIVER_ID);
+        assertThat(driverView.getOtherUserId()).isEqualTo(CUSTOMER_ID);
+        assertThat(driverView.getLastMessage()).isNull();
+        assertThat(driverView.getUnreadCount()).isZero();
+    }
+
+    @Test
+    void sendMessage_updatesBothInboxes_andMarkReadClearsOnlyTheReader() {
+        chatService.sendMessage(roomId, CUSTOMER_ID, "Where are you?");
+        chatService.sendMessage(roomId, CUSTOMER_ID, "At the gate");
+        chatService.sendMessage(roomId, DRIVER_ID, "Two minutes");
+
+        ChatRoomDTO driverView = inboxRoom(DRIVER_ID);
+        ChatRoomDTO customerView = inboxRoom(CUSTOMER_ID);
+        assertThat(driverView.getLastMessage()).isEqualTo("Two minutes");
+        assertThat(customerView.getLastMessage()).isEqualTo("Two minutes");
+        assertThat(driverView.getLastMessageAt()).isNotNull();
+        assertThat(driverView.getUnreadCount())
+                .isEqualTo(2)
+                .isEqualTo(chatMessageRepository.countByRoomIdAndReadFalseAndSenderIdNot(roomId, DRIVER_ID));
+        assertThat(customerView.getUnreadCount()).isEqualTo(1);
+
+        chatService.markRead(roomId, DRIVER_ID);
+
+        assertThat(inboxRoom(DRIVER_ID).getUnreadCount()).isZero();
+        assertThat(inboxRoom(CUSTOMER_ID).getUnreadCount()).isEqualTo(1);
+    }
+
+    @Test
+    void sendMessage_longContent_keepsTruncatedPreview() {
+        String content = "x".repeat(500);
+
+        chatService.sendMessage(roomId, CUSTOMER_ID, content);
+
+        assertThat(inboxRoom(DRIVER_ID).getLastMessage()).hasSize(200);
+    }
+
+    @Test
+    void sendMessage_roomWithoutSummaries_rebuildsThemFromMessages() {
+        chatService.sendMessage(roomId, CUSTOMER_ID, "First");
+        jdbcTemplate.update("DELETE FROM chat_room_summaries WHERE room_id = ?", roomId);
+
+        chatService.sendMessage(roomId, CUSTOMER_ID, "Second");
+
+        ChatRoomDTO driverView = inboxRoom(DRIVER_ID);
+        assertThat(driverView.getLastMessage()).isEqualTo("Second");
+        assertThat(driverView.getUnreadCount()).isEqualTo(2);
+        assertThat(inboxRoom(CUSTOMER_ID).getUnreadCount()).isZero();
+    }
+
+    private ChatRoomDTO inboxRoom(UUID userId) {
+        return chatService.getUserRooms(userId).stream()
+                .filter(room -> room.getId().equals(roomId))
+                .findFirst()
+                .orElseThrow();
+    }
+}
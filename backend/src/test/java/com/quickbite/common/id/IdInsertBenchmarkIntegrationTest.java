@@ -0,0 +1,89 @@
+package com.quickbite.common.id;
+
+import com.quickbite.BaseIntegrationTest;
+import com.quickbite.orders.service.OrderNumberGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Insert-throughput benchmark: random v4 keys + legacy order numbers vs UUIDv7 keys +
+ * compact order numbers, against the docker-compose PostgreSQL.
+ * <p>
+ * Opt-in: {@code ./mvnw test -Dtest=IdInsertBenchmarkIntegrationTest -Dbenchmark=true [-Dbenchmark.rows=500000]}.
+ * Prints rows/s and the resulting primary-key / order-number index sizes for each scheme.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class IdInsertBenchmarkIntegrationTest extends BaseIntegrationTest {
+
+    private static final int BATCH_SIZE = 1_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void dropTables() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS bench_ids_random");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS bench_ids_time_ordered");
+    }
+
+    @Test
+    void compareInsertThroughput() {
+        int rows = Integer.getInteger("benchmark.rows", 200_000);
+        OrderNumberGenerator orderNumbers = new OrderNumberGenerator(1);
+
+        Result random = run("bench_ids_random", rows, UUID::randomUUID,
+                () -> "ORD-" + System.currentTimeMillis() + "-"
+                        + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
+        Result timeOrdered = run("bench_ids_time_ordered", rows, UuidV7::next, orderNumbers::next);
+
+        System.out.printf("%n%-14s %12s %14s %16s%n", "scheme", "rows/s", "pk index", "order_no index");
+        for (Result r : List.of(random, timeOrdered)) {
+            System.out.printf("%-14s %12.0f %14s %16s%n", r.name(), r.rowsPerSecond(), r.pkIndexSize(), r.orderNumberIndexSize());
+        }
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bench_ids_time_ordered", Long.class))
+                .isEqualTo(rows);
+    }
+
+    private Result run(String table, int rows, Supplier<UUID> ids, Supplier<String> orderNumbers) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + table);
+        jdbcTemplate.execute("CREATE TABLE " + table + " (" +
+                "id UUID PRIMARY KEY, " +
+                "order_number VARCHAR(50) NOT NULL UNIQUE, " +
+                "total_cents BIGINT NOT NULL, " +
+                "created_at TIMESTAMPTZ NOT NULL)");
+
+        String sql = "INSERT INTO " + table + " (id, order_number, total_cents, created_at) VALUES (?, ?, ?, ?)";
+        long start = System.nanoTime();
+        for (int done = 0; done < rows; done += BATCH_SIZE) {
+            int size = Math.min(BATCH_SIZE, rows - done);
+            List<Object[]> batch = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                batch.add(new Object[]{ids.get(), orderNumbers.get(), 1_000L + i,
+                        new Timestamp(System.currentTimeMillis())});
+            }
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        String pkSize = jdbcTemplate.queryForObject(
+                "SELECT pg_size_pretty(pg_relation_size(?::regclass))", String.class, table + "_pkey");
+        String orderNumberSize = jdbcTemplate.queryForObject(
+                "SELECT pg_size_pretty(pg_relation_size(?::regclass))", String.class, table + "_order_number_key");
+        return new Result(table.substring("bench_ids_".length()), rows / seconds, pkSize, orderNumberSize);
+    }
+
+    private record Result(String name, double rowsPerSecond, String pkIndexSize, String orderNumberIndexSize) {
+    }
+}
@@ -0,0 +1,50 @@
+package com.quickbite.common.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for UuidV7 (layout, ordering, uniqueness under contention).
+ */
+class UuidV7Test {
+
+    @Test
+    void next_setsVersionVariantAndTimestamp() {
+        long now = System.currentTimeMillis();
+        UUID id = UuidV7.next(now);
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(UuidV7.timestampMillis(id)).isGreaterThanOrEqualTo(now);
+    }
+
+    @Test
+    void next_isStrictlyIncreasingWithinSameMillisecondAndWhenClockStepsBack() {
+        long now = System.currentTimeMillis() + 60_000;
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(UuidV7.next(now));
+        }
+        ids.add(UuidV7.next(now - 5_000));
+
+        for (int i = 1; i < ids.size(); i++) {
+            assertThat(ids.get(i).toString()).isGreaterThan(ids.get(i - 1).toString());
+        }
+    }
+
+    @Test
+    void next_isUniqueAcrossThreads() {
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        IntStream.range(0, 200_000).parallel().forEach(i -> ids.add(UuidV7.next()));
+
+        assertThat(ids).hasSize(200_000);
+    }
+}
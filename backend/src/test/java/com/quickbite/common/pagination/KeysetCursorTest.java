@@ -0,0 +1,50 @@
+package com.quickbite.common.pagination;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for KeysetCursor token encoding.
+ */
+class KeysetCursorTest {
+
+    @Test
+    void encodeDecode_roundTripsInstantAndId() {
+        KeysetCursor cursor = new KeysetCursor(
+                OffsetDateTime.of(2026, 3, 1, 12, 30, 15, 123_456_000, ZoneOffset.ofHours(5)),
+                UUID.randomUUID());
+
+        KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+
+        assertThat(decoded.id()).isEqualTo(cursor.id());
+        assertThat(decoded.createdAt().toInstant()).isEqualTo(cursor.createdAt().toInstant());
+    }
+
+    @Test
+    void encode_isUrlSafe() {
+        String token = new KeysetCursor(OffsetDateTime.now(), UUID.randomUUID()).encode();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void decode_blank_returnsNullForFirstPage() {
+        assertThat(KeysetCursor.decode(null)).isNull();
+        assertThat(KeysetCursor.decode("")).isNull();
+        assertThat(KeysetCursor.decode("  ")).isNull();
+    }
+
+    @Test
+    void decode_malformed_throwsIllegalArgument() {
+        assertThatThrownBy(() -> KeysetCursor.decode("not a cursor!"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode("AAAA"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+}
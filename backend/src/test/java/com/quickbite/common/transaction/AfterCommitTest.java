@@ -0,0 +1,52 @@
+package com.quickbite.common.transaction;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for AfterCommit (deferral to commit, swallowing failures).
+ */
+class AfterCommitTest {
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void run_outsideTransaction_runsImmediately() {
+        List<String> ran = new ArrayList<>();
+
+        AfterCommit.run("record", () -> ran.add("now"));
+
+        assertThat(ran).containsExactly("now");
+    }
+
+    @Test
+    void run_insideTransaction_waitsForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        List<String> ran = new ArrayList<>();
+
+        AfterCommit.run("record", () -> ran.add("committed"));
+
+        assertThat(ran).isEmpty();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(ran).containsExactly("committed");
+    }
+
+    @Test
+    void run_failingAction_isSwallowed() {
+        assertThatCode(() -> AfterCommit.run("fail", () -> {
+            throw new IllegalStateException("store down");
+        })).doesNotThrowAnyException();
+    }
+}
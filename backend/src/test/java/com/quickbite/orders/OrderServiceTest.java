@@ -1,5 +1,7 @@
 package com.quickbite.orders;
 
+import com.quickbite.common.pagination.CursorPage;
+import com.quickbite.common.pagination.KeysetCursor;
 import com.quickbite.delivery.entity.DeliveryStatus;
 import com.quickbite.delivery.repository.DeliveryStatusRepository;
 import com.quickbite.orders.driver.DriverAssignmentService;
@@ -13,13 +15,20 @@ import com.quickbite.orders.entity.OrderStatus;
 import com.quickbite.orders.exception.BusinessException;
 import com.quickbite.orders.exception.OrderNotFoundException;
 import com.quickbite.orders.exception.InvalidTransitionException;
+import com.quickbite.orders.exception.TransitionConflictException;
 import com.quickbite.orders.mapper.OrderMapper;
+import com.quickbite.orders.outbox.OrderOutboxService;
+import com.quickbite.orders.repository.OrderListFilter;
 import com.quickbite.orders.repository.OrderRepository;
+import com.quickbite.orders.service.CartPricingService;
 import com.quickbite.orders.service.EtaService;
 import com.quickbite.orders.service.EventTimelineService;
+import com.quickbite.orders.service.OrderNumberGenerator;
 import com.quickbite.orders.service.OrderService;
 import com.quickbite.orders.service.OrderStateMachine;
+import com.quickbite.orders.service.TransitionResult;
 import com.quickbite.notifications.service.NotificationService;
+import com.quickbite.promotions.dto.PromoValidateResponse;
 import com.quickbite.promotions.service.PromoCodeService;
 import com.quickbite.payments.service.PaymentService;
 import com.quickbite.payments.entity.Payment;
@@ -33,7 +42,6 @@ import com.quickbite.users.repository.UserRepository;
 import com.quickbite.vendors.entity.MenuItem;
 import com.quickbite.vendors.entity.Vendor;
 import com.quickbite.vendors.repository.MenuItemRepository;
-import com.quickbite.websocket.OrderUpdatePublisher;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -46,6 +54,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
@@ -53,6 +62,8 @@ import java.util.*;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -87,7 +98,7 @@ class OrderServiceTest {
     private OrderMapper orderMapper;
 
     @Mock
-    private OrderUpdatePublisher orderUpdatePublisher;
+    private OrderOutboxService orderOutboxService;
 
     @Mock
     private OrderStateMachine orderStateMachine;
@@ -105,16 +116,19 @@ class OrderServiceTest {
     private EtaService etaService;
 
     @Mock
-    private com.quickbite.email.service.EmailDispatchService emailDispatchService;
+    private com.quickbite.orders.service.OrderFraudService orderFraudService;
 
     @Mock
-    private com.quickbite.sms.service.SmsDispatchService smsDispatchService;
+    private com.quickbite.vendors.service.VendorCommissionService vendorCommissionService;
 
     @Mock
-    private com.quickbite.orders.service.OrderFraudService orderFraudService;
+    private com.quickbite.orders.projection.OrderSummaryProjector orderSummaryProjector;
 
     @Mock
-    private com.quickbite.vendors.service.VendorCommissionService vendorCommissionService;
+    private com.quickbite.orders.driver.ActiveDeliveryCache activeDeliveryCache;
+
+    @Mock
+    private com.quickbite.orders.driver.AvailableOrderIndex availableOrderIndex;
 
     private OrderService orderService;
 
@@ -133,14 +147,15 @@ class OrderServiceTest {
     @BeforeEach
     void setUp() {
         orderService = new OrderService(
-                orderRepository, menuItemRepository, userRepository,
+                orderRepository, new CartPricingService(menuItemRepository), new OrderNumberGenerator(0), userRepository,
                 addressRepository, deliveryStatusRepository, paymentService,
-                driverAssignmentService, orderMapper, orderUpdatePublisher,
+                driverAssignmentService, orderMapper, orderOutboxService,
                 orderStateMachine, eventTimelineService,
                 promoCodeService, notificationService, etaService,
-                emailDispatchService, smsDispatchService,
-                orderFraudService, vendorCommissionService,
-                new SimpleMeterRegistry());
+                orderFraudService, vendorCommissionService, orderSummaryProjector,
+                activeDeliveryCache, availableOrderIndex, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(orderService, "taxRate", 0.05);
+        ReflectionTestUtils.setField(orderService, "deliveryFeeCents", 5000L);
 
         customerId = UUID.randomUUID();
         vendorUserId = UUID.randomUUID();
@@ -207,6 +222,19 @@ class OrderServiceTest {
                 .build();
     }
 
+    /**
+     * The state machine's compare-and-set wins: mirror the refreshed entity by setting the target status.
+     */
+    private void stubTransitionApplies() {
+        when(orderStateMachine.transition(any(), any(), any(), any())).thenAnswer(inv -> {
+            Order order = inv.getArgument(0);
+            OrderStatus from = order.getStatus();
+            OrderStatus to = inv.getArgument(1);
+            order.setStatus(to);
+            return TransitionResult.applied(from, to, 1);
+        });
+    }
+
     @Test
     void createOrder_happyPath_success() {
         // Arrange
@@ -225,7 +253,7 @@ class OrderServiceTest {
 
         when(userRepository.findById(customerId)).thenReturn(Optional.of(customer));
         when(addressRepository.findById(addressId)).thenReturn(Optional.of(address));
-        when(menuItemRepository.findById(menuItemId)).thenReturn(Optional.of(menuItem));
+        when(menuItemRepository.findAllWithVendorByIdIn(Set.of(menuItemId))).thenReturn(List.of(menuItem));
         when(paymentService.createPaymentIntent(any(), anyLong(), eq("INR"))).thenReturn(payment);
         when(orderMapper.toResponseDTO(any(Order.class))).thenReturn(new OrderResponseDTO());
         when(orderFraudService.checkOrderCreation(any(), anyLong()))
@@ -267,6 +295,116 @@ class OrderServiceTest {
         verify(paymentService).createPaymentIntent(any(), eq(110000L), eq("INR"));
         verify(paymentService, never()).authorizePayment(any()); // CARD payments don't call authorizePayment
         verify(deliveryStatusRepository).save(any(DeliveryStatus.class));
+        verify(orderOutboxService).orderPlaced(savedOrder);
+        verify(orderSummaryProjector).refresh(savedOrder.getId());
+        verify(orderFraudService).recordOrderPlaced(customerId, 110000L);
+        verifyNoInteractions(notificationService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createOrders_partialFailure_placesValidOrdersInBatches() {
+        // Arrange
+        UUID unknownAddressId = UUID.randomUUID();
+        OrderCreateDTO valid = OrderCreateDTO.builder()
+                .items(List.of(OrderItemDTO.builder().menuItemId(menuItemId).quantity(2).build()))
+                .addressId(addressId)
+                .paymentMethod(OrderCreateDTO.PaymentMethod.CASH_ON_DELIVERY)
+                .build();
+        OrderCreateDTO badAddress = OrderCreateDTO.builder()
+                .items(List.of(OrderItemDTO.builder().menuItemId(menuItemId).quantity(1).build()))
+                .addressId(unknownAddressId)
+                .paymentMethod(OrderCreateDTO.PaymentMethod.CARD)
+                .build();
+        OrderCreateDTO alsoValid = OrderCreateDTO.builder()
+                .items(List.of(OrderItemDTO.builder().menuItemId(menuItemId).quantity(1).build()))
+                .addressId(addressId)
+                .paymentMethod(OrderCreateDTO.PaymentMethod.CARD)
+                .deliveryType("PICKUP")
+                .build();
+
+        when(userRepository.findById(customerId)).thenReturn(Optional.of(customer));
+        when(addressRepository.findAllById(any())).thenReturn(List.of(address));
+        when(menuItemRepository.findAllWithVendorByIdIn(Set.of(menuItemId))).thenReturn(List.of(menuItem));
+        when(orderFraudService.checkOrderCreation(any(), anyInt(), anyLong()))
+                .thenReturn(com.quickbite.orders.service.OrderFraudService.FraudCheckResult.safe());
+        when(vendorCommissionService.calculateCommission(any(), anyLong()))
+                .thenReturn(java.util.Map.of("commissionCents", 15000L, "vendorPayoutCents", 85000L));
+        when(orderRepository.saveAll(any())).thenAnswer(inv -> {
+            List<Order> orders = new ArrayList<>((Collection<Order>) inv.getArgument(0));
+            orders.forEach(o -> o.setId(UUID.randomUUID()));
+            return orders;
+        });
+        when(orderMapper.toResponseDTO(any(Order.class))).thenReturn(new OrderResponseDTO());
+
+        // Act
+        var result = orderService.createOrders(List.of(valid, badAddress, alsoValid), customerId);
+
+        // Assert
+        assertThat(result.getRequested()).isEqualTo(3);
+        assertThat(result.getCreated()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getResults()).extracting("index").containsExactly(0, 1, 2);
+        assertThat(result.getResults()).extracting("success").containsExactly(true, false, true);
+        assertThat(result.getResults().get(1).getError()).contains("Delivery address not found");
+
+        ArgumentCaptor<List<Order>> ordersCaptor = ArgumentCaptor.forClass(List.class);
+        verify(orderRepository).saveAll(ordersCaptor.capture());
+        List<Order> saved = ordersCaptor.getValue();
+        assertThat(saved).extracting(Order::getTotalCents).containsExactly(110000L, 52500L);
+        assertThat(saved).extracting(Order::getOrderNumber).doesNotHaveDuplicates();
+
+        // One lookup / one fraud check for the whole batch, no per-order writes; velocity counts each order
+        verify(menuItemRepository, times(1)).findAllWithVendorByIdIn(any());
+        verify(orderFraudService).checkOrderCreation(customerId, 2, 162500L);
+        verify(paymentService).createPaymentIntents(anyList(), eq("INR"));
+        verify(deliveryStatusRepository).saveAll(anyList());
+        verify(eventTimelineService).recordStatusChanges(eq(customerId), isNull(), eq(OrderStatus.PLACED), anyMap());
+        verify(orderOutboxService).ordersPlaced(anyList());
+        verify(orderSummaryProjector).refreshAll(anyList());
+        verify(orderFraudService).recordOrdersPlaced(customerId, List.of(110000L, 52500L));
+        verify(orderRepository, never()).save(any());
+        verify(deliveryStatusRepository, never()).save(any());
+        verify(paymentService, never()).createPaymentIntent(any(), anyLong(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createOrders_rejectedPromo_isNotCountedInFraudCheck() {
+        OrderCreateDTO valid = OrderCreateDTO.builder()
+                .items(List.of(OrderItemDTO.builder().menuItemId(menuItemId).quantity(2).build()))
+                .addressId(addressId)
+                .paymentMethod(OrderCreateDTO.PaymentMethod.CASH_ON_DELIVERY)
+                .build();
+        OrderCreateDTO badPromo = OrderCreateDTO.builder()
+                .items(List.of(OrderItemDTO.builder().menuItemId(menuItemId).quantity(1).build()))
+                .addressId(addressId)
+                .paymentMethod(OrderCreateDTO.PaymentMethod.CARD)
+                .promoCode("EXPIRED")
+                .build();
+
+        when(userRepository.findById(customerId)).thenReturn(Optional.of(customer));
+        when(addressRepository.findAllById(any())).thenReturn(List.of(address));
+        when(menuItemRepository.findAllWithVendorByIdIn(Set.of(menuItemId))).thenReturn(List.of(menuItem));
+        when(promoCodeService.validatePromo(eq("EXPIRED"), anyLong(), eq(customerId)))
+                .thenReturn(PromoValidateResponse.builder().valid(false).message("Promo code expired").build());
+        when(orderFraudService.checkOrderCreation(any(), anyInt(), anyLong()))
+                .thenReturn(com.quickbite.orders.service.OrderFraudService.FraudCheckResult.safe());
+        when(vendorCommissionService.calculateCommission(any(), anyLong()))
+                .thenReturn(java.util.Map.of("commissionCents", 15000L, "vendorPayoutCents", 85000L));
+        when(orderRepository.saveAll(any())).thenAnswer(inv -> {
+            List<Order> orders = new ArrayList<>((Collection<Order>) inv.getArgument(0));
+            orders.forEach(o -> o.setId(UUID.randomUUID()));
+            return orders;
+        });
+        when(orderMapper.toResponseDTO(any(Order.class))).thenReturn(new OrderResponseDTO());
+
+        var result = orderService.createOrders(List.of(valid, badPromo), customerId);
+
+        assertThat(result.getCreated()).isEqualTo(1);
+        assertThat(result.getResults().get(1).getError()).isEqualTo("Promo code expired");
+        verify(orderFraudService).checkOrderCreation(customerId, 1, 110000L);
+        verify(promoCodeService, never()).applyPromo(any(), anyLong(), any(), any());
     }
 
     @Test
@@ -287,7 +425,7 @@ class OrderServiceTest {
 
         when(userRepository.findById(customerId)).thenReturn(Optional.of(customer));
         when(addressRepository.findById(addressId)).thenReturn(Optional.of(address));
-        when(menuItemRepository.findById(menuItemId)).thenReturn(Optional.of(menuItem));
+        when(menuItemRepository.findAllWithVendorByIdIn(Set.of(menuItemId))).thenReturn(List.of(menuItem));
 
         // Act & Assert
         assertThatThrownBy(() -> orderService.createOrder(createDto, customerId))
@@ -297,6 +435,41 @@ class OrderServiceTest {
         verify(orderRepository, never()).save(any());
     }
 
+    @Test
+    void createOrder_itemsFromDifferentVendors_throwsExceptionAfterSingleLookup() {
+        // Arrange
+        UUID otherItemId = UUID.randomUUID();
+        MenuItem otherVendorItem = MenuItem.builder()
+                .id(otherItemId)
+                .vendor(Vendor.builder().id(UUID.randomUUID()).name("Other Restaurant").build())
+                .name("Other Item")
+                .priceCents(20000L)
+                .available(true)
+                .build();
+
+        OrderCreateDTO createDto = OrderCreateDTO.builder()
+                .items(List.of(
+                        OrderItemDTO.builder().menuItemId(menuItemId).quantity(1).build(),
+                        OrderItemDTO.builder().menuItemId(otherItemId).quantity(1).build()))
+                .addressId(addressId)
+                .paymentMethod(OrderCreateDTO.PaymentMethod.CARD)
+                .build();
+
+        when(userRepository.findById(customerId)).thenReturn(Optional.of(customer));
+        when(addressRepository.findById(addressId)).thenReturn(Optional.of(address));
+        when(menuItemRepository.findAllWithVendorByIdIn(Set.of(menuItemId, otherItemId)))
+                .thenReturn(List.of(menuItem, otherVendorItem));
+
+        // Act & Assert
+        assertThatThrownBy(() -> orderService.createOrder(createDto, customerId))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("same vendor");
+
+        verify(menuItemRepository, times(1)).findAllWithVendorByIdIn(any());
+        verify(menuItemRepository, never()).findById(any());
+        verify(orderRepository, never()).save(any());
+    }
+
     @Test
     void createOrder_addressNotBelongToCustomer_throwsException() {
         // Arrange
@@ -338,7 +511,7 @@ class OrderServiceTest {
                 .build();
 
         when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
-        when(orderRepository.save(any(Order.class))).thenReturn(order);
+        stubTransitionApplies();
         when(orderMapper.toResponseDTO(any())).thenReturn(new OrderResponseDTO());
 
         // Act — pass vendorUserId, not vendorEntityId, because the service checks
@@ -349,6 +522,33 @@ class OrderServiceTest {
         assertThat(result).isNotNull();
         assertThat(order.getStatus()).isEqualTo(OrderStatus.ACCEPTED);
         verify(deliveryStatusRepository).save(any(DeliveryStatus.class));
+        verify(orderOutboxService).statusChanged(order, OrderStatus.PLACED, OrderStatus.ACCEPTED);
+        verify(orderSummaryProjector).refresh(orderId);
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    void acceptOrder_lostRace_throwsConflictWithoutSideEffects() {
+        // Arrange
+        UUID orderId = UUID.randomUUID();
+        Order order = Order.builder()
+                .id(orderId)
+                .vendor(vendorEntity)
+                .status(OrderStatus.PLACED)
+                .build();
+
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        when(orderStateMachine.transition(order, OrderStatus.ACCEPTED, "VENDOR", OrderStateMachine.RetryPolicy.NONE))
+                .thenReturn(new TransitionResult(TransitionResult.Outcome.CONFLICT,
+                        OrderStatus.PLACED, OrderStatus.ACCEPTED, OrderStatus.CANCELLED, 1));
+
+        // Act & Assert
+        assertThatThrownBy(() -> orderService.acceptOrder(orderId, vendorUserId))
+                .isInstanceOf(TransitionConflictException.class)
+                .hasMessageContaining("CANCELLED");
+
+        verify(deliveryStatusRepository, never()).save(any());
+        verify(orderOutboxService, never()).statusChanged(any(), any(), any());
     }
 
     @Test
@@ -357,6 +557,7 @@ class OrderServiceTest {
         UUID orderId = UUID.randomUUID();
         Order order = Order.builder()
                 .id(orderId)
+                .customer(customer)
                 .vendor(vendorEntity)
                 .status(OrderStatus.PLACED)
                 .payment(payment)
@@ -364,6 +565,7 @@ class OrderServiceTest {
                 .build();
 
         when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        stubTransitionApplies();
         when(orderRepository.save(any(Order.class))).thenReturn(order);
         when(orderMapper.toResponseDTO(any())).thenReturn(new OrderResponseDTO());
         when(paymentService.refundPayment(any())).thenReturn(payment);
@@ -379,6 +581,7 @@ class OrderServiceTest {
         assertThat(order.getStatus()).isEqualTo(OrderStatus.CANCELLED);
         assertThat(order.getCancellationReason()).isEqualTo(reason);
         verify(paymentService).refundPayment(payment.getId());
+        verify(orderFraudService).recordCancellation(customerId);
         verify(deliveryStatusRepository).save(any(DeliveryStatus.class));
     }
 
@@ -419,8 +622,8 @@ class OrderServiceTest {
 
         when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
         when(userRepository.findById(actorId)).thenReturn(Optional.empty());
-        doThrow(new InvalidTransitionException("PLACED", "DELIVERED", "Transition not in allowed set"))
-                .when(orderStateMachine).validateTransition(OrderStatus.PLACED, OrderStatus.DELIVERED, null);
+        when(orderStateMachine.transition(order, OrderStatus.DELIVERED, null, OrderStateMachine.RetryPolicy.NONE))
+                .thenThrow(new InvalidTransitionException("PLACED", "DELIVERED", "Transition not in allowed set"));
 
         // Act & Assert
         assertThatThrownBy(() -> orderService.updateOrderStatus(orderId, updateDto, actorId))
@@ -450,6 +653,12 @@ class OrderServiceTest {
                 .build();
 
         when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        stubTransitionApplies();
+        when(orderStateMachine.assignDriver(order, driver, false)).thenAnswer(inv -> {
+            order.setDriver(driver);
+            order.setStatus(OrderStatus.ASSIGNED);
+            return TransitionResult.applied(OrderStatus.READY, OrderStatus.ASSIGNED, 1);
+        });
         when(orderRepository.save(any(Order.class))).thenReturn(order);
         when(userRepository.findById(actorId)).thenReturn(Optional.of(actor));
         when(driverAssignmentService.assignDriverToOrder(any(), any())).thenReturn(Optional.of(driverId));
@@ -466,6 +675,38 @@ class OrderServiceTest {
         verify(driverAssignmentService).assignDriverToOrder(
                 address.getLat().doubleValue(), address.getLng().doubleValue());
         verify(deliveryStatusRepository).save(any(DeliveryStatus.class));
+        verify(activeDeliveryCache).orderChanged(order);
+    }
+
+    @Test
+    void updateOrderStatus_toReady_batchDispatch_leavesOrderForDispatcher() {
+        // Arrange
+        ReflectionTestUtils.setField(orderService, "batchDispatchEnabled", true);
+        UUID orderId = UUID.randomUUID();
+        UUID actorId = UUID.randomUUID();
+        User actor = User.builder().id(actorId).name("Actor").role(Role.builder().name("VENDOR").build()).build();
+        Order order = Order.builder()
+                .id(orderId)
+                .status(OrderStatus.PREPARING)
+                .deliveryAddress(address)
+                .build();
+
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        stubTransitionApplies();
+        when(orderRepository.save(any(Order.class))).thenReturn(order);
+        when(userRepository.findById(actorId)).thenReturn(Optional.of(actor));
+        when(orderMapper.toResponseDTO(any())).thenReturn(new OrderResponseDTO());
+
+        // Act
+        orderService.updateOrderStatus(orderId, StatusUpdateDTO.builder().status("READY").build(), actorId);
+
+        // Assert
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.READY);
+        assertThat(order.getDriver()).isNull();
+        verifyNoInteractions(driverAssignmentService);
+        verify(orderStateMachine, never()).assignDriver(any(), any(), anyBoolean());
+        // Listed in the drivers' available-orders feed until the dispatcher assigns it
+        verify(availableOrderIndex).orderChanged(order);
     }
 
     @Test
@@ -486,6 +727,7 @@ class OrderServiceTest {
                 .build();
 
         when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        stubTransitionApplies();
         when(orderRepository.save(any(Order.class))).thenReturn(order);
         when(userRepository.findById(actorId)).thenReturn(Optional.of(actor));
         when(paymentService.capturePayment(any())).thenReturn(payment);
@@ -500,19 +742,63 @@ class OrderServiceTest {
         assertThat(order.getDeliveredAt()).isNotNull();
         verify(paymentService).capturePayment(payment.getId());
         verify(deliveryStatusRepository).save(any(DeliveryStatus.class));
+        verify(activeDeliveryCache).orderChanged(order);
     }
 
     @Test
     void getOrder_notFound_throwsException() {
         // Arrange
         UUID orderId = UUID.randomUUID();
-        when(orderRepository.findById(orderId)).thenReturn(Optional.empty());
+        when(orderRepository.findDetailById(orderId)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThatThrownBy(() -> orderService.getOrder(orderId, customerId))
                 .isInstanceOf(OrderNotFoundException.class);
     }
 
+    @Test
+    void pageOrders_moreRowsThanSize_returnsCursorOfLastRow() {
+        // Arrange
+        OffsetDateTime now = OffsetDateTime.now();
+        List<Order> rows = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            rows.add(Order.builder().id(UUID.randomUUID()).createdAt(now.minusMinutes(i)).build());
+        }
+        OrderListFilter filter = new OrderListFilter(null, vendorEntityId, null, null);
+        when(orderRepository.findPage(filter, null, 3)).thenReturn(rows);
+
+        // Act
+        CursorPage<Order> page = orderService.pageOrders(filter, null, 2, false);
+
+        // Assert
+        assertThat(page.getContent()).containsExactly(rows.get(0), rows.get(1));
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(page.getTotalElements()).isNull();
+        KeysetCursor next = KeysetCursor.decode(page.getNextCursor());
+        assertThat(next.id()).isEqualTo(rows.get(1).getId());
+        assertThat(next.createdAt().toInstant()).isEqualTo(rows.get(1).getCreatedAt().toInstant());
+        verify(orderRepository, never()).countMatching(any());
+    }
+
+    @Test
+    void pageOrders_lastPageWithTotal_hasNoCursor() {
+        // Arrange
+        KeysetCursor after = new KeysetCursor(OffsetDateTime.now(java.time.ZoneOffset.UTC), UUID.randomUUID());
+        Order order = Order.builder().id(UUID.randomUUID()).createdAt(OffsetDateTime.now().minusDays(1)).build();
+        OrderListFilter filter = OrderListFilter.forDriver(UUID.randomUUID());
+        when(orderRepository.findPage(eq(filter), eq(after), eq(21))).thenReturn(List.of(order));
+        when(orderRepository.countMatching(filter)).thenReturn(21L);
+
+        // Act
+        CursorPage<Order> page = orderService.pageOrders(filter, after.encode(), 20, true);
+
+        // Assert
+        assertThat(page.getContent()).containsExactly(order);
+        assertThat(page.isHasNext()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+        assertThat(page.getTotalElements()).isEqualTo(21L);
+    }
+
     @Test
     void listOrders_withFilters_success() {
         // Arrange
@@ -526,7 +812,7 @@ class OrderServiceTest {
         Page<Order> page = new PageImpl<>(List.of(order));
         Pageable pageable = PageRequest.of(0, 20);
 
-        when(orderRepository.findByCustomerIdAndStatus(customerId, OrderStatus.PLACED, pageable))
+        when(orderRepository.findDetailByCustomerIdAndStatus(customerId, OrderStatus.PLACED, pageable))
                 .thenReturn(page);
         when(orderMapper.toResponseDTO(any())).thenReturn(new OrderResponseDTO());
 
@@ -536,6 +822,7 @@ class OrderServiceTest {
         // Assert
         assertThat(result).isNotNull();
         assertThat(result.getContent()).hasSize(1);
-        verify(orderRepository).findByCustomerIdAndStatus(customerId, OrderStatus.PLACED, pageable);
+        verify(orderRepository).findDetailByCustomerIdAndStatus(customerId, OrderStatus.PLACED, pageable);
+        verify(orderRepository).fetchItems(List.of(order.getId()));
     }
 }
@@ -1,6 +1,7 @@
 package com.quickbite.orders.controller;
 
 import com.quickbite.auth.security.JwtTokenProvider;
+import com.quickbite.orders.driver.AvailableOrderIndex;
 import com.quickbite.orders.entity.Order;
 import com.quickbite.orders.entity.OrderStatus;
 import com.quickbite.orders.repository.OrderRepository;
@@ -46,6 +47,7 @@ class DriverControllerIntegrationTest {
     @Autowired private OrderRepository orderRepository;
     @Autowired private PasswordEncoder passwordEncoder;
     @Autowired private JwtTokenProvider jwtTokenProvider;
+    @Autowired private AvailableOrderIndex availableOrderIndex;
 
     private String driverToken;
     private String customerToken;
@@ -108,6 +110,8 @@ class DriverControllerIntegrationTest {
     @Test
     void getAvailableOrders_driverRole_succeeds() throws Exception {
         createOrder(OrderStatus.READY);
+        // Saved outside OrderService: load it into the feed the way the periodic reconciliation does
+        availableOrderIndex.reconcile();
 
         mockMvc.perform(get("/api/drivers/available-orders")
                         .header("Authorization", "Bearer " + driverToken))
@@ -13,6 +13,7 @@ import com.quickbite.vendors.entity.MenuItem;
 import com.quickbite.vendors.entity.Vendor;
 import com.quickbite.vendors.repository.MenuItemRepository;
 import com.quickbite.vendors.repository.VendorRepository;
+import com.quickbite.websocket.OrderUpdatePublisher;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -23,12 +24,21 @@ import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -51,6 +61,7 @@ class OrderControllerIntegrationTest {
     @Autowired private OrderRepository orderRepository;
     @Autowired private PasswordEncoder passwordEncoder;
     @Autowired private JwtTokenProvider jwtTokenProvider;
+    @Autowired private OrderUpdatePublisher orderUpdatePublisher;
 
     private String customerToken;
     private String vendorToken;
@@ -158,6 +169,37 @@ class OrderControllerIntegrationTest {
                 .andExpect(status().isUnauthorized());
     }
 
+    @Test
+    void listOrdersByCursor_asCustomer_ignoresOtherCustomerId() throws Exception {
+        Order own = createTestOrder(OrderStatus.PLACED);
+        Order others = createTestOrder(OrderStatus.PLACED);
+        others.setCustomer(driverUser);
+        orderRepository.save(others);
+
+        mockMvc.perform(get("/api/orders")
+                        .param("cursor", "")
+                        .param("customerId", driverUser.getId().toString())
+                        .header("Authorization", "Bearer " + customerToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content[*].id").value(hasItem(own.getId().toString())))
+                .andExpect(jsonPath("$.data.content[*].id").value(not(
+                        hasItem(others.getId().toString()))));
+    }
+
+    @Test
+    void listOrdersByCursor_asVendor_ignoresOtherVendorId() throws Exception {
+        createTestOrder(OrderStatus.PLACED);
+
+        mockMvc.perform(get("/api/orders")
+                        .param("cursor", "")
+                        .param("vendorId", UUID.randomUUID().toString())
+                        .header("Authorization", "Bearer " + vendorToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content").isNotEmpty())
+                .andExpect(jsonPath("$.data.content[*].vendorId").value(
+                        everyItem(is(vendor.getId().toString()))));
+    }
+
     // ── GET /api/orders/{id} ─────────────────────────────────────────
 
     @Test
@@ -234,4 +276,141 @@ class OrderControllerIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.data.status").value("ASSIGNED"));
     }
+
+    // ── GET /api/orders/{id}/events ──────────────────────────────────
+
+    private String issueTicket(Order order) throws Exception {
+        MvcResult issued = mockMvc.perform(post("/api/orders/" + order.getId() + "/events/ticket")
+                        .header("Authorization", "Bearer " + customerToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.expiresIn").value(30))
+                .andReturn();
+        return objectMapper.readTree(issued.getResponse().getContentAsString()).at("/data/ticket").asText();
+    }
+
+    private MvcResult openEventStream(Order order, String lastEventId) throws Exception {
+        var events = get("/api/orders/" + order.getId() + "/events")
+                .param("ticket", issueTicket(order));
+        if (lastEventId != null) {
+            events.header("Last-Event-ID", lastEventId);
+        }
+        return mockMvc.perform(events)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    /** Wait until the stream has written {@code text}, then return everything written so far. */
+    private static String awaitEvent(MvcResult result, String text) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (System.currentTimeMillis() < deadline) {
+            String content = result.getResponse().getContentAsString();
+            if (content.contains(text)) {
+                return content;
+            }
+            Thread.sleep(20);
+        }
+        return fail("Event stream never wrote %s, got: %s", text, result.getResponse().getContentAsString());
+    }
+
+    private static String lastEventId(String content) {
+        Matcher ids = Pattern.compile("(?m)^id:(\\S+)$").matcher(content);
+        String last = null;
+        while (ids.find()) {
+            last = ids.group(1);
+        }
+        return last;
+    }
+
+    private void publishStatus(Order order, OrderStatus status) {
+        orderUpdatePublisher.publishOrderUpdate(Order.builder().id(order.getId()).status(status).build());
+    }
+
+    @Test
+    void orderEvents_startWithCurrentStateThenStreamUpdates() throws Exception {
+        Order order = createTestOrder(OrderStatus.PLACED);
+
+        MvcResult stream = openEventStream(order, null);
+        awaitEvent(stream, "\"status\":\"PLACED\"");
+        assertThat(stream.getResponse().getContentType()).startsWith("text/event-stream");
+
+        publishStatus(order, OrderStatus.ACCEPTED);
+        orderUpdatePublisher.publishDriverLocation(driverUser.getId(), 12.97, 77.59, order.getId());
+
+        String content = awaitEvent(stream, "event:location");
+        assertThat(content).contains("event:order", "\"status\":\"ACCEPTED\"");
+    }
+
+    @Test
+    void orderEvents_reconnectWithLastEventId_replaysOnlyMissedUpdates() throws Exception {
+        Order order = createTestOrder(OrderStatus.PLACED);
+        MvcResult first = openEventStream(order, null);
+        awaitEvent(first, "PLACED");
+        publishStatus(order, OrderStatus.ACCEPTED);
+        String seen = lastEventId(awaitEvent(first, "ACCEPTED"));
+
+        publishStatus(order, OrderStatus.PREPARING);
+        MvcResult resumed = openEventStream(order, seen);
+
+        String content = awaitEvent(resumed, "PREPARING");
+        assertThat(content).doesNotContain("PLACED", "ACCEPTED");
+    }
+
+    @Test
+    void orderEvents_otherCustomersOrder_isRejected() throws Exception {
+        Order order = createTestOrder(OrderStatus.PLACED);
+        order.setCustomer(driverUser);
+        orderRepository.save(order);
+
+        mockMvc.perform(get("/api/orders/" + order.getId() + "/events")
+                        .header("Authorization", "Bearer " + customerToken))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void orderEvents_ticketUsedTwice_returns401() throws Exception {
+        Order order = createTestOrder(OrderStatus.PLACED);
+        String ticket = issueTicket(order);
+
+        mockMvc.perform(get("/api/orders/" + order.getId() + "/events").param("ticket", ticket))
+                .andExpect(request().asyncStarted());
+        mockMvc.perform(get("/api/orders/" + order.getId() + "/events").param("ticket", ticket))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void orderEvents_ticketForAnotherOrder_returns401() throws Exception {
+        String ticket = issueTicket(createTestOrder(OrderStatus.PLACED));
+        Order other = createTestOrder(OrderStatus.PLACED);
+
+        mockMvc.perform(get("/api/orders/" + other.getId() + "/events").param("ticket", ticket))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void orderEvents_jwtInQueryString_returns401() throws Exception {
+        Order order = createTestOrder(OrderStatus.PLACED);
+
+        mockMvc.perform(get("/api/orders/" + order.getId() + "/events").param("access_token", customerToken))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void issueEventsTicket_otherCustomersOrder_isRejected() throws Exception {
+        Order order = createTestOrder(OrderStatus.PLACED);
+        order.setCustomer(driverUser);
+        orderRepository.save(order);
+
+        mockMvc.perform(post("/api/orders/" + order.getId() + "/events/ticket")
+                        .header("Authorization", "Bearer " + customerToken))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void orderEvents_noToken_returns401() throws Exception {
+        Order order = createTestOrder(OrderStatus.PLACED);
+
+        mockMvc.perform(get("/api/orders/" + order.getId() + "/events"))
+                .andExpect(status().isUnauthorized());
+    }
 }
@@ -0,0 +1,172 @@
+package com.quickbite.orders.driver;
+
+import com.quickbite.orders.entity.Order;
+import com.quickbite.orders.entity.OrderStatus;
+import com.quickbite.orders.repository.OrderRepository;
+import com.quickbite.users.entity.User;
+import com.quickbite.vendors.entity.Vendor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ActiveDeliveryCache over the in-process store (load on miss, transition updates).
+ */
+@ExtendWith(MockitoExtension.class)
+class ActiveDeliveryCacheTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ActiveDeliveryCache cache;
+    private UUID driverId;
+    private User driver;
+    private Vendor vendor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ActiveDeliveryCache(new LocalActiveDeliveryStore(meterRegistry), orderRepository,
+                transactionManager, meterRegistry);
+        driverId = UUID.randomUUID();
+        driver = User.builder().id(driverId).build();
+        vendor = Vendor.builder().id(UUID.randomUUID()).name("Test Pizzeria").build();
+    }
+
+    private Order order(OrderStatus status) {
+        return Order.builder()
+                .id(UUID.randomUUID())
+                .status(status)
+                .driver(driver)
+                .vendor(vendor)
+                .totalCents(1300L)
+                .createdAt(OffsetDateTime.now())
+                .build();
+    }
+
+    private void stubActiveOrders(Order... orders) {
+        when(orderRepository.findDetailByDriverIdAndStatusIn(driverId, ActiveDeliveryCache.ACTIVE_STATUSES))
+                .thenReturn(List.of(orders));
+    }
+
+    @Test
+    void find_miss_loadsOnceThenServesFromCache() {
+        Order enroute = order(OrderStatus.ENROUTE);
+        Order assigned = order(OrderStatus.ASSIGNED);
+        stubActiveOrders(enroute, assigned);
+
+        Optional<ActiveDelivery> first = cache.find(driverId);
+        Optional<ActiveDelivery> second = cache.find(driverId);
+
+        assertThat(first).map(ActiveDelivery::orderId).contains(assigned.getId());
+        assertThat(second).isEqualTo(first);
+        assertThat(first.get().vendorName()).isEqualTo("Test Pizzeria");
+        verify(orderRepository, times(1)).findDetailByDriverIdAndStatusIn(any(), any());
+        assertThat(meterRegistry.counter("driver.active.delivery.hits").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("driver.active.delivery.misses").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void find_noActiveDelivery_isCachedToo() {
+        stubActiveOrders();
+
+        assertThat(cache.find(driverId)).isEmpty();
+        assertThat(cache.find(driverId)).isEmpty();
+
+        verify(orderRepository, times(1)).findDetailByDriverIdAndStatusIn(any(), any());
+    }
+
+    @Test
+    void orderChanged_assignment_replacesNoneEntryWithoutQuery() {
+        stubActiveOrders();
+        cache.find(driverId);
+        Order assigned = order(OrderStatus.ASSIGNED);
+
+        cache.orderChanged(assigned);
+
+        assertThat(cache.find(driverId)).map(ActiveDelivery::orderId).contains(assigned.getId());
+        verify(orderRepository, times(1)).findDetailByDriverIdAndStatusIn(any(), any());
+    }
+
+    @Test
+    void orderChanged_transition_updatesStatus() {
+        Order order = order(OrderStatus.ASSIGNED);
+        cache.orderChanged(order);
+
+        order.setStatus(OrderStatus.PICKED_UP);
+        cache.orderChanged(order);
+
+        assertThat(cache.find(driverId)).map(ActiveDelivery::status).contains(OrderStatus.PICKED_UP);
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void orderChanged_delivered_releasesEntry() {
+        Order order = order(OrderStatus.ENROUTE);
+        cache.orderChanged(order);
+
+        order.setStatus(OrderStatus.DELIVERED);
+        cache.orderChanged(order);
+        stubActiveOrders();
+
+        assertThat(cache.find(driverId)).isEmpty();
+        verify(orderRepository).findDetailByDriverIdAndStatusIn(driverId, ActiveDeliveryCache.ACTIVE_STATUSES);
+    }
+
+    @Test
+    void orderChanged_otherOrderCached_dropsEntryForReload() {
+        Order first = order(OrderStatus.PICKED_UP);
+        cache.orderChanged(first);
+        Order second = order(OrderStatus.ASSIGNED);
+
+        cache.orderChanged(second);
+        stubActiveOrders(first, second);
+
+        // Reloaded: ASSIGNED ranks before PICKED_UP, as with the per-status lookups
+        assertThat(cache.find(driverId)).map(ActiveDelivery::orderId).contains(second.getId());
+    }
+
+    @Test
+    void orderChanged_reassignment_releasesPreviousDriver() {
+        UUID previousDriverId = UUID.randomUUID();
+        Order order = order(OrderStatus.ASSIGNED);
+        order.setDriver(User.builder().id(previousDriverId).build());
+        cache.orderChanged(order);
+
+        order.setDriver(driver);
+        cache.orderChanged(order, previousDriverId);
+        when(orderRepository.findDetailByDriverIdAndStatusIn(previousDriverId, ActiveDeliveryCache.ACTIVE_STATUSES))
+                .thenReturn(List.of());
+
+        assertThat(cache.find(driverId)).map(ActiveDelivery::orderId).contains(order.getId());
+        assertThat(cache.find(previousDriverId)).isEmpty();
+    }
+
+    @Test
+    void find_storeUnavailable_fallsBackToOrders() {
+        ActiveDeliveryStore failing = mock(ActiveDeliveryStore.class);
+        when(failing.get(driverId)).thenThrow(new RuntimeException("connection refused"));
+        cache = new ActiveDeliveryCache(failing, orderRepository, transactionManager, meterRegistry);
+        Order order = order(OrderStatus.ENROUTE);
+        stubActiveOrders(order);
+
+        assertThat(cache.find(driverId)).map(ActiveDelivery::orderId).contains(order.getId());
+    }
+}
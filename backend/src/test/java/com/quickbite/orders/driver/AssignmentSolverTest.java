@@ -0,0 +1,106 @@
+package com.quickbite.orders.driver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for AssignmentSolver.
+ * No Spring context needed — pure logic test.
+ */
+class AssignmentSolverTest {
+
+    private static final double X = Double.NaN;
+
+    @Test
+    void hungarian_beatsGreedyWhenBestPairBlocksOthers() {
+        // Greedy takes (0,0)=0.9 and leaves order 1 with 0.1; optimal is (0,1)+(1,0) = 1.6
+        double[][] scores = {
+                {0.9, 0.8},
+                {0.8, 0.1}
+        };
+
+        assertThat(AssignmentSolver.solve(scores, AssignmentSolver.Strategy.GREEDY)).containsExactly(0, 1);
+        assertThat(AssignmentSolver.solve(scores, AssignmentSolver.Strategy.HUNGARIAN)).containsExactly(1, 0);
+    }
+
+    @ParameterizedTest
+    @EnumSource(AssignmentSolver.Strategy.class)
+    void infeasiblePairs_areNeverReturned(AssignmentSolver.Strategy strategy) {
+        double[][] scores = {
+                {X, 0.5},
+                {X, 0.7},
+                {X, X}
+        };
+
+        int[] result = AssignmentSolver.solve(scores, strategy);
+
+        assertThat(result).containsExactly(-1, 1, -1);
+    }
+
+    @Test
+    void hungarian_prefersMatchingMoreOrders() {
+        // Order 0 could take driver 0 (0.9) but only it can serve order 1 — matching both wins
+        double[][] scores = {
+                {0.9, 0.2},
+                {0.3, X}
+        };
+
+        assertThat(AssignmentSolver.solve(scores, AssignmentSolver.Strategy.HUNGARIAN)).containsExactly(1, 0);
+    }
+
+    @ParameterizedTest
+    @EnumSource(AssignmentSolver.Strategy.class)
+    void rectangularMatrices_assignEachDriverOnce(AssignmentSolver.Strategy strategy) {
+        double[][] moreOrders = {{0.4}, {0.9}, {0.6}};
+        double[][] moreDrivers = {{0.4, 0.9, 0.6}};
+
+        assertThat(AssignmentSolver.solve(moreOrders, strategy)).containsExactly(-1, 0, -1);
+        assertThat(AssignmentSolver.solve(moreDrivers, strategy)).containsExactly(1);
+    }
+
+    @Test
+    void hungarian_neverScoresBelowGreedy() {
+        Random random = new Random(42);
+        for (int round = 0; round < 50; round++) {
+            double[][] scores = new double[1 + random.nextInt(8)][1 + random.nextInt(8)];
+            for (double[] row : scores) {
+                for (int j = 0; j < row.length; j++) {
+                    row[j] = random.nextDouble() < 0.2 ? X : random.nextDouble();
+                }
+            }
+
+            int[] greedy = AssignmentSolver.solve(scores, AssignmentSolver.Strategy.GREEDY);
+            int[] hungarian = AssignmentSolver.solve(scores, AssignmentSolver.Strategy.HUNGARIAN);
+
+            // Hungarian matches as many orders as possible, then maximises the score among those matchings
+            assertThat(matched(hungarian)).isGreaterThanOrEqualTo(matched(greedy));
+            if (matched(hungarian) == matched(greedy)) {
+                assertThat(total(scores, hungarian)).isGreaterThanOrEqualTo(total(scores, greedy) - 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void emptyMatrix_returnsNoAssignments() {
+        assertThat(AssignmentSolver.solve(new double[0][0], AssignmentSolver.Strategy.HUNGARIAN)).isEmpty();
+        assertThat(AssignmentSolver.solve(new double[2][0], AssignmentSolver.Strategy.GREEDY)).containsExactly(-1, -1);
+    }
+
+    private static double total(double[][] scores, int[] assignment) {
+        double sum = 0;
+        for (int i = 0; i < assignment.length; i++) {
+            if (assignment[i] >= 0) sum += scores[i][assignment[i]];
+        }
+        return sum;
+    }
+
+    private static long matched(int[] assignment) {
+        return Arrays.stream(assignment).filter(j -> j >= 0).count();
+    }
+}
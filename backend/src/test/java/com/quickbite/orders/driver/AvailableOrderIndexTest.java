@@ -0,0 +1,153 @@
+package com.quickbite.orders.driver;
+
+import com.quickbite.orders.entity.Order;
+import com.quickbite.orders.entity.OrderStatus;
+import com.quickbite.orders.repository.OrderRepository;
+import com.quickbite.users.entity.User;
+import com.quickbite.vendors.entity.Vendor;
+import com.quickbite.websocket.OrderUpdatePublisher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AvailableOrderIndex (proximity paging, reconciliation, pushed deltas).
+ */
+@ExtendWith(MockitoExtension.class)
+class AvailableOrderIndexTest {
+
+    private static final double LAT = 12.9716;
+    private static final double LNG = 77.5946;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private DriverGeoIndex driverGeoIndex;
+
+    @Mock
+    private OrderUpdatePublisher orderUpdatePublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AvailableOrderIndex index;
+    private final List<Order> readyInDb = new ArrayList<>();
+    private OffsetDateTime created;
+
+    @BeforeEach
+    void setUp() {
+        index = new AvailableOrderIndex(orderRepository, driverGeoIndex, orderUpdatePublisher,
+                transactionManager, new SimpleMeterRegistry(), 2.0);
+        lenient().when(orderRepository.findDetailByDriverIsNullAndStatus(OrderStatus.READY)).thenReturn(readyInDb);
+        created = OffsetDateTime.now().minusMinutes(30);
+    }
+
+    /** READY order picked up {@code kmNorth} km north of the reference point. */
+    private Order readyOrder(Double kmNorth) {
+        created = created.plusMinutes(1);
+        Vendor vendor = Vendor.builder()
+                .id(UUID.randomUUID())
+                .name("Vendor " + kmNorth)
+                .lat(kmNorth != null ? BigDecimal.valueOf(LAT + kmNorth / 111.2) : null)
+                .lng(kmNorth != null ? BigDecimal.valueOf(LNG) : null)
+                .build();
+        return Order.builder()
+                .id(UUID.randomUUID())
+                .status(OrderStatus.READY)
+                .vendor(vendor)
+                .totalCents(1300L)
+                .createdAt(created)
+                .build();
+    }
+
+    private List<UUID> ids(List<AvailableOrderIndex.Nearby> page) {
+        return page.stream().map(n -> n.order().orderId()).toList();
+    }
+
+    @Test
+    void nearby_ranksByDistanceWithinRadiusAndPages() {
+        Order far = readyOrder(9.0);
+        Order near = readyOrder(1.0);
+        Order mid = readyOrder(4.0);
+        Order outOfRange = readyOrder(40.0);
+        readyInDb.addAll(List.of(far, near, mid, outOfRange));
+        index.reconcile();
+
+        assertThat(ids(index.nearby(LAT, LNG, 0, 2))).containsExactly(near.getId(), mid.getId());
+        assertThat(ids(index.nearby(LAT, LNG, 1, 2))).containsExactly(far.getId());
+        assertThat(index.nearby(LAT, LNG, 2, 2)).isEmpty();
+        assertThat(index.nearby(LAT, LNG, 0, 1).get(0).distanceKm()).isCloseTo(1.0, within(0.1));
+    }
+
+    @Test
+    void nearby_withoutPosition_listsLongestWaitingFirst() {
+        Order first = readyOrder(9.0);
+        Order second = readyOrder(null);
+        Order third = readyOrder(1.0);
+        readyInDb.addAll(List.of(third, second, first));
+        index.reconcile();
+
+        assertThat(ids(index.nearby(null, null, 0, 10)))
+                .containsExactly(first.getId(), second.getId(), third.getId());
+        // With a position, unlocated orders follow the nearby ones
+        assertThat(ids(index.nearby(LAT, LNG, 0, 10)))
+                .containsExactly(third.getId(), first.getId(), second.getId());
+    }
+
+    @Test
+    void orderChanged_pushesAddedAndRemovedToNearbyDrivers() {
+        index.reconcile();
+        UUID driverId = UUID.randomUUID();
+        when(driverGeoIndex.nearest(anyDouble(), anyDouble(), anyDouble(), anyInt()))
+                .thenReturn(List.of(new DriverGeoIndex.Candidate(driverId, LAT, LNG, 2.0)));
+        Order order = readyOrder(2.0);
+
+        index.orderChanged(order);
+        order.setDriver(User.builder().id(UUID.randomUUID()).build());
+        order.setStatus(OrderStatus.ASSIGNED);
+        index.orderChanged(order);
+
+        ArgumentCaptor<AvailableOrderIndex.Change> changes = ArgumentCaptor.forClass(AvailableOrderIndex.Change.class);
+        verify(orderUpdatePublisher, times(2)).publishAvailableOrderChange(eq(List.of(driverId)), changes.capture());
+        assertThat(changes.getAllValues()).extracting(AvailableOrderIndex.Change::type)
+                .containsExactly(AvailableOrderIndex.ChangeType.ADDED, AvailableOrderIndex.ChangeType.REMOVED);
+        assertThat(changes.getAllValues().get(0).order().vendorName()).isEqualTo("Vendor 2.0");
+        assertThat(index.openCount()).isZero();
+    }
+
+    @Test
+    void reconcile_initialLoadDoesNotPush_laterDifferencesDo() {
+        Order stale = readyOrder(3.0);
+        readyInDb.add(stale);
+        index.reconcile();
+        verifyNoInteractions(orderUpdatePublisher, driverGeoIndex);
+        assertThat(index.isReady()).isTrue();
+
+        UUID driverId = UUID.randomUUID();
+        when(driverGeoIndex.nearest(anyDouble(), anyDouble(), anyDouble(), anyInt()))
+                .thenReturn(List.of(new DriverGeoIndex.Candidate(driverId, LAT, LNG, 3.0)));
+        readyInDb.clear();   // assigned on another instance
+        index.reconcile();
+
+        assertThat(index.openCount()).isZero();
+        verify(orderUpdatePublisher).publishAvailableOrderChange(eq(List.of(driverId)),
+                argThat(change -> change.type() == AvailableOrderIndex.ChangeType.REMOVED
+                        && change.orderId().equals(stale.getId())));
+    }
+}
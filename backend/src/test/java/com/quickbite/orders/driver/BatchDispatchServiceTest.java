@@ -0,0 +1,119 @@
+package com.quickbite.orders.driver;
+
+import com.quickbite.orders.entity.OrderStatus;
+import com.quickbite.orders.repository.OrderRepository;
+import com.quickbite.orders.service.OrderService;
+import com.quickbite.users.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BatchDispatchService (scoring, feasibility, applying matches).
+ */
+@ExtendWith(MockitoExtension.class)
+class BatchDispatchServiceTest {
+
+    private static final double LAT = 12.9716;
+    private static final double LNG = 77.5946;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private DriverProfileRepository driverProfileRepository;
+
+    @Mock
+    private DriverGeoIndex driverGeoIndex;
+
+    @Mock
+    private OrderService orderService;
+
+    private BatchDispatchService dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new BatchDispatchService(orderRepository, driverProfileRepository, driverGeoIndex,
+                orderService, new SimpleMeterRegistry());
+    }
+
+    private static Object[] backlogRow(UUID orderId, double lat, double lng) {
+        return new Object[]{orderId, BigDecimal.valueOf(lat), BigDecimal.valueOf(lng)};
+    }
+
+    private static DriverProfile profile(UUID driverId, String successRate) {
+        return DriverProfile.builder()
+                .user(User.builder().id(driverId).build())
+                .successRate(new BigDecimal(successRate))
+                .build();
+    }
+
+    @Test
+    void dispatch_assignsEachOrderItsOwnDriver_skippingFullyLoadedDrivers() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID near = UUID.randomUUID();
+        UUID busy = UUID.randomUUID();
+        UUID far = UUID.randomUUID();
+        when(orderRepository.findDispatchBacklog(eq(OrderStatus.READY), any()))
+                .thenReturn(List.of(backlogRow(first, LAT, LNG), backlogRow(second, LAT + 0.01, LNG)));
+        when(driverGeoIndex.nearest(anyDouble(), anyDouble(), anyDouble(), anyInt())).thenReturn(List.of(
+                new DriverGeoIndex.Candidate(busy, LAT, LNG, 0.0),
+                new DriverGeoIndex.Candidate(near, LAT + 0.002, LNG, 0.2),
+                new DriverGeoIndex.Candidate(far, LAT + 0.03, LNG, 3.3)));
+        when(orderRepository.countActiveByDriverIds(any(), any()))
+                .thenReturn(List.<Object[]>of(new Object[]{busy, 1L}));
+        when(driverProfileRepository.findByUserIds(any()))
+                .thenReturn(List.of(profile(near, "100.00"), profile(far, "100.00"), profile(busy, "100.00")));
+        when(orderService.assignDispatchedDriver(any(), any(), any())).thenReturn(true);
+
+        BatchDispatchService.DispatchRound round = dispatcher.dispatch();
+
+        assertThat(round.orders()).isEqualTo(2);
+        assertThat(round.drivers()).isEqualTo(3);
+        assertThat(round.assigned()).isEqualTo(2);
+        verify(orderService).assignDispatchedDriver(eq(first), eq(near), any());
+        verify(orderService).assignDispatchedDriver(eq(second), eq(far), any());
+        verify(orderService, never()).assignDispatchedDriver(any(), eq(busy), any());
+    }
+
+    @Test
+    void dispatch_emptyBacklog_doesNothing() {
+        when(orderRepository.findDispatchBacklog(eq(OrderStatus.READY), any())).thenReturn(List.of());
+
+        assertThat(dispatcher.dispatch().orders()).isZero();
+        verifyNoInteractions(driverGeoIndex, orderService);
+    }
+
+    @Test
+    void score_weightsDistanceLoadSuccessAndShift() {
+        ReflectionTestUtils.setField(dispatcher, "maxLoad", 2);
+        UUID driverId = UUID.randomUUID();
+        List<DriverGeoIndex.Candidate> drivers = List.of(new DriverGeoIndex.Candidate(driverId, LAT, LNG, 0.0));
+
+        double[][] idle = dispatcher.score(new double[][]{{LAT, LNG}}, drivers,
+                Map.of(), Map.of(driverId, profile(driverId, "100.00")));
+        double[][] loaded = dispatcher.score(new double[][]{{LAT, LNG}}, drivers,
+                Map.of(driverId, 1L), Map.of(driverId, profile(driverId, "50.00")));
+
+        assertThat(idle[0][0]).isCloseTo(1.0, within(1e-9));
+        assertThat(loaded[0][0]).isCloseTo(1.0 - BatchDispatchService.WEIGHT_LOAD / 2
+                - BatchDispatchService.WEIGHT_SUCCESS / 2, within(1e-9));
+    }
+}
@@ -0,0 +1,227 @@
+package com.quickbite.orders.driver;
+
+import com.quickbite.orders.entity.Order;
+import com.quickbite.users.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DeliveryTrailStore (in-memory accumulation, simplified persistence, merging with
+ * driver_locations samples written by other instances).
+ */
+@ExtendWith(MockitoExtension.class)
+class DeliveryTrailStoreTest {
+
+    private static final double LAT = 12.9716;
+    private static final double LNG = 77.5946;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DeliveryTrailStore store;
+    private UUID orderId;
+    private UUID driverId;
+    private Instant start;
+
+    @BeforeEach
+    void setUp() {
+        store = new DeliveryTrailStore(jdbcTemplate, transactionManager, new SimpleMeterRegistry());
+        orderId = UUID.randomUUID();
+        driverId = UUID.randomUUID();
+        start = Instant.parse("2026-03-10T12:00:00Z");
+    }
+
+    private void driveNorth(int pings) {
+        for (int i = 0; i < pings; i++) {
+            store.append(orderId, driverId, LAT + i * 0.0001, LNG, start.plusSeconds(i * 5L));
+        }
+    }
+
+    private Order order() {
+        return Order.builder().id(orderId).driver(User.builder().id(driverId).build())
+                .assignedAt(OffsetDateTime.parse("2026-03-10T11:50:00Z")).build();
+    }
+
+    private Object[] capturedInsert() {
+        return capturedInsert(order());
+    }
+
+    private Object[] capturedInsert(Order order) {
+        Object[][] args = new Object[1][];
+        when(jdbcTemplate.update(startsWith("INSERT INTO order_gps_trails"), any(Object[].class)))
+                .thenAnswer(inv -> {
+                    args[0] = inv.getArguments();
+                    return 1;
+                });
+        store.complete(order);
+        return args[0];
+    }
+
+    private void stubHistory(List<GpsTrailCodec.Point> history) {
+        when(jdbcTemplate.query(startsWith("SELECT lat, lng, recorded_at FROM driver_locations"),
+                ArgumentMatchers.<RowMapper<GpsTrailCodec.Point>>any(), any(Object[].class)))
+                .thenReturn(history);
+    }
+
+    private void stubActiveOrder() {
+        when(jdbcTemplate.query(startsWith("SELECT driver_id, COALESCE(assigned_at, created_at) AS since FROM orders"),
+                ArgumentMatchers.<RowMapper<Object>>any(), any(Object[].class)))
+                .thenAnswer(inv -> {
+                    ResultSet rs = mock(ResultSet.class);
+                    when(rs.getObject("driver_id", UUID.class)).thenReturn(driverId);
+                    when(rs.getObject("since", OffsetDateTime.class))
+                            .thenReturn(OffsetDateTime.parse("2026-03-10T11:50:00Z"));
+                    RowMapper<?> mapper = inv.getArgument(1);
+                    return List.of(mapRow(mapper, rs));
+                });
+    }
+
+    private static Object mapRow(RowMapper<?> mapper, ResultSet rs) throws SQLException {
+        return mapper.mapRow(rs, 0);
+    }
+
+    private GpsTrailCodec.Point point(double lat, long secondsAfterStart) {
+        return new GpsTrailCodec.Point(lat, LNG, start.plusSeconds(secondsAfterStart).toEpochMilli());
+    }
+
+    @Test
+    void getTrail_activeDelivery_mergesLocalPointsWithOtherInstancesSamples() {
+        driveNorth(3);
+        stubActiveOrder();
+        // The first local ping already flushed, plus two pings another instance received
+        stubHistory(List.of(point(LAT, 0), point(LAT + 0.001, 60), point(LAT + 0.0011, 65)));
+
+        DeliveryTrailStore.DeliveryTrail trail = store.getTrail(orderId).orElseThrow();
+
+        assertThat(trail.live()).isTrue();
+        assertThat(trail.driverId()).isEqualTo(driverId);
+        assertThat(trail.points()).extracting(GpsTrailCodec.Point::epochMillis)
+                .containsExactly(start.toEpochMilli(), start.plusSeconds(5).toEpochMilli(),
+                        start.plusSeconds(10).toEpochMilli(), start.plusSeconds(60).toEpochMilli(),
+                        start.plusSeconds(65).toEpochMilli());
+        assertThat(trail.rawPoints()).isEqualTo(5);
+    }
+
+    @Test
+    void getTrail_activeDeliveryPingedOnAnotherInstance_buildsTrailFromDriverLocations() {
+        stubActiveOrder();
+        // Assigned at 11:50: the 11:40 sample is from before the driver took the order
+        stubHistory(List.of(point(LAT + 0.05, -1_200), point(LAT, 0), point(LAT + 0.001, 60)));
+
+        DeliveryTrailStore.DeliveryTrail trail = store.getTrail(orderId).orElseThrow();
+
+        assertThat(trail.live()).isTrue();
+        assertThat(trail.points()).hasSize(2);
+    }
+
+    @Test
+    void complete_storesSimplifiedEncodedTrailOnce() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        driveNorth(120);
+
+        Object[] args = capturedInsert();
+
+        // sql, order_id, driver_id, encoding, raw_points, stored_points, started_at, ended_at, trail
+        assertThat(args[1]).isEqualTo(orderId);
+        assertThat(args[2]).isEqualTo(driverId);
+        assertThat(args[4]).isEqualTo(120);
+        assertThat(args[5]).isEqualTo(2);
+        List<GpsTrailCodec.Point> decoded = GpsTrailCodec.decode((byte[]) args[8]);
+        assertThat(decoded).hasSize(2);
+        assertThat(decoded.get(1).lat()).isCloseTo(LAT + 119 * 0.0001, within(0.00001));
+        assertThat(store.activeCount()).isZero();
+    }
+
+    @Test
+    void complete_withoutLiveTrail_rebuildsFromDriverLocations() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        List<GpsTrailCodec.Point> history = new ArrayList<>();
+        history.add(new GpsTrailCodec.Point(LAT, LNG, start.toEpochMilli()));
+        history.add(new GpsTrailCodec.Point(LAT + 0.01, LNG, start.plusSeconds(60).toEpochMilli()));
+        stubHistory(history);
+
+        Object[] args = capturedInsert();
+
+        assertThat(args[4]).isEqualTo(2);
+        assertThat(GpsTrailCodec.decode((byte[]) args[8])).hasSize(2);
+    }
+
+    @Test
+    void complete_withPartialLiveTrail_mergesSamplesFromOtherInstances() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        // This instance saw the first leg; another one saw the turn east
+        driveNorth(3);
+        stubHistory(List.of(point(LAT, 0),
+                new GpsTrailCodec.Point(LAT + 0.0002, LNG + 0.01, start.plusSeconds(300).toEpochMilli())));
+
+        Object[] args = capturedInsert();
+
+        assertThat(args[4]).isEqualTo(4);
+        List<GpsTrailCodec.Point> decoded = GpsTrailCodec.decode((byte[]) args[8]);
+        assertThat(decoded.get(decoded.size() - 1).lng()).isCloseTo(LNG + 0.01, within(0.00001));
+    }
+
+    @Test
+    void complete_excludesSamplesFromBeforeTheAssignment() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        OffsetDateTime assignedAt = OffsetDateTime.parse("2026-03-10T12:00:00Z");
+        // 11:40 is the driver's previous delivery; only the two samples after the assignment count
+        stubHistory(List.of(point(LAT + 0.05, -1_200), point(LAT, 0), point(LAT + 0.001, 60)));
+        Order order = order();
+        order.setCreatedAt(assignedAt.minusMinutes(30));
+        order.setAssignedAt(assignedAt);
+
+        Object[] args = capturedInsert(order);
+
+        verify(jdbcTemplate).query(startsWith("SELECT lat, lng, recorded_at FROM driver_locations"),
+                ArgumentMatchers.<RowMapper<GpsTrailCodec.Point>>any(), eq(driverId), eq(assignedAt), any());
+        assertThat(args[4]).isEqualTo(2);
+        assertThat(GpsTrailCodec.decode((byte[]) args[8]))
+                .allSatisfy(p -> assertThat(p.epochMillis()).isGreaterThanOrEqualTo(start.toEpochMilli()));
+    }
+
+    @Test
+    void complete_withoutTrailOrDriver_doesNothing() {
+        store.complete(Order.builder().id(orderId).createdAt(OffsetDateTime.now()).build());
+
+        verifyNoInteractions(jdbcTemplate, transactionManager);
+    }
+
+    @Test
+    void append_atMaxPoints_simplifiesInPlace() {
+        ReflectionTestUtils.setField(store, "maxPoints", 50);
+        driveNorth(60);
+        stubActiveOrder();
+
+        DeliveryTrailStore.DeliveryTrail trail = store.getTrail(orderId).orElseThrow();
+
+        assertThat(trail.rawPoints()).isEqualTo(60);
+        assertThat(trail.points().size()).isLessThan(50);
+        assertThat(trail.points().get(trail.points().size() - 1).lat()).isCloseTo(LAT + 59 * 0.0001, within(1e-9));
+    }
+}
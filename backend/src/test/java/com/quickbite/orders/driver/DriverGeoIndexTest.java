@@ -0,0 +1,157 @@
+package com.quickbite.orders.driver;
+
+import com.quickbite.users.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DriverGeoIndex (grid bucketing, k-nearest search, reconciliation).
+ */
+@ExtendWith(MockitoExtension.class)
+class DriverGeoIndexTest {
+
+    private static final double LAT = 12.9716;
+    private static final double LNG = 77.5946;
+
+    @Mock
+    private DriverProfileRepository driverProfileRepository;
+
+    @Mock
+    private DriverPresenceService driverPresenceService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DriverGeoIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new DriverGeoIndex(driverProfileRepository, driverPresenceService, transactionManager, new SimpleMeterRegistry(), 1.0);
+    }
+
+    private UUID onlineAt(double lat, double lng) {
+        UUID driverId = UUID.randomUUID();
+        index.online(driverId);
+        index.updateLocation(driverId, lat, lng);
+        return driverId;
+    }
+
+    @Test
+    void nearest_returnsClosestWithinRadiusInOrder() {
+        UUID near = onlineAt(LAT + 0.005, LNG);        // ~0.6 km
+        UUID mid = onlineAt(LAT, LNG + 0.03);          // ~3.3 km
+        UUID far = onlineAt(LAT + 0.2, LNG);           // ~22 km
+
+        List<DriverGeoIndex.Candidate> result = index.nearest(LAT, LNG, 10.0, 5);
+
+        assertThat(result).extracting(DriverGeoIndex.Candidate::driverId).containsExactly(near, mid);
+        assertThat(result.get(0).distanceKm()).isCloseTo(0.56, within(0.05));
+        assertThat(result).extracting(DriverGeoIndex.Candidate::driverId).doesNotContain(far);
+    }
+
+    @Test
+    void nearest_limitsToK() {
+        UUID first = onlineAt(LAT + 0.001, LNG);
+        UUID second = onlineAt(LAT + 0.002, LNG);
+        onlineAt(LAT + 0.05, LNG);
+        onlineAt(LAT - 0.06, LNG + 0.01);
+
+        assertThat(index.nearest(LAT, LNG, 10.0, 2))
+                .extracting(DriverGeoIndex.Candidate::driverId)
+                .containsExactly(first, second);
+    }
+
+    @Test
+    void pingsWithoutShift_areNotSearchable() {
+        UUID driverId = UUID.randomUUID();
+        index.updateLocation(driverId, LAT, LNG);
+
+        assertThat(index.nearest(LAT, LNG, 5.0, 5)).isEmpty();
+
+        index.online(driverId);
+        assertThat(index.nearest(LAT, LNG, 5.0, 5)).extracting(DriverGeoIndex.Candidate::driverId)
+                .containsExactly(driverId);
+    }
+
+    @Test
+    void offline_removesDriver_andMovesFollowPings() {
+        UUID driverId = onlineAt(LAT, LNG);
+        index.updateLocation(driverId, LAT + 0.1, LNG);
+
+        assertThat(index.nearest(LAT, LNG, 5.0, 5)).isEmpty();
+        assertThat(index.nearest(LAT + 0.1, LNG, 5.0, 5)).hasSize(1);
+        assertThat(index.indexedCount()).isEqualTo(1);
+
+        index.offline(driverId);
+        assertThat(index.nearest(LAT + 0.1, LNG, 5.0, 5)).isEmpty();
+        assertThat(index.indexedCount()).isZero();
+    }
+
+    @Test
+    void nearest_skipsStalePositions() {
+        ReflectionTestUtils.setField(index, "maxAgeMinutes", -1L);
+        onlineAt(LAT, LNG);
+
+        assertThat(index.nearest(LAT, LNG, 5.0, 5)).isEmpty();
+    }
+
+    @Test
+    void presenceEvents_addAndRemoveDrivers() {
+        UUID driverId = UUID.randomUUID();
+        index.updateLocation(driverId, LAT, LNG);
+        assertThat(index.nearest(LAT, LNG, 5.0, 5)).isEmpty();
+
+        index.onPresenceChanged(new DriverPresenceEvent(driverId, true, DriverPresenceEvent.Cause.HEARTBEAT, Instant.now()));
+        assertThat(index.nearest(LAT, LNG, 5.0, 5)).extracting(DriverGeoIndex.Candidate::driverId).containsExactly(driverId);
+
+        index.onPresenceChanged(new DriverPresenceEvent(driverId, false, DriverPresenceEvent.Cause.EXPIRED, Instant.now()));
+        assertThat(index.nearest(LAT, LNG, 5.0, 5)).isEmpty();
+    }
+
+    private DriverProfile onlineProfile(UUID userId, double lat) {
+        return DriverProfile.builder()
+                .user(User.builder().id(userId).build())
+                .isOnline(true)
+                .currentLat(BigDecimal.valueOf(lat))
+                .currentLng(BigDecimal.valueOf(LNG))
+                .lastSeenAt(OffsetDateTime.now())
+                .build();
+    }
+
+    @Test
+    void reconcile_loadsPresentOnlineProfilesAndDropsOthers() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        UUID stale = onlineAt(LAT, LNG);
+        UUID fromDb = UUID.randomUUID();
+        UUID lapsed = UUID.randomUUID();
+        when(driverPresenceService.onlineDriverIds()).thenReturn(Set.of(fromDb));
+        when(driverProfileRepository.findOnlineActiveDrivers())
+                .thenReturn(List.of(onlineProfile(fromDb, LAT + 0.002), onlineProfile(lapsed, LAT + 0.001)));
+
+        assertThat(index.isReady()).isFalse();
+        index.reconcile();
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.nearest(LAT, LNG, 5.0, 5)).extracting(DriverGeoIndex.Candidate::driverId)
+                .containsExactly(fromDb)
+                .doesNotContain(stale);
+    }
+}
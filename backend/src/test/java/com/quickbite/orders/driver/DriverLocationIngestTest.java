@@ -0,0 +1,199 @@
+package com.quickbite.orders.driver;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DriverLocationIngest (rate guard, dedupe, drop policy, batched flush).
+ */
+@ExtendWith(MockitoExtension.class)
+class DriverLocationIngestTest {
+
+    private static final double LAT = 12.9716;
+    private static final double LNG = 77.5946;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private DriverGeoIndex driverGeoIndex;
+
+    @Mock
+    private DeliveryTrailStore deliveryTrailStore;
+
+    private SimpleMeterRegistry meterRegistry;
+    private DriverLocationIngest ingest;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ingest = new DriverLocationIngest(jdbcTemplate, transactionManager, driverGeoIndex,
+                deliveryTrailStore, meterRegistry);
+    }
+
+    private static DriverLocationIngest.LocationPing ping(UUID driverId, double lat, double lng) {
+        return new DriverLocationIngest.LocationPing(driverId, lat, lng, 5.0, null, null,
+                Instant.now(), null);
+    }
+
+    @Test
+    void offer_updatesGeoIndexAndQueues() {
+        UUID driverId = UUID.randomUUID();
+
+        assertThat(ingest.offer(ping(driverId, LAT, LNG))).isEqualTo(DriverLocationIngest.Outcome.ACCEPTED);
+
+        verify(driverGeoIndex).updateLocation(driverId, LAT, LNG);
+        assertThat(ingest.queued()).isEqualTo(1);
+    }
+
+    @Test
+    void offer_identicalFix_isDeduplicated() {
+        UUID driverId = UUID.randomUUID();
+
+        ingest.offer(ping(driverId, LAT, LNG));
+
+        assertThat(ingest.offer(ping(driverId, LAT, LNG))).isEqualTo(DriverLocationIngest.Outcome.DEDUPLICATED);
+        assertThat(ingest.queued()).isEqualTo(1);
+        assertThat(meterRegistry.counter("driver.location.ingest.deduplicated").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void offer_overBudget_isRateLimitedPerDriver() {
+        ReflectionTestUtils.setField(ingest, "maxPerMinute", 3);
+        UUID driverId = UUID.randomUUID();
+        for (int i = 0; i < 3; i++) {
+            assertThat(ingest.offer(ping(driverId, LAT + i * 0.001, LNG)))
+                    .isEqualTo(DriverLocationIngest.Outcome.ACCEPTED);
+        }
+
+        assertThat(ingest.offer(ping(driverId, LAT + 0.01, LNG))).isEqualTo(DriverLocationIngest.Outcome.RATE_LIMITED);
+        assertThat(ingest.offer(ping(UUID.randomUUID(), LAT, LNG))).isEqualTo(DriverLocationIngest.Outcome.ACCEPTED);
+        verify(driverGeoIndex).updateLocation(driverId, LAT + 0.01, LNG);
+    }
+
+    @Test
+    void offer_fullQueue_dropNewestRejectsPing() {
+        ReflectionTestUtils.setField(ingest, "capacity", 2);
+        ReflectionTestUtils.setField(ingest, "dropPolicy", DriverLocationIngest.DropPolicy.DROP_NEWEST);
+        ingest.offer(ping(UUID.randomUUID(), LAT, LNG));
+        ingest.offer(ping(UUID.randomUUID(), LAT, LNG));
+
+        assertThat(ingest.offer(ping(UUID.randomUUID(), LAT, LNG))).isEqualTo(DriverLocationIngest.Outcome.DROPPED);
+        assertThat(ingest.queued()).isEqualTo(2);
+        assertThat(meterRegistry.counter("driver.location.ingest.dropped").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void offer_fullQueue_dropOldestKeepsLatest() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        ReflectionTestUtils.setField(ingest, "capacity", 2);
+        UUID oldest = UUID.randomUUID();
+        UUID latest = UUID.randomUUID();
+        ingest.offer(ping(oldest, LAT, LNG));
+        ingest.offer(ping(UUID.randomUUID(), LAT, LNG));
+
+        assertThat(ingest.offer(ping(latest, LAT, LNG))).isEqualTo(DriverLocationIngest.Outcome.ACCEPTED);
+        assertThat(ingest.queued()).isEqualTo(2);
+
+        ingest.flush();
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO driver_locations"), rows.capture());
+        assertThat(rows.getValue()).extracting(row -> row[1]).doesNotContain(oldest).contains(latest);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_writesLocationsAndOneProfileUpdatePerDriver() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        UUID driverId = UUID.randomUUID();
+        UUID orderId = UUID.randomUUID();
+        Instant first = Instant.now().minusSeconds(10);
+        ingest.offer(new DriverLocationIngest.LocationPing(driverId, LAT, LNG, null, null, null,
+                first, null));
+        ingest.offer(new DriverLocationIngest.LocationPing(driverId, LAT + 0.001, LNG, null, null, null,
+                first.plusSeconds(5), orderId));
+
+        ingest.flush();
+
+        ArgumentCaptor<List<Object[]>> locations = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<Object[]>> profiles = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO driver_locations"), locations.capture());
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE driver_profiles"), profiles.capture());
+        assertThat(locations.getValue()).hasSize(2);
+        assertThat(profiles.getValue()).hasSize(1);
+        assertThat(profiles.getValue().get(0)[4]).isEqualTo(driverId);
+        assertThat(((BigDecimal) profiles.getValue().get(0)[0]).doubleValue()).isEqualTo(LAT + 0.001);
+        verify(jdbcTemplate, never()).batchUpdate(startsWith("INSERT INTO delivery_status"), anyList());
+        verify(deliveryTrailStore).append(orderId, driverId, LAT + 0.001, LNG, first.plusSeconds(5));
+        verifyNoMoreInteractions(deliveryTrailStore);
+        assertThat(ingest.queued()).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_rateLimitedPing_stillUpdatesProfilePosition() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        ReflectionTestUtils.setField(ingest, "maxPerMinute", 1);
+        UUID driverId = UUID.randomUUID();
+        Instant first = Instant.now().minusSeconds(2);
+        ingest.offer(new DriverLocationIngest.LocationPing(driverId, LAT, LNG, null, null, null,
+                first, null));
+
+        assertThat(ingest.offer(new DriverLocationIngest.LocationPing(driverId, LAT + 0.002, LNG, null, null, null,
+                first.plusSeconds(1), null))).isEqualTo(DriverLocationIngest.Outcome.RATE_LIMITED);
+        ingest.flush();
+
+        ArgumentCaptor<List<Object[]>> locations = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<Object[]>> profiles = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO driver_locations"), locations.capture());
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE driver_profiles"), profiles.capture());
+        assertThat(locations.getValue()).hasSize(1);
+        assertThat(((BigDecimal) profiles.getValue().get(0)[0]).doubleValue()).isEqualTo(LAT + 0.002);
+        assertThat(profiles.getValue().get(0)[2]).isEqualTo(java.sql.Timestamp.from(first.plusSeconds(1)));
+    }
+
+    @Test
+    void flush_onlyDeduplicatedPings_updatesProfileWithoutHistory() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        UUID driverId = UUID.randomUUID();
+        ingest.offer(ping(driverId, LAT, LNG));
+        ingest.flush();
+        clearInvocations(jdbcTemplate);
+
+        assertThat(ingest.offer(ping(driverId, LAT, LNG))).isEqualTo(DriverLocationIngest.Outcome.DEDUPLICATED);
+        ingest.flush();
+
+        verify(jdbcTemplate, never()).batchUpdate(startsWith("INSERT INTO driver_locations"), anyList());
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE driver_profiles"), anyList());
+    }
+
+    @Test
+    void flush_emptyQueue_doesNothing() {
+        ingest.flush();
+
+        verifyNoInteractions(jdbcTemplate, transactionManager);
+    }
+}
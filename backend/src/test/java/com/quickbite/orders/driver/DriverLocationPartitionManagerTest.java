@@ -0,0 +1,80 @@
+package com.quickbite.orders.driver;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DriverLocationPartitionManager (pre-creation and partition-drop retention).
+ */
+@ExtendWith(MockitoExtension.class)
+class DriverLocationPartitionManagerTest {
+
+    private static final OffsetDateTime NOW = OffsetDateTime.of(2026, 3, 10, 1, 30, 0, 0, ZoneOffset.UTC);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private DriverLocationPartitionManager manager;
+
+    @BeforeEach
+    void setUp() {
+        manager = new DriverLocationPartitionManager(jdbcTemplate, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void maintain_createsMissingDaysAndDropsExpired() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("driver_locations"))).thenReturn(List.of(
+                "driver_locations_default",
+                "driver_locations_p20260308",
+                "driver_locations_p20260309",
+                "driver_locations_p20260310",
+                "driver_locations_p20260311"));
+
+        manager.maintain(NOW);
+
+        verify(jdbcTemplate).execute(contains("driver_locations_p20260312 PARTITION OF driver_locations FOR VALUES FROM ('2026-03-12 00:00:00+00') TO ('2026-03-13 00:00:00+00')"));
+        verify(jdbcTemplate).execute(contains("driver_locations_p20260313 PARTITION OF"));
+        verify(jdbcTemplate).execute("DROP TABLE IF EXISTS driver_locations_p20260308");
+        verify(jdbcTemplate, never()).execute("DROP TABLE IF EXISTS driver_locations_p20260309");
+        verify(jdbcTemplate, never()).execute(contains("driver_locations_p20260310 PARTITION OF"));
+        verify(jdbcTemplate).update(startsWith("DELETE FROM driver_locations_default"), any(OffsetDateTime.class));
+    }
+
+    @Test
+    void expired_keepsPartitionsOverlappingRetentionWindow() {
+        TreeSet<LocalDate> existing = new TreeSet<>(List.of(
+                LocalDate.of(2026, 3, 8), LocalDate.of(2026, 3, 9), LocalDate.of(2026, 3, 10)));
+
+        // cutoff 2026-03-09T01:30Z: the 8th ended before it, the 9th still holds retained rows
+        assertThat(manager.expired(existing, NOW)).containsExactly(LocalDate.of(2026, 3, 8));
+        assertThat(manager.expired(existing, NOW.plusHours(23))).containsExactly(
+                LocalDate.of(2026, 3, 8), LocalDate.of(2026, 3, 9));
+    }
+
+    @Test
+    void maintain_creationFailure_doesNotStopRetention() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("driver_locations")))
+                .thenReturn(List.of("driver_locations_p20260301"));
+        lenient().doThrow(new RuntimeException("updated partition constraint for default partition would be violated"))
+                .when(jdbcTemplate).execute(contains("PARTITION OF"));
+
+        manager.maintain(NOW);
+
+        verify(jdbcTemplate).execute("DROP TABLE IF EXISTS driver_locations_p20260301");
+    }
+}
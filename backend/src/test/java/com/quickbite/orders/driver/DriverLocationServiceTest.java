@@ -2,7 +2,6 @@ package com.quickbite.orders.driver;
 
 import com.quickbite.users.entity.Role;
 import com.quickbite.users.entity.User;
-import com.quickbite.users.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,13 +12,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.assertj.core.api.Assertions.assertThatThrownBy;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -31,12 +26,13 @@ class DriverLocationServiceTest {
 
     @Mock private DriverLocationRepository locationRepository;
     @Mock private DriverProfileService profileService;
-    @Mock private UserRepository userRepository;
+    @Mock private DriverLocationPartitionManager partitionManager;
 
     @InjectMocks private DriverLocationService service;
 
     private UUID driverId;
     private User driver;
+    private final OffsetDateTime since = OffsetDateTime.now().minusDays(1);
 
     @BeforeEach
     void setUp() {
@@ -50,71 +46,6 @@ class DriverLocationServiceTest {
                 .build();
     }
 
-    // ── recordLocation ───────────────────────────────────────────
-
-    @Test
-    void recordLocation_savesAndUpdatesProfile() {
-        when(locationRepository.countByDriverIdSince(eq(driverId), any())).thenReturn(0L);
-        when(userRepository.findById(driverId)).thenReturn(Optional.of(driver));
-        when(locationRepository.save(any())).thenAnswer(inv -> {
-            DriverLocation loc = inv.getArgument(0);
-            loc.setId(UUID.randomUUID());
-            return loc;
-        });
-
-        DriverLocation result = service.recordLocation(driverId, 40.7128, -74.0060, 5.0, 10.0, 180.0);
-
-        assertThat(result).isNotNull();
-        assertThat(result.getLat().doubleValue()).isCloseTo(40.7128, org.assertj.core.data.Offset.offset(0.001));
-        assertThat(result.getLng().doubleValue()).isCloseTo(-74.006, org.assertj.core.data.Offset.offset(0.001));
-        assertThat(result.getAccuracy()).isEqualTo(5.0);
-        assertThat(result.getSpeed()).isEqualTo(10.0);
-        assertThat(result.getHeading()).isEqualTo(180.0);
-
-        verify(locationRepository).save(any());
-        verify(profileService).updateLocation(driverId, 40.7128, -74.0060);
-    }
-
-    @Test
-    void recordLocation_rateLimited_returnsNull() {
-        // 12 samples already recorded in the last minute
-        when(locationRepository.countByDriverIdSince(eq(driverId), any())).thenReturn(12L);
-
-        DriverLocation result = service.recordLocation(driverId, 40.7128, -74.0060, null, null, null);
-
-        assertThat(result).isNull();
-        verify(locationRepository, never()).save(any());
-        verify(profileService, never()).updateLocation(any(), anyDouble(), anyDouble());
-    }
-
-    @Test
-    void recordLocation_userNotFound_throws() {
-        when(locationRepository.countByDriverIdSince(eq(driverId), any())).thenReturn(0L);
-        when(userRepository.findById(driverId)).thenReturn(Optional.empty());
-
-        assertThatThrownBy(() -> service.recordLocation(driverId, 40.0, -74.0, null, null, null))
-                .isInstanceOf(RuntimeException.class)
-                .hasMessageContaining("Driver user not found");
-    }
-
-    @Test
-    void recordLocation_nullOptionalFields_savesSuccessfully() {
-        when(locationRepository.countByDriverIdSince(eq(driverId), any())).thenReturn(0L);
-        when(userRepository.findById(driverId)).thenReturn(Optional.of(driver));
-        when(locationRepository.save(any())).thenAnswer(inv -> {
-            DriverLocation loc = inv.getArgument(0);
-            loc.setId(UUID.randomUUID());
-            return loc;
-        });
-
-        DriverLocation result = service.recordLocation(driverId, 40.7128, -74.0060, null, null, null);
-
-        assertThat(result).isNotNull();
-        assertThat(result.getAccuracy()).isNull();
-        assertThat(result.getSpeed()).isNull();
-        assertThat(result.getHeading()).isNull();
-    }
-
     // ── getRecentLocations ───────────────────────────────────────
 
     @Test
@@ -141,7 +72,8 @@ class DriverLocationServiceTest {
                 .recordedAt(OffsetDateTime.now())
                 .build();
 
-        when(locationRepository.findTop20ByDriverIdOrderByRecordedAtDesc(driverId))
+        when(partitionManager.retainedSince()).thenReturn(since);
+        when(locationRepository.findTop20ByDriverIdAndRecordedAtGreaterThanEqualOrderByRecordedAtDesc(driverId, since))
                 .thenReturn(List.of(loc2, loc1));
 
         List<DriverLocationDTO> result = service.getRecentLocations(driverId);
@@ -153,7 +85,8 @@ class DriverLocationServiceTest {
 
     @Test
     void getRecentLocations_empty_returnsEmpty() {
-        when(locationRepository.findTop20ByDriverIdOrderByRecordedAtDesc(driverId))
+        when(partitionManager.retainedSince()).thenReturn(since);
+        when(locationRepository.findTop20ByDriverIdAndRecordedAtGreaterThanEqualOrderByRecordedAtDesc(driverId, since))
                 .thenReturn(List.of());
 
         List<DriverLocationDTO> result = service.getRecentLocations(driverId);
@@ -174,7 +107,8 @@ class DriverLocationServiceTest {
                 .recordedAt(OffsetDateTime.now())
                 .build();
 
-        when(locationRepository.findFirstByDriverIdOrderByRecordedAtDesc(driverId)).thenReturn(loc);
+        when(partitionManager.retainedSince()).thenReturn(since);
+        when(locationRepository.findFirstByDriverIdAndRecordedAtGreaterThanEqualOrderByRecordedAtDesc(driverId, since)).thenReturn(loc);
 
         DriverLocationDTO result = service.getLastLocation(driverId);
 
@@ -184,7 +118,8 @@ class DriverLocationServiceTest {
 
     @Test
     void getLastLocation_noLocations_returnsNull() {
-        when(locationRepository.findFirstByDriverIdOrderByRecordedAtDesc(driverId)).thenReturn(null);
+        when(partitionManager.retainedSince()).thenReturn(since);
+        when(locationRepository.findFirstByDriverIdAndRecordedAtGreaterThanEqualOrderByRecordedAtDesc(driverId, since)).thenReturn(null);
 
         DriverLocationDTO result = service.getLastLocation(driverId);
 
@@ -224,24 +159,4 @@ class DriverLocationServiceTest {
         assertThat(result.getShiftEndedAt()).isNotNull();
         verify(profileService).endShift(driverId);
     }
-
-    // ── pruneOldLocations ────────────────────────────────────────
-
-    @Test
-    void pruneOldLocations_deletesOldRecords() {
-        when(locationRepository.deleteOlderThan(any())).thenReturn(42);
-
-        service.pruneOldLocations();
-
-        verify(locationRepository).deleteOlderThan(any());
-    }
-
-    @Test
-    void pruneOldLocations_nothingToDelete_stillCalls() {
-        when(locationRepository.deleteOlderThan(any())).thenReturn(0);
-
-        service.pruneOldLocations();
-
-        verify(locationRepository).deleteOlderThan(any());
-    }
 }
@@ -0,0 +1,134 @@
+package com.quickbite.orders.driver;
+
+import com.quickbite.users.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DriverPresenceService over the in-process store (heartbeats, expiry, events).
+ */
+@ExtendWith(MockitoExtension.class)
+class DriverPresenceServiceTest {
+
+    @Mock
+    private DriverProfileRepository driverProfileRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private DriverPresenceService presence;
+    private UUID driverId;
+
+    @BeforeEach
+    void setUp() {
+        presence = new DriverPresenceService(new LocalDriverPresenceStore(), driverProfileRepository,
+                eventPublisher, new SimpleMeterRegistry());
+        driverId = UUID.randomUUID();
+    }
+
+    private List<DriverPresenceEvent> events(int expected) {
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, times(expected)).publishEvent(captor.capture());
+        return captor.getAllValues().stream().map(DriverPresenceEvent.class::cast).toList();
+    }
+
+    private void stubProfileOnline(boolean online) {
+        when(driverProfileRepository.findByUserId(driverId)).thenReturn(Optional.of(DriverProfile.builder()
+                .user(User.builder().id(driverId).build())
+                .isOnline(online)
+                .build()));
+    }
+
+    @Test
+    void signedOn_thenOff_publishesEachChangeOnce() {
+        presence.signedOn(driverId);
+        presence.signedOn(driverId);
+
+        assertThat(presence.isOnline(driverId)).isTrue();
+        assertThat(presence.onlineDriverIds()).containsExactly(driverId);
+        assertThat(presence.onlineCount()).isEqualTo(1);
+
+        presence.signedOff(driverId);
+        presence.signedOff(driverId);
+
+        assertThat(presence.isOnline(driverId)).isFalse();
+        assertThat(events(2)).extracting(DriverPresenceEvent::online, DriverPresenceEvent::cause)
+                .containsExactly(tuple(true, DriverPresenceEvent.Cause.SIGNED_ON),
+                        tuple(false, DriverPresenceEvent.Cause.SIGNED_OFF));
+    }
+
+    @Test
+    void sweep_expiresDriversWithoutHeartbeat() {
+        ReflectionTestUtils.setField(presence, "ttlSeconds", 0L);
+        presence.signedOn(driverId);
+
+        presence.sweep();
+        presence.sweep();
+
+        assertThat(presence.isOnline(driverId)).isFalse();
+        assertThat(events(2)).extracting(DriverPresenceEvent::cause)
+                .containsExactly(DriverPresenceEvent.Cause.SIGNED_ON, DriverPresenceEvent.Cause.EXPIRED);
+    }
+
+    @Test
+    void ping_presentDriver_renewsWithoutQuery() {
+        presence.signedOn(driverId);
+        ReflectionTestUtils.setField(presence, "ttlSeconds", 0L);   // no renewal throttle
+
+        presence.ping(driverId);
+
+        assertThat(presence.isOnline(driverId)).isFalse();   // renewed with the new (zero) TTL
+        verifyNoInteractions(driverProfileRepository);
+    }
+
+    @Test
+    void ping_lapsedDriverStillSignedOn_comesBackOnline() {
+        stubProfileOnline(true);
+
+        presence.ping(driverId);
+        presence.ping(driverId);   // throttled
+
+        assertThat(presence.isOnline(driverId)).isTrue();
+        assertThat(events(1)).extracting(DriverPresenceEvent::cause)
+                .containsExactly(DriverPresenceEvent.Cause.HEARTBEAT);
+        verify(driverProfileRepository, times(1)).findByUserId(driverId);
+    }
+
+    @Test
+    void ping_signedOffDriver_staysOffline() {
+        stubProfileOnline(false);
+
+        presence.ping(driverId);
+
+        assertThat(presence.isOnline(driverId)).isFalse();
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void reads_storeUnavailable_fallBackToProfiles() {
+        DriverPresenceStore failing = mock(DriverPresenceStore.class);
+        when(failing.present(any())).thenThrow(new RuntimeException("connection refused"));
+        presence = new DriverPresenceService(failing, driverProfileRepository, eventPublisher, new SimpleMeterRegistry());
+        when(driverProfileRepository.findOnlineActiveDrivers()).thenReturn(List.of(DriverProfile.builder()
+                .user(User.builder().id(driverId).build())
+                .isOnline(true)
+                .build()));
+
+        assertThat(presence.onlineDriverIds()).containsExactly(driverId);
+    }
+}
@@ -27,6 +27,7 @@ class DriverProfileServiceTest {
 
     @Mock private DriverProfileRepository driverProfileRepository;
     @Mock private UserRepository userRepository;
+    @Mock private DriverPresenceService driverPresenceService;
 
     @InjectMocks private DriverProfileService service;
 
@@ -137,6 +138,7 @@ class DriverProfileServiceTest {
 
         assertThat(dto.getIsOnline()).isTrue();
         assertThat(existingProfile.getLastSeenAt()).isNotNull();
+        verify(driverPresenceService).signedOn(userId);
     }
 
     @Test
@@ -148,18 +150,17 @@ class DriverProfileServiceTest {
         DriverProfileDTO dto = service.toggleOnlineStatus(userId, false);
 
         assertThat(dto.getIsOnline()).isFalse();
+        verify(driverPresenceService).signedOff(userId);
     }
 
     @Test
-    void updateLocation_setsGps() {
-        when(driverProfileRepository.findByUserId(userId)).thenReturn(Optional.of(existingProfile));
-        when(driverProfileRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
-
-        service.updateLocation(userId, 40.7128, -74.0060);
+    void getOnlineDrivers_readsPresence() {
+        existingProfile.setIsOnline(true);
+        when(driverPresenceService.onlineDriverIds()).thenReturn(java.util.Set.of(userId));
+        when(driverProfileRepository.findByUserIds(java.util.Set.of(userId))).thenReturn(java.util.List.of(existingProfile));
 
-        assertThat(existingProfile.getCurrentLat().doubleValue()).isCloseTo(40.7128, org.assertj.core.data.Offset.offset(0.001));
-        assertThat(existingProfile.getCurrentLng().doubleValue()).isCloseTo(-74.006, org.assertj.core.data.Offset.offset(0.001));
-        assertThat(existingProfile.getLastSeenAt()).isNotNull();
+        assertThat(service.getOnlineDrivers()).containsExactly(existingProfile);
+        verify(driverProfileRepository, never()).findByIsOnlineTrue();
     }
 
     @Test
@@ -0,0 +1,38 @@
+package com.quickbite.orders.driver;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for GeoGrid (cell keys, ring sizing towards the poles).
+ */
+class GeoGridTest {
+
+    private final GeoGrid grid = new GeoGrid(1.0);
+
+    @Test
+    void cellKey_samePointsShareACell_neighboursDoNot() {
+        assertThat(grid.cellKey(12.9716, 77.5946)).isEqualTo(grid.cellKey(12.9717, 77.5947));
+        assertThat(grid.cellKey(12.9716, 77.5946)).isNotEqualTo(grid.cellKey(12.9716 + 0.01, 77.5946));
+        assertThat(grid.cellKey(12.9716, 77.5946))
+                .isEqualTo(GeoGrid.cellKey(grid.latIndex(12.9716), grid.lngIndex(77.5946)));
+    }
+
+    @Test
+    void rings_atEquator_areSquare() {
+        GeoGrid.Rings rings = grid.rings(0.0, 5.0);
+
+        assertThat(rings.lat()).isBetween(5, 6);
+        assertThat(rings.lng()).isEqualTo(rings.lat());
+    }
+
+    @Test
+    void rings_nearThePole_coverMoreLongitudeCells() {
+        GeoGrid.Rings rings = grid.rings(60.0, 5.0);
+
+        assertThat(rings.lat()).isBetween(5, 6);
+        assertThat(rings.lng()).isGreaterThanOrEqualTo(2 * 5);
+        assertThat(rings.cosLat()).isLessThan(0.5);
+    }
+}
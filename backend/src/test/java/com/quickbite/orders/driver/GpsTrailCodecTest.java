@@ -0,0 +1,97 @@
+package com.quickbite.orders.driver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for GpsTrailCodec (Douglas–Peucker simplification, delta/varint round trip).
+ */
+class GpsTrailCodecTest {
+
+    private static final double LAT = 12.9716;
+    private static final double LNG = 77.5946;
+    private static final long T0 = 1_760_000_000_000L;
+
+    private static List<GpsTrailCodec.Point> straightLine(int n) {
+        List<GpsTrailCodec.Point> points = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            points.add(new GpsTrailCodec.Point(LAT + i * 0.0001, LNG + i * 0.0001, T0 + i * 5_000L));
+        }
+        return points;
+    }
+
+    @Test
+    void simplify_straightLine_keepsEndpointsOnly() {
+        List<GpsTrailCodec.Point> line = straightLine(200);
+
+        List<GpsTrailCodec.Point> simplified = GpsTrailCodec.simplify(line, 5.0);
+
+        assertThat(simplified).containsExactly(line.get(0), line.get(199));
+    }
+
+    @Test
+    void simplify_keepsCornersBeyondTolerance() {
+        List<GpsTrailCodec.Point> route = new ArrayList<>();
+        for (int i = 0; i <= 50; i++) {        // north ~550 m
+            route.add(new GpsTrailCodec.Point(LAT + i * 0.0001, LNG, T0 + i * 5_000L));
+        }
+        for (int i = 1; i <= 50; i++) {        // then east
+            route.add(new GpsTrailCodec.Point(LAT + 0.005, LNG + i * 0.0001, T0 + (50 + i) * 5_000L));
+        }
+
+        List<GpsTrailCodec.Point> simplified = GpsTrailCodec.simplify(route, 5.0);
+
+        assertThat(simplified).containsExactly(route.get(0), route.get(50), route.get(100));
+    }
+
+    @Test
+    void simplify_smallJitter_isRemoved() {
+        List<GpsTrailCodec.Point> line = new ArrayList<>(straightLine(20));
+        GpsTrailCodec.Point p = line.get(10);
+        line.set(10, new GpsTrailCodec.Point(p.lat() + 0.00002, p.lng(), p.epochMillis()));   // ~2 m off
+
+        assertThat(GpsTrailCodec.simplify(line, 5.0)).hasSize(2);
+        assertThat(GpsTrailCodec.simplify(line, 1.0)).contains(line.get(10));
+    }
+
+    @Test
+    void encodeDecode_roundTripsWithinResolution() {
+        List<GpsTrailCodec.Point> points = List.of(
+                new GpsTrailCodec.Point(LAT, LNG, T0),
+                new GpsTrailCodec.Point(LAT + 0.00123, LNG - 0.00456, T0 + 4_000),
+                new GpsTrailCodec.Point(-33.8688, 151.2093, T0 + 9_000),
+                new GpsTrailCodec.Point(40.7128, -74.0060, T0 + 3_600_000));
+
+        List<GpsTrailCodec.Point> decoded = GpsTrailCodec.decode(GpsTrailCodec.encode(points));
+
+        assertThat(decoded).hasSize(points.size());
+        for (int i = 0; i < points.size(); i++) {
+            assertThat(decoded.get(i).lat()).isCloseTo(points.get(i).lat(), within(0.000006));
+            assertThat(decoded.get(i).lng()).isCloseTo(points.get(i).lng(), within(0.000006));
+            assertThat(decoded.get(i).epochMillis()).isEqualTo(points.get(i).epochMillis());
+        }
+    }
+
+    @Test
+    void encode_isCompact() {
+        byte[] encoded = GpsTrailCodec.encode(straightLine(500));
+
+        // first point ~13 bytes, then one byte per delta
+        assertThat(encoded.length).isLessThan(500 * 4);
+        assertThat(GpsTrailCodec.decode(encoded)).hasSize(500);
+    }
+
+    @Test
+    void decode_emptyAndInvalid() {
+        assertThat(GpsTrailCodec.decode(new byte[0])).isEmpty();
+        assertThat(GpsTrailCodec.decode(GpsTrailCodec.encode(List.of()))).isEmpty();
+        assertThatThrownBy(() -> GpsTrailCodec.decode(new byte[]{9, 1}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> GpsTrailCodec.decode(new byte[]{GpsTrailCodec.VERSION, 3, (byte) 0x80}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,96 @@
+package com.quickbite.orders.fraud;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for LocalFraudVelocityStore (seeding, sliding windows, eviction).
+ */
+class LocalFraudVelocityStoreTest {
+
+    private LocalFraudVelocityStore store;
+    private UUID customerId;
+    private Instant now;
+
+    @BeforeEach
+    void setUp() {
+        store = new LocalFraudVelocityStore(new SimpleMeterRegistry());
+        customerId = UUID.randomUUID();
+        now = Instant.parse("2026-03-01T12:30:00Z");
+    }
+
+    @Test
+    void snapshot_unseededCustomer_isEmpty() {
+        assertThat(store.snapshot(customerId, now)).isEmpty();
+    }
+
+    @Test
+    void record_unseededCustomer_isIgnored() {
+        store.recordOrder(customerId, 10_000, now);
+        store.recordCancellation(customerId, now);
+
+        assertThat(store.snapshot(customerId, now)).isEmpty();
+    }
+
+    @Test
+    void seed_countsOnlySamplesInsideEachWindow() {
+        store.seed(customerId, List.of(
+                new VelocitySample(now.minus(Duration.ofMinutes(10)), 20_000, null),
+                new VelocitySample(now.minus(Duration.ofHours(3)), 30_000, now.minus(Duration.ofHours(2))),
+                new VelocitySample(now.minus(Duration.ofDays(2)), 99_000, null)
+        ), now);
+
+        VelocitySnapshot snapshot = store.snapshot(customerId, now).orElseThrow();
+        assertThat(snapshot.ordersLastHour()).isEqualTo(1);
+        assertThat(snapshot.spendLastDayCents()).isEqualTo(50_000);
+        assertThat(snapshot.cancelledLastDay()).isEqualTo(1);
+        assertThat(snapshot).isEqualTo(VelocitySnapshot.fromSamples(List.of(
+                new VelocitySample(now.minus(Duration.ofMinutes(10)), 20_000, null),
+                new VelocitySample(now.minus(Duration.ofHours(3)), 30_000, now.minus(Duration.ofHours(2))),
+                new VelocitySample(now.minus(Duration.ofDays(2)), 99_000, null)), now));
+    }
+
+    @Test
+    void seed_alreadySeeded_isNoOp() {
+        store.seed(customerId, List.of(new VelocitySample(now, 10_000, null)), now);
+        store.seed(customerId, List.of(new VelocitySample(now, 10_000, null)), now);
+
+        assertThat(store.snapshot(customerId, now).orElseThrow().ordersLastHour()).isEqualTo(1);
+    }
+
+    @Test
+    void recordedOrders_slideOutOfHourWindow() {
+        store.seed(customerId, List.of(), now);
+        store.recordOrder(customerId, 10_000, now);
+        store.recordOrder(customerId, 15_000, now.plus(Duration.ofMinutes(30)));
+
+        VelocitySnapshot halfHourLater = store.snapshot(customerId, now.plus(Duration.ofMinutes(30))).orElseThrow();
+        assertThat(halfHourLater.ordersLastHour()).isEqualTo(2);
+        assertThat(halfHourLater.spendLastDayCents()).isEqualTo(25_000);
+
+        VelocitySnapshot twoHoursLater = store.snapshot(customerId, now.plus(Duration.ofHours(2))).orElseThrow();
+        assertThat(twoHoursLater.ordersLastHour()).isZero();
+        assertThat(twoHoursLater.spendLastDayCents()).isEqualTo(25_000);
+
+        VelocitySnapshot twoDaysLater = store.snapshot(customerId, now.plus(Duration.ofDays(2))).orElseThrow();
+        assertThat(twoDaysLater.spendLastDayCents()).isZero();
+    }
+
+    @Test
+    void recordCancellation_countsWithinDay() {
+        store.seed(customerId, List.of(), now);
+        store.recordCancellation(customerId, now);
+        store.recordCancellation(customerId, now.plus(Duration.ofHours(5)));
+
+        assertThat(store.snapshot(customerId, now.plus(Duration.ofHours(6))).orElseThrow().cancelledLastDay())
+                .isEqualTo(2);
+    }
+}
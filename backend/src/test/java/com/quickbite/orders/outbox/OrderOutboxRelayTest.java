@@ -0,0 +1,159 @@
+package com.quickbite.orders.outbox;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for OrderOutboxRelay (claiming, per-order ordering, retry + dead-lettering).
+ */
+@ExtendWith(MockitoExtension.class)
+class OrderOutboxRelayTest {
+
+    @Mock
+    private OrderOutboxRepository outboxRepository;
+
+    @Mock
+    private OrderOutboxDispatcher dispatcher;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OrderOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new OrderOutboxRelay(outboxRepository, dispatcher, jdbcTemplate, transactionManager, meterRegistry);
+        ReflectionTestUtils.setField(relay, "relayEnabled", true);
+        ReflectionTestUtils.setField(relay, "batchSize", 100);
+        ReflectionTestUtils.setField(relay, "maxAttempts", 3);
+        ReflectionTestUtils.setField(relay, "leaseSeconds", 30);
+
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    private void claimLock(boolean acquired) {
+        when(jdbcTemplate.queryForObject(eq("SELECT pg_try_advisory_xact_lock(?)"), eq(Boolean.class), anyLong()))
+                .thenReturn(acquired);
+    }
+
+    private OrderOutboxEvent event(UUID orderId, long seq, int attempts) {
+        return OrderOutboxEvent.builder()
+                .id(UUID.randomUUID())
+                .sequenceNo(seq)
+                .orderId(orderId)
+                .eventType(OutboxEventType.STATUS_CHANGED)
+                .status(OutboxStatus.PENDING)
+                .attempts(attempts)
+                .nextAttemptAt(OffsetDateTime.now())
+                .createdAt(OffsetDateTime.now())
+                .build();
+    }
+
+    @Test
+    void relay_lockHeldElsewhere_claimsNothing() {
+        claimLock(false);
+
+        relay.relay();
+
+        verify(outboxRepository, never()).findClaimable(any(), anyInt());
+        verifyNoInteractions(dispatcher);
+    }
+
+    @Test
+    void relay_dispatchesInSequenceAndMarksSent() {
+        claimLock(true);
+        UUID orderId = UUID.randomUUID();
+        OrderOutboxEvent first = event(orderId, 1, 0);
+        OrderOutboxEvent second = event(orderId, 2, 0);
+        when(outboxRepository.findClaimable(any(), eq(100))).thenReturn(List.of(first, second));
+
+        relay.relay();
+
+        assertThat(first.getStatus()).isEqualTo(OutboxStatus.IN_FLIGHT);
+        assertThat(first.getLockedUntil()).isNotNull();
+        var inOrder = inOrder(dispatcher);
+        inOrder.verify(dispatcher).dispatch(first);
+        inOrder.verify(dispatcher).dispatch(second);
+        verify(outboxRepository).markDispatched(eq(first.getId()), eq(OutboxStatus.SENT), any());
+        verify(outboxRepository).markDispatched(eq(second.getId()), eq(OutboxStatus.SENT), any());
+        assertThat(meterRegistry.counter("outbox.dispatched").count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void relay_failure_backsOffAndHoldsLaterEventsForSameOrder() {
+        claimLock(true);
+        UUID orderId = UUID.randomUUID();
+        UUID otherOrderId = UUID.randomUUID();
+        OrderOutboxEvent failing = event(orderId, 1, 0);
+        OrderOutboxEvent blocked = event(orderId, 2, 0);
+        OrderOutboxEvent unrelated = event(otherOrderId, 3, 0);
+        when(outboxRepository.findClaimable(any(), anyInt())).thenReturn(List.of(failing, blocked, unrelated));
+        when(outboxRepository.findById(failing.getId())).thenReturn(Optional.of(failing));
+        doThrow(new RuntimeException("notification insert failed")).when(dispatcher).dispatch(failing);
+
+        relay.relay();
+
+        verify(dispatcher, never()).dispatch(blocked);
+        verify(dispatcher).dispatch(unrelated);
+        verify(outboxRepository).release(List.of(blocked.getId()), OutboxStatus.PENDING);
+
+        ArgumentCaptor<OrderOutboxEvent> captor = ArgumentCaptor.forClass(OrderOutboxEvent.class);
+        verify(outboxRepository).save(captor.capture());
+        OrderOutboxEvent saved = captor.getValue();
+        assertThat(saved.getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(saved.getAttempts()).isEqualTo(1);
+        assertThat(saved.getLockedUntil()).isNull();
+        assertThat(saved.getNextAttemptAt()).isAfter(OffsetDateTime.now());
+        assertThat(saved.getLastError()).isEqualTo("notification insert failed");
+    }
+
+    @Test
+    void relay_maxAttemptsReached_parksEventAsFailed() {
+        claimLock(true);
+        OrderOutboxEvent event = event(UUID.randomUUID(), 1, 2);
+        when(outboxRepository.findClaimable(any(), anyInt())).thenReturn(List.of(event));
+        when(outboxRepository.findById(event.getId())).thenReturn(Optional.of(event));
+        doThrow(new RuntimeException("boom")).when(dispatcher).dispatch(event);
+
+        relay.relay();
+
+        assertThat(event.getStatus()).isEqualTo(OutboxStatus.FAILED);
+        assertThat(event.getAttempts()).isEqualTo(3);
+        assertThat(meterRegistry.counter("outbox.dead").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void relay_disabled_doesNothing() {
+        ReflectionTestUtils.setField(relay, "relayEnabled", false);
+
+        relay.relay();
+
+        verifyNoInteractions(jdbcTemplate, outboxRepository, dispatcher);
+    }
+}
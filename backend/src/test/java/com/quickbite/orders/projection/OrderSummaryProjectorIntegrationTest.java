@@ -0,0 +1,89 @@
+package com.quickbite.orders.projection;
+
+import com.quickbite.BaseIntegrationTest;
+import com.quickbite.orders.entity.Order;
+import com.quickbite.orders.repository.OrderRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Projection maintenance against the sample data: deferred upserts at commit and
+ * drift detection / repair for changes made outside the order write paths.
+ */
+class OrderSummaryProjectorIntegrationTest extends BaseIntegrationTest {
+
+    private static final UUID CUSTOMER_ID = UUID.fromString("bbbbbbbb-bbbb-bbbb-bbbb-bbbbbbbbbbbb");
+    private static final UUID ORDER_ID = UUID.fromString("20000001-0000-0000-0000-000000000001");
+
+    @Autowired
+    private OrderSummaryProjector projector;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void refresh_inTransaction_upsertsOnceAtCommit() {
+        Integer originalPrepMins = jdbcTemplate.queryForObject(
+                "SELECT estimated_prep_mins FROM orders WHERE id = ?", Integer.class, ORDER_ID);
+        double projectedBefore = meterRegistry.counter("order_summary.projected").count();
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                Order order = orderRepository.findById(ORDER_ID).orElseThrow();
+                order.setEstimatedPrepMins(42);
+                projector.refresh(ORDER_ID);
+                projector.refresh(ORDER_ID);
+
+                assertThat(summaryPrepMins()).isNotEqualTo(42);
+            });
+
+            assertThat(summaryPrepMins()).isEqualTo(42);
+            assertThat(meterRegistry.counter("order_summary.projected").count() - projectedBefore).isEqualTo(1.0);
+        } finally {
+            jdbcTemplate.update("UPDATE orders SET estimated_prep_mins = ? WHERE id = ?", originalPrepMins, ORDER_ID);
+            projector.refresh(ORDER_ID);
+        }
+    }
+
+    @Test
+    void checkConsistency_customerRenamed_detectsAndRepairsDrift() {
+        String originalName = jdbcTemplate.queryForObject(
+                "SELECT name FROM users WHERE id = ?", String.class, CUSTOMER_ID);
+        try {
+            jdbcTemplate.update("UPDATE users SET name = ? WHERE id = ?", "Renamed Customer", CUSTOMER_ID);
+
+            OrderSummaryProjector.ConsistencyReport report = projector.checkConsistency(null, true);
+
+            assertThat(report.drifted()).isPositive();
+            assertThat(report.repaired()).isEqualTo(report.drifted());
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT customer_name FROM order_summary WHERE order_id = ?", String.class, ORDER_ID))
+                    .isEqualTo("Renamed Customer");
+            assertThat(projector.checkConsistency(null, false).drifted()).isZero();
+        } finally {
+            jdbcTemplate.update("UPDATE users SET name = ? WHERE id = ?", originalName, CUSTOMER_ID);
+            projector.checkConsistency(null, true);
+        }
+    }
+
+    private Integer summaryPrepMins() {
+        return jdbcTemplate.queryForObject(
+                "SELECT estimated_prep_mins FROM order_summary WHERE order_id = ?", Integer.class, ORDER_ID);
+    }
+}
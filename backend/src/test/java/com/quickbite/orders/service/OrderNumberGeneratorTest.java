@@ -0,0 +1,67 @@
+package com.quickbite.orders.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for OrderNumberGenerator.
+ */
+class OrderNumberGeneratorTest {
+
+    @Test
+    void next_isCompactAndPrefixed() {
+        String number = new OrderNumberGenerator(7, System::currentTimeMillis).next();
+
+        assertThat(number).startsWith("ORD-").hasSize(17);
+        assertThat(number.substring(4)).matches("[0-9A-HJKMNP-TV-Z]{13}");
+    }
+
+    @Test
+    void next_isMonotonicWhenClockStallsOrStepsBack() {
+        AtomicLong clock = new AtomicLong(System.currentTimeMillis());
+        OrderNumberGenerator generator = new OrderNumberGenerator(3, clock::get);
+
+        List<String> numbers = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            numbers.add(generator.next()); // > 4096 per millisecond forces borrowing
+        }
+        clock.addAndGet(-10_000);
+        numbers.add(generator.next());
+
+        for (int i = 1; i < numbers.size(); i++) {
+            assertThat(numbers.get(i)).isGreaterThan(numbers.get(i - 1));
+        }
+    }
+
+    @Test
+    void next_differentNodesNeverCollide() {
+        long fixed = System.currentTimeMillis();
+        OrderNumberGenerator a = new OrderNumberGenerator(1, () -> fixed);
+        OrderNumberGenerator b = new OrderNumberGenerator(2, () -> fixed);
+
+        assertThat(a.next()).isNotEqualTo(b.next());
+    }
+
+    @Test
+    void next_isUniqueAcrossThreads() {
+        OrderNumberGenerator generator = new OrderNumberGenerator(0, System::currentTimeMillis);
+        Set<String> numbers = ConcurrentHashMap.newKeySet();
+        IntStream.range(0, 100_000).parallel().forEach(i -> numbers.add(generator.next()));
+
+        assertThat(numbers).hasSize(100_000);
+    }
+
+    @Test
+    void constructor_rejectsOutOfRangeNodeId() {
+        assertThatThrownBy(() -> new OrderNumberGenerator(1024, System::currentTimeMillis))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
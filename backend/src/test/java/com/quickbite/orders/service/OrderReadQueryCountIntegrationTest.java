@@ -0,0 +1,124 @@
+package com.quickbite.orders.service;
+
+import com.quickbite.BaseIntegrationTest;
+import com.quickbite.common.pagination.CursorPage;
+import com.quickbite.orders.dto.OrderResponseDTO;
+import com.quickbite.orders.repository.OrderListFilter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statement-count checks for the order read model: a page of orders (with customer,
+ * vendor, driver, address, payment, items and menu-item names) must be rendered in a
+ * fixed number of queries regardless of page size.
+ */
+@Transactional
+class OrderReadQueryCountIntegrationTest extends BaseIntegrationTest {
+
+    private static final UUID VENDOR_ID = UUID.fromString("10000001-0000-0000-0000-000000000001");
+    private static final UUID ORDER_ID = UUID.fromString("20000001-0000-0000-0000-000000000001");
+
+    /** Page select + count + one items/menu-items fetch. */
+    private static final long MAX_STATEMENTS_PER_PAGE = 3;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Vendor order page is rendered in a fixed number of statements")
+    void listOrders_vendorPage_fixedStatementCount() {
+        statistics.clear();
+
+        Page<OrderResponseDTO> page = orderService.listOrders(null, VENDOR_ID, null,
+                PageRequest.of(0, 20, Sort.by("createdAt").descending()));
+
+        assertThat(page.getContent()).isNotEmpty();
+        assertThat(page.getContent()).allSatisfy(order -> {
+            assertThat(order.getVendorName()).isNotNull();
+            assertThat(order.getItems()).allSatisfy(item -> assertThat(item.getName()).isNotNull());
+        });
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(MAX_STATEMENTS_PER_PAGE);
+    }
+
+    @Test
+    @DisplayName("Unfiltered order page is rendered in a fixed number of statements")
+    void listOrders_allOrders_fixedStatementCount() {
+        statistics.clear();
+
+        Page<OrderResponseDTO> page = orderService.listOrders(null, null, null, PageRequest.of(0, 50));
+
+        assertThat(page.getContent()).isNotEmpty();
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(MAX_STATEMENTS_PER_PAGE);
+    }
+
+    @Test
+    @DisplayName("Order detail is rendered in two statements")
+    void getOrder_detail_twoStatements() {
+        UUID customerId = jdbcTemplate.queryForObject(
+                "SELECT customer_id FROM orders WHERE id = ?", UUID.class, ORDER_ID);
+        statistics.clear();
+
+        OrderResponseDTO order = orderService.getOrder(ORDER_ID, customerId);
+
+        assertThat(order.getItems()).hasSize(2);
+        assertThat(order.getCustomerName()).isNotNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Cursor pages walk every order exactly once without a COUNT")
+    void listOrdersAfter_walksAllOrders() {
+        long total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders", Long.class);
+        Set<UUID> seen = new HashSet<>();
+        String cursor = null;
+        statistics.clear();
+
+        int pages = 0;
+        do {
+            CursorPage<OrderResponseDTO> page = orderService.listOrdersAfter(OrderListFilter.all(), cursor, 7, false);
+            assertThat(page.getTotalElements()).isNull();
+            page.getContent().forEach(order -> assertThat(seen.add(order.getId())).isTrue());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(seen).hasSize((int) total);
+        // page select + items fetch per page, never a count
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2L * pages);
+    }
+}
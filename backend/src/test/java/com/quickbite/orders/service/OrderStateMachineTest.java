@@ -1,25 +1,51 @@
 package com.quickbite.orders.service;
 
+import com.quickbite.orders.entity.Order;
 import com.quickbite.orders.entity.OrderStatus;
 import com.quickbite.orders.exception.InvalidTransitionException;
+import com.quickbite.orders.exception.TransitionConflictException;
+import com.quickbite.orders.repository.OrderRepository;
+import com.quickbite.users.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
 /**
  * Unit tests for OrderStateMachine.
- * No Spring context needed — pure logic test.
+ * No Spring context needed — transition rules are pure logic, compare-and-set runs against a mocked repository.
  */
 class OrderStateMachineTest {
 
     private OrderStateMachine stateMachine;
+    private OrderRepository orderRepository;
+    private EntityManager entityManager;
 
     @BeforeEach
     void setUp() {
-        stateMachine = new OrderStateMachine();
+        orderRepository = mock(OrderRepository.class);
+        entityManager = mock(EntityManager.class);
+        stateMachine = new OrderStateMachine(orderRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(stateMachine, "entityManager", entityManager);
+    }
+
+    private Order order(OrderStatus status) {
+        Order order = new Order();
+        order.setId(UUID.randomUUID());
+        order.setStatus(status);
+        return order;
     }
 
     // ========== Valid Transitions ==========
@@ -155,4 +181,101 @@ class OrderStateMachineTest {
     void isAllowed_returnsFalse_forUnauthorizedRole() {
         assertThat(stateMachine.isAllowed(OrderStatus.PLACED, OrderStatus.ACCEPTED, "DRIVER")).isFalse();
     }
+
+    // ========== Compare-and-set transitions ==========
+
+    @Test
+    void transition_casSucceeds_appliesAndRefreshesEntity() {
+        Order order = order(OrderStatus.PLACED);
+        when(orderRepository.compareAndSetStatus(eq(order.getId()), eq(OrderStatus.PLACED),
+                eq(OrderStatus.ACCEPTED), any())).thenReturn(1);
+
+        TransitionResult result = stateMachine.transition(order, OrderStatus.ACCEPTED, "VENDOR",
+                OrderStateMachine.RetryPolicy.NONE);
+
+        assertThat(result.isApplied()).isTrue();
+        assertThat(result.expected()).isEqualTo(OrderStatus.PLACED);
+        verify(entityManager).refresh(order);
+    }
+
+    @Test
+    void transition_lostRace_noRetry_reportsConflict() {
+        Order order = order(OrderStatus.PLACED);
+        when(orderRepository.compareAndSetStatus(any(), any(), any(), any())).thenReturn(0);
+        when(orderRepository.findStatusById(order.getId())).thenReturn(Optional.of(OrderStatus.CANCELLED));
+
+        TransitionResult result = stateMachine.transition(order, OrderStatus.ACCEPTED, "VENDOR",
+                OrderStateMachine.RetryPolicy.NONE);
+
+        assertThat(result.outcome()).isEqualTo(TransitionResult.Outcome.CONFLICT);
+        assertThat(result.current()).isEqualTo(OrderStatus.CANCELLED);
+        assertThatThrownBy(result::orThrow).isInstanceOf(TransitionConflictException.class);
+        verify(orderRepository, times(1)).compareAndSetStatus(any(), any(), any(), any());
+        verifyNoInteractions(entityManager);
+    }
+
+    @Test
+    void transition_lostRaceToSameTarget_reportsAlreadyInTarget() {
+        Order order = order(OrderStatus.PLACED);
+        when(orderRepository.compareAndSetStatus(any(), any(), any(), any())).thenReturn(0);
+        when(orderRepository.findStatusById(order.getId())).thenReturn(Optional.of(OrderStatus.ACCEPTED));
+
+        TransitionResult result = stateMachine.transition(order, OrderStatus.ACCEPTED, null,
+                OrderStateMachine.RetryPolicy.REVALIDATE);
+
+        assertThat(result.outcome()).isEqualTo(TransitionResult.Outcome.ALREADY_IN_TARGET);
+        verify(orderRepository, times(1)).compareAndSetStatus(any(), any(), any(), any());
+    }
+
+    @Test
+    void transition_revalidate_retriesFromWinningStatus() {
+        Order order = order(OrderStatus.ACCEPTED);
+        when(orderRepository.compareAndSetStatus(eq(order.getId()), eq(OrderStatus.ACCEPTED),
+                eq(OrderStatus.CANCELLED), any())).thenReturn(0);
+        when(orderRepository.compareAndSetStatus(eq(order.getId()), eq(OrderStatus.PREPARING),
+                eq(OrderStatus.CANCELLED), any())).thenReturn(1);
+        when(orderRepository.findStatusById(order.getId())).thenReturn(Optional.of(OrderStatus.PREPARING));
+
+        TransitionResult result = stateMachine.transition(order, OrderStatus.CANCELLED, "ADMIN",
+                OrderStateMachine.RetryPolicy.REVALIDATE);
+
+        assertThat(result.isApplied()).isTrue();
+        assertThat(result.expected()).isEqualTo(OrderStatus.PREPARING);
+        assertThat(result.attempts()).isEqualTo(2);
+    }
+
+    @Test
+    void transition_revalidate_stopsWhenNoLongerAllowed() {
+        Order order = order(OrderStatus.PREPARING);
+        when(orderRepository.compareAndSetStatus(any(), any(), any(), any())).thenReturn(0);
+        when(orderRepository.findStatusById(order.getId())).thenReturn(Optional.of(OrderStatus.DELIVERED));
+
+        TransitionResult result = stateMachine.transition(order, OrderStatus.CANCELLED, "ADMIN",
+                OrderStateMachine.RetryPolicy.REVALIDATE);
+
+        assertThat(result.outcome()).isEqualTo(TransitionResult.Outcome.CONFLICT);
+        verify(orderRepository, times(1)).compareAndSetStatus(any(), any(), any(), any());
+    }
+
+    @Test
+    void transition_invalid_neverUpdates() {
+        Order order = order(OrderStatus.PLACED);
+
+        assertThatThrownBy(() -> stateMachine.transition(order, OrderStatus.DELIVERED, "VENDOR",
+                OrderStateMachine.RetryPolicy.NONE))
+                .isInstanceOf(InvalidTransitionException.class);
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void assignDriver_claimedByOtherDriver_reportsConflict() {
+        Order order = order(OrderStatus.READY);
+        when(orderRepository.compareAndSetDriver(any(), any(), any(), any(), anyBoolean(), any())).thenReturn(0);
+        when(orderRepository.findStatusById(order.getId())).thenReturn(Optional.of(OrderStatus.ASSIGNED));
+
+        TransitionResult result = stateMachine.assignDriver(order, new User(), false);
+
+        assertThat(result.outcome()).isEqualTo(TransitionResult.Outcome.CONFLICT);
+        assertThat(result.current()).isEqualTo(OrderStatus.ASSIGNED);
+    }
 }
@@ -0,0 +1,139 @@
+package com.quickbite.orders.service;
+
+import com.quickbite.BaseIntegrationTest;
+import com.quickbite.orders.dto.StatusUpdateDTO;
+import com.quickbite.orders.exception.BusinessException;
+import com.quickbite.orders.exception.TransitionConflictException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent writers on one order against the sample data: the compare-and-set update lets
+ * exactly one transition win, and the losers leave no audit or outbox rows behind.
+ */
+class OrderTransitionConcurrencyIntegrationTest extends BaseIntegrationTest {
+
+    private static final UUID CUSTOMER_ID = UUID.fromString("bbbbbbbb-bbbb-bbbb-bbbb-bbbbbbbbbbbb");
+    private static final UUID VENDOR_ID = UUID.fromString("10000001-0000-0000-0000-000000000001");
+    private static final UUID VENDOR_USER_ID = UUID.fromString("dddddddd-dddd-dddd-dddd-dddddddddddd");
+    private static final int WRITERS = 8;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID orderId;
+
+    @BeforeEach
+    void setUp() {
+        orderId = UUID.randomUUID();
+        jdbcTemplate.update("""
+                INSERT INTO orders (id, customer_id, vendor_id, total_cents, subtotal_cents, status, created_at)
+                VALUES (?, ?, ?, 1000, 1000, 'PLACED', NOW())
+                """, orderId, CUSTOMER_ID, VENDOR_ID);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM event_timeline WHERE order_id = ?", orderId);
+        jdbcTemplate.update("DELETE FROM order_outbox WHERE order_id = ?", orderId);
+        jdbcTemplate.update("DELETE FROM orders WHERE id = ?", orderId);
+    }
+
+    @Test
+    void concurrentAccepts_exactlyOneWins() throws Exception {
+        List<Object> outcomes = race(() -> orderService.acceptOrder(orderId, VENDOR_USER_ID));
+
+        assertThat(outcomes).filteredOn(o -> !(o instanceof Throwable)).hasSize(1);
+        // Losers either lost the compare-and-set or already saw the winner's commit
+        assertThat(outcomes).filteredOn(o -> o instanceof Throwable)
+                .allMatch(o -> o instanceof TransitionConflictException || o instanceof BusinessException);
+        assertThat(countStatusRows("ACCEPTED")).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT version FROM orders WHERE id = ?", Long.class, orderId)).isEqualTo(1L);
+    }
+
+    @Test
+    void acceptRacingReject_onlyOneStatusSticks() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> accept = pool.submit(() -> {
+                start.await();
+                return orderService.acceptOrder(orderId, VENDOR_USER_ID);
+            });
+            Future<?> reject = pool.submit(() -> {
+                start.await();
+                return orderService.updateOrderStatus(orderId,
+                        StatusUpdateDTO.builder().status("CANCELLED").note("race").build(), CUSTOMER_ID);
+            });
+            start.countDown();
+            List<Object> outcomes = List.of(outcome(accept), outcome(reject));
+
+            assertThat(outcomes).filteredOn(o -> !(o instanceof Throwable)).hasSize(1);
+            String status = jdbcTemplate.queryForObject(
+                    "SELECT status FROM orders WHERE id = ?", String.class, orderId);
+            assertThat(countStatusRows("ACCEPTED") + countStatusRows("CANCELLED")).isEqualTo(1);
+            assertThat(countStatusRows(status)).isEqualTo(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private List<Object> race(Callable<?> writer) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < WRITERS; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return writer.call();
+                }));
+            }
+            start.countDown();
+            List<Object> outcomes = new ArrayList<>();
+            for (Future<?> future : futures) {
+                outcomes.add(outcome(future));
+            }
+            return outcomes;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Object outcome(Future<?> future) throws InterruptedException {
+        try {
+            return future.get(30, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            return e.getCause();
+        } catch (TimeoutException e) {
+            return e;
+        }
+    }
+
+    private int countStatusRows(String status) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM delivery_status WHERE order_id = ? AND status = ?",
+                Integer.class, orderId, status);
+    }
+}
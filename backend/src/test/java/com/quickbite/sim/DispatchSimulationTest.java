@@ -0,0 +1,365 @@
+package com.quickbite.sim;
+
+import com.quickbite.BaseIntegrationTest;
+import com.quickbite.orders.driver.ActiveDelivery;
+import com.quickbite.orders.driver.ActiveDeliveryCache;
+import com.quickbite.orders.driver.BatchDispatchService;
+import com.quickbite.orders.driver.DriverGeoIndex;
+import com.quickbite.orders.driver.DriverLocationIngest;
+import com.quickbite.orders.driver.DriverLocationService;
+import com.quickbite.orders.driver.DriverPresenceService;
+import com.quickbite.orders.dto.StatusUpdateDTO;
+import com.quickbite.orders.entity.Order;
+import com.quickbite.orders.entity.OrderStatus;
+import com.quickbite.orders.repository.OrderRepository;
+import com.quickbite.orders.service.OrderService;
+import com.quickbite.sim.SyntheticCity.Point;
+import com.quickbite.users.entity.Address;
+import com.quickbite.users.entity.Role;
+import com.quickbite.users.entity.User;
+import com.quickbite.users.repository.AddressRepository;
+import com.quickbite.users.repository.RoleRepository;
+import com.quickbite.users.repository.UserRepository;
+import com.quickbite.vendors.entity.Vendor;
+import com.quickbite.vendors.repository.VendorRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Dispatch simulator: replays a synthetic city ({@link SyntheticCity}) against the real
+ * dispatch, location-ingest, presence and order state-machine code on a throwaway
+ * Testcontainers PostgreSQL, and reports assignment latency, pickup distance, driver
+ * utilization and statement counts.
+ * <p>
+ * Tagged {@code simulation}, so it only runs with the {@code dispatch-sim} Maven profile:
+ * <pre>
+ * mvn test -Pdispatch-sim -Dsim.scale=4 -Dsim.dispatch=immediate
+ * </pre>
+ * See {@link SimulationSettings} for the parameters. The report is printed and written to
+ * {@code target/dispatch-sim/}.
+ * <p>
+ * Each tick the simulator places orders, moves kitchens' orders to READY through
+ * {@link OrderService#updateOrderStatus}, runs a {@link BatchDispatchService} round (batch mode),
+ * sends every driver's location ping through the same calls as {@code PUT /api/drivers/location}
+ * and moves drivers towards their pickup, drop-off or a random point, reporting PICKED_UP,
+ * ENROUTE and DELIVERED on arrival. Orders are created directly in PREPARING: checkout and
+ * payment are outside what this measures.
+ */
+@Tag("simulation")
+@Testcontainers(disabledWithoutDocker = true)
+class DispatchSimulationTest extends BaseIntegrationTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:13");
+
+    private static final SimulationSettings SETTINGS = SimulationSettings.fromSystemProperties();
+
+    @DynamicPropertySource
+    static void simulationProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("dispatch.batch.enabled", SETTINGS::batchDispatch);
+        // Dispatch rounds run on the simulated clock, not the scheduler
+        registry.add("dispatch.batch.tick-ms", () -> 3_600_000);
+        // Simulated pings arrive far faster than real ones; store all of them
+        registry.add("driver.location.ingest.max-per-minute", () -> 1_000_000);
+        registry.add("driver.location.ingest.dedupe-ms", () -> 0);
+    }
+
+    @Autowired private RoleRepository roleRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private AddressRepository addressRepository;
+    @Autowired private VendorRepository vendorRepository;
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private OrderService orderService;
+    @Autowired private BatchDispatchService batchDispatchService;
+    @Autowired private DriverLocationService driverLocationService;
+    @Autowired private DriverLocationIngest driverLocationIngest;
+    @Autowired private DriverPresenceService driverPresenceService;
+    @Autowired private ActiveDeliveryCache activeDeliveryCache;
+    @Autowired private DriverGeoIndex driverGeoIndex;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private MeterRegistry meterRegistry;
+
+    private SyntheticCity city;
+    private SimulationReport report;
+    private Statistics statistics;
+
+    private final List<Vendor> vendors = new ArrayList<>();
+    private final List<User> customers = new ArrayList<>();
+    private final List<Address> addresses = new ArrayList<>();
+    private final Map<UUID, SimDriver> drivers = new HashMap<>();
+
+    @Test
+    void simulateDispatch() throws IOException {
+        city = new SyntheticCity(SETTINGS);
+        report = new SimulationReport(SETTINGS);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        seed();
+
+        long started = System.nanoTime();
+        double storedBefore = meterRegistry.counter("driver.location.ingest.flushed").count();
+        long flushesBefore = meterRegistry.timer("driver.location.ingest.flush").count();
+        statistics.clear();
+
+        List<SimOrder> preparing = new ArrayList<>();
+        List<SimOrder> waiting = new ArrayList<>();
+        for (int tick = 0; tick < SETTINGS.ticks(); tick++) {
+            for (SyntheticCity.Arrival arrival : city.arrivalsAt(tick)) {
+                preparing.add(place(arrival, tick));
+            }
+            markReady(preparing, waiting, tick);
+            if (SETTINGS.batchDispatch() && !waiting.isEmpty()) {
+                timedDispatch(() -> batchDispatchService.dispatch());
+            }
+            collectAssignments(waiting, tick);
+            for (SimDriver driver : drivers.values()) {
+                drive(driver);
+                ping(driver);
+            }
+            driverLocationIngest.flush();
+        }
+
+        report.wallSeconds = (System.nanoTime() - started) / 1e9;
+        report.totalStatements = statistics.getPrepareStatementCount();
+        report.pingsStored = meterRegistry.counter("driver.location.ingest.flushed").count() - storedBefore;
+        report.ingestFlushes = meterRegistry.timer("driver.location.ingest.flush").count() - flushesBefore;
+
+        String rendered = report.render();
+        System.out.println(rendered);
+        Path out = Path.of("target", "dispatch-sim",
+                String.format("report-%s-scale%s-seed%d.txt", SETTINGS.batchDispatch() ? "batch" : "immediate",
+                        SETTINGS.scale(), SETTINGS.seed()));
+        Files.createDirectories(out.getParent());
+        Files.writeString(out, rendered);
+
+        assertThat(report.ordersPlaced).isPositive();
+        assertThat(report.ordersDelivered).isPositive();
+    }
+
+    // ── Setup ────────────────────────────────────────────────────────
+
+    private void seed() {
+        Role vendorRole = roleRepository.findByName("VENDOR").orElseThrow();
+        Role customerRole = roleRepository.findByName("CUSTOMER").orElseThrow();
+        Role driverRole = roleRepository.findByName("DRIVER").orElseThrow();
+
+        for (Point at : city.vendors()) {
+            User owner = userRepository.save(user(vendorRole, "vendor"));
+            vendors.add(vendorRepository.save(Vendor.builder()
+                    .user(owner)
+                    .name("Sim Kitchen " + vendors.size())
+                    .lat(BigDecimal.valueOf(at.lat()))
+                    .lng(BigDecimal.valueOf(at.lng()))
+                    .active(true)
+                    .build()));
+        }
+        for (Point at : city.customers()) {
+            User customer = userRepository.save(user(customerRole, "customer"));
+            customers.add(customer);
+            addresses.add(addressRepository.save(Address.builder()
+                    .user(customer)
+                    .line1(customers.size() + " Simulation Road")
+                    .city("Bengaluru")
+                    .lat(BigDecimal.valueOf(at.lat()))
+                    .lng(BigDecimal.valueOf(at.lng()))
+                    .isDefault(true)
+                    .build()));
+        }
+        for (Point at : city.driverStarts()) {
+            User driver = userRepository.save(user(driverRole, "driver"));
+            driverLocationService.startShift(driver.getId());
+            SimDriver simDriver = new SimDriver(driver.getId(), at);
+            drivers.put(driver.getId(), simDriver);
+            ping(simDriver);
+        }
+        driverLocationIngest.flush();
+        driverGeoIndex.reconcile();
+    }
+
+    private static User user(Role role, String kind) {
+        return User.builder()
+                .email("sim-" + kind + "-" + UUID.randomUUID() + "@sim.test")
+                .passwordHash("{noop}simulation")
+                .name("Sim " + kind)
+                .role(role)
+                .active(true)
+                .build();
+    }
+
+    // ── Orders ───────────────────────────────────────────────────────
+
+    private SimOrder place(SyntheticCity.Arrival arrival, int tick) {
+        Vendor vendor = vendors.get(arrival.vendor());
+        Order order = orderRepository.save(Order.builder()
+                .customer(customers.get(arrival.customer()))
+                .vendor(vendor)
+                .deliveryAddress(addresses.get(arrival.customer()))
+                .subtotalCents(1500L)
+                .deliveryFeeCents(300L)
+                .taxCents(150L)
+                .totalCents(1950L)
+                .status(OrderStatus.PREPARING)
+                .build());
+        report.ordersPlaced++;
+        return new SimOrder(order.getId(), vendor.getUser().getId(),
+                city.vendors().get(arrival.vendor()), city.customers().get(arrival.customer()),
+                tick + arrival.prepTicks());
+    }
+
+    private void markReady(List<SimOrder> preparing, List<SimOrder> waiting, int tick) {
+        for (Iterator<SimOrder> it = preparing.iterator(); it.hasNext(); ) {
+            SimOrder order = it.next();
+            if (order.readyTick > tick) continue;
+            it.remove();
+            // In immediate mode this transition is the dispatch call
+            Runnable ready = () -> transition(order.id, OrderStatus.READY, order.vendorOwnerId);
+            if (SETTINGS.batchDispatch()) {
+                ready.run();
+            } else {
+                timedDispatch(ready);
+            }
+            report.ordersReady++;
+            waiting.add(order);
+        }
+    }
+
+    private void timedDispatch(Runnable dispatch) {
+        long statementsBefore = statistics.getPrepareStatementCount();
+        long started = System.nanoTime();
+        dispatch.run();
+        report.dispatchMillis.add((System.nanoTime() - started) / 1e6);
+        report.dispatchStatements.add((double) (statistics.getPrepareStatementCount() - statementsBefore));
+    }
+
+    /** Pick up the drivers the dispatcher assigned to waiting orders. */
+    private void collectAssignments(List<SimOrder> waiting, int tick) {
+        if (waiting.isEmpty()) {
+            return;
+        }
+        Map<UUID, SimOrder> byId = new HashMap<>();
+        waiting.forEach(order -> byId.put(order.id, order));
+        List<Map<String, Object>> rows = jdbcTemplate.query(
+                "SELECT id, driver_id FROM orders WHERE id = ANY(?) AND driver_id IS NOT NULL",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", byId.keySet().toArray())),
+                (rs, rowNum) -> Map.of("id", rs.getObject("id"), "driver", rs.getObject("driver_id")));
+        for (Map<String, Object> row : rows) {
+            SimOrder order = byId.get((UUID) row.get("id"));
+            SimDriver driver = drivers.get((UUID) row.get("driver"));
+            waiting.remove(order);
+            if (driver == null) continue;
+            report.ordersAssigned++;
+            report.assignmentWaitSeconds.add((double) (tick - order.readyTick) * SETTINGS.tickSeconds());
+            report.pickupKm.add(driver.position.distanceKm(order.vendor));
+            driver.jobs.add(order);
+        }
+    }
+
+    private void transition(UUID orderId, OrderStatus status, UUID actorId) {
+        orderService.updateOrderStatus(orderId, StatusUpdateDTO.builder().status(status.name()).build(), actorId);
+    }
+
+    // ── Drivers ──────────────────────────────────────────────────────
+
+    private void drive(SimDriver driver) {
+        report.onlineDriverTicks++;
+        if (driver.current == null && !driver.jobs.isEmpty()) {
+            driver.current = driver.jobs.poll();
+            driver.pickedUp = false;
+        }
+        if (driver.current == null) {
+            if (driver.wanderTo == null || driver.position.equals(driver.wanderTo)) {
+                driver.wanderTo = city.wanderTarget();
+            }
+            driver.position = driver.position.toward(driver.wanderTo, SETTINGS.kmPerTick() / 2);
+            return;
+        }
+
+        report.busyDriverTicks++;
+        SimOrder order = driver.current;
+        Point target = driver.pickedUp ? order.customer : order.vendor;
+        driver.position = driver.position.toward(target, SETTINGS.kmPerTick());
+        if (!driver.position.equals(target)) {
+            return;
+        }
+        if (!driver.pickedUp) {
+            transition(order.id, OrderStatus.PICKED_UP, driver.id);
+            transition(order.id, OrderStatus.ENROUTE, driver.id);
+            driver.pickedUp = true;
+        } else {
+            transition(order.id, OrderStatus.DELIVERED, driver.id);
+            report.ordersDelivered++;
+            driver.current = null;
+            driver.wanderTo = null;
+        }
+    }
+
+    /** Same calls as {@code PUT /api/drivers/location}. */
+    private void ping(SimDriver driver) {
+        driverPresenceService.ping(driver.id);
+        Optional<UUID> activeOrderId = activeDeliveryCache.find(driver.id).map(ActiveDelivery::orderId);
+        driverLocationIngest.offer(new DriverLocationIngest.LocationPing(
+                driver.id, driver.position.lat(), driver.position.lng(), 5.0, SETTINGS.speedKmh() / 3.6, null,
+                Instant.now(), activeOrderId.orElse(null)));
+    }
+
+    private static final class SimOrder {
+        private final UUID id;
+        private final UUID vendorOwnerId;
+        private final Point vendor;
+        private final Point customer;
+        private final int readyTick;
+
+        private SimOrder(UUID id, UUID vendorOwnerId, Point vendor, Point customer, int readyTick) {
+            this.id = id;
+            this.vendorOwnerId = vendorOwnerId;
+            this.vendor = vendor;
+            this.customer = customer;
+            this.readyTick = readyTick;
+        }
+    }
+
+    private static final class SimDriver {
+        private final UUID id;
+        private final Deque<SimOrder> jobs = new ArrayDeque<>();
+        private Point position;
+        private Point wanderTo;
+        private SimOrder current;
+        private boolean pickedUp;
+
+        private SimDriver(UUID id, Point position) {
+            this.id = id;
+            this.position = position;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.quickbite.sim;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Measurements collected by the dispatch simulation and their plain-text summary.
+ */
+final class SimulationReport {
+
+    private final SimulationSettings settings;
+
+    /** Simulated seconds from READY to a driver being assigned. */
+    final List<Double> assignmentWaitSeconds = new ArrayList<>();
+    /** Wall-clock time of each dispatch call (a batch round, or a READY transition in immediate mode). */
+    final List<Double> dispatchMillis = new ArrayList<>();
+    /** SQL statements prepared by Hibernate during each dispatch call. */
+    final List<Double> dispatchStatements = new ArrayList<>();
+    /** Distance from the driver's position at assignment to the vendor. */
+    final List<Double> pickupKm = new ArrayList<>();
+
+    int ordersPlaced;
+    int ordersReady;
+    int ordersAssigned;
+    int ordersDelivered;
+    long busyDriverTicks;
+    long onlineDriverTicks;
+    long totalStatements;
+    double pingsStored;
+    long ingestFlushes;
+    double wallSeconds;
+
+    SimulationReport(SimulationSettings settings) {
+        this.settings = settings;
+    }
+
+    double utilization() {
+        return onlineDriverTicks == 0 ? 0.0 : (double) busyDriverTicks / onlineDriverTicks;
+    }
+
+    String render() {
+        StringBuilder out = new StringBuilder();
+        line(out, "Dispatch simulation — %s dispatch, scale %.2f, seed %d",
+                settings.batchDispatch() ? "batch" : "immediate", settings.scale(), settings.seed());
+        line(out, "  %d drivers, %d vendors, %d customers, %d simulated minutes in %d s ticks (%.1f s wall)",
+                settings.drivers(), settings.vendors(), settings.customers(), settings.minutes(),
+                settings.tickSeconds(), wallSeconds);
+        line(out, "");
+        line(out, "Orders            placed %d, ready %d, assigned %d, delivered %d, never assigned %d",
+                ordersPlaced, ordersReady, ordersAssigned, ordersDelivered, ordersReady - ordersAssigned);
+        line(out, "Assignment wait   %s (simulated s)", summary(assignmentWaitSeconds));
+        line(out, "Dispatch latency  %s (wall ms per call, %d calls)", summary(dispatchMillis), dispatchMillis.size());
+        line(out, "Pickup distance   %s (km)", summary(pickupKm));
+        line(out, "Utilization       %.1f%% of online driver time on a delivery", utilization() * 100);
+        line(out, "DB statements     %s per dispatch call; %d Hibernate statements in total",
+                summary(dispatchStatements), totalStatements);
+        line(out, "Location ingest   %.0f pings stored in %d batch write(s)", pingsStored, ingestFlushes);
+        return out.toString();
+    }
+
+    static double percentile(List<Double> values, double p) {
+        if (values.isEmpty()) {
+            return Double.NaN;
+        }
+        List<Double> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        int rank = (int) Math.ceil(p / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(rank, sorted.size() - 1)));
+    }
+
+    private static String summary(List<Double> values) {
+        if (values.isEmpty()) {
+            return "n/a";
+        }
+        double mean = values.stream().mapToDouble(Double::doubleValue).average().orElse(Double.NaN);
+        return String.format(Locale.ROOT, "mean %.2f  p50 %.2f  p90 %.2f  p99 %.2f  max %.2f",
+                mean, percentile(values, 50), percentile(values, 90), percentile(values, 99), percentile(values, 100));
+    }
+
+    private static void line(StringBuilder out, String format, Object... args) {
+        out.append(String.format(Locale.ROOT, format, args)).append(System.lineSeparator());
+    }
+}
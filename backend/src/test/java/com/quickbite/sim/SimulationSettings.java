@@ -0,0 +1,54 @@
+package com.quickbite.sim;
+
+/**
+ * Knobs for the dispatch simulation, read from system properties so they can be passed on the
+ * Maven command line ({@code mvn test -Pdispatch-sim -Dsim.scale=4}).
+ * <ul>
+ *   <li>{@code sim.scale} — multiplies drivers, vendors, customers and the order rate (default 1)</li>
+ *   <li>{@code sim.seed} — seed for the city and the arrival curve (default 42)</li>
+ *   <li>{@code sim.minutes} — simulated duration (default 90)</li>
+ *   <li>{@code sim.tick-seconds} — simulated seconds per tick (default 30)</li>
+ *   <li>{@code sim.dispatch} — {@code batch} (BatchDispatchService rounds) or {@code immediate}
+ *       (DriverAssignmentService when an order becomes READY); default batch</li>
+ * </ul>
+ */
+record SimulationSettings(long seed,
+                          double scale,
+                          int minutes,
+                          int tickSeconds,
+                          int drivers,
+                          int vendors,
+                          int customers,
+                          double peakOrdersPerMinute,
+                          double cityRadiusKm,
+                          double speedKmh,
+                          boolean batchDispatch) {
+
+    static SimulationSettings fromSystemProperties() {
+        double scale = Double.parseDouble(System.getProperty("sim.scale", "1"));
+        if (scale <= 0) {
+            throw new IllegalArgumentException("sim.scale must be positive: " + scale);
+        }
+        return new SimulationSettings(
+                Long.getLong("sim.seed", 42L),
+                scale,
+                Integer.getInteger("sim.minutes", 90),
+                Integer.getInteger("sim.tick-seconds", 30),
+                Math.max(1, (int) Math.round(40 * scale)),
+                Math.max(1, (int) Math.round(15 * scale)),
+                Math.max(1, (int) Math.round(150 * scale)),
+                2.5 * scale,
+                8.0,
+                25.0,
+                !"immediate".equalsIgnoreCase(System.getProperty("sim.dispatch", "batch")));
+    }
+
+    int ticks() {
+        return minutes * 60 / tickSeconds;
+    }
+
+    /** Distance a driver covers in one tick. */
+    double kmPerTick() {
+        return speedKmh * tickSeconds / 3600.0;
+    }
+}
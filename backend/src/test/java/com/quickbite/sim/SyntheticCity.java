@@ -0,0 +1,163 @@
+package com.quickbite.sim;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic city for the dispatch simulation.
+ * <p>
+ * Vendors cluster around a few restaurant hubs, customers and driver start points are spread
+ * uniformly over a disc, and orders arrive as a Poisson process whose rate follows a lunch and
+ * a dinner peak across the simulated window. Layout and arrivals come from their own seeded
+ * {@link Random}s, so the same settings always produce the same workload no matter how the
+ * dispatcher behaves; only idle-driver wandering depends on the run.
+ */
+final class SyntheticCity {
+
+    static final double CENTER_LAT = 12.9716;
+    static final double CENTER_LNG = 77.5946;
+
+    private static final double KM_PER_DEGREE = 111.32;
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final int HUBS = 4;
+
+    private final SimulationSettings settings;
+    private final Random arrivals;
+    private final Random movement;
+
+    private final List<Point> vendors = new ArrayList<>();
+    private final List<Point> customers = new ArrayList<>();
+    private final List<Point> driverStarts = new ArrayList<>();
+
+    SyntheticCity(SimulationSettings settings) {
+        this.settings = settings;
+        Random layout = new Random(settings.seed());
+        this.arrivals = new Random(settings.seed() + 1);
+        this.movement = new Random(settings.seed() + 2);
+
+        List<Point> hubs = new ArrayList<>();
+        for (int i = 0; i < HUBS; i++) {
+            hubs.add(pointInDisc(layout, settings.cityRadiusKm() * 0.6));
+        }
+        for (int i = 0; i < settings.vendors(); i++) {
+            Point hub = hubs.get(i % HUBS);
+            vendors.add(hub.offset(layout.nextGaussian() * 0.8, layout.nextGaussian() * 0.8));
+        }
+        for (int i = 0; i < settings.customers(); i++) {
+            customers.add(pointInDisc(layout, settings.cityRadiusKm()));
+        }
+        for (int i = 0; i < settings.drivers(); i++) {
+            driverStarts.add(pointInDisc(layout, settings.cityRadiusKm()));
+        }
+    }
+
+    List<Point> vendors() {
+        return vendors;
+    }
+
+    List<Point> customers() {
+        return customers;
+    }
+
+    List<Point> driverStarts() {
+        return driverStarts;
+    }
+
+    /**
+     * Expected orders per minute at a simulated minute: a quarter of the peak all the time,
+     * plus lunch (30% through the window) and dinner (75%) peaks.
+     */
+    double ratePerMinute(double minute) {
+        double window = settings.minutes();
+        double lunch = bump(minute, window * 0.30, window * 0.10);
+        double dinner = bump(minute, window * 0.75, window * 0.10);
+        return settings.peakOrdersPerMinute() * (0.25 + 0.75 * Math.max(lunch, dinner));
+    }
+
+    /**
+     * Orders placed during one tick.
+     */
+    List<Arrival> arrivalsAt(int tick) {
+        double minute = tick * settings.tickSeconds() / 60.0;
+        double expected = ratePerMinute(minute) * settings.tickSeconds() / 60.0;
+        int count = poisson(expected);
+        List<Arrival> placed = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int vendor = arrivals.nextInt(vendors.size());
+            int customer = arrivals.nextInt(customers.size());
+            // 5–20 minutes in the kitchen
+            int prepTicks = Math.max(1, (int) Math.round((5 + arrivals.nextDouble() * 15) * 60 / settings.tickSeconds()));
+            placed.add(new Arrival(vendor, customer, prepTicks));
+        }
+        return placed;
+    }
+
+    /**
+     * Somewhere for an idle driver to drift towards.
+     */
+    Point wanderTarget() {
+        return pointInDisc(movement, settings.cityRadiusKm());
+    }
+
+    private int poisson(double mean) {
+        if (mean <= 0) {
+            return 0;
+        }
+        if (mean > 30) {
+            return Math.max(0, (int) Math.round(mean + Math.sqrt(mean) * arrivals.nextGaussian()));
+        }
+        double limit = Math.exp(-mean);
+        double product = arrivals.nextDouble();
+        int count = 0;
+        while (product > limit) {
+            product *= arrivals.nextDouble();
+            count++;
+        }
+        return count;
+    }
+
+    private static double bump(double x, double center, double width) {
+        double z = (x - center) / width;
+        return Math.exp(-0.5 * z * z);
+    }
+
+    private static Point pointInDisc(Random random, double radiusKm) {
+        double r = radiusKm * Math.sqrt(random.nextDouble());
+        double theta = random.nextDouble() * 2 * Math.PI;
+        return new Point(CENTER_LAT, CENTER_LNG).offset(r * Math.cos(theta), r * Math.sin(theta));
+    }
+
+    /**
+     * An order placed at {@code vendor} for {@code customer} (indexes into the city's lists).
+     */
+    record Arrival(int vendor, int customer, int prepTicks) {
+    }
+
+    record Point(double lat, double lng) {
+
+        Point offset(double northKm, double eastKm) {
+            return new Point(lat + northKm / KM_PER_DEGREE,
+                    lng + eastKm / (KM_PER_DEGREE * Math.cos(Math.toRadians(lat))));
+        }
+
+        double distanceKm(Point other) {
+            double dLat = Math.toRadians(other.lat - lat);
+            double dLng = Math.toRadians(other.lng - lng);
+            double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                    + Math.cos(Math.toRadians(lat)) * Math.cos(Math.toRadians(other.lat))
+                    * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+            return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+        }
+
+        /** Move up to {@code km} towards {@code target}, stopping on it. */
+        Point toward(Point target, double km) {
+            double remaining = distanceKm(target);
+            if (remaining <= km) {
+                return target;
+            }
+            double f = km / remaining;
+            return new Point(lat + (target.lat - lat) * f, lng + (target.lng - lng) * f);
+        }
+    }
+}
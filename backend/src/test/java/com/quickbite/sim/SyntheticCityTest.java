@@ -0,0 +1,71 @@
+package com.quickbite.sim;
+
+import com.quickbite.sim.SyntheticCity.Point;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the simulator's workload generator (runs with the normal suite).
+ */
+class SyntheticCityTest {
+
+    private static SimulationSettings settings(long seed) {
+        return new SimulationSettings(seed, 1.0, 90, 30, 40, 15, 150, 2.5, 8.0, 25.0, true);
+    }
+
+    private static List<List<SyntheticCity.Arrival>> arrivals(SyntheticCity city, int ticks) {
+        return IntStream.range(0, ticks).mapToObj(city::arrivalsAt).toList();
+    }
+
+    @Test
+    void sameSeed_sameLayoutAndArrivals() {
+        SyntheticCity a = new SyntheticCity(settings(7));
+        SyntheticCity b = new SyntheticCity(settings(7));
+        // Wandering draws from its own generator and must not shift the arrivals
+        a.wanderTarget();
+
+        assertThat(a.vendors()).isEqualTo(b.vendors());
+        assertThat(a.customers()).isEqualTo(b.customers());
+        assertThat(a.driverStarts()).hasSize(40).isEqualTo(b.driverStarts());
+        assertThat(arrivals(a, 180)).isEqualTo(arrivals(b, 180));
+    }
+
+    @Test
+    void differentSeed_differentLayout() {
+        assertThat(new SyntheticCity(settings(1)).vendors())
+                .isNotEqualTo(new SyntheticCity(settings(2)).vendors());
+    }
+
+    @Test
+    void rate_peaksAtLunchAndDinner() {
+        SyntheticCity city = new SyntheticCity(settings(42));
+
+        assertThat(city.ratePerMinute(27)).isCloseTo(2.5, within(0.01));
+        assertThat(city.ratePerMinute(67.5)).isCloseTo(2.5, within(0.01));
+        assertThat(city.ratePerMinute(0)).isLessThan(1.0);
+        assertThat(city.ratePerMinute(48)).isLessThan(city.ratePerMinute(27));
+    }
+
+    @Test
+    void everyoneStaysInsideTheCity() {
+        SyntheticCity city = new SyntheticCity(settings(42));
+        Point center = new Point(SyntheticCity.CENTER_LAT, SyntheticCity.CENTER_LNG);
+
+        assertThat(city.customers()).allSatisfy(p -> assertThat(center.distanceKm(p)).isLessThanOrEqualTo(8.01));
+        assertThat(city.driverStarts()).allSatisfy(p -> assertThat(center.distanceKm(p)).isLessThanOrEqualTo(8.01));
+    }
+
+    @Test
+    void point_towardStopsOnTarget() {
+        Point from = new Point(SyntheticCity.CENTER_LAT, SyntheticCity.CENTER_LNG);
+        Point to = from.offset(3, 4);
+
+        assertThat(from.distanceKm(to)).isCloseTo(5.0, within(0.05));
+        assertThat(from.toward(to, 2).distanceKm(to)).isCloseTo(3.0, within(0.05));
+        assertThat(from.toward(to, 6)).isEqualTo(to);
+    }
+}
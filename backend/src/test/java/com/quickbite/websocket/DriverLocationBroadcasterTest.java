@@ -0,0 +1,193 @@
+package com.quickbite.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DriverLocationBroadcaster (subscription tracking, coalescing, distance threshold).
+ */
+@ExtendWith(MockitoExtension.class)
+class DriverLocationBroadcasterTest {
+
+    private static final double LAT = 12.9716;
+    private static final double LNG = 77.5946;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private StompSubscriptionRegistry subscriptions;
+    private DriverLocationBroadcaster broadcaster;
+    private UUID driverId;
+    private UUID orderId;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        subscriptions = new StompSubscriptionRegistry();
+        broadcaster = new DriverLocationBroadcaster(messagingTemplate, new ObjectMapper(), subscriptions, meterRegistry);
+        driverId = UUID.randomUUID();
+        orderId = UUID.randomUUID();
+    }
+
+    private static Message<byte[]> stomp(StompCommand command, String sessionId, String subscriptionId, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        if (destination != null) {
+            accessor.setDestination(destination);
+        }
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private void subscribe(String sessionId, String subscriptionId, String destination) {
+        subscriptions.onSubscribe(new SessionSubscribeEvent(this, stomp(StompCommand.SUBSCRIBE, sessionId, subscriptionId, destination)));
+    }
+
+    private String orderTopic() {
+        return "/topic/orders." + orderId + ".location";
+    }
+
+    private String driverTopic() {
+        return "/topic/drivers." + driverId + ".location";
+    }
+
+    @Test
+    void offer_withoutSubscribers_sendsNothing() {
+        broadcaster.offer(driverId, LAT, LNG, orderId);
+        broadcaster.flushFrames();
+
+        verifyNoInteractions(messagingTemplate);
+        assertThat(meterRegistry.counter("websocket.location.frames.in").count()).isEqualTo(2.0);
+        assertThat(meterRegistry.counter("websocket.location.suppressed.unsubscribed").count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_coalescesBurstToLatestPosition() {
+        subscribe("s1", "sub-0", orderTopic());
+
+        broadcaster.offer(driverId, LAT, LNG, orderId);
+        broadcaster.offer(driverId, LAT + 0.001, LNG, orderId);
+        broadcaster.offer(driverId, LAT + 0.002, LNG, orderId);
+        broadcaster.flushFrames();
+
+        ArgumentCaptor<Message<?>> sent = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate).send(eq(orderTopic()), sent.capture());
+        String json = new String((byte[]) sent.getValue().getPayload(), StandardCharsets.UTF_8);
+        assertThat(json).contains("\"lat\":" + (LAT + 0.002)).contains(driverId.toString());
+        assertThat(meterRegistry.counter("websocket.location.suppressed.coalesced").count()).isEqualTo(2.0);
+        assertThat(meterRegistry.counter("websocket.location.frames.out").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_sharedFrame_isSerializedOnceForAllDestinations() {
+        subscribe("s1", "sub-0", orderTopic());
+        subscribe("s2", "sub-0", driverTopic());
+
+        broadcaster.offer(driverId, LAT, LNG, orderId);
+        broadcaster.flushFrames();
+
+        ArgumentCaptor<Message<?>> sent = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate, times(2)).send(anyString(), sent.capture());
+        List<Message<?>> messages = sent.getAllValues();
+        assertThat(messages.get(0).getPayload()).isSameAs(messages.get(1).getPayload());
+    }
+
+    @Test
+    void offer_belowDistanceThreshold_isSuppressed() {
+        subscribe("s1", "sub-0", orderTopic());
+        broadcaster.offer(driverId, LAT, LNG, orderId);
+        broadcaster.flushFrames();
+
+        broadcaster.offer(driverId, LAT + 0.00002, LNG, orderId);   // ~2 m
+        broadcaster.flushFrames();
+
+        verify(messagingTemplate, times(1)).send(eq(orderTopic()), any(Message.class));
+        assertThat(meterRegistry.counter("websocket.location.suppressed.stationary").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void wildcardSubscription_receivesDriverTopics() {
+        subscribe("ops", "sub-0", "/topic/drivers.*.location");
+
+        assertThat(broadcaster.hasSubscribers(driverTopic())).isTrue();
+        assertThat(broadcaster.hasSubscribers(orderTopic())).isFalse();
+    }
+
+    @Test
+    void unsubscribeAndDisconnect_releaseSubscriptions() {
+        subscribe("s1", "sub-0", orderTopic());
+        subscribe("s1", "sub-1", driverTopic());
+        subscribe("s2", "sub-0", orderTopic());
+        assertThat(broadcaster.subscriptionCount()).isEqualTo(3);
+
+        subscriptions.onUnsubscribe(new SessionUnsubscribeEvent(this, stomp(StompCommand.UNSUBSCRIBE, "s1", "sub-1", null)));
+        assertThat(broadcaster.hasSubscribers(driverTopic())).isFalse();
+
+        subscriptions.onDisconnect(new SessionDisconnectEvent(this, stomp(StompCommand.DISCONNECT, "s1", null, null),
+                "s1", CloseStatus.NORMAL));
+        assertThat(broadcaster.hasSubscribers(orderTopic())).isTrue();
+
+        subscriptions.onDisconnect(new SessionDisconnectEvent(this, stomp(StompCommand.DISCONNECT, "s2", null, null),
+                "s2", CloseStatus.NORMAL));
+        assertThat(broadcaster.hasSubscribers(orderTopic())).isFalse();
+        assertThat(broadcaster.subscriptionCount()).isZero();
+    }
+
+    @Test
+    void nonLocationTopics_areNotCountedAsLocationSubscriptions() {
+        subscribe("s1", "sub-0", "/topic/orders." + orderId);
+
+        assertThat(broadcaster.subscriptionCount()).isZero();
+        assertThat(subscriptions.hasLocalSubscribers("/topic/orders." + orderId)).isTrue();
+    }
+
+    @Test
+    void remoteSubscribers_keepTopicWatched() {
+        subscriptions.setRemoteSubscriptions(destination -> destination.equals(orderTopic()));
+
+        broadcaster.offer(driverId, LAT, LNG, orderId);
+        broadcaster.flushFrames();
+
+        verify(messagingTemplate).send(eq(orderTopic()), any(Message.class));
+        verify(messagingTemplate, never()).send(eq(driverTopic()), any(Message.class));
+    }
+
+    @Test
+    void lastLocalUnsubscribe_dropsPendingFrame() {
+        subscribe("s1", "sub-0", orderTopic());
+        broadcaster.offer(driverId, LAT, LNG, orderId);
+
+        subscriptions.onUnsubscribe(new SessionUnsubscribeEvent(this, stomp(StompCommand.UNSUBSCRIBE, "s1", "sub-0", null)));
+        broadcaster.flushFrames();
+
+        verifyNoInteractions(messagingTemplate);
+    }
+}
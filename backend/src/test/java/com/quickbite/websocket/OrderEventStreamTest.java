@@ -0,0 +1,120 @@
+package com.quickbite.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.quickbite.orders.entity.Order;
+import com.quickbite.orders.entity.OrderStatus;
+import com.quickbite.orders.repository.OrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for OrderEventStream connection setup against concurrent broker traffic.
+ */
+@ExtendWith(MockitoExtension.class)
+class OrderEventStreamTest {
+
+    @Mock
+    private StompSubscriptionRegistry subscriptionRegistry;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private MessageChannel brokerChannel;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OrderEventStream stream;
+    private UUID orderId;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        stream = new OrderEventStream(subscriptionRegistry, orderRepository,
+                new ObjectMapper().registerModule(new JavaTimeModule()), transactionManager, meterRegistry);
+        ReflectionTestUtils.setField(stream, "bufferSize", 16);
+        ReflectionTestUtils.setField(stream, "timeoutMillis", 60_000L);
+        ReflectionTestUtils.setField(stream, "sendThreads", 1);
+        stream.start();
+        orderId = UUID.randomUUID();
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        stream.stop();
+    }
+
+    private Message<byte[]> orderMessage(String json) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination("/topic/orders." + orderId);
+        return MessageBuilder.createMessage(json.getBytes(StandardCharsets.UTF_8), accessor.getMessageHeaders());
+    }
+
+    private double sent() {
+        return meterRegistry.counter("sse.order-events.sent").count();
+    }
+
+    @Test
+    void open_readsSnapshotWithoutBlockingBrokerAndReplaysEventsPublishedMeanwhile() throws Exception {
+        Order order = Order.builder().id(orderId).status(OrderStatus.PREPARING).build();
+        when(orderRepository.findDetailById(orderId)).thenAnswer(invocation -> {
+            // The broker thread publishes while the snapshot is being read; it must not wait on open()
+            CompletableFuture.runAsync(() -> stream.postSend(
+                            orderMessage("{\"status\":\"READY\"}"), brokerChannel, true))
+                    .get(2, TimeUnit.SECONDS);
+            return Optional.of(order);
+        });
+
+        stream.open(orderId, null);
+
+        long deadline = System.currentTimeMillis() + 2_000;
+        while (sent() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(sent()).isEqualTo(2);
+        assertThat(meterRegistry.counter("sse.order-events.snapshots").count()).isEqualTo(1);
+    }
+
+    @Test
+    void open_withBufferedLastEventId_replaysWithoutSnapshot() throws Exception {
+        when(orderRepository.findDetailById(orderId)).thenReturn(Optional.empty());
+        stream.open(orderId, null);
+        stream.postSend(orderMessage("{\"status\":\"READY\"}"), brokerChannel, true);
+        stream.postSend(orderMessage("{\"status\":\"PICKED_UP\"}"), brokerChannel, true);
+        String epoch = ReflectionTestUtils.getField(
+                ((Map<?, ?>) ReflectionTestUtils.getField(stream, "channels")).get(orderId), "epoch").toString();
+
+        stream.open(orderId, epoch + ":1");
+
+        assertThat(meterRegistry.counter("sse.order-events.replays").count()).isEqualTo(1);
+        verify(orderRepository, times(1)).findDetailById(orderId);
+    }
+}
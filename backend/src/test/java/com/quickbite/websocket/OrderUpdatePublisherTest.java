@@ -0,0 +1,119 @@
+package com.quickbite.websocket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quickbite.orders.driver.AvailableOrderIndex;
+import com.quickbite.orders.entity.Order;
+import com.quickbite.orders.entity.OrderStatus;
+import com.quickbite.orders.repository.OrderRepository;
+import com.quickbite.vendors.entity.Vendor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for OrderUpdatePublisher (one DTO and one encoding per update, vendor frame wrapping).
+ */
+@ExtendWith(MockitoExtension.class)
+class OrderUpdatePublisherTest {
+
+    @Mock
+    private StompOutbound outbound;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private DriverLocationBroadcaster driverLocationBroadcaster;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private OrderUpdatePublisher publisher;
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        LocalVendorOrderLog orderLog = new LocalVendorOrderLog(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(orderLog, "bufferSize", 10);
+        VendorOrderStream vendorOrderStream = new VendorOrderStream(orderLog, orderRepository, transactionManager,
+                new SimpleMeterRegistry());
+        publisher = new OrderUpdatePublisher(outbound, objectMapper, vendorOrderStream, driverLocationBroadcaster);
+        order = Order.builder()
+                .id(UUID.randomUUID())
+                .vendor(Vendor.builder().id(UUID.randomUUID()).build())
+                .status(OrderStatus.PREPARING)
+                .totalCents(1950L)
+                .build();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void publishOrderUpdate_embedsTheSameJsonInTheVendorEvent() throws Exception {
+        publisher.publishOrderUpdate(order);
+
+        ArgumentCaptor<byte[]> json = ArgumentCaptor.forClass(byte[].class);
+        ArgumentCaptor<List<String>> destinations = ArgumentCaptor.forClass(List.class);
+        verify(outbound, times(2)).publish(json.capture(), destinations.capture());
+
+        assertThat(destinations.getAllValues()).containsExactly(
+                List.of("/topic/orders." + order.getId()),
+                List.of("/topic/vendors." + order.getVendor().getId() + ".orders"));
+        JsonNode update = objectMapper.readTree(json.getAllValues().get(0));
+        assertThat(update.get("status").asText()).isEqualTo("PREPARING");
+
+        JsonNode event = objectMapper.readTree(json.getAllValues().get(1));
+        assertThat(event.get("vendorId").asText()).isEqualTo(order.getVendor().getId().toString());
+        assertThat(event.get("seq").asLong()).isEqualTo(1);
+        assertThat(event.get("epoch").asText()).isNotBlank();
+        assertThat(event.get("order")).isEqualTo(update);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void publishDriverOrderAssignment_sendsOneEncodingToOrderAndDriverTopics() {
+        UUID driverId = UUID.randomUUID();
+
+        publisher.publishDriverOrderAssignment(driverId, order);
+
+        ArgumentCaptor<List<String>> destinations = ArgumentCaptor.forClass(List.class);
+        verify(outbound, times(1)).publish(any(byte[].class), destinations.capture());
+        assertThat(destinations.getValue())
+                .containsExactly("/topic/orders." + order.getId(), "/topic/drivers." + driverId);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void publishAvailableOrderChange_encodesOnceForAllDrivers() {
+        List<UUID> drivers = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+
+        publisher.publishAvailableOrderChange(drivers,
+                new AvailableOrderIndex.Change(AvailableOrderIndex.ChangeType.REMOVED, order.getId(), null));
+
+        ArgumentCaptor<List<String>> destinations = ArgumentCaptor.forClass(List.class);
+        verify(outbound, times(1)).publish(any(byte[].class), destinations.capture());
+        assertThat(destinations.getValue()).hasSize(3).allMatch(d -> d.endsWith(".available"));
+    }
+
+    @Test
+    void publishAvailableOrderChange_noDrivers_publishesNothing() {
+        publisher.publishAvailableOrderChange(List.of(),
+                new AvailableOrderIndex.Change(AvailableOrderIndex.ChangeType.REMOVED, order.getId(), null));
+
+        verify(outbound, never()).publish(any(byte[].class), anyList());
+    }
+}
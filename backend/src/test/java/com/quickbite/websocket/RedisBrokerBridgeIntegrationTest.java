@@ -0,0 +1,189 @@
+package com.quickbite.websocket;
+
+import com.quickbite.Application;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Two application nodes sharing one Redis (websocket.broker.mode=redis): a STOMP client on
+ * node A receives what node B publishes, exactly once, and nodes without subscribers are
+ * not sent anything.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class RedisBrokerBridgeIntegrationTest {
+
+    @Container
+    static final GenericContainer<?> REDIS = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:13");
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    private StompSession session;
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = startNode();
+        nodeB = startNode();
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        if (nodeA != null) nodeA.close();
+        if (nodeB != null) nodeB.close();
+    }
+
+    @AfterEach
+    void disconnect() {
+        if (session != null && session.isConnected()) {
+            session.disconnect();
+        }
+    }
+
+    private static ConfigurableApplicationContext startNode() {
+        // Command-line arguments, so they win over application-localtest.properties
+        return new SpringApplicationBuilder(Application.class)
+                .profiles("localtest")
+                .run("--server.port=0",
+                        "--spring.datasource.url=" + POSTGRES.getJdbcUrl(),
+                        "--spring.datasource.username=" + POSTGRES.getUsername(),
+                        "--spring.datasource.password=" + POSTGRES.getPassword(),
+                        "--spring.autoconfigure.exclude=",
+                        "--spring.data.redis.host=" + REDIS.getHost(),
+                        "--spring.data.redis.port=" + REDIS.getMappedPort(6379),
+                        "--websocket.broker.mode=redis");
+    }
+
+    private static int port(ConfigurableApplicationContext node) {
+        return ((WebServerApplicationContext) node).getWebServer().getPort();
+    }
+
+    private static void send(ConfigurableApplicationContext node, String destination, Object payload) {
+        node.getBean(SimpMessagingTemplate.class).convertAndSend(destination, payload);
+    }
+
+    private static double received(ConfigurableApplicationContext node) {
+        return node.getBean(MeterRegistry.class).counter("websocket.broker.redis.received").count();
+    }
+
+    private BlockingQueue<Map<String, Object>> subscribe(ConfigurableApplicationContext node, String destination) throws Exception {
+        WebSocketStompClient client = new WebSocketStompClient(new StandardWebSocketClient());
+        client.setMessageConverter(new MappingJackson2MessageConverter());
+        session = client.connectAsync("ws://localhost:" + port(node) + "/ws-native", new StompSessionHandlerAdapter() {
+        }).get(10, TimeUnit.SECONDS);
+
+        BlockingQueue<Map<String, Object>> frames = new LinkedBlockingQueue<>();
+        session.subscribe(destination, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return Map.class;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public void handleFrame(StompHeaders headers, Object payload) {
+                frames.add((Map<String, Object>) payload);
+            }
+        });
+        return frames;
+    }
+
+    /** Publish probes from {@code node} until the subscriber sees one (the Redis SUBSCRIBE is asynchronous). */
+    private static void awaitBridged(ConfigurableApplicationContext node, String destination,
+                                     BlockingQueue<Map<String, Object>> frames) throws InterruptedException {
+        for (int attempt = 0; attempt < 50; attempt++) {
+            send(node, destination, Map.of("probe", attempt));
+            if (frames.poll(200, TimeUnit.MILLISECONDS) != null) {
+                Thread.sleep(300);
+                frames.clear();
+                return;
+            }
+        }
+        fail("No message for %s reached the subscriber", destination);
+    }
+
+    @Test
+    void messagePublishedOnOtherNode_isDeliveredOnce() throws Exception {
+        String destination = "/topic/orders." + UUID.randomUUID();
+        BlockingQueue<Map<String, Object>> frames = subscribe(nodeA, destination);
+        awaitBridged(nodeB, destination, frames);
+        double receivedOnB = received(nodeB);
+
+        send(nodeB, destination, Map.of("status", "ENROUTE"));
+        send(nodeA, destination, Map.of("status", "DELIVERED"));
+
+        // The local one may overtake the one that went through Redis
+        List<Object> statuses = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Map<String, Object> frame = frames.poll(5, TimeUnit.SECONDS);
+            assertThat(frame).isNotNull();
+            statuses.add(frame.get("status"));
+        }
+        assertThat(statuses).containsExactlyInAnyOrder("ENROUTE", "DELIVERED");
+        assertThat(frames.poll(500, TimeUnit.MILLISECONDS)).isNull();
+        // Node B has no subscriber, so Redis forwarded nothing to it
+        assertThat(received(nodeB)).isEqualTo(receivedOnB);
+    }
+
+    @Test
+    void wildcardSubscription_receivesMatchingTopics() throws Exception {
+        BlockingQueue<Map<String, Object>> frames = subscribe(nodeA, "/topic/drivers.*.location");
+        String destination = "/topic/drivers." + UUID.randomUUID() + ".location";
+        awaitBridged(nodeB, destination, frames);
+
+        send(nodeB, "/topic/drivers." + UUID.randomUUID() + ".location", Map.of("lat", 12.97));
+
+        assertThat(frames.poll(5, TimeUnit.SECONDS)).containsEntry("lat", 12.97);
+        assertThat(frames.poll(500, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void topicWithoutSubscribers_isColdUntilSomeoneSubscribes() throws Exception {
+        String destination = "/topic/orders." + UUID.randomUUID() + ".location";
+        StompSubscriptionRegistry registryB = nodeB.getBean(StompSubscriptionRegistry.class);
+        assertThat(registryB.hasSubscribers(destination)).isTrue();
+
+        send(nodeB, destination, Map.of("lat", 1.0));
+        assertThat(registryB.hasSubscribers(destination)).isFalse();
+
+        subscribe(nodeA, destination);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!registryB.hasSubscribers(destination) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(registryB.hasSubscribers(destination)).isTrue();
+    }
+}
@@ -0,0 +1,105 @@
+package com.quickbite.websocket;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for StompOutbound (shared payloads, ordering, bounded queue).
+ * The sender thread is not started; {@code drain()} sends on the test thread.
+ */
+@ExtendWith(MockitoExtension.class)
+class StompOutboundTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private StompOutbound outbound;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        outbound = new StompOutbound(messagingTemplate, meterRegistry, 2);
+    }
+
+    private static byte[] json(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void drain_sendsTheSameBytesToEveryDestination() {
+        byte[] payload = json("{\"status\":\"READY\"}");
+        outbound.publish(payload, List.of("/topic/orders.1", "/topic/drivers.2"));
+
+        assertThat(meterRegistry.get("websocket.outbound.queue").gauge().value()).isEqualTo(1.0);
+        outbound.drain();
+
+        ArgumentCaptor<Message<?>> sent = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate, times(2)).send(anyString(), sent.capture());
+        assertThat(sent.getAllValues()).allSatisfy(message -> {
+            assertThat(message.getPayload()).isSameAs(payload);
+            assertThat(message.getHeaders().get(MessageHeaders.CONTENT_TYPE)).isEqualTo(MimeTypeUtils.APPLICATION_JSON);
+        });
+        assertThat(meterRegistry.counter("websocket.outbound.sent").count()).isEqualTo(2.0);
+        assertThat(meterRegistry.timer("websocket.outbound.latency").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("websocket.outbound.queue").gauge().value()).isZero();
+    }
+
+    @Test
+    void drain_keepsPublishOrder() {
+        outbound.publish(json("{\"status\":\"ENROUTE\"}"), List.of("/topic/orders.1"));
+        outbound.publish(json("{\"status\":\"DELIVERED\"}"), List.of("/topic/orders.1"));
+
+        outbound.drain();
+
+        InOrder inOrder = inOrder(messagingTemplate);
+        inOrder.verify(messagingTemplate).send(eq("/topic/orders.1"),
+                argThat((Message<?> m) -> new String((byte[]) m.getPayload(), StandardCharsets.UTF_8).contains("ENROUTE")));
+        inOrder.verify(messagingTemplate).send(eq("/topic/orders.1"),
+                argThat((Message<?> m) -> new String((byte[]) m.getPayload(), StandardCharsets.UTF_8).contains("DELIVERED")));
+    }
+
+    @Test
+    void publish_whenFull_dropsWithoutBlocking() {
+        assertThat(outbound.publish(json("{}"), List.of("/topic/orders.1"))).isTrue();
+        assertThat(outbound.publish(json("{}"), List.of("/topic/orders.2"))).isTrue();
+        assertThat(outbound.publish(json("{}"), List.of("/topic/orders.3"))).isFalse();
+
+        outbound.drain();
+
+        verify(messagingTemplate, never()).send(eq("/topic/orders.3"), any(Message.class));
+        assertThat(meterRegistry.counter("websocket.outbound.dropped").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void send_brokerFailure_isCountedAndDoesNotStopTheRest() {
+        doThrow(new IllegalStateException("broker down")).doNothing()
+                .when(messagingTemplate).send(anyString(), any(Message.class));
+        outbound.publish(json("{}"), List.of("/topic/orders.1", "/topic/orders.2"));
+
+        outbound.drain();
+
+        verify(messagingTemplate).send(eq("/topic/orders.2"), any(Message.class));
+        assertThat(meterRegistry.counter("websocket.outbound.failed").count()).isEqualTo(1.0);
+    }
+}
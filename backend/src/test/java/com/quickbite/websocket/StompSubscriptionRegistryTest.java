@@ -0,0 +1,100 @@
+package com.quickbite.websocket;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for StompSubscriptionRegistry (first/last listener callbacks, pattern matching).
+ */
+class StompSubscriptionRegistryTest {
+
+    private StompSubscriptionRegistry registry;
+    private final List<String> events = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        registry = new StompSubscriptionRegistry();
+        registry.addListener(new StompSubscriptionRegistry.Listener() {
+            @Override
+            public void firstSubscribed(String destination) {
+                events.add("+" + destination);
+            }
+
+            @Override
+            public void lastUnsubscribed(String destination) {
+                events.add("-" + destination);
+            }
+        });
+    }
+
+    private static Message<byte[]> stomp(StompCommand command, String sessionId, String subscriptionId, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        if (destination != null) {
+            accessor.setDestination(destination);
+        }
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private void subscribe(String sessionId, String subscriptionId, String destination) {
+        registry.onSubscribe(new SessionSubscribeEvent(this, stomp(StompCommand.SUBSCRIBE, sessionId, subscriptionId, destination)));
+    }
+
+    private void disconnect(String sessionId) {
+        registry.onDisconnect(new SessionDisconnectEvent(this, stomp(StompCommand.DISCONNECT, sessionId, null, null),
+                sessionId, CloseStatus.NORMAL));
+    }
+
+    @Test
+    void listeners_hearFirstAndLastSubscriptionOnly() {
+        subscribe("s1", "sub-0", "/topic/orders.1");
+        subscribe("s2", "sub-0", "/topic/orders.1");
+        disconnect("s1");
+        disconnect("s2");
+
+        assertThat(events).containsExactly("+/topic/orders.1", "-/topic/orders.1");
+    }
+
+    @Test
+    void localSubscription_prefersExactThenMostSpecificPattern() {
+        subscribe("s1", "sub-0", "/topic/drivers.*.location");
+        subscribe("s1", "sub-1", "/topic/drivers.**");
+
+        assertThat(registry.localSubscription("/topic/drivers.7.location")).isEqualTo("/topic/drivers.*.location");
+
+        subscribe("s2", "sub-0", "/topic/drivers.7.location");
+        assertThat(registry.localSubscription("/topic/drivers.7.location")).isEqualTo("/topic/drivers.7.location");
+        assertThat(registry.localSubscription("/topic/orders.7")).isNull();
+    }
+
+    @Test
+    void nonTopicDestinations_areIgnored() {
+        subscribe("s1", "sub-0", "/user/queue/errors");
+
+        assertThat(events).isEmpty();
+        assertThat(registry.destinations()).isEmpty();
+    }
+
+    @Test
+    void hasSubscribers_consultsRemoteView() {
+        assertThat(registry.hasSubscribers("/topic/orders.1")).isFalse();
+
+        registry.setRemoteSubscriptions(destination -> true);
+
+        assertThat(registry.hasSubscribers("/topic/orders.1")).isTrue();
+        assertThat(registry.hasLocalSubscribers("/topic/orders.1")).isFalse();
+    }
+}
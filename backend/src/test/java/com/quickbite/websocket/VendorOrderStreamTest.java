@@ -0,0 +1,141 @@
+package com.quickbite.websocket;
+
+import com.quickbite.orders.entity.Order;
+import com.quickbite.orders.entity.OrderStatus;
+import com.quickbite.orders.repository.OrderRepository;
+import com.quickbite.websocket.OrderUpdatePublisher.OrderUpdateDTO;
+import com.quickbite.websocket.VendorOrderStream.VendorOrderEvent;
+import com.quickbite.websocket.VendorOrderStream.VendorOrderReplay;
+import com.quickbite.websocket.VendorOrderStream.VendorOrderSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for VendorOrderStream over the in-process log (sequencing, replay window, snapshots).
+ */
+@ExtendWith(MockitoExtension.class)
+class VendorOrderStreamTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private VendorOrderStream stream;
+    private UUID vendorId;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        LocalVendorOrderLog orderLog = new LocalVendorOrderLog(meterRegistry);
+        ReflectionTestUtils.setField(orderLog, "bufferSize", 3);
+        ReflectionTestUtils.setField(orderLog, "idleMinutes", 360L);
+        stream = new VendorOrderStream(orderLog, orderRepository, transactionManager, meterRegistry);
+        vendorId = UUID.randomUUID();
+    }
+
+    private OrderUpdateDTO update(UUID orderId, OrderStatus status) {
+        return OrderUpdateDTO.builder().orderId(orderId).status(status).build();
+    }
+
+    @Test
+    void append_assignsIncreasingSequencePerVendor() {
+        VendorOrderEvent first = stream.append(vendorId, update(UUID.randomUUID(), OrderStatus.PLACED));
+        VendorOrderEvent second = stream.append(vendorId, update(UUID.randomUUID(), OrderStatus.PLACED));
+        VendorOrderEvent otherVendor = stream.append(UUID.randomUUID(), update(UUID.randomUUID(), OrderStatus.PLACED));
+
+        assertThat(first.seq()).isEqualTo(1);
+        assertThat(second.seq()).isEqualTo(2);
+        assertThat(second.epoch()).isEqualTo(first.epoch());
+        assertThat(otherVendor.seq()).isEqualTo(1);
+    }
+
+    @Test
+    void since_withinBuffer_returnsOnlyMissedEvents() {
+        VendorOrderEvent first = stream.append(vendorId, update(UUID.randomUUID(), OrderStatus.PLACED));
+        stream.append(vendorId, update(UUID.randomUUID(), OrderStatus.PLACED));
+        stream.append(vendorId, update(UUID.randomUUID(), OrderStatus.ACCEPTED));
+
+        VendorOrderReplay replay = stream.since(vendorId, first.epoch(), 1);
+
+        assertThat(replay.resync()).isFalse();
+        assertThat(replay.seq()).isEqualTo(3);
+        assertThat(replay.events()).extracting(VendorOrderEvent::seq).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void since_upToDate_returnsNoEvents() {
+        VendorOrderEvent last = stream.append(vendorId, update(UUID.randomUUID(), OrderStatus.PLACED));
+
+        VendorOrderReplay replay = stream.since(vendorId, last.epoch(), last.seq());
+
+        assertThat(replay.resync()).isFalse();
+        assertThat(replay.events()).isEmpty();
+    }
+
+    @Test
+    void since_gapOlderThanBuffer_requestsResync() {
+        VendorOrderEvent first = stream.append(vendorId, update(UUID.randomUUID(), OrderStatus.PLACED));
+        for (int i = 0; i < 4; i++) {
+            stream.append(vendorId, update(UUID.randomUUID(), OrderStatus.PLACED));
+        }
+
+        // Buffer holds seq 3..5; a client at seq 1 missed seq 2
+        VendorOrderReplay replay = stream.since(vendorId, first.epoch(), 1);
+
+        assertThat(replay.resync()).isTrue();
+        assertThat(replay.events()).isEmpty();
+        assertThat(stream.since(vendorId, first.epoch(), 2).resync()).isFalse();
+    }
+
+    @Test
+    void since_unknownEpoch_requestsResync() {
+        stream.append(vendorId, update(UUID.randomUUID(), OrderStatus.PLACED));
+
+        assertThat(stream.since(vendorId, "stale-epoch", 1).resync()).isTrue();
+    }
+
+    @Test
+    void snapshot_readsOrdersTableAtCurrentLogPosition() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        Order placed = new Order();
+        placed.setId(UUID.randomUUID());
+        placed.setStatus(OrderStatus.PLACED);
+        Order preparing = new Order();
+        preparing.setId(UUID.randomUUID());
+        preparing.setStatus(OrderStatus.PREPARING);
+        when(orderRepository.findDetailByVendorIdAndStatusInOrderByCreatedAtAsc(eq(vendorId), any()))
+                .thenReturn(List.of(placed, preparing))
+                .thenReturn(List.of(placed));
+
+        VendorOrderSnapshot initial = stream.snapshot(vendorId);
+        assertThat(initial.seq()).isZero();
+        assertThat(initial.orders()).extracting(OrderUpdateDTO::getOrderId)
+                .containsExactly(placed.getId(), preparing.getId());
+
+        stream.append(vendorId, update(preparing.getId(), OrderStatus.PICKED_UP));
+
+        // Every snapshot reads the table, so an instance that relayed nothing is never stale
+        VendorOrderSnapshot next = stream.snapshot(vendorId);
+        assertThat(next.seq()).isEqualTo(1);
+        assertThat(next.epoch()).isEqualTo(initial.epoch());
+        assertThat(next.orders()).extracting(OrderUpdateDTO::getOrderId).containsExactly(placed.getId());
+        verify(orderRepository, times(2)).findDetailByVendorIdAndStatusInOrderByCreatedAtAsc(eq(vendorId), any());
+    }
+}
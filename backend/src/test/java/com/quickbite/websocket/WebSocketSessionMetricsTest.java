@@ -0,0 +1,130 @@
+package com.quickbite.websocket;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for WebSocketSessionMetrics (session, subscription and queue gauges, overflow counter).
+ */
+class WebSocketSessionMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private StompSubscriptionRegistry subscriptionRegistry;
+    private ThreadPoolTaskExecutor inbound;
+    private ThreadPoolTaskExecutor outbound;
+    private WebSocketSessionMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        subscriptionRegistry = new StompSubscriptionRegistry();
+        inbound = executor();
+        outbound = executor();
+        metrics = new WebSocketSessionMetrics(subscriptionRegistry, inbound, outbound, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        inbound.shutdown();
+        outbound.shutdown();
+    }
+
+    private static ThreadPoolTaskExecutor executor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.initialize();
+        return executor;
+    }
+
+    private static Message<byte[]> stomp(StompCommand command, String sessionId, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setSessionId(sessionId);
+        if (destination != null) {
+            accessor.setSubscriptionId("sub-0");
+            accessor.setDestination(destination);
+        }
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private void connect(String sessionId) {
+        metrics.onConnected(new SessionConnectedEvent(this, stomp(StompCommand.CONNECTED, sessionId, null)));
+    }
+
+    private void disconnect(String sessionId, CloseStatus status) {
+        metrics.onDisconnect(new SessionDisconnectEvent(this, stomp(StompCommand.DISCONNECT, sessionId, null),
+                sessionId, status));
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+
+    @Test
+    void sessions_areCountedOnceEvenWhenDisconnectRepeats() {
+        connect("s1");
+        connect("s2");
+        assertThat(gauge("websocket.sessions")).isEqualTo(2.0);
+
+        disconnect("s1", CloseStatus.NORMAL);
+        disconnect("s1", CloseStatus.NORMAL);
+
+        assertThat(gauge("websocket.sessions")).isEqualTo(1.0);
+    }
+
+    @Test
+    void sessionClosedForSlowSend_countsAsOverflow() {
+        connect("s1");
+        connect("s2");
+
+        disconnect("s1", CloseStatus.SESSION_NOT_RELIABLE);
+        disconnect("s1", CloseStatus.SESSION_NOT_RELIABLE);
+        disconnect("s2", CloseStatus.NORMAL);
+
+        assertThat(meterRegistry.counter("websocket.sessions.send_buffer_overflows").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void subscriptions_reflectTheRegistry() {
+        subscriptionRegistry.onSubscribe(new SessionSubscribeEvent(this,
+                stomp(StompCommand.SUBSCRIBE, "s1", "/topic/orders.1")));
+
+        assertThat(gauge("websocket.subscriptions")).isEqualTo(1.0);
+    }
+
+    @Test
+    void channelQueues_reportFramesWaitingForAThread() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+        outbound.execute(() -> {
+            running.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        running.await();
+        outbound.execute(() -> { });
+        outbound.execute(() -> { });
+
+        assertThat(gauge("websocket.channel.outbound.queue")).isEqualTo(2.0);
+        assertThat(gauge("websocket.channel.inbound.queue")).isZero();
+        release.countDown();
+    }
+}
@@ -0,0 +1,52 @@
+package com.quickbite.wsload;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Millisecond-resolution latency histogram, safe to record into from the client's receive
+ * threads. Fixed size, so millions of deliveries cost no more memory than a few; values past
+ * {@link #MAX_MILLIS} land in the last bucket.
+ */
+final class LatencyHistogram {
+
+    static final int MAX_MILLIS = 60_000;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(MAX_MILLIS + 1);
+    private final LongAdder count = new LongAdder();
+
+    void record(long millis) {
+        buckets.incrementAndGet((int) Math.max(0, Math.min(millis, MAX_MILLIS)));
+        count.increment();
+    }
+
+    long count() {
+        return count.sum();
+    }
+
+    /** Smallest latency at or below which {@code p} percent of the recorded values fall; -1 when empty. */
+    long percentile(double p) {
+        long total = count();
+        if (total == 0) {
+            return -1;
+        }
+        long rank = Math.max(1, (long) Math.ceil(p / 100.0 * total));
+        long seen = 0;
+        for (int millis = 0; millis <= MAX_MILLIS; millis++) {
+            seen += buckets.get(millis);
+            if (seen >= rank) {
+                return millis;
+            }
+        }
+        return MAX_MILLIS;
+    }
+
+    String summary() {
+        if (count() == 0) {
+            return "n/a";
+        }
+        return String.format(Locale.ROOT, "p50 %d  p90 %d  p99 %d  p99.9 %d  max %d (ms, %d deliveries)",
+                percentile(50), percentile(90), percentile(99), percentile(99.9), percentile(100), count());
+    }
+}
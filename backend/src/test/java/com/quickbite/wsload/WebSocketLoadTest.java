@@ -0,0 +1,534 @@
+package com.quickbite.wsload;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quickbite.auth.security.JwtTokenProvider;
+import com.quickbite.orders.entity.Order;
+import com.quickbite.orders.entity.OrderStatus;
+import com.quickbite.orders.repository.OrderRepository;
+import com.quickbite.users.entity.Role;
+import com.quickbite.users.entity.User;
+import com.quickbite.users.repository.RoleRepository;
+import com.quickbite.users.repository.UserRepository;
+import com.quickbite.vendors.entity.Vendor;
+import com.quickbite.vendors.repository.VendorRepository;
+import com.quickbite.websocket.OrderUpdatePublisher;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Push load harness: opens {@code ws.sessions} connections — STOMP sessions on
+ * {@code /ws-native} with a JWT on CONNECT, or with {@code ws.transport=sse} SSE streams on
+ * {@code GET /api/orders/{id}/events} opened with a single-use ticket the way a browser
+ * EventSource would, the ticket posted for with the JWT just before — each watching
+ * one order's status and driver location, then drives publish load through the real
+ * {@link OrderUpdatePublisher} and reports end-to-end delivery latency, heap and CPU per
+ * connection and the server's WebSocket / SSE gauges.
+ * <p>
+ * Tagged {@code ws-load}, so it only runs with the {@code ws-load} Maven profile:
+ * <pre>
+ * mvn test -Pws-load -Dws.sessions=10000 -Dws.publish-per-second=500
+ * mvn test -Pws-load -Dws.sessions=10000 -Dws.publish-per-second=500 -Dws.transport=sse
+ * </pre>
+ * See {@link WsLoadSettings} for the parameters. The report is printed and written to
+ * {@code target/ws-load/}.
+ * <p>
+ * Latency is measured from the timestamp in the payload — the order's {@code updatedAt}, set
+ * just before publishing, and the location frame's {@code timestamp}, set when the position is
+ * offered — to the frame's arrival at the client, so location latency includes the
+ * {@code websocket.location.frame-ms} coalescing delay. Client and server share this JVM, so
+ * heap per connection (growth after GC across connecting, divided by the connections) and CPU
+ * per connection (process CPU time during the publish window) include the client's side: read
+ * them as upper bounds and compare transports run with the same settings. Orders are persisted
+ * once so the SSE endpoint can check access and send the current state; the updates published
+ * afterwards are built in memory with only the fields the publisher puts on the wire.
+ */
+@Tag("ws-load")
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("localtest")
+class WebSocketLoadTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:13");
+
+    private static final WsLoadSettings SETTINGS = WsLoadSettings.fromSystemProperties();
+
+    @DynamicPropertySource
+    static void loadProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("server.tomcat.max-connections", () -> SETTINGS.sessions() + 1_000);
+        registry.add("server.tomcat.accept-count", () -> SETTINGS.connectConcurrency() * 2);
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired private JwtTokenProvider jwtTokenProvider;
+    @Autowired private OrderUpdatePublisher orderUpdatePublisher;
+    @Autowired private RoleRepository roleRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private VendorRepository vendorRepository;
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private MeterRegistry meterRegistry;
+
+    private final Queue<Runnable> disconnects = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger connected = new AtomicInteger();
+    private final AtomicInteger connectFailures = new AtomicInteger();
+    private final LatencyHistogram orderLatency = new LatencyHistogram();
+    private final LatencyHistogram locationLatency = new LatencyHistogram();
+    private final LongAdder orderFrames = new LongAdder();
+    private long expectedOrderFrames;
+    private String customerToken;
+    private WebSocketStompClient stompClient;
+
+    @AfterEach
+    void disconnect() {
+        disconnects.forEach(Runnable::run);
+        if (stompClient != null) {
+            stompClient.stop();
+        }
+    }
+
+    @Test
+    void loadPushConnections() throws Exception {
+        List<UUID> orderIds = seedOrders();
+        List<UUID> driverIds = new ArrayList<>(orderIds.size());
+        for (int i = 0; i < orderIds.size(); i++) {
+            driverIds.add(UUID.randomUUID());
+        }
+        boolean sse = SETTINGS.sse();
+
+        long heapBefore = usedHeapAfterGc();
+        long connectStarted = System.nanoTime();
+        if (sse) {
+            connectSse(orderIds);
+        } else {
+            connectStomp(orderIds);
+        }
+        double connectSeconds = (System.nanoTime() - connectStarted) / 1e9;
+        if (sse) {
+            awaitGauge("sse.order-events.connections", connected.get(), 60);
+        } else {
+            awaitGauge("websocket.subscriptions", 2.0 * connected.get(), 60);
+        }
+        long heapAfter = usedHeapAfterGc();
+
+        ServerPeaks peaks = new ServerPeaks();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(peaks::sample, 0, 100, TimeUnit.MILLISECONDS);
+        double droppedBefore = meterRegistry.counter("websocket.outbound.dropped").count();
+        long cpuBefore = processCpuNanos();
+        long loadStarted = System.nanoTime();
+
+        long published = publishLoad(orderIds, driverIds);
+        double cpuMillisPerSecond = (processCpuNanos() - cpuBefore) / 1e6 / ((System.nanoTime() - loadStarted) / 1e9);
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (orderFrames.sum() < expectedOrderFrames && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        sampler.shutdownNow();
+
+        StringBuilder out = new StringBuilder();
+        line(out, "Push load — %s, %d connections, %d watcher(s) per order, %d publishes/s for %d s",
+                sse ? "SSE" : "STOMP", SETTINGS.sessions(), SETTINGS.watchersPerOrder(),
+                SETTINGS.publishPerSecond(), SETTINGS.seconds());
+        line(out, "");
+        line(out, "Connect           %d connected, %d failed in %.1f s (%d concurrent handshakes)",
+                connected.get(), connectFailures.get(), connectSeconds, SETTINGS.connectConcurrency());
+        line(out, "Heap              %.1f KiB per connection (client and server, after GC)",
+                connected.get() == 0 ? Double.NaN : (heapAfter - heapBefore) / 1024.0 / connected.get());
+        line(out, "CPU               %.0f ms/s while publishing, %.1f µs/s per connection (client and server)",
+                cpuMillisPerSecond, connected.get() == 0 ? Double.NaN : cpuMillisPerSecond * 1_000 / connected.get());
+        line(out, "Order updates     %d published, %d of %d frames delivered, %.0f dropped by the outbound queue",
+                published, orderFrames.sum(), expectedOrderFrames,
+                meterRegistry.counter("websocket.outbound.dropped").count() - droppedBefore);
+        line(out, "Order latency     %s", orderLatency.summary());
+        line(out, "Location latency  %s", locationLatency.summary());
+        if (sse) {
+            line(out, "SSE               connections %.0f, %.0f events written, %.0f location frames coalesced, %.0f overflows",
+                    gauge("sse.order-events.connections"),
+                    meterRegistry.counter("sse.order-events.sent").count(),
+                    meterRegistry.counter("sse.order-events.coalesced").count(),
+                    meterRegistry.counter("sse.order-events.overflows").count());
+        } else {
+            line(out, "Server gauges     sessions %.0f, subscriptions %.0f",
+                    gauge("websocket.sessions"), gauge("websocket.subscriptions"));
+            line(out, "Channel queues    inbound peak %.0f, outbound peak %.0f", peaks.inbound, peaks.outbound);
+            line(out, "Send overflows    %.0f session(s) closed for exceeding the send buffer or time limit",
+                    meterRegistry.counter("websocket.sessions.send_buffer_overflows").count());
+        }
+        line(out, "Publish queue     peak %.0f", peaks.publish);
+
+        String rendered = out.toString();
+        System.out.println(rendered);
+        Path report = Path.of("target", "ws-load", String.format("report-%s-sessions%d-rate%d.txt",
+                sse ? "sse" : "stomp", SETTINGS.sessions(), SETTINGS.publishPerSecond()));
+        Files.createDirectories(report.getParent());
+        Files.writeString(report, rendered);
+
+        assertThat(connected.get()).isEqualTo(SETTINGS.sessions());
+        assertThat(orderFrames.sum()).isPositive();
+    }
+
+    // ── Setup ────────────────────────────────────────────────────────
+
+    private List<UUID> seedOrders() {
+        Role customerRole = roleRepository.findByName("CUSTOMER").orElseThrow();
+        Role vendorRole = roleRepository.findByName("VENDOR").orElseThrow();
+        User customer = userRepository.save(user(customerRole, "customer"));
+        Vendor vendor = vendorRepository.save(Vendor.builder()
+                .user(userRepository.save(user(vendorRole, "vendor")))
+                .name("Load Test Kitchen")
+                .active(true)
+                .build());
+        customerToken = jwtTokenProvider.generateAccessToken(customer.getId(), customer.getEmail(), "CUSTOMER");
+
+        List<UUID> orderIds = new ArrayList<>(SETTINGS.orders());
+        List<Order> batch = new ArrayList<>();
+        for (int i = 0; i < SETTINGS.orders(); i++) {
+            batch.add(Order.builder()
+                    .customer(customer)
+                    .vendor(vendor)
+                    .subtotalCents(1500L)
+                    .deliveryFeeCents(300L)
+                    .taxCents(150L)
+                    .totalCents(1950L)
+                    .status(OrderStatus.PREPARING)
+                    .build());
+            if (batch.size() == 1_000 || i == SETTINGS.orders() - 1) {
+                orderRepository.saveAll(batch).forEach(order -> orderIds.add(order.getId()));
+                batch.clear();
+            }
+        }
+        return orderIds;
+    }
+
+    private static User user(Role role, String kind) {
+        return User.builder()
+                .email("load-" + kind + "-" + UUID.randomUUID() + "@load.test")
+                .passwordHash("{noop}load")
+                .name("Load " + kind)
+                .role(role)
+                .active(true)
+                .build();
+    }
+
+    // ── STOMP ────────────────────────────────────────────────────────
+
+    private void connectStomp(List<UUID> orderIds) throws InterruptedException {
+        stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        String url = "ws://localhost:" + port + "/ws-native";
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + customerToken);
+
+        Semaphore inFlight = new Semaphore(SETTINGS.connectConcurrency());
+        for (int i = 0; i < SETTINGS.sessions(); i++) {
+            UUID orderId = orderIds.get(i / SETTINGS.watchersPerOrder());
+            inFlight.acquire();
+            stompClient.connectAsync(url, new WebSocketHttpHeaders(), connectHeaders, new StompSessionHandlerAdapter() {
+                @Override
+                public void afterConnected(StompSession session, StompHeaders connectedHeaders) {
+                    session.subscribe("/topic/orders." + orderId, new Receiver(orderLatency, "updatedAt", orderFrames));
+                    session.subscribe("/topic/orders." + orderId + ".location", new Receiver(locationLatency, "timestamp", null));
+                }
+            }).whenComplete((session, error) -> {
+                if (error != null) {
+                    connectFailures.incrementAndGet();
+                } else {
+                    connected.incrementAndGet();
+                    disconnects.add(() -> {
+                        if (session.isConnected()) session.disconnect();
+                    });
+                }
+                inFlight.release();
+            });
+        }
+        inFlight.acquire(SETTINGS.connectConcurrency());
+    }
+
+    /** Records the delay between the payload's timestamp field and the frame's arrival. */
+    private record Receiver(LatencyHistogram latency, String timestampField, LongAdder frames) implements StompFrameHandler {
+
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return Map.class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            long receivedAt = System.currentTimeMillis();
+            Object sentAt = ((Map<?, ?>) payload).get(timestampField);
+            if (sentAt != null) {
+                latency.record(receivedAt - OffsetDateTime.parse(sentAt.toString()).toInstant().toEpochMilli());
+            }
+            if (frames != null) {
+                frames.increment();
+            }
+        }
+    }
+
+    // ── SSE ──────────────────────────────────────────────────────────
+
+    private void connectSse(List<UUID> orderIds) throws InterruptedException {
+        HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        Receiver orders = new Receiver(orderLatency, "updatedAt", orderFrames);
+        Receiver locations = new Receiver(locationLatency, "timestamp", null);
+
+        Semaphore inFlight = new Semaphore(SETTINGS.connectConcurrency());
+        for (int i = 0; i < SETTINGS.sessions(); i++) {
+            UUID orderId = orderIds.get(i / SETTINGS.watchersPerOrder());
+            String eventsUrl = "http://localhost:" + port + "/api/orders/" + orderId + "/events";
+            HttpRequest ticketRequest = HttpRequest.newBuilder(URI.create(eventsUrl + "/ticket"))
+                    .header("Authorization", "Bearer " + customerToken)
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build();
+            inFlight.acquire();
+            httpClient.sendAsync(ticketRequest, HttpResponse.BodyHandlers.ofString())
+                    .thenAccept(issued -> {
+                        String ticket = ticket(issued);
+                        if (ticket == null) {
+                            connectFailures.incrementAndGet();
+                            inFlight.release();
+                            return;
+                        }
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(eventsUrl + "?ticket=" + ticket))
+                                .header("Accept", "text/event-stream")
+                                .build();
+                        httpClient.sendAsync(request, HttpResponse.BodyHandlers.fromLineSubscriber(
+                                new SseListener(inFlight, orders, locations)));
+                    })
+                    .exceptionally(e -> {
+                        connectFailures.incrementAndGet();
+                        inFlight.release();
+                        return null;
+                    });
+        }
+        inFlight.acquire(SETTINGS.connectConcurrency());
+    }
+
+    /** The ticket from a ticket response, or null if it was refused. */
+    private String ticket(HttpResponse<String> issued) {
+        if (issued.statusCode() != 200) {
+            return null;
+        }
+        try {
+            String ticket = objectMapper.readTree(issued.body()).at("/data/ticket").asText();
+            return ticket.isEmpty() ? null : ticket;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Parses one event stream. The connection counts as open once the current order state
+     * arrives; that first event is not a publish and is left out of the latency.
+     */
+    private final class SseListener implements Flow.Subscriber<String> {
+        private final Semaphore inFlight;
+        private final Receiver orders;
+        private final Receiver locations;
+        private final AtomicBoolean settled = new AtomicBoolean();
+        private final StringBuilder data = new StringBuilder();
+        private String event;
+
+        private SseListener(Semaphore inFlight, Receiver orders, Receiver locations) {
+            this.inFlight = inFlight;
+            this.orders = orders;
+            this.locations = locations;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            disconnects.add(subscription::cancel);
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (line.isEmpty()) {
+                dispatch();
+                event = null;
+                data.setLength(0);
+            } else if (line.startsWith("event:")) {
+                event = line.substring(6).trim();
+            } else if (line.startsWith("data:")) {
+                data.append(line.substring(5));
+            }
+        }
+
+        private void dispatch() {
+            if (data.isEmpty()) {
+                return;
+            }
+            Map<?, ?> payload;
+            try {
+                payload = objectMapper.readValue(data.toString(), Map.class);
+            } catch (Exception e) {
+                return;
+            }
+            if ("order".equals(event)) {
+                if (settled.compareAndSet(false, true)) {
+                    connected.incrementAndGet();
+                    inFlight.release();
+                } else {
+                    orders.handleFrame(null, payload);
+                }
+            } else if ("location".equals(event)) {
+                locations.handleFrame(null, payload);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            failed();
+        }
+
+        @Override
+        public void onComplete() {
+            failed();
+        }
+
+        /** The stream ended; before its first event that means the request was refused. */
+        private void failed() {
+            if (settled.compareAndSet(false, true)) {
+                connectFailures.incrementAndGet();
+                inFlight.release();
+            }
+        }
+    }
+
+    // ── Load ─────────────────────────────────────────────────────────
+
+    /**
+     * Publish an order update and a location for a random order at the configured rate.
+     *
+     * @return order updates published
+     */
+    private long publishLoad(List<UUID> orderIds, List<UUID> driverIds) {
+        OrderStatus[] statuses = {OrderStatus.PREPARING, OrderStatus.READY, OrderStatus.PICKED_UP, OrderStatus.ENROUTE};
+        long intervalNanos = 1_000_000_000L / SETTINGS.publishPerSecond();
+        long end = System.nanoTime() + SETTINGS.seconds() * 1_000_000_000L;
+        long next = System.nanoTime();
+        long published = 0;
+        while (next < end) {
+            int index = ThreadLocalRandom.current().nextInt(orderIds.size());
+            Order order = Order.builder()
+                    .id(orderIds.get(index))
+                    .status(statuses[(int) (published % statuses.length)])
+                    .totalCents(1_950L)
+                    .updatedAt(OffsetDateTime.now(ZoneOffset.UTC))
+                    .build();
+            orderUpdatePublisher.publishOrderUpdate(order);
+            // The last order may have fewer watchers when sessions don't divide evenly
+            expectedOrderFrames += Math.min(SETTINGS.watchersPerOrder(),
+                    SETTINGS.sessions() - index * SETTINGS.watchersPerOrder());
+            // ~20 m per step, so the stationary filter never swallows a position
+            orderUpdatePublisher.publishDriverLocation(driverIds.get(index),
+                    12.97 + (published % 1_000) * 0.0002, 77.59, order.getId());
+            published++;
+
+            next += intervalNanos;
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+        }
+        return published;
+    }
+
+    // ── Server side ──────────────────────────────────────────────────
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+
+    private void awaitGauge(String name, double atLeast, int seconds) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + seconds * 1_000L;
+        while (gauge(name) < atLeast && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+    }
+
+    /** Highest queue depths seen while load runs; the gauges alone only show the depth at the end. */
+    private final class ServerPeaks {
+        private volatile double inbound;
+        private volatile double outbound;
+        private volatile double publish;
+
+        void sample() {
+            inbound = Math.max(inbound, gauge("websocket.channel.inbound.queue"));
+            outbound = Math.max(outbound, gauge("websocket.channel.outbound.queue"));
+            publish = Math.max(publish, gauge("websocket.outbound.queue"));
+        }
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(200);
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long processCpuNanos() {
+        return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean())
+                .getProcessCpuTime();
+    }
+
+    private static void line(StringBuilder out, String format, Object... args) {
+        out.append(String.format(Locale.ROOT, format, args)).append('\n');
+    }
+}
@@ -0,0 +1,43 @@
+package com.quickbite.wsload;
+
+/**
+ * Knobs for the push load harness, read from system properties so they can be passed on
+ * the Maven command line ({@code mvn test -Pws-load -Dws.sessions=10000}).
+ * <ul>
+ *   <li>{@code ws.transport} — {@code stomp} (STOMP over {@code /ws-native}) or {@code sse}
+ *       ({@code GET /api/orders/{id}/events}); default stomp</li>
+ *   <li>{@code ws.sessions} — connections to open (default 1000)</li>
+ *   <li>{@code ws.watchers-per-order} — connections watching each order, i.e. the
+ *       fan-out of one publish (default 1)</li>
+ *   <li>{@code ws.connect-concurrency} — handshakes in flight at once (default 200)</li>
+ *   <li>{@code ws.publish-per-second} — order updates published per second; each is paired with
+ *       a driver location for the same order (default 200)</li>
+ *   <li>{@code ws.seconds} — how long publish load runs (default 30)</li>
+ * </ul>
+ */
+record WsLoadSettings(boolean sse,
+                      int sessions,
+                      int watchersPerOrder,
+                      int connectConcurrency,
+                      int publishPerSecond,
+                      int seconds) {
+
+    static WsLoadSettings fromSystemProperties() {
+        WsLoadSettings settings = new WsLoadSettings(
+                "sse".equalsIgnoreCase(System.getProperty("ws.transport", "stomp")),
+                Integer.getInteger("ws.sessions", 1000),
+                Integer.getInteger("ws.watchers-per-order", 1),
+                Integer.getInteger("ws.connect-concurrency", 200),
+                Integer.getInteger("ws.publish-per-second", 200),
+                Integer.getInteger("ws.seconds", 30));
+        if (settings.sessions() <= 0 || settings.watchersPerOrder() <= 0 || settings.connectConcurrency() <= 0
+                || settings.publishPerSecond() <= 0 || settings.seconds() <= 0) {
+            throw new IllegalArgumentException("ws.* settings must be positive: " + settings);
+        }
+        return settings;
+    }
+
+    int orders() {
+        return (sessions + watchersPerOrder - 1) / watchersPerOrder;
+    }
+}
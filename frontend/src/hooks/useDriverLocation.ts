@@ -4,6 +4,12 @@
  * Uses navigator.geolocation.watchPosition() to stream the driver's GPS
  * to the backend at ~5 s intervals. Handles consent, accuracy thresholds,
  * and automatic cleanup.
+ *
+ * Every post is also the driver's presence heartbeat: the backend drops a
+ * driver offline after 90 s without one (driver.presence.ttl-seconds).
+ * watchPosition often stays silent while the device is stationary (e.g.
+ * waiting at a restaurant), so the last position is re-sent every
+ * HEARTBEAT_INTERVAL when nothing else was posted.
  */
 
 import { useEffect, useRef, useState, useCallback } from 'react';
@@ -32,6 +38,7 @@ interface UseDriverLocationOptions {
 
 const DEFAULT_SEND_INTERVAL = 5000;
 const DEFAULT_MAX_ACCURACY = 500; // metres — raised for desktop/WiFi-based geolocation
+const HEARTBEAT_INTERVAL = 30000; // a third of the backend presence TTL
 
 export const useDriverLocation = ({
   enabled = false,
@@ -53,6 +60,7 @@ export const useDriverLocation = ({
   const watchIdRef = useRef<number | null>(null);
   const lastSentRef = useRef<number>(0);
   const hasSentOnceRef = useRef<boolean>(false);
+  const lastPositionRef = useRef<GeolocationPosition | null>(null);
   const enabledRef = useRef(enabled);
   enabledRef.current = enabled;
 
@@ -72,9 +80,24 @@ export const useDriverLocation = ({
       });
   }, []);
 
+  const postLocation = useCallback(async (pos: GeolocationPosition) => {
+    try {
+      await driverService.updateLocation(
+        pos.coords.latitude,
+        pos.coords.longitude,
+        pos.coords.accuracy,
+        pos.coords.speed,
+        pos.coords.heading,
+      );
+    } catch (err) {
+      console.error('[useDriverLocation] Failed to post location', err);
+    }
+  }, []);
+
   // Post to backend, throttled by sendInterval
   const sendLocation = useCallback(
     async (pos: GeolocationPosition) => {
+      lastPositionRef.current = pos;
       const now = Date.now();
       // Always send the first sample so the customer sees the driver immediately
       const isFirstSample = !hasSentOnceRef.current;
@@ -85,22 +108,26 @@ export const useDriverLocation = ({
 
       lastSentRef.current = now;
       hasSentOnceRef.current = true;
-
-      try {
-        await driverService.updateLocation(
-          pos.coords.latitude,
-          pos.coords.longitude,
-          pos.coords.accuracy,
-          pos.coords.speed,
-          pos.coords.heading,
-        );
-      } catch (err) {
-        console.error('[useDriverLocation] Failed to post location', err);
-      }
+      await postLocation(pos);
     },
-    [sendInterval, maxAccuracy],
+    [sendInterval, maxAccuracy, postLocation],
   );
 
+  // Presence heartbeat while the device is stationary and watchPosition is quiet
+  useEffect(() => {
+    if (!enabled) {
+      lastPositionRef.current = null;
+      return;
+    }
+    const id = window.setInterval(() => {
+      const pos = lastPositionRef.current;
+      if (!pos || Date.now() - lastSentRef.current < HEARTBEAT_INTERVAL) return;
+      lastSentRef.current = Date.now();
+      postLocation(pos);
+    }, HEARTBEAT_INTERVAL / 3);
+    return () => window.clearInterval(id);
+  }, [enabled, postLocation]);
+
   // Start / stop watchPosition based on enabled flag
   useEffect(() => {
     if (!enabled) {
@@ -2,20 +2,40 @@
  * useVendorOrders — STOMP WebSocket hook for real-time vendor KDS order updates (M4)
  * Falls back to REST polling. Plays audio alert on new PLACED orders.
  * Uses refs for callback stability to prevent reconnection loops.
+ *
+ * Topic messages are sequenced deltas ({ epoch, seq, order }). After a reconnect the hook
+ * asks the stream endpoint for the deltas it missed instead of re-listing all orders;
+ * only when the server reports a resync (restart or gap beyond the replay buffer) does
+ * it fall back to onResync / a full reload.
  */
 
 import { useState, useEffect, useRef, useCallback } from 'react';
 import { Client, StompSubscription } from '@stomp/stompjs';
 import SockJS from 'sockjs-client';
 import { OrderDTO } from '../types';
+import api from '../services/api';
 
 interface UseVendorOrdersOptions {
   vendorId: string | null;
   onNewOrder?: (order: OrderDTO) => void;
   onOrderUpdate?: (order: OrderDTO) => void;
+  onResync?: () => void;
   enabled?: boolean;
 }
 
+interface VendorOrderEvent {
+  epoch: string;
+  seq: number;
+  order: OrderDTO;
+}
+
+interface VendorOrderReplay {
+  epoch: string;
+  seq: number;
+  resync: boolean;
+  events: VendorOrderEvent[];
+}
+
 const USE_WEBSOCKET = import.meta.env.VITE_USE_WEBSOCKET === 'true';
 const WS_URL = import.meta.env.VITE_WS_URL || 'http://localhost:8080/ws';
 
@@ -35,18 +55,22 @@ function getAudioContext(): AudioContext | null {
   }
 }
 
-export function useVendorOrders({ vendorId, onNewOrder, onOrderUpdate, enabled = true }: UseVendorOrdersOptions) {
+export function useVendorOrders({ vendorId, onNewOrder, onOrderUpdate, onResync, enabled = true }: UseVendorOrdersOptions) {
   const [connected, setConnected] = useState(false);
   const clientRef = useRef<Client | null>(null);
   const subRef = useRef<StompSubscription | null>(null);
+  // Last applied stream position; null until the first delta arrives
+  const positionRef = useRef<{ epoch: string; seq: number } | null>(null);
 
   // Stable refs for callbacks — prevents reconnection when parent re-renders
   const onNewOrderRef = useRef(onNewOrder);
   const onOrderUpdateRef = useRef(onOrderUpdate);
+  const onResyncRef = useRef(onResync);
   useEffect(() => {
     onNewOrderRef.current = onNewOrder;
     onOrderUpdateRef.current = onOrderUpdate;
-  }, [onNewOrder, onOrderUpdate]);
+    onResyncRef.current = onResync;
+  }, [onNewOrder, onOrderUpdate, onResync]);
 
   const playAlert = useCallback(() => {
     const ctx = getAudioContext();
@@ -82,6 +106,35 @@ export function useVendorOrders({ vendorId, onNewOrder, onOrderUpdate, enabled =
     }
   }, []);
 
+  const applyEvent = useCallback((event: VendorOrderEvent) => {
+    const position = positionRef.current;
+    if (position && position.epoch === event.epoch && event.seq <= position.seq) return; // already applied
+    positionRef.current = { epoch: event.epoch, seq: event.seq };
+    onOrderUpdateRef.current?.(event.order);
+    if (event.order.status === 'PLACED') {
+      playAlert();
+      onNewOrderRef.current?.(event.order);
+    }
+  }, [playAlert]);
+
+  const resume = useCallback(async () => {
+    const position = positionRef.current;
+    if (!position) return;
+    try {
+      const replay = await api.get<any, VendorOrderReplay>('/vendors/my/orders/stream', {
+        params: { epoch: position.epoch, since: position.seq },
+      });
+      if (replay.resync) {
+        positionRef.current = { epoch: replay.epoch, seq: replay.seq };
+        onResyncRef.current?.();
+        return;
+      }
+      replay.events.forEach(applyEvent);
+    } catch {
+      onResyncRef.current?.();
+    }
+  }, [applyEvent]);
+
   const disconnect = useCallback(() => {
     subRef.current?.unsubscribe();
     subRef.current = null;
@@ -112,15 +165,12 @@ export function useVendorOrders({ vendorId, onNewOrder, onOrderUpdate, enabled =
         setConnected(true);
         const sub = client.subscribe(`/topic/vendors.${vendorId}.orders`, (message) => {
           try {
-            const order: OrderDTO = JSON.parse(message.body);
-            onOrderUpdateRef.current?.(order);
-            if (order.status === 'PLACED') {
-              playAlert();
-              onNewOrderRef.current?.(order);
-            }
+            applyEvent(JSON.parse(message.body) as VendorOrderEvent);
           } catch { /* ignore */ }
         });
         subRef.current = sub;
+        // Catch up on deltas missed while disconnected
+        resume();
       };
 
       client.onStompError = () => setConnected(false);
@@ -131,7 +181,7 @@ export function useVendorOrders({ vendorId, onNewOrder, onOrderUpdate, enabled =
     } catch {
       setConnected(false);
     }
-  }, [vendorId, enabled, disconnect, playAlert]);
+  }, [vendorId, enabled, disconnect, applyEvent, resume]);
 
   useEffect(() => {
     if (USE_WEBSOCKET && enabled && vendorId) {
@@ -79,7 +79,7 @@ export default function AdminReporting() {
       </div>
 
       {loading ? (
-        <SkeletonKpiCards count={7} />
+        <SkeletonKpiCards count={8} />
       ) : kpis ? (
         <>
           {/* KPI Cards */}
@@ -89,6 +89,7 @@ export default function AdminReporting() {
             <KpiCard label="Customers" value={kpis.totalCustomers.toString()} />
             <KpiCard label="Vendors" value={kpis.totalVendors.toString()} />
             <KpiCard label="Drivers" value={kpis.totalDrivers.toString()} />
+            <KpiCard label="Drivers Online" value={kpis.onlineDrivers.toString()} />
             <KpiCard label="Avg Delivery" value={`${kpis.averageDeliveryTime} min`} />
             <KpiCard label="Repeat Rate" value={`${(kpis.repeatOrderRate * 100).toFixed(1)}%`} />
           </div>
@@ -65,6 +65,7 @@ export default function VendorDashboard() {
       loadOrders();
     },
     onOrderUpdate: () => loadOrders(),
+    onResync: () => loadOrders(),
   });
 
   // Load vendor profile
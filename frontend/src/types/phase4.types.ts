@@ -50,6 +50,7 @@ export interface PlatformKpis {
   totalCustomers: number;
   totalVendors: number;
   totalDrivers: number;
+  onlineDrivers: number;
   averageDeliveryTime: number;
   repeatOrderRate: number;
 }